@@ -11,9 +11,16 @@
  */
 package org.eclipse.emf.transaction.multithread.tests;
 
+import java.util.Collections;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+
 
 /**
  * Testcase for testing scheduling of Read operation scenarios
@@ -288,4 +295,91 @@ public class ReadOperationTest
 		}
 		assertTrue(yielded >= 2);
 	}
+
+	/**
+	 *  Tests that read operations sharing the lock run concurrently.
+	 */
+	public void testSharedReads() {
+		TransactionalEditingDomain.DefaultOptions defaults = TransactionUtil
+			.getAdapter(getDomain(), TransactionalEditingDomain.DefaultOptions.class);
+		defaults.setDefaultTransactionOptions(Collections.singletonMap(
+			Transaction.OPTION_SHARED_READ, Boolean.TRUE));
+		
+		Object notifier = new Object();
+		ReadThread readThread1 = new ReadThread(getDomain(), null, notifier);
+		ReadThread readThread2 = new ReadThread(getDomain(), null, notifier);
+
+		synchronized (notifier) {
+			try {
+				readThread1.start();
+				notifier.wait();
+			} catch (InterruptedException e) {
+				// nothing
+			}
+		}
+		synchronized (notifier) {
+			try {
+				readThread2.start();
+				notifier.wait();
+			} catch (InterruptedException e) {
+				// nothing
+			}
+		}
+
+		boolean done = false;
+		while (!done) {
+			try {
+				Thread.sleep(Constants.SLEEP_TIME);
+			} catch (InterruptedException e) {
+				// ignore this exception
+			}
+			if (!readThread1.isAlive() && !readThread2.isAlive())
+				done = true;
+		}
+
+		assertFalse(readThread1.isFailed());
+		assertFalse(readThread2.isFailed());
+		assertTrue(readThread1.isExecuted());
+		assertTrue(readThread2.isExecuted());
+		assertFalse(Constants.occurredBefore(readThread2, readThread1)
+			|| Constants.occurredAfter(readThread2, readThread1));
+	}
+
+	/**
+	 *  Tests that a shared read operation may not nest a write.
+	 */
+	public void testSharedRead_noNestedWrite()
+		throws Exception {
+		
+		final InternalTransactionalEditingDomain domain =
+			(InternalTransactionalEditingDomain) getDomain();
+		Transaction read = domain.startTransaction(true,
+			Collections.singletonMap(Transaction.OPTION_SHARED_READ, Boolean.TRUE));
+		
+		try {
+			assertSame(read, domain.getActiveTransaction());
+			
+			try {
+				domain.startTransaction(false, Collections.singletonMap(
+					Transaction.OPTION_UNPROTECTED, Boolean.TRUE));
+				fail("Should have thrown IllegalStateException"); //$NON-NLS-1$
+			} catch (IllegalStateException e) {
+				// success
+			}
+			
+			// another thread does not see my transaction
+			final Object[] seen = new Object[] {read};
+			Thread t = new Thread(new Runnable() {
+				public void run() {
+					seen[0] = domain.getActiveTransaction();
+				}});
+			t.start();
+			t.join();
+			assertNull(seen[0]);
+		} finally {
+			read.commit();
+		}
+		
+		assertNull(domain.getActiveTransaction());
+	}
 }
@@ -12,14 +12,21 @@
  */
 package org.eclipse.emf.transaction.tests;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.URI;
@@ -40,9 +47,16 @@ import org.eclipse.emf.transaction.RollbackException;
 import org.eclipse.emf.transaction.RunnableWithResult;
 import org.eclipse.emf.transaction.Transaction;
 import org.eclipse.emf.transaction.TransactionalCommandStack;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListener;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.impl.InternalTransaction;
 import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.TransactionImpl;
 import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.tests.fixtures.TestListener;
+import org.eclipse.emf.transaction.util.TransactionUtil;
 
 
 
@@ -158,6 +172,170 @@ public class BasicTransactionTest extends AbstractTest {
 		}
 	}
 	
+	/**
+	 * Tests that an optimistic read runs without a transaction when no other
+	 * thread writes, and runs again in a read-only transaction when another
+	 * thread's read/write transaction intervenes.
+	 */
+	public void test_read_optimistic() {
+		try {
+			final int runs[] = new int[1];
+			
+			// no transaction intervenes
+			RunnableWithResult<Book> rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					runs[0]++;
+					
+					assertNull(((InternalTransactionalEditingDomain) domain).getActiveTransaction());
+					setResult((Book) find("root/Root Book")); //$NON-NLS-1$
+				}};
+			
+			Book book = TransactionUtil.runOptimistic(domain, rwr);
+			
+			assertNotNull(book);
+			assertEquals(1, runs[0]);
+			assertTrue(rwr.getStatus().isOK());
+			
+			// another thread's read does not intervene
+			runs[0] = 0;
+			rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					runs[0]++;
+					
+					Thread t = new Thread(new Runnable() {
+						public void run() {
+							startReading();
+							commit();
+						}});
+					t.start();
+					
+					try {
+						t.join();
+					} catch (InterruptedException e) {
+						fail(e);
+					}
+					
+					setResult((Book) find("root/Root Book")); //$NON-NLS-1$
+				}};
+			
+			assertSame(book, TransactionUtil.runOptimistic(domain, rwr));
+			assertEquals(1, runs[0]);
+			
+			// another thread's write intervenes
+			runs[0] = 0;
+			rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					if (runs[0]++ == 0) {
+						Thread t = new Thread(new Runnable() {
+							public void run() {
+								startWriting();
+								commit();
+							}});
+						t.start();
+						
+						try {
+							t.join();
+						} catch (InterruptedException e) {
+							fail(e);
+						}
+					} else {
+						assertNotNull(((InternalTransactionalEditingDomain) domain).getActiveTransaction());
+					}
+					
+					setResult((Book) find("root/Root Book")); //$NON-NLS-1$
+				}};
+			
+			assertSame(book, TransactionUtil.runOptimistic(domain, rwr));
+			assertEquals(2, runs[0]);
+			assertTrue(rwr.getStatus().isOK());
+			
+			// another thread's read that loads a resource intervenes
+			runs[0] = 0;
+			rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					if (runs[0]++ == 0) {
+						Thread t = new Thread(new Runnable() {
+							public void run() {
+								startReading();
+								
+								Resource res = domain.getResourceSet().createResource(
+									URI.createURI(EmfTransactionTestsBundle.getEntry(
+										"/test_models/test_model.extlibrary").toString())); //$NON-NLS-1$
+								
+								try {
+									res.load(Collections.EMPTY_MAP);
+								} catch (Exception e) {
+									fail(e);
+								}
+								
+								commit();
+							}});
+						t.start();
+						
+						try {
+							t.join();
+						} catch (InterruptedException e) {
+							fail(e);
+						}
+					}
+					
+					setResult((Book) find("root/Root Book")); //$NON-NLS-1$
+				}};
+			
+			assertSame(book, TransactionUtil.runOptimistic(domain, rwr));
+			assertEquals(2, runs[0]);
+			
+			// an invalid read that fails is repeated
+			runs[0] = 0;
+			rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					if (runs[0]++ == 0) {
+						Thread t = new Thread(new Runnable() {
+							public void run() {
+								startWriting();
+								commit();
+							}});
+						t.start();
+						
+						try {
+							t.join();
+						} catch (InterruptedException e) {
+							fail(e);
+						}
+						
+						throw new IllegalStateException("inconsistent"); //$NON-NLS-1$
+					}
+					
+					setResult((Book) find("root/Root Book")); //$NON-NLS-1$
+				}};
+			
+			assertSame(book, TransactionUtil.runOptimistic(domain, rwr));
+			assertEquals(2, runs[0]);
+			
+			// a valid read that fails is not repeated
+			runs[0] = 0;
+			rwr = new RunnableWithResult.Impl<Book>() {
+				public void run() {
+					runs[0]++;
+					throw new IllegalStateException("expected"); //$NON-NLS-1$
+				}};
+			
+			try {
+				TransactionUtil.runOptimistic(domain, rwr);
+				fail("Should have thrown IllegalStateException"); //$NON-NLS-1$
+			} catch (IllegalStateException e) {
+				// success
+				trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+			}
+			
+			assertEquals(1, runs[0]);
+		} catch (InterruptedException e) {
+			fail("Should not be interrupted"); //$NON-NLS-1$
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
 	/**
 	 * Tests that we cannot write without a write transaction.
 	 */
@@ -331,6 +509,525 @@ public class BasicTransactionTest extends AbstractTest {
 		}
 	}
 
+	/**
+	 * Tests that commands submitted concurrently for group commit are
+	 * executed in one batch that sends a single post-commit event, that
+	 * aggregate pre-commit listeners contribute triggers to each of them, and
+	 * that a command that fails validation rolls back alone.
+	 */
+	public void test_write_groupedCommands() {
+		final TransactionalCommandStack.GroupCommit stack =
+			(TransactionalCommandStack.GroupCommit) domain.getCommandStack();
+		
+		startWriting();
+		final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+		final Book other = EXTLibraryFactory.eINSTANCE.createBook();
+		other.setTitle("Other Book"); //$NON-NLS-1$
+		root.getBooks().add(other);
+		commit();
+		
+		final List<Integer> eventSizes = Collections.synchronizedList(
+			new ArrayList<Integer>());
+		ResourceSetListener listener = new ResourceSetListenerImpl() {
+			@Override
+			public void resourceSetChanged(ResourceSetChangeEvent event) {
+				eventSizes.add(event.getNotifications().size());
+			}};
+		domain.addResourceSetListener(listener);
+		
+		// an aggregate pre-commit listener sees every grouped command
+		ResourceSetListener trigger = new ResourceSetListenerImpl(
+				NotificationFilter.createFeatureFilter(
+					EXTLibraryPackage.eINSTANCE.getBook_Copies())) {
+			@Override
+			public Command transactionAboutToCommit(ResourceSetChangeEvent event) {
+				return new SetCommand(domain, book,
+					EXTLibraryPackage.eINSTANCE.getBook_Pages(), 42);
+			}
+			
+			@Override
+			public boolean isAggregatePrecommitListener() {
+				return true;
+			}};
+		domain.addResourceSetListener(trigger);
+		
+		// the batch closes only when all four commands are submitted
+		stack.setGroupCommitWindow(10000L, 4);
+		
+		Command[] commands = {
+			new SetCommand(domain, book,
+				EXTLibraryPackage.eINSTANCE.getBook_Title(), "New Title"), //$NON-NLS-1$
+			new SetCommand(domain, book,
+				EXTLibraryPackage.eINSTANCE.getBook_Copies(), 5),
+			new SetCommand(domain, root,
+				EXTLibraryPackage.eINSTANCE.getLibrary_Name(), "Grouped"), //$NON-NLS-1$
+		};
+		final Exception[] errors = new Exception[commands.length];
+		Thread[] threads = new Thread[commands.length];
+		
+		for (int i = 0; i < commands.length; i++) {
+			final int index = i;
+			final Command command = commands[i];
+			
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						stack.executeGrouped(command, null);
+					} catch (Exception e) {
+						errors[index] = e;
+					}
+				}});
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		
+		try {
+			// this one is invalid
+			stack.executeGrouped(new SetCommand(domain, other,
+				EXTLibraryPackage.eINSTANCE.getBook_Title(), null), null);
+			fail("Should have rolled back because of validation"); //$NON-NLS-1$
+		} catch (RollbackException e) {
+			// expected exception
+			trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+		} catch (Exception e) {
+			fail(e);
+		}
+		
+		try {
+			for (Thread next : threads) {
+				next.join(10000L);
+			}
+		} catch (InterruptedException e) {
+			fail(e);
+		} finally {
+			domain.removeResourceSetListener(listener);
+			domain.removeResourceSetListener(trigger);
+		}
+		
+		for (Exception next : errors) {
+			if (next != null) {
+				fail(next);
+			}
+		}
+		
+		// one event for the three changes that committed and the trigger
+		assertEquals(Collections.singletonList(4), eventSizes);
+		
+		startReading();
+		assertEquals("New Title", book.getTitle()); //$NON-NLS-1$
+		assertEquals(5, book.getCopies());
+		assertEquals(42, book.getPages());
+		assertEquals("Grouped", root.getName()); //$NON-NLS-1$
+		assertEquals("Other Book", other.getTitle()); //$NON-NLS-1$
+		commit();
+	}
+
+	/**
+	 * Tests that asynchronous reads and writes complete their futures with
+	 * their results, or with a roll-back exception.
+	 */
+	public void test_async() {
+		TransactionalEditingDomain.AsyncTransactions async = TransactionUtil.getAdapter(
+			domain, TransactionalEditingDomain.AsyncTransactions.class);
+		assertNotNull(async);
+		
+		startReading();
+		final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+		commit();
+		
+		try {
+			async.executeAsync(new SetCommand(domain, book,
+				EXTLibraryPackage.eINSTANCE.getBook_Title(), "New Title"), //$NON-NLS-1$
+				null).get(10L, TimeUnit.SECONDS);
+			
+			String title = async.runExclusiveAsync(new RunnableWithResult.Impl<String>() {
+				public void run() {
+					setResult(book.getTitle());
+				}}).get(10L, TimeUnit.SECONDS);
+			assertEquals("New Title", title); //$NON-NLS-1$
+		} catch (Exception e) {
+			fail(e);
+		}
+		
+		try {
+			// this one is invalid
+			async.executeAsync(new SetCommand(domain, book,
+				EXTLibraryPackage.eINSTANCE.getBook_Title(), null),
+				null).get(10L, TimeUnit.SECONDS);
+			fail("Should have rolled back because of validation"); //$NON-NLS-1$
+		} catch (ExecutionException e) {
+			// expected exception
+			assertTrue(e.getCause() instanceof RollbackException);
+		} catch (Exception e) {
+			fail(e);
+		}
+		
+		startReading();
+		assertEquals("New Title", book.getTitle()); //$NON-NLS-1$
+		commit();
+	}
+
+	/**
+	 * Tests that asynchronous transactions fail once the editing domain is
+	 * disposed, rather than starting new executors.
+	 */
+	public void test_async_disposed() {
+		TransactionalEditingDomain other =
+			TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+		TransactionalEditingDomain.AsyncTransactions async = TransactionUtil.getAdapter(
+			other, TransactionalEditingDomain.AsyncTransactions.class);
+		
+		other.dispose();
+		
+		try {
+			async.runExclusiveAsync(new RunnableWithResult.Impl<Object>() {
+				public void run() {
+					fail("Should not have run"); //$NON-NLS-1$
+				}}).get(10L, TimeUnit.SECONDS);
+			fail("Should have been rejected"); //$NON-NLS-1$
+		} catch (ExecutionException e) {
+			// expected exception
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that a transaction can roll back to a savepoint, reverting the
+	 * changes since then, including those of nested transactions, and
+	 * forgetting their notifications.
+	 */
+	public void test_savepoints() {
+		TestListener listener = new TestListener();
+		domain.addResourceSetListener(listener);
+		
+		try {
+			startWriting();
+			
+			Transaction tx = getActiveTransaction();
+			final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+			String name = root.getName();
+			
+			book.setTitle("First Title"); //$NON-NLS-1$
+			Transaction.Savepoint savepoint = tx.setSavepoint();
+			assertSame(tx, savepoint.getTransaction());
+			
+			book.setTitle("Second Title"); //$NON-NLS-1$
+			
+			startWriting();
+			root.setName("Nested"); //$NON-NLS-1$
+			commit();
+			
+			Transaction.Savepoint later = tx.setSavepoint();
+			book.setCopies(42);
+			
+			tx.rollbackTo(savepoint);
+			
+			assertEquals("First Title", book.getTitle()); //$NON-NLS-1$
+			assertEquals(name, root.getName());
+			assertTrue(savepoint.isValid());
+			assertFalse(later.isValid());
+			
+			try {
+				tx.rollbackTo(later);
+				fail("Should not roll back to an invalid savepoint"); //$NON-NLS-1$
+			} catch (IllegalArgumentException e) {
+				// expected exception
+				trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+			}
+			
+			// carry on after the savepoint
+			book.setCopies(7);
+			
+			commit();
+			
+			assertFalse(savepoint.isValid());
+			
+			// only the changes that were not rolled back are notified
+			assertNotNull(listener.postcommitNotifications);
+			assertEquals(2, listener.postcommitNotifications.size());
+			
+			startReading();
+			assertEquals("First Title", book.getTitle()); //$NON-NLS-1$
+			assertEquals(7, book.getCopies());
+			commit();
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			domain.removeResourceSetListener(listener);
+		}
+	}
+
+	/**
+	 * Tests that rolling back to a savepoint releases the memory that the
+	 * reverted changes held against the transaction's memory budget.
+	 */
+	public void test_savepoints_memoryUsage() {
+		try {
+			startWriting(Collections.<Object, Object>singletonMap(
+				Transaction.OPTION_MEMORY_BUDGET, 1000000L));
+			
+			TransactionImpl tx = (TransactionImpl) getActiveTransaction();
+			final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+			
+			book.setTitle("First Title"); //$NON-NLS-1$
+			long usage = tx.getMemoryUsage();
+			assertTrue(usage > 0L);
+			
+			Transaction.Savepoint savepoint = tx.setSavepoint();
+			
+			book.setTitle("Second Title"); //$NON-NLS-1$
+			
+			startWriting();
+			root.setName("Nested"); //$NON-NLS-1$
+			commit();
+			
+			assertTrue(tx.getMemoryUsage() > usage);
+			
+			tx.rollbackTo(savepoint);
+			
+			assertEquals(usage, tx.getMemoryUsage());
+			
+			commit();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that the owner of a transaction sees an abort by another thread,
+	 * with its status, and rolls back when it commits.
+	 */
+	public void test_abort_otherThread() throws Exception {
+		final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+		
+		startReading();
+		String title = book.getTitle();
+		commit();
+		
+		final InternalTransaction tx = ((InternalTransactionalEditingDomain) domain)
+			.startTransaction(false, null);
+		book.setTitle("Aborted Title"); //$NON-NLS-1$
+		
+		final IStatus status = new Status(IStatus.ERROR,
+			"org.eclipse.emf.transaction.tests", "aborted"); //$NON-NLS-1$ //$NON-NLS-2$
+		
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				tx.abort(status);
+			}});
+		t.start();
+		t.join();
+		
+		// the abort does not close the transaction, but its status shows
+		assertTrue(tx.isActive());
+		assertSame(status, tx.getStatus());
+		
+		try {
+			tx.commit();
+			fail("Should have rolled back"); //$NON-NLS-1$
+		} catch (RollbackException e) {
+			// success
+			assertSame(status, e.getStatus());
+		}
+		
+		assertFalse(tx.isActive());
+		
+		startReading();
+		assertEquals(title, book.getTitle());
+		commit();
+	}
+	
+	/**
+	 * Tests that a roll-back cannot intervene in a commit, either from
+	 * another thread or from a listener on the committing thread, and that
+	 * the commit then completes as usual.
+	 */
+	public void test_commitRollback_race() throws Exception {
+		final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+		final int iterations = 100;
+		final AtomicInteger intervened = new AtomicInteger();
+		final AtomicInteger rejected = new AtomicInteger();
+		
+		// a trigger listener tries to roll back the committing transaction
+		ResourceSetListener rollbacker = new ResourceSetListenerImpl() {
+			@Override
+			public Command transactionAboutToCommit(ResourceSetChangeEvent event) {
+				try {
+					event.getTransaction().rollback();
+					intervened.incrementAndGet();
+				} catch (IllegalStateException e) {
+					rejected.incrementAndGet();
+				}
+				
+				return null;
+			}
+			
+			@Override
+			public boolean isPrecommitOnly() {
+				return true;
+			}};
+		
+		domain.addResourceSetListener(rollbacker);
+		
+		try {
+			for (int i = 0; i < iterations; i++) {
+				final InternalTransaction tx = ((InternalTransactionalEditingDomain) domain)
+					.startTransaction(false, null);
+				book.setTitle("Title " + i); //$NON-NLS-1$
+				
+				// another thread tries to close it while the owner commits
+				final CountDownLatch started = new CountDownLatch(1);
+				Thread t = new Thread(new Runnable() {
+					public void run() {
+						started.countDown();
+						
+						for (int j = 0; tx.isActive(); j++) {
+							try {
+								if ((j % 2) == 0) {
+									tx.rollback();
+								} else {
+									tx.commit();
+								}
+								
+								intervened.incrementAndGet();
+							} catch (IllegalStateException e) {
+								// expected
+							} catch (RollbackException e) {
+								intervened.incrementAndGet();
+							}
+						}
+					}});
+				t.start();
+				started.await();
+				
+				tx.commit();
+				t.join();
+				
+				assertFalse(tx.isActive());
+			}
+		} finally {
+			domain.removeResourceSetListener(rollbacker);
+		}
+		
+		assertEquals(0, intervened.get());
+		assertEquals(iterations, rejected.get());
+		
+		startReading();
+		assertEquals("Title " + (iterations - 1), book.getTitle()); //$NON-NLS-1$
+		commit();
+	}
+	
+	/**
+	 * Tests that a transaction is closed exactly once, with one post-commit
+	 * event at most, while other threads contend to abort and close it.
+	 */
+	public void test_close_once() throws Exception {
+		final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+		final int iterations = 100;
+		final int threads = 4;
+		final AtomicInteger closed = new AtomicInteger();
+		final AtomicInteger postcommits = new AtomicInteger();
+		final Transaction[] current = new Transaction[1];
+		
+		TransactionalEditingDomainListener lifecycleListener =
+			new TransactionalEditingDomainListenerImpl() {
+				@Override
+				public void transactionClosed(TransactionalEditingDomainEvent event) {
+					if (event.getTransaction() == current[0]) {
+						closed.incrementAndGet();
+					}
+				}};
+		ResourceSetListener postcommitListener = new ResourceSetListenerImpl() {
+			@Override
+			public void resourceSetChanged(ResourceSetChangeEvent event) {
+				if (event.getTransaction() == current[0]) {
+					postcommits.incrementAndGet();
+				}
+			}
+			
+			@Override
+			public boolean isPostcommitOnly() {
+				return true;
+			}};
+		
+		TransactionalEditingDomain.Lifecycle lifecycle = TransactionUtil.getAdapter(
+			domain, TransactionalEditingDomain.Lifecycle.class);
+		lifecycle.addTransactionalEditingDomainListener(lifecycleListener);
+		domain.addResourceSetListener(postcommitListener);
+		
+		try {
+			for (int i = 0; i < iterations; i++) {
+				final InternalTransaction tx = ((InternalTransactionalEditingDomain) domain)
+					.startTransaction(false, null);
+				current[0] = tx;
+				book.setTitle("Title " + i); //$NON-NLS-1$
+				
+				closed.set(0);
+				postcommits.set(0);
+				
+				// in every other iteration, the contenders also abort it
+				final boolean abort = (i % 2) == 1;
+				final CountDownLatch go = new CountDownLatch(1);
+				Thread[] contenders = new Thread[threads];
+				
+				for (int j = 0; j < threads; j++) {
+					contenders[j] = new Thread(new Runnable() {
+						public void run() {
+							try {
+								go.await();
+							} catch (InterruptedException e) {
+								return;
+							}
+							
+							if (abort) {
+								tx.abort(new Status(IStatus.ERROR,
+									"org.eclipse.emf.transaction.tests", "aborted")); //$NON-NLS-1$ //$NON-NLS-2$
+							}
+							
+							while (tx.isActive()) {
+								try {
+									tx.rollback();
+								} catch (IllegalStateException e) {
+									// expected
+								}
+							}
+						}});
+					contenders[j].start();
+				}
+				
+				go.countDown();
+				
+				boolean committed;
+				if (abort) {
+					// wait for the abort, so that the outcome is certain
+					while (tx.getStatus().getSeverity() < IStatus.ERROR) {
+						Thread.yield();
+					}
+				}
+				
+				try {
+					tx.commit();
+					committed = true;
+				} catch (RollbackException e) {
+					committed = false;
+				}
+				
+				for (Thread next : contenders) {
+					next.join();
+				}
+				
+				assertEquals(!abort, committed);
+				assertEquals(1, closed.get());
+				assertEquals(committed ? 1 : 0, postcommits.get());
+			}
+		} finally {
+			lifecycle.removeTransactionalEditingDomainListener(lifecycleListener);
+			domain.removeResourceSetListener(postcommitListener);
+		}
+	}
+
 	/**
 	 * Tests that we can load and unload resources (having contents) without a write
 	 * transaction.
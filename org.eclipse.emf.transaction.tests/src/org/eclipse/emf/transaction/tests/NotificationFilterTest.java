@@ -11,14 +11,29 @@
  */
 package org.eclipse.emf.transaction.tests;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.ENotificationImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.examples.extlibrary.Book;
+import org.eclipse.emf.examples.extlibrary.EXTLibraryFactory;
 import org.eclipse.emf.examples.extlibrary.EXTLibraryPackage;
 import org.eclipse.emf.examples.extlibrary.Writer;
 import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.impl.FilterManager;
 import org.eclipse.emf.transaction.tests.fixtures.TestListener;
 
 
@@ -86,6 +101,241 @@ public class NotificationFilterTest extends AbstractTest {
 		}
 	}
 	
+	/**
+	 * Tests that listeners get the same notifications from the indexed
+	 * dispatch of large commits as they would by matching their filters
+	 * against every notification.
+	 */
+	public void test_indexedDispatch() {
+		EXTLibraryPackage pkg = EXTLibraryPackage.eINSTANCE;
+		NotificationFilter[] filters = {
+			NotificationFilter.createFeatureFilter(pkg.getBook_Title()),
+			NotificationFilter.createNotifierTypeFilter(pkg.getWriter()),
+			NotificationFilter.createNotifierTypeFilter(pkg.getBook()).and(
+				NotificationFilter.createEventTypeFilter(Notification.SET)),
+			NotificationFilter.createFeatureFilter(pkg.getBook_Pages()).or(
+				NotificationFilter.createNotifierFilter(root)),
+			NotificationFilter.createFeatureFilter(pkg.getBook_Title()).negated(),
+			new NotificationFilter.Custom() {
+				@Override
+				public boolean matches(Notification notification) {
+					return notification.getNewValue() instanceof Book;
+				}},
+		};
+		TestListener[] listeners = new TestListener[filters.length];
+		TestListener all = new TestListener(NotificationFilter.ANY);
+		
+		try {
+			domain.addResourceSetListener(all);
+			for (int i = 0; i < filters.length; i++) {
+				listeners[i] = new TestListener(filters[i]);
+				domain.addResourceSetListener(listeners[i]);
+			}
+			
+			startWriting();
+			
+			Writer author = (Writer) find("root/level1/Level1 Writer"); //$NON-NLS-1$
+			assertNotNull(author);
+			
+			for (int i = 0; i < 20; i++) {
+				Book book = EXTLibraryFactory.eINSTANCE.createBook();
+				root.getBooks().add(book);
+				book.setTitle("Book " + i); //$NON-NLS-1$
+				book.setPages(i);
+				book.setAuthor(author);
+			}
+			
+			commit();
+			
+			assertNotNull(all.postcommit);
+			assertTrue(all.postcommitNotifications.size() >= 64);
+			
+			for (int i = 0; i < filters.length; i++) {
+				List<Notification> expected = FilterManager.getInstance().select(
+					all.postcommitNotifications, filters[i]);
+				
+				assertFalse(expected.isEmpty());
+				assertNotNull(listeners[i].postcommit);
+				assertEquals(expected, listeners[i].postcommitNotifications);
+			}
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			domain.removeResourceSetListener(all);
+			for (TestListener next : listeners) {
+				if (next != null) {
+					domain.removeResourceSetListener(next);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Tests the introspection and structural equality of the built-in filters.
+	 */
+	public void test_filterExpressions() {
+		EXTLibraryPackage pkg = EXTLibraryPackage.eINSTANCE;
+		NotificationFilter title = NotificationFilter.createFeatureFilter(pkg.getBook_Title());
+		NotificationFilter writer = NotificationFilter.createNotifierTypeFilter(pkg.getWriter());
+		NotificationFilter filter = writer.and(title);
+		
+		assertSame(NotificationFilter.Kind.AND, filter.getKind());
+		assertEquals(Arrays.asList(writer, title), filter.getOperands());
+		assertSame(NotificationFilter.Kind.FEATURE, title.getKind());
+		assertEquals(Collections.singletonList(pkg.getBook_Title()), title.getArguments());
+		
+		// structurally equal filters are equal
+		NotificationFilter other = NotificationFilter.createNotifierTypeFilter(pkg.getWriter()).and(
+			NotificationFilter.createFeatureFilter(pkg.getBook_Title()));
+		assertEquals(filter, other);
+		assertEquals(filter.hashCode(), other.hashCode());
+		assertFalse(filter.equals(title.and(writer)));
+		assertFalse(NotificationFilter.createNotifierFilter(new String("a")).equals( //$NON-NLS-1$
+			NotificationFilter.createNotifierFilter(new String("a")))); //$NON-NLS-1$
+		
+		NotificationFilter custom = new NotificationFilter.Custom() {
+			@Override
+			public boolean matches(Notification notification) {
+				return true;
+			}};
+		assertSame(NotificationFilter.Kind.CUSTOM, custom.getKind());
+		assertSame(custom, custom.optimize());
+		assertFalse(custom.equals(new NotificationFilter.Custom() {
+			@Override
+			public boolean matches(Notification notification) {
+				return true;
+			}}));
+	}
+	
+	/**
+	 * Tests the simplification and reordering of filter expressions.
+	 */
+	public void test_optimize() {
+		EXTLibraryPackage pkg = EXTLibraryPackage.eINSTANCE;
+		NotificationFilter title = NotificationFilter.createFeatureFilter(pkg.getBook_Title());
+		NotificationFilter writer = NotificationFilter.createNotifierTypeFilter(pkg.getWriter());
+		NotificationFilter set = NotificationFilter.createEventTypeFilter(Notification.SET);
+		NotificationFilter custom = new NotificationFilter.Custom() {
+			@Override
+			public boolean matches(Notification notification) {
+				return true;
+			}};
+		
+		// constant folding
+		assertEquals(title, title.and(NotificationFilter.ANY).optimize());
+		assertSame(NotificationFilter.ANY, title.or(NotificationFilter.ANY).optimize());
+		assertSame(NotificationFilter.NOT_TOUCH,
+			NotificationFilter.NOT_TOUCH.and(NotificationFilter.NOT_TOUCH).optimize());
+		assertSame(NotificationFilter.ANY, NotificationFilter.NOT_TOUCH.or(
+			NotificationFilter.NOT_TOUCH.negated()).optimize());
+		
+		// double negation, idempotence, and absorption
+		assertEquals(title, title.negated().negated().optimize());
+		assertEquals(title, title.and(title).optimize());
+		assertEquals(title, title.and(title.or(writer)).optimize());
+		
+		// flattening and cheapest first
+		NotificationFilter optimized = writer.and(set.and(title)).optimize();
+		assertSame(NotificationFilter.Kind.AND, optimized.getKind());
+		assertEquals(Arrays.asList(set, title, writer), optimized.getOperands());
+		
+		// nothing moves across a custom filter
+		optimized = writer.and(custom).and(title).optimize();
+		assertEquals(Arrays.asList(writer, custom, title), optimized.getOperands());
+		
+		// already optimal, but compiled
+		NotificationFilter filter = title.and(writer);
+		assertEquals(filter, filter.optimize());
+		assertSame(filter.optimize(), filter.optimize().optimize());
+	}
+	
+	/**
+	 * Tests that compiled filters match the same notifications as the
+	 * filters that they are compiled from, including the instances of
+	 * dynamic classes.
+	 */
+	public void test_compiledFilters() {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("dynamic"); //$NON-NLS-1$
+		EClass a = EcoreFactory.eINSTANCE.createEClass();
+		a.setName("A"); //$NON-NLS-1$
+		EClass b = EcoreFactory.eINSTANCE.createEClass();
+		b.setName("B"); //$NON-NLS-1$
+		b.getESuperTypes().add(a);
+		EClass c = EcoreFactory.eINSTANCE.createEClass();
+		c.setName("C"); //$NON-NLS-1$
+		EAttribute name = EcoreFactory.eINSTANCE.createEAttribute();
+		name.setName("name"); //$NON-NLS-1$
+		name.setEType(EcorePackage.Literals.ESTRING);
+		a.getEStructuralFeatures().add(name);
+		ePackage.getEClassifiers().add(a);
+		ePackage.getEClassifiers().add(b);
+		ePackage.getEClassifiers().add(c);
+		
+		EObject[] notifiers = {
+			EcoreUtil.create(a), EcoreUtil.create(b), EcoreUtil.create(c), root,
+		};
+		
+		NotificationFilter[] filters = {
+			NotificationFilter.createNotifierTypeFilter(a),
+			NotificationFilter.createNotifierTypeFilter(b).or(
+				NotificationFilter.createNotifierTypeFilter(c)),
+			NotificationFilter.createNotifierTypeFilter(a).and(
+				NotificationFilter.createFeatureFilter(name)).and(
+					NotificationFilter.createEventTypeFilter(Notification.SET)),
+			NotificationFilter.createNotifierTypeFilter(EXTLibraryPackage.Literals.LIBRARY),
+			NotificationFilter.createNotifierFilter(root).negated(),
+		};
+		
+		for (NotificationFilter filter : filters) {
+			NotificationFilter compiled = filter.optimize();
+			
+			for (EObject notifier : notifiers) {
+				for (int eventType : new int[] {Notification.SET, Notification.ADD}) {
+					Notification notification = new ENotificationImpl(
+						(InternalEObject) notifier, eventType, name, null, "x"); //$NON-NLS-1$
+					
+					assertEquals(filter.matches(notification), compiled.matches(notification));
+					// and again, from the compiled filter's memory
+					assertEquals(filter.matches(notification), compiled.matches(notification));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Tests that a compiled filter for a dynamic class notices a change in
+	 * the supertypes of a class of a package that it has already seen.
+	 */
+	public void test_compiledFilters_supertypeChange() {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("dynamic"); //$NON-NLS-1$
+		EClass a = EcoreFactory.eINSTANCE.createEClass();
+		a.setName("A"); //$NON-NLS-1$
+		EClass b = EcoreFactory.eINSTANCE.createEClass();
+		b.setName("B"); //$NON-NLS-1$
+		EAttribute name = EcoreFactory.eINSTANCE.createEAttribute();
+		name.setName("name"); //$NON-NLS-1$
+		name.setEType(EcorePackage.Literals.ESTRING);
+		b.getEStructuralFeatures().add(name);
+		ePackage.getEClassifiers().add(a);
+		ePackage.getEClassifiers().add(b);
+		
+		NotificationFilter compiled = NotificationFilter.createNotifierTypeFilter(a).optimize();
+		Notification notification = new ENotificationImpl(
+			(InternalEObject) EcoreUtil.create(b), Notification.SET,
+			name, null, "x"); //$NON-NLS-1$
+		
+		assertFalse(compiled.matches(notification));
+		
+		// the package does not grow, but B is now an A
+		b.getESuperTypes().add(a);
+		assertTrue(compiled.matches(notification));
+		
+		b.getESuperTypes().clear();
+		assertFalse(compiled.matches(notification));
+	}
+	
 	/**
 	 * Tests the resource content type filter, filtering for the most specific
 	 * content type available.
@@ -17,16 +17,21 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.command.CompoundCommand;
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.eclipse.emf.examples.extlibrary.Book;
 import org.eclipse.emf.examples.extlibrary.BookCategory;
 import org.eclipse.emf.examples.extlibrary.EXTLibraryFactory;
+import org.eclipse.emf.examples.extlibrary.EXTLibraryPackage;
 import org.eclipse.emf.examples.extlibrary.Library;
 import org.eclipse.emf.transaction.NotificationFilter;
 import org.eclipse.emf.transaction.ResourceSetChangeEvent;
@@ -270,10 +275,172 @@ public class PerformanceTest extends AbstractTest {
 		}
 	}
 	
+	/**
+	 * Measures the time taken by many short exclusive reads, such as label
+	 * providers do, in the lightweight read-only transactions that the editing
+	 * domain starts for them, compared with read-only transactions that have
+	 * an option and so are not lightweight.
+	 */
+	public void test_runExclusive_lightweightReads() {
+		final int reads = 100000;
+		final InternalTransactionalEditingDomain internalDomain =
+			(InternalTransactionalEditingDomain) domain;
+		final Map<Object, Object> options = Collections.<Object, Object>singletonMap(
+			Transaction.OPTION_NO_UNDO, Boolean.TRUE);
+		final Runnable read = new Runnable() {
+			public void run() {
+				root.getName();
+			}};
+		
+		try {
+			for (int i = 0; i < count; i++) {
+				long start = System.currentTimeMillis();
+				
+				for (int j = 0; j < reads; j++) {
+					Transaction tx = internalDomain.startTransaction(true, options);
+					read.run();
+					tx.commit();
+				}
+				
+				System.out.println("Raw timing with options: " //$NON-NLS-1$
+					+ (System.currentTimeMillis() - start));
+				
+				startClock();
+				
+				for (int j = 0; j < reads; j++) {
+					domain.runExclusive(read);
+				}
+				
+				long timing = stopClock();
+				
+				System.out.println("Raw timing: " + timing); //$NON-NLS-1$
+			}
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Measures the per-transaction overhead of the transaction life-cycle:
+	 * starting and committing empty read/write transactions, with another
+	 * thread polling the active transaction's state all the while, as
+	 * progress monitors and the command stack's abort checks do.
+	 */
+	public void test_transactionLifecycle_overhead() {
+		final int transactions = 100000;
+		final InternalTransactionalEditingDomain internalDomain =
+			(InternalTransactionalEditingDomain) domain;
+		final AtomicBoolean done = new AtomicBoolean();
+		
+		Thread poller = new Thread(new Runnable() {
+			public void run() {
+				while (!done.get()) {
+					Transaction tx = internalDomain.getActiveTransaction();
+					if (tx != null) {
+						tx.isActive();
+					}
+				}
+			}});
+		poller.setDaemon(true);
+		
+		try {
+			for (int i = 0; i < count; i++) {
+				startClock();
+				
+				for (int j = 0; j < transactions; j++) {
+					internalDomain.startTransaction(false, null).commit();
+				}
+				
+				long timing = stopClock();
+				
+				System.out.println("Raw timing: " + timing //$NON-NLS-1$
+					+ " (" + (timing * 1000000L / transactions) //$NON-NLS-1$
+					+ " ns per transaction)"); //$NON-NLS-1$
+			}
+			
+			poller.start();
+			
+			for (int i = 0; i < count; i++) {
+				long start = System.currentTimeMillis();
+				
+				for (int j = 0; j < transactions; j++) {
+					internalDomain.startTransaction(false, null).commit();
+				}
+				
+				long timing = System.currentTimeMillis() - start;
+				
+				System.out.println("Raw timing while polled: " + timing //$NON-NLS-1$
+					+ " (" + (timing * 1000000L / transactions) //$NON-NLS-1$
+					+ " ns per transaction)"); //$NON-NLS-1$
+			}
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			done.set(true);
+		}
+	}
+
+	/**
+	 * Measures the time taken to match notifications against combined
+	 * filters in their compiled (optimized) form, compared with the filters
+	 * as created by their factories.
+	 */
+	public void test_compiledFilters() {
+		final int matches = 1000000;
+		Book book = EXTLibraryFactory.eINSTANCE.createBook();
+		Notification[] notifications = {
+			new ENotificationImpl((InternalEObject) book, Notification.SET,
+				EXTLibraryPackage.Literals.BOOK__TITLE, null, "title"), //$NON-NLS-1$
+			new ENotificationImpl((InternalEObject) book, Notification.SET,
+				EXTLibraryPackage.Literals.BOOK__PAGES, 0, 1),
+			new ENotificationImpl((InternalEObject) root, Notification.ADD,
+				EXTLibraryPackage.Literals.LIBRARY__BOOKS, null, book),
+			new ENotificationImpl((InternalEObject) root, Notification.SET,
+				EXTLibraryPackage.Literals.LIBRARY__NAME, "a", "b"), //$NON-NLS-1$ //$NON-NLS-2$
+		};
+		NotificationFilter filter = NotificationFilter.createNotifierTypeFilter(
+			EXTLibraryPackage.Literals.BOOK).and(
+				NotificationFilter.createFeatureFilter(
+					EXTLibraryPackage.Literals.BOOK__TITLE)).and(
+						NotificationFilter.createEventTypeFilter(Notification.SET)).or(
+							NotificationFilter.createNotifierFilter(root).and(
+								NotificationFilter.NOT_TOUCH));
+		NotificationFilter compiled = filter.optimize();
+		int matched = 0;
+		
+		for (int i = 0; i < count; i++) {
+			long start = System.currentTimeMillis();
+			
+			for (int j = 0; j < matches; j++) {
+				if (filter.matches(notifications[j & 3])) {
+					matched++;
+				}
+			}
+			
+			System.out.println("Raw timing interpreted: " //$NON-NLS-1$
+				+ (System.currentTimeMillis() - start));
+			
+			startClock();
+			
+			for (int j = 0; j < matches; j++) {
+				if (compiled.matches(notifications[j & 3])) {
+					matched--;
+				}
+			}
+			
+			long timing = stopClock();
+			
+			System.out.println("Raw timing: " + timing); //$NON-NLS-1$
+		}
+		
+		// both forms matched the same notifications
+		assertEquals(0, matched);
+	}
+
 	//
 	// Fixture methods
 	//
-	
+
 	@Override
 	protected void doSetUp() throws Exception {
 		super.doSetUp();
@@ -14,10 +14,15 @@ package org.eclipse.emf.transaction.tests;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.URI;
@@ -32,14 +37,20 @@ import org.eclipse.emf.examples.extlibrary.Library;
 import org.eclipse.emf.transaction.DemultiplexingListener;
 import org.eclipse.emf.transaction.RecordingCommand;
 import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
 import org.eclipse.emf.transaction.ResourceSetListenerImpl;
 import org.eclipse.emf.transaction.RollbackException;
+import org.eclipse.emf.transaction.Transaction;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.internal.EMFTransactionPlugin;
 import org.eclipse.emf.transaction.tests.fixtures.ItemDefaultPublicationDateTrigger;
 import org.eclipse.emf.transaction.tests.fixtures.LibraryDefaultBookTrigger;
 import org.eclipse.emf.transaction.tests.fixtures.LibraryDefaultNameTrigger;
+import org.eclipse.emf.transaction.tests.fixtures.LogCapture;
 import org.eclipse.emf.transaction.tests.fixtures.TestCommand;
 import org.eclipse.emf.transaction.tests.fixtures.TestListener;
+import org.eclipse.emf.transaction.util.TransactionUtil;
 
 
 /**
@@ -281,6 +292,251 @@ public class ResourceSetListenersTest extends AbstractTest {
 		}
 	}
 
+	/**
+	 * Tests that concurrent post-commit listeners receive their events at
+	 * the same time, each in a read-only transaction of its own, and that
+	 * their failures are logged together.
+	 */
+	public void test_postcommit_concurrent() {
+		final CountDownLatch bothListening = new CountDownLatch(2);
+		final List<Transaction> transactions = Collections.synchronizedList(
+			new java.util.ArrayList<Transaction>());
+		final RuntimeException error1 = new RuntimeException("error1"); //$NON-NLS-1$
+		final RuntimeException error2 = new RuntimeException("error2"); //$NON-NLS-1$
+		
+		class ConcurrentListener extends ResourceSetListenerImpl
+				implements ResourceSetListener.Concurrent {
+			private final RuntimeException error;
+			
+			ConcurrentListener(RuntimeException error) {
+				this.error = error;
+			}
+			
+			@Override
+			public void resourceSetChanged(ResourceSetChangeEvent event) {
+				Transaction tx = ((InternalTransactionalEditingDomain) domain)
+					.getActiveTransaction();
+				assertNotNull(tx);
+				assertTrue(tx.isReadOnly());
+				assertSame(Thread.currentThread(), tx.getOwner());
+				transactions.add(tx);
+				
+				bothListening.countDown();
+				try {
+					// each waits for the other
+					assertTrue(bothListening.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					fail(e);
+				}
+				
+				throw error;
+			}
+			
+			@Override
+			public boolean isPostcommitOnly() {
+				return true;
+			}
+		}
+		
+		ResourceSetListener listener1 = new ConcurrentListener(error1);
+		ResourceSetListener listener2 = new ConcurrentListener(error2);
+		LogCapture logCapture = new LogCapture(
+			EMFTransactionPlugin.getPlugin().getBundle());
+		
+		try {
+			domain.addResourceSetListener(listener1);
+			domain.addResourceSetListener(listener2);
+			
+			final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+			assertNotNull(book);
+			
+			domain.getCommandStack().execute(new SetCommand(
+				domain, book, EXTLibraryPackage.eINSTANCE.getBook_Title(),
+				"New Title")); //$NON-NLS-1$
+			
+			// the sequential listener got its event as usual
+			assertNotNull(listener.postcommit);
+			assertEquals(1, listener.postcommitNotifications.size());
+			
+			assertEquals(0, bothListening.getCount());
+			assertEquals(2, transactions.size());
+			assertNotSame(transactions.get(0), transactions.get(1));
+			
+			IStatus log = logCapture.getLastLog();
+			assertNotNull(log);
+			assertTrue(log.isMultiStatus());
+			logCapture.assertLogged(error1);
+			logCapture.assertLogged(error2);
+			
+			// the domain is not left in a shared read context
+			assertNull(((InternalTransactionalEditingDomain) domain)
+				.getActiveTransaction());
+			startWriting();
+			commit();
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			logCapture.stop();
+			domain.removeResourceSetListener(listener1);
+			domain.removeResourceSetListener(listener2);
+		}
+	}
+
+	/**
+	 * Tests that an unprotected write started by a sequential post-commit
+	 * listener waits for the concurrent listeners to finish reading.
+	 */
+	public void test_postcommit_concurrent_unprotectedWrite() {
+		final AtomicBoolean finished = new AtomicBoolean();
+		final AtomicBoolean finishedBeforeWrite = new AtomicBoolean();
+		
+		ResourceSetListener concurrent = new ConcurrentReader(finished);
+		ResourceSetListener writer = new ResourceSetListenerImpl() {
+			@Override
+			public void resourceSetChanged(ResourceSetChangeEvent event) {
+				try {
+					Transaction tx = ((InternalTransactionalEditingDomain) domain)
+						.startTransaction(false, makeOptions(Transaction.OPTION_UNPROTECTED));
+					finishedBeforeWrite.set(finished.get());
+					tx.commit();
+				} catch (Exception e) {
+					fail(e);
+				}
+			}
+			
+			@Override
+			public boolean isPostcommitOnly() {
+				return true;
+			}};
+		
+		try {
+			domain.addResourceSetListener(concurrent);
+			domain.addResourceSetListener(writer);
+			
+			final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+			assertNotNull(book);
+			
+			domain.getCommandStack().execute(new SetCommand(
+				domain, book, EXTLibraryPackage.eINSTANCE.getBook_Title(),
+				"New Title")); //$NON-NLS-1$
+			
+			assertTrue(finished.get());
+			assertTrue(finishedBeforeWrite.get());
+		} finally {
+			domain.removeResourceSetListener(concurrent);
+			domain.removeResourceSetListener(writer);
+		}
+	}
+	
+	/**
+	 * A concurrent post-commit listener that takes its time to read.
+	 */
+	private static class ConcurrentReader extends ResourceSetListenerImpl
+			implements ResourceSetListener.Concurrent {
+		private final AtomicBoolean finished;
+		
+		ConcurrentReader(AtomicBoolean finished) {
+			this.finished = finished;
+		}
+		
+		@Override
+		public void resourceSetChanged(ResourceSetChangeEvent event) {
+			try {
+				Thread.sleep(100L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			finished.set(true);
+		}
+		
+		@Override
+		public boolean isPostcommitOnly() {
+			return true;
+		}
+	}
+
+	/**
+	 * Tests that asynchronous post-commit listeners receive their events
+	 * on the listener executor, coalesced if they have fallen behind, in a
+	 * read-only transaction.
+	 */
+	public void test_postcommit_async() {
+		final List<Runnable> scheduled = new java.util.ArrayList<Runnable>();
+		final List<Transaction> transactions = new java.util.ArrayList<Transaction>();
+		
+		class AsyncListener extends TestListener
+				implements ResourceSetListener.Asynchronous {
+			@Override
+			public void resourceSetChanged(ResourceSetChangeEvent event) {
+				transactions.add(((InternalTransactionalEditingDomain) domain)
+					.getActiveTransaction());
+				
+				super.resourceSetChanged(event);
+			}
+		}
+		
+		TransactionalEditingDomain.AsyncListeners asyncListeners =
+			TransactionUtil.getAdapter(domain,
+				TransactionalEditingDomain.AsyncListeners.class);
+		assertNotNull(asyncListeners);
+		
+		asyncListeners.setAsyncListenerExecutor(new Executor() {
+			public void execute(Runnable command) {
+				// run it when the test says so
+				scheduled.add(command);
+			}});
+		
+		AsyncListener asyncListener = new AsyncListener();
+		
+		try {
+			domain.addResourceSetListener(asyncListener);
+			
+			final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+			assertNotNull(book);
+			
+			domain.getCommandStack().execute(new SetCommand(
+				domain, book, EXTLibraryPackage.eINSTANCE.getBook_Title(),
+				"New Title")); //$NON-NLS-1$
+			domain.getCommandStack().execute(new SetCommand(
+				domain, book, EXTLibraryPackage.eINSTANCE.getBook_Pages(),
+				500));
+			
+			// the synchronous listener got its event as usual
+			assertNotNull(listener.postcommit);
+			
+			// but the asynchronous listener has fallen behind
+			assertNull(asyncListener.postcommit);
+			assertEquals(1, scheduled.size());
+			assertEquals(2, asyncListeners.getQueueDepth(asyncListener));
+			assertTrue(asyncListeners.getLag(asyncListener) >= 0L);
+			
+			scheduled.remove(0).run();
+			
+			// the events were coalesced
+			assertNotNull(asyncListener.postcommit);
+			List<Notification> notifications = asyncListener.postcommitNotifications;
+			assertEquals(2, notifications.size());
+			assertSame(EXTLibraryPackage.eINSTANCE.getBook_Title(),
+				notifications.get(0).getFeature());
+			assertSame(EXTLibraryPackage.eINSTANCE.getBook_Pages(),
+				notifications.get(1).getFeature());
+			
+			assertEquals(1, transactions.size());
+			assertNotNull(transactions.get(0));
+			assertTrue(transactions.get(0).isReadOnly());
+			
+			assertTrue(scheduled.isEmpty());
+			assertEquals(0, asyncListeners.getQueueDepth(asyncListener));
+			assertEquals(0L, asyncListeners.getLag(asyncListener));
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			domain.removeResourceSetListener(asyncListener);
+			asyncListeners.setAsyncListenerExecutor(null);
+		}
+	}
+
 	/**
 	 * Tests that simple changes are propagated to pre-commit listeners.
 	 */
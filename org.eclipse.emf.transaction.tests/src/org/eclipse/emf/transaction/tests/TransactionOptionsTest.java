@@ -21,19 +21,27 @@ import junit.framework.TestSuite;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.edit.command.AddCommand;
 import org.eclipse.emf.edit.command.SetCommand;
 import org.eclipse.emf.examples.extlibrary.Book;
 import org.eclipse.emf.examples.extlibrary.EXTLibraryFactory;
 import org.eclipse.emf.examples.extlibrary.EXTLibraryPackage;
+import org.eclipse.emf.examples.extlibrary.Library;
 import org.eclipse.emf.examples.extlibrary.Writer;
+import org.eclipse.emf.transaction.LockTimeoutException;
 import org.eclipse.emf.transaction.RecordingCommand;
 import org.eclipse.emf.transaction.RollbackException;
 import org.eclipse.emf.transaction.Transaction;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.emf.transaction.impl.InternalTransaction;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
 import org.eclipse.emf.transaction.impl.TransactionImpl;
+import org.eclipse.emf.transaction.impl.TransactionOptionProfile;
+import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.tests.fixtures.TestListener;
+import org.eclipse.emf.transaction.util.BulkChangeNotification;
 import org.eclipse.emf.transaction.util.TransactionUtil;
 
 
@@ -155,6 +163,214 @@ public class TransactionOptionsTest extends AbstractTest {
 		assertTrue(tx.getChangeDescription().isEmpty());
 	}
 
+	/**
+	 * Tests that the <code>OPTION_BULK_LOAD</code> results in the write
+	 * transaction not recording undo information and post-commit listeners
+	 * receiving one notification summarizing the changes to a resource.
+	 */
+	public void test_bulkLoad() {
+		TestListener listener = new TestListener();
+		domain.addResourceSetListener(listener);
+		
+		try {
+			startWriting(Transaction.OPTION_BULK_LOAD);
+			
+			final Transaction tx = getActiveTransaction();
+			
+			for (int i = 0; i < 100; i++) {
+				Book book = EXTLibraryFactory.eINSTANCE.createBook();
+				book.setTitle("Bulk Book " + i); //$NON-NLS-1$
+				root.getBooks().add(book);
+			}
+			
+			// a nested transaction is also a bulk load
+			startWriting();
+			root.setName("Bulk Library"); //$NON-NLS-1$
+			commit();
+			
+			commit();
+			
+			assertTrue(tx.getChangeDescription().isEmpty());
+			assertNull(listener.precommit);
+			
+			assertNotNull(listener.postcommitNotifications);
+			assertEquals(1, listener.postcommitNotifications.size());
+			
+			Notification notification = listener.postcommitNotifications.get(0);
+			assertTrue(notification instanceof BulkChangeNotification);
+			assertEquals(BulkChangeNotification.BULK_CHANGE, notification.getEventType());
+			assertSame(testResource, notification.getNotifier());
+			
+			startReading();
+			assertEquals("Bulk Library", root.getName()); //$NON-NLS-1$
+			assertNotNull(find("root/Bulk Book 99")); //$NON-NLS-1$
+			commit();
+		} finally {
+			domain.removeResourceSetListener(listener);
+		}
+	}
+
+	/**
+	 * Tests that a transaction that exceeds its memory budget rolls back
+	 * under the default policy.
+	 */
+	public void test_memoryBudget_fail() {
+		Transaction tx = null;
+		
+		try {
+			tx = ((InternalTransactionalEditingDomain) domain).startTransaction(false,
+				Collections.singletonMap(Transaction.OPTION_MEMORY_BUDGET, 1000L));
+			
+			int added = 0;
+			
+			try {
+				for (int i = 0; i < 100; i++) {
+					Book book = EXTLibraryFactory.eINSTANCE.createBook();
+					book.setTitle("Budget Book " + i); //$NON-NLS-1$
+					root.getBooks().add(book);
+					added++;
+				}
+				
+				fail("Should have rejected changes over the memory budget"); //$NON-NLS-1$
+			} catch (IllegalStateException e) {
+				// expected exception
+				trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+			}
+			
+			assertTrue(added < 100);
+			assertTrue(((TransactionImpl) tx).getMemoryUsage() > 1000L);
+			
+			tx.commit();
+			fail("Should have rolled back because of the memory budget"); //$NON-NLS-1$
+		} catch (RollbackException e) {
+			// expected exception
+			assertEquals(EMFTransactionStatusCodes.MEMORY_BUDGET_EXCEEDED,
+				e.getStatus().getCode());
+		} catch (Exception e) {
+			fail(e);
+		}
+		
+		assertFalse(tx.isActive());
+		
+		startReading();
+		assertNull(find("root/Budget Book 0")); //$NON-NLS-1$
+		commit();
+	}
+
+	/**
+	 * Tests that a transaction that exceeds its memory budget summarizes
+	 * its further changes under the summarizing policy.
+	 */
+	public void test_memoryBudget_summarize() {
+		TestListener listener = new TestListener();
+		domain.addResourceSetListener(listener);
+		
+		try {
+			Map<Object, Object> options = new java.util.HashMap<Object, Object>();
+			options.put(Transaction.OPTION_MEMORY_BUDGET, 1000L);
+			options.put(Transaction.OPTION_MEMORY_BUDGET_POLICY,
+				Transaction.MEMORY_BUDGET_SUMMARIZE);
+			options.put(Transaction.OPTION_NO_UNDO, Boolean.TRUE);
+			options.put(Transaction.OPTION_NO_TRIGGERS, Boolean.TRUE);
+			options.put(Transaction.OPTION_NO_VALIDATION, Boolean.TRUE);
+			
+			startWriting(options);
+			
+			for (int i = 0; i < 100; i++) {
+				Book book = EXTLibraryFactory.eINSTANCE.createBook();
+				book.setTitle("Budget Book " + i); //$NON-NLS-1$
+				root.getBooks().add(book);
+			}
+			
+			commit();
+			
+			assertNotNull(listener.postcommitNotifications);
+			assertTrue(listener.postcommitNotifications.size() < 100);
+			
+			// the notifications retained within the budget, then the summary
+			Notification last = listener.postcommitNotifications.get(
+				listener.postcommitNotifications.size() - 1);
+			assertTrue(last instanceof BulkChangeNotification);
+			assertSame(testResource, last.getNotifier());
+			
+			startReading();
+			assertNotNull(find("root/Budget Book 99")); //$NON-NLS-1$
+			commit();
+		} finally {
+			domain.removeResourceSetListener(listener);
+		}
+	}
+
+	/**
+	 * Tests that a transaction that exceeds its memory budget fails under
+	 * the summarizing policy if it would need the notifications that it
+	 * summarizes.
+	 */
+	public void test_memoryBudget_summarize_fail() {
+		Transaction tx = null;
+		
+		try {
+			Map<Object, Object> options = new java.util.HashMap<Object, Object>();
+			options.put(Transaction.OPTION_MEMORY_BUDGET, 1000L);
+			options.put(Transaction.OPTION_MEMORY_BUDGET_POLICY,
+				Transaction.MEMORY_BUDGET_SUMMARIZE);
+			
+			tx = ((InternalTransactionalEditingDomain) domain).startTransaction(
+				false, options);
+			
+			try {
+				for (int i = 0; i < 100; i++) {
+					Book book = EXTLibraryFactory.eINSTANCE.createBook();
+					book.setTitle("Budget Book " + i); //$NON-NLS-1$
+					root.getBooks().add(book);
+				}
+				
+				fail("Should have rejected changes over the memory budget"); //$NON-NLS-1$
+			} catch (IllegalStateException e) {
+				// expected exception
+				trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+			}
+			
+			tx.commit();
+			fail("Should have rolled back because of the memory budget"); //$NON-NLS-1$
+		} catch (RollbackException e) {
+			// expected exception
+			assertEquals(EMFTransactionStatusCodes.MEMORY_BUDGET_EXCEEDED,
+				e.getStatus().getCode());
+		} catch (Exception e) {
+			fail(e);
+		}
+		
+		assertFalse(tx.isActive());
+		
+		startReading();
+		assertNull(find("root/Budget Book 0")); //$NON-NLS-1$
+		commit();
+	}
+
+	/**
+	 * Tests that a transaction without a memory budget does not account
+	 * for its memory.
+	 */
+	public void test_memoryBudget_none() {
+		Transaction tx = null;
+		
+		try {
+			tx = ((InternalTransactionalEditingDomain) domain).startTransaction(
+				false, null);
+			
+			Book book = EXTLibraryFactory.eINSTANCE.createBook();
+			book.setTitle("Budget Book"); //$NON-NLS-1$
+			root.getBooks().add(book);
+			
+			assertEquals(0L, ((TransactionImpl) tx).getMemoryUsage());
+			
+			tx.commit();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
 	/**
 	 * Tests that the <code>OPTION_NO_UNDO</code> results in a
 	 * <code>RecordingCommand</code> not doing anything when undone.
@@ -612,6 +828,444 @@ public class TransactionOptionsTest extends AbstractTest {
         
         assertNull("Shouldn't have received notifications", l.postcommit); //$NON-NLS-1$
     }
+    
+    /**
+     * Tests that a read-only transaction without options of its own still
+     * inherits the default transaction options, also in the transactions
+     * that it nests.
+     */
+    public void test_defaultTransactionOptions_read() {
+        TransactionalEditingDomain.DefaultOptions defaults = TransactionUtil
+            .getAdapter(domain, TransactionalEditingDomain.DefaultOptions.class);
+        
+        defaults.setDefaultTransactionOptions(Collections.singletonMap(
+            Transaction.OPTION_NO_NOTIFICATIONS, Boolean.TRUE));
+        
+        TestListener l = new TestListener();
+        domain.addResourceSetListener(l);
+        
+        startReading();
+        assertEquals(Boolean.TRUE, getActiveTransaction().getOptions().get(
+            Transaction.OPTION_NO_NOTIFICATIONS));
+        
+        startWriting(Transaction.OPTION_UNPROTECTED);
+        root.setName("Silent"); //$NON-NLS-1$
+        commit();
+        
+        commit();
+        
+        assertNull("Shouldn't have received notifications", l.postcommit); //$NON-NLS-1$
+        
+        // and without defaults, the nested changes are broadcast
+        defaults.setDefaultTransactionOptions(Collections.emptyMap());
+        
+        startReading();
+        assertTrue(getActiveTransaction().getOptions().isEmpty());
+        
+        startWriting(Transaction.OPTION_UNPROTECTED);
+        root.setName("Loud"); //$NON-NLS-1$
+        commit();
+        
+        commit();
+        
+        assertNotNull(l.postcommitNotifications);
+        assertEquals(1, l.postcommitNotifications.size());
+    }
+    
+    /**
+     * Tests that the compiled option profile of a transaction agrees with
+     * its options map, including the options that it inherits, and that it
+     * accounts for the options of the transactions that it is nested in.
+     */
+    public void test_optionProfile() {
+        startWriting(Transaction.OPTION_NO_UNDO);
+        
+        TransactionOptionProfile profile = TransactionOptionProfile.of(
+            getActiveTransaction());
+        assertFalse(profile.isUndoEnabled());
+        assertTrue(profile.isValidationEnabled());
+        assertFalse(profile.isInUndoableContext());
+        
+        // inherits the option
+        startWriting();
+        
+        assertEquals(Boolean.TRUE, getActiveTransaction().getOptions().get(
+            Transaction.OPTION_NO_UNDO));
+        profile = TransactionOptionProfile.of(getActiveTransaction());
+        assertFalse(profile.isUndoEnabled());
+        
+        // overrides the option, but not its context
+        startWriting(Collections.singletonMap(Transaction.OPTION_NO_UNDO,
+            Boolean.FALSE));
+        
+        profile = TransactionOptionProfile.of(getActiveTransaction());
+        assertTrue(profile.isUndoEnabled());
+        assertFalse(profile.isInUndoableContext());
+        assertFalse(profile.isInTriggerContext());
+        
+        commit();
+        commit();
+        commit();
+        
+        startReading();
+        
+        profile = TransactionOptionProfile.of(getActiveTransaction());
+        assertFalse(profile.isUndoEnabled());
+        assertFalse(profile.isTriggerEnabled());
+        assertTrue(profile.isNotificationEnabled());
+        assertTrue(profile.collectsNotifications());
+        assertTrue(profile.isInUndoableContext());
+        
+        commit();
+    }
+    
+    /**
+     * Tests that a transaction gives up waiting for the lock when its
+     * time-out elapses, without starting, and that the command stack
+     * propagates the distinct exception.
+     */
+    public void test_lockTimeout() {
+        final Object sync = new Object();
+        
+        Runnable run = new Runnable() {
+            public void run() {
+                synchronized (sync) {
+                    startWriting();
+                    
+                    sync.notifyAll();
+                    
+                    try {
+                        sync.wait();
+                    } catch (Exception e) {
+                        fail("Wait failed in thread"); //$NON-NLS-1$
+                    }
+                    
+                    commit();
+                    
+                    sync.notifyAll();
+                }
+            }};
+        
+        Map<?, ?> options = Collections.singletonMap(
+            Transaction.OPTION_LOCK_TIMEOUT, Long.valueOf(200L));
+        Command command = new AddCommand(
+            domain, root, EXTLibraryPackage.Literals.LIBRARY__WRITERS,
+            EXTLibraryFactory.eINSTANCE.createWriter());
+        
+        synchronized (sync) {
+            Thread t = new Thread(run);
+            t.setDaemon(true);
+            t.start();
+            
+            try {
+                sync.wait();
+            } catch (Exception e) {
+                fail("Wait failed on main"); //$NON-NLS-1$
+            }
+        }
+        
+        long start = System.currentTimeMillis();
+        
+        try {
+            getCommandStack().execute(command, options);
+            fail("Should have timed out"); //$NON-NLS-1$
+        } catch (LockTimeoutException e) {
+            // success
+            assertEquals(200L, e.getTimeout());
+            assertTrue(System.currentTimeMillis() - start >= 200L);
+        } catch (Exception e) {
+            fail(e);
+        }
+        
+        assertNotSame(command, domain.getCommandStack().getMostRecentCommand());
+        
+        synchronized (sync) {
+            // let the thread commit and die
+            sync.notifyAll();
+            
+            try {
+                sync.wait();
+            } catch (Exception e) {
+                fail("Wait failed on main"); //$NON-NLS-1$
+            }
+        }
+        
+        try {
+            getCommandStack().execute(command, options);
+        } catch (Exception e) {
+            fail(e);
+        }
+        
+        assertSame(command, domain.getCommandStack().getMostRecentCommand());
+    }
+    
+    /**
+     * Tests that an upgradable read-only transaction can nest read/write
+     * transactions, which are validated when they commit because their
+     * read-only parent is not.
+     */
+    public void test_upgradableRead() {
+        startReading(Transaction.OPTION_UPGRADABLE_READ);
+        
+        final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+        assertNotNull(book);
+        
+        // upgrade without releasing the lock
+        startWriting();
+        book.setTitle("New Title"); //$NON-NLS-1$
+        commit();
+        
+        assertEquals("New Title", book.getTitle()); //$NON-NLS-1$
+        
+        try {
+            Transaction tx = ((InternalTransactionalEditingDomain) domain).startTransaction(false, null);
+            book.setTitle(null);
+            tx.commit();
+            
+            fail("Should have rolled back because of validation"); //$NON-NLS-1$
+        } catch (RollbackException e) {
+            // expected exception
+            assertFalse(findValidationStatuses(e.getStatus(), IStatus.ERROR).isEmpty());
+        } catch (Exception e) {
+            fail(e);
+        }
+        
+        // the invalid change was rolled back
+        assertEquals("New Title", book.getTitle()); //$NON-NLS-1$
+        
+        commit();
+    }
+    
+    /**
+     * Tests that read/write transactions that declare disjoint resources
+     * that they write run concurrently, that those that declare the same
+     * resource do not, and that a write outside of the declared resources
+     * rolls back.
+     */
+    public void test_writeResources() {
+        final InternalTransactionalEditingDomain internalDomain =
+            (InternalTransactionalEditingDomain) domain;
+        final Object sync = new Object();
+        
+        // some other resources that are not likely all to share the test
+        //    resource's stripe
+        final Library[] others = new Library[3];
+        
+        startWriting();
+        for (int i = 0; i < others.length; i++) {
+            Resource res = domain.getResourceSet().createResource(
+                URI.createURI("http://foo" + i + ".xmi")); //$NON-NLS-1$ //$NON-NLS-2$
+            others[i] = EXTLibraryFactory.eINSTANCE.createLibrary();
+            res.getContents().add(others[i]);
+        }
+        commit();
+        
+        Runnable run = new Runnable() {
+            public void run() {
+                synchronized (sync) {
+                    try {
+                        Transaction tx = internalDomain.startTransaction(false,
+                            Collections.singletonMap(Transaction.OPTION_WRITE_RESOURCES,
+                                Collections.singleton(testResource)));
+                        root.setName("Partitioned"); //$NON-NLS-1$
+                        
+                        sync.notifyAll();
+                        sync.wait();
+                        
+                        tx.commit();
+                    } catch (Exception e) {
+                        fail(e);
+                    } finally {
+                        sync.notifyAll();
+                    }
+                }
+            }};
+        
+        synchronized (sync) {
+            Thread t = new Thread(run);
+            t.setDaemon(true);
+            t.start();
+            
+            try {
+                sync.wait();
+            } catch (Exception e) {
+                fail("Wait failed on main"); //$NON-NLS-1$
+            }
+        }
+        
+        Map<Object, Object> options = new java.util.HashMap<Object, Object>();
+        options.put(Transaction.OPTION_LOCK_TIMEOUT, Long.valueOf(200L));
+        
+        // the same resource is excluded
+        options.put(Transaction.OPTION_WRITE_RESOURCES,
+            Collections.singleton(testResource));
+        try {
+            internalDomain.startTransaction(false, options);
+            fail("Should have timed out"); //$NON-NLS-1$
+        } catch (LockTimeoutException e) {
+            // success
+        } catch (Exception e) {
+            fail(e);
+        }
+        
+        // but another resource is not
+        boolean concurrent = false;
+        for (int i = 0; !concurrent && (i < others.length); i++) {
+            options.put(Transaction.OPTION_WRITE_RESOURCES,
+                Collections.singleton(others[i].eResource()));
+            
+            try {
+                Transaction tx = internalDomain.startTransaction(false, options);
+                others[i].setName("Concurrent"); //$NON-NLS-1$
+                tx.commit();
+                
+                concurrent = true;
+            } catch (LockTimeoutException e) {
+                // this one shares the stripe.  Try the next
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+        
+        assertTrue("No partitioned write ran concurrently", concurrent); //$NON-NLS-1$
+        
+        synchronized (sync) {
+            // let the thread commit and die
+            sync.notifyAll();
+            
+            try {
+                sync.wait();
+            } catch (Exception e) {
+                fail("Wait failed on main"); //$NON-NLS-1$
+            }
+        }
+        
+        assertEquals("Partitioned", root.getName()); //$NON-NLS-1$
+        
+        // a write outside of the declared resources rolls back
+        options.put(Transaction.OPTION_WRITE_RESOURCES,
+            Collections.singleton(others[0].eResource()));
+        
+        try {
+            Transaction tx = internalDomain.startTransaction(false, options);
+            
+            try {
+                root.setName("Outside"); //$NON-NLS-1$
+                fail("Should have thrown IllegalStateException"); //$NON-NLS-1$
+            } catch (IllegalStateException e) {
+                // success
+                trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+            }
+            
+            tx.commit();
+            fail("Should have rolled back"); //$NON-NLS-1$
+        } catch (RollbackException e) {
+            // success
+            assertEquals(EMFTransactionStatusCodes.PARTITION_VIOLATION,
+                e.getStatus().getCode());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+    
+    /**
+     * Tests that a read/write transaction that yields snapshots lets readers
+     * see the last committed state while it yields, that they cannot write,
+     * and that it commits all of its changes afterwards.
+     */
+    public void test_yieldSnapshots() {
+        final InternalTransactionalEditingDomain internalDomain =
+            (InternalTransactionalEditingDomain) domain;
+        final Object sync = new Object();
+        final boolean[] done = new boolean[1];
+        
+        final Book book = (Book) find("root/Root Book"); //$NON-NLS-1$
+        assertNotNull(book);
+        
+        Runnable run = new Runnable() {
+            public void run() {
+                try {
+                    Transaction tx;
+                    
+                    synchronized (sync) {
+                        tx = internalDomain.startTransaction(false,
+                            Collections.singletonMap(
+                                Transaction.OPTION_YIELD_SNAPSHOTS, Boolean.TRUE));
+                        book.setTitle("Uncommitted"); //$NON-NLS-1$
+                        
+                        sync.notifyAll();
+                    }
+                    
+                    // yield to the reader until it has read
+                    while (!isDone()) {
+                        tx.yield();
+                        Thread.sleep(10L);
+                    }
+                    
+                    assertEquals("Uncommitted", book.getTitle()); //$NON-NLS-1$
+                    tx.commit();
+                } catch (Exception e) {
+                    fail(e);
+                }
+            }
+            
+            private boolean isDone() {
+                synchronized (sync) {
+                    return done[0];
+                }
+            }};
+        
+        Thread t = new Thread(run);
+        t.setDaemon(true);
+        
+        synchronized (sync) {
+            t.start();
+            
+            try {
+                sync.wait();
+            } catch (Exception e) {
+                fail("Wait failed on main"); //$NON-NLS-1$
+            }
+        }
+        
+        try {
+            domain.runExclusive(new Runnable() {
+                public void run() {
+                    // the uncommitted change is not visible
+                    assertEquals("Root Book", book.getTitle()); //$NON-NLS-1$
+                    
+                    try {
+                        internalDomain.startTransaction(false,
+                            Collections.singletonMap(
+                                Transaction.OPTION_UNPROTECTED, Boolean.TRUE));
+                        fail("Should have thrown IllegalStateException"); //$NON-NLS-1$
+                    } catch (IllegalStateException e) {
+                        // success
+                        trace("Got expected exception: " + e.getLocalizedMessage()); //$NON-NLS-1$
+                    } catch (InterruptedException e) {
+                        fail(e);
+                    }
+                }});
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            synchronized (sync) {
+                done[0] = true;
+            }
+        }
+        
+        try {
+            t.join(5000L);
+        } catch (InterruptedException e) {
+            fail(e);
+        }
+        
+        assertFalse("Writer did not finish", t.isAlive()); //$NON-NLS-1$
+        
+        startReading();
+        assertEquals("Uncommitted", book.getTitle()); //$NON-NLS-1$
+        commit();
+    }
 	
 	//
 	// Fixture methods
@@ -31,6 +31,7 @@ public class InternalUtilTests
 		TestSuite suite = new TestSuite("Internal Utility Tests"); //$NON-NLS-1$
 
 		suite.addTest(LockTest.suite());
+		suite.addTest(StandaloneLockTest.suite());
 		suite.addTest(CompositeChangeDescriptionTest.suite());
 		suite.addTest(TransactionUtilTests.suite());
 
@@ -30,6 +30,7 @@ import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.emf.transaction.tests.AbstractTest;
 import org.eclipse.emf.transaction.tests.fixtures.JobListener;
 import org.eclipse.emf.transaction.util.Lock;
+import org.eclipse.emf.transaction.util.LockMetrics;
 import org.eclipse.ui.PlatformUI;
 
 /**
@@ -800,6 +801,307 @@ public class LockTest extends TestCase {
         }
     }
 	
+	/**
+	 * Tests that any number of threads may share the lock at the same time,
+	 * and that the sharing thread may re-acquire it recursively.
+	 */
+	public void test_acquireShared() {
+		final CountDownLatch shared = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					assertTrue(lock.acquireShared(1000L));
+					shared.countDown();
+					
+					done.await();
+					lock.releaseShared();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+		
+		try {
+			t.start();
+			shared.await();
+			
+			// another reader does not have to wait
+			assertTrue(lock.acquireShared(1000L));
+			assertTrue(lock.acquireShared(1000L));
+			assertEquals(2, lock.getSharedCount());
+			assertNull(lock.getOwner());
+			
+			lock.releaseShared();
+			lock.releaseShared();
+			
+			done.countDown();
+			t.join();
+			
+			assertEquals(0, lock.getSharedCount());
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Tests that a thread cannot own the lock while other threads share it,
+	 * and that a thread cannot share it while another thread is waiting to
+	 * own it.
+	 */
+	public void test_acquireShared_exclusion() {
+		final CountDownLatch shared = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					assertTrue(lock.acquireShared(1000L));
+					shared.countDown();
+					
+					done.await();
+					lock.releaseShared();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+		
+		Thread writer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					lock.acquire(true);
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+		
+		try {
+			t.start();
+			shared.await();
+			
+			// cannot own the lock while it is shared
+			assertFalse(lock.acquire(500L, true));
+			
+			// now, let another thread wait to own the lock
+			writer.start();
+			Thread.sleep(500L);
+			
+			// and a new reader must wait its turn after it
+			assertFalse(lock.acquireShared(500L));
+			
+			done.countDown();
+			t.join();
+			writer.join();
+			
+			// everybody is done, so now I may read
+			assertTrue(lock.acquireShared(500L));
+			lock.releaseShared();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Tests that many waiting threads are awakened in the order in which they
+	 * started waiting, also when readers and writers are mixed and some of
+	 * them time out periodically.
+	 */
+	public void test_manyWaiters_fifo() {
+		final int count = 50;
+		final java.util.List<Integer> order = java.util.Collections.synchronizedList(
+			new java.util.ArrayList<Integer>());
+		Thread[] threads = new Thread[count];
+		
+		try {
+			lock.acquire(true);
+			
+			for (int i = 0; i < count; i++) {
+				final int index = i;
+				threads[i] = new Thread(new Runnable() {
+					public void run() {
+						try {
+							// odd threads poll with a time-out, to exercise
+							//    the retention of their place in the queue
+							if ((index % 2) == 0) {
+								lock.acquire((index % 4) == 0);
+							} else {
+								while (!lock.acquire(50L, false)) {
+									// try again
+								}
+							}
+							
+							order.add(Integer.valueOf(index));
+							lock.release();
+						} catch (Exception e) {
+							fail();
+						}
+					}});
+				threads[i].start();
+				
+				// let the thread get into the queue
+				Thread.sleep(20L);
+			}
+			
+			lock.release();
+			
+			for (Thread next : threads) {
+				next.join();
+			}
+			
+			assertEquals(count, order.size());
+			
+			// a polling thread may lose its turn if it happens to be between
+			//    time-outs, but the others must be strictly in order
+			int expected = 0;
+			for (Integer next : order) {
+				if ((next.intValue() % 2) == 0) {
+					assertEquals(expected, next.intValue());
+					expected += 2;
+				}
+			}
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Tests that threads racing to take the free lock, which they may do
+	 * without contending for its monitor, still exclude one another and
+	 * readers, and leave the lock free when they are done.
+	 */
+	public void test_uncontendedFastPath_exclusion() {
+		final int threads = 8;
+		final int iterations = 5000;
+		final int[] counter = new int[1];
+		final java.util.concurrent.atomic.AtomicInteger violations =
+			new java.util.concurrent.atomic.AtomicInteger();
+		final java.util.concurrent.atomic.AtomicInteger inside =
+			new java.util.concurrent.atomic.AtomicInteger();
+		
+		// failures in the workers are reported on the test thread
+		final java.util.List<Exception> failures = java.util.Collections.synchronizedList(
+			new java.util.ArrayList<Exception>());
+		
+		Runnable worker = new Runnable() {
+			public void run() {
+				try {
+					for (int i = 0; i < iterations; i++) {
+						if ((i % 5) == 4) {
+							lock.acquireShared(0L);
+							if (inside.get() != 0) {
+								violations.incrementAndGet();
+							}
+							lock.releaseShared();
+						} else {
+							lock.acquire((i % 2) == 0);
+							if (inside.incrementAndGet() != 1) {
+								violations.incrementAndGet();
+							}
+							
+							// re-entrant acquisition
+							lock.acquire(false);
+							counter[0]++;
+							lock.release();
+							
+							inside.decrementAndGet();
+							lock.release();
+						}
+					}
+				} catch (Exception e) {
+					failures.add(e);
+				}
+			}};
+		
+		try {
+			Thread[] workers = new Thread[threads];
+			for (int i = 0; i < threads; i++) {
+				workers[i] = new Thread(worker);
+				workers[i].start();
+			}
+			for (Thread next : workers) {
+				next.join();
+			}
+			
+			if (!failures.isEmpty()) {
+				fail(failures.get(0));
+			}
+			
+			assertEquals(0, violations.get());
+			assertEquals(threads * iterations * 4 / 5, counter[0]);
+			assertNull(lock.getOwner());
+			assertEquals(0, lock.getSharedCount());
+			
+			// and the lock is still usable
+			lock.acquire(true);
+			assertSame(Thread.currentThread(), lock.getOwner());
+			lock.release();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
+	/**
+	 * Tests the recording of wait times, hold times, and time-outs in the
+	 * lock's metrics.
+	 */
+	public void test_metrics() {
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		
+		LockMetrics metrics = lock.getMetrics();
+		assertSame(metrics, lock.getMetrics());
+		
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					lock.acquire(true);
+					acquired.countDown();
+					done.await();
+					Thread.sleep(100L);
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+		
+		try {
+			t.start();
+			acquired.await();
+			
+			assertFalse(lock.acquire(100L, false));
+			assertEquals(1L, metrics.getTimeoutCount());
+			assertEquals(0, metrics.getQueueLength()); // no longer waiting
+			assertEquals(0, metrics.getExclusiveQueueLength());
+			
+			done.countDown();
+			lock.acquire(false);
+			lock.acquire(true); // nested acquisitions are not counted
+			lock.release();
+			lock.release();
+			t.join();
+			
+			assertEquals(1L, metrics.getExclusiveAcquireCount());
+			assertEquals(1L, metrics.getReadAcquireCount());
+			assertTrue(metrics.getWaitTimes(false).getMaxNanos() >= 100000000L);
+			assertEquals(1L, metrics.getHoldTimes(true).getCount());
+			assertTrue(metrics.getExclusiveHoldMaxMillis() >= 100.0);
+			assertEquals(t.getName(), metrics.getLongestExclusiveHolder());
+			assertEquals(0, metrics.getQueueLength());
+			
+			lock.acquireShared(0L);
+			lock.releaseShared();
+			assertEquals(2L, metrics.getReadAcquireCount());
+			assertEquals(2L, metrics.getHoldTimes(false).getCount());
+			
+			metrics.reset();
+			assertEquals(0L, metrics.getReadAcquireCount());
+			assertEquals(0L, metrics.getTimeoutCount());
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+	
 	
 	//
 	// Fixture methods
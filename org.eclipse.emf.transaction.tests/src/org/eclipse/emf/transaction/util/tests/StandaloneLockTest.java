@@ -0,0 +1,657 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransaction;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.TransactionalCommandStackImpl;
+import org.eclipse.emf.transaction.impl.TransactionalEditingDomainImpl;
+import org.eclipse.emf.transaction.tests.AbstractTest;
+import org.eclipse.emf.transaction.util.LockSchedulingPolicy;
+import org.eclipse.emf.transaction.util.StandaloneLock;
+import org.eclipse.emf.transaction.util.TransactionLockFactory;
+
+/**
+ * Tests the {@link StandaloneLock} class.
+ */
+public class StandaloneLockTest extends TestCase {
+
+	private StandaloneLock lock;
+
+	public StandaloneLockTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(StandaloneLockTest.class, "Standalone Transaction Lock Tests"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a thread can acquire and release the lock recursively.
+	 */
+	public void test_acquire() {
+		try {
+			assertNull(lock.getOwner());
+			assertEquals(0, lock.getDepth());
+
+			lock.acquire(false);
+			lock.acquire(true);
+			assertSame(Thread.currentThread(), lock.getOwner());
+			assertEquals(2, lock.getDepth());
+
+			lock.release();
+			lock.release();
+			assertNull(lock.getOwner());
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that a thread attempting to acquire times out while another
+	 * thread owns the lock, and then gets it when the owner releases it.
+	 */
+	public void test_waitForAcquire_timeout() {
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					lock.acquire(true);
+					acquired.countDown();
+					done.await();
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		try {
+			t.start();
+			acquired.await();
+
+			long start = System.currentTimeMillis();
+			assertFalse(lock.acquire(500L, false));
+			assertTrue(System.currentTimeMillis() - start >= 500L);
+
+			done.countDown();
+			assertTrue(lock.acquire(5000L, false));
+			lock.release();
+			t.join();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that a thread waiting for the lock may be interrupted.
+	 */
+	public void test_interrupt_acquire() {
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					lock.acquire(true);
+					acquired.countDown();
+					done.await();
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		final Thread current = Thread.currentThread();
+		Thread interrupter = new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(500L);
+					current.interrupt();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		try {
+			t.start();
+			acquired.await();
+			interrupter.start();
+
+			try {
+				lock.acquire(false);
+				fail("Should have been interrupted"); //$NON-NLS-1$
+			} catch (InterruptedException e) {
+				// success
+			}
+
+			done.countDown();
+			t.join();
+
+			// the interrupted thread gave up its place in the queue
+			assertNull(lock.getOwner());
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that a thread holding the lock non-exclusively can yield it to
+	 * another thread that wants non-exclusive access, but that exclusive
+	 * access must wait until the yielding thread is done.
+	 */
+	public void test_yield() {
+		final CountDownLatch waiting = new CountDownLatch(1);
+		final boolean[] exclusiveAcquired = new boolean[1];
+
+		Thread reader = new Thread(new Runnable() {
+			public void run() {
+				try {
+					waiting.countDown();
+					lock.acquire(false);
+
+					// while I have the lock, the yielder cannot be resumed
+					assertSame(Thread.currentThread(), lock.getOwner());
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		Thread writer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					lock.acquire(true);
+					exclusiveAcquired[0] = true;
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		try {
+			lock.acquire(false);
+
+			// nobody is waiting:  nothing to yield to
+			assertFalse(lock.yield());
+
+			reader.start();
+			waiting.await();
+			Thread.sleep(200L);
+
+			assertTrue(lock.yield());
+			lock.release();
+
+			// the writer cannot get in while I am yielding
+			writer.start();
+			reader.join();
+			Thread.sleep(200L);
+			assertFalse(exclusiveAcquired[0]);
+
+			// resume
+			lock.acquire(false);
+			lock.release();
+
+			writer.join();
+			assertTrue(exclusiveAcquired[0]);
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests the transfer of the lock to another thread, as for privileged
+	 * runnables.
+	 */
+	public void test_transfer() {
+		final Thread current = Thread.currentThread();
+		final boolean[] ownedByOther = new boolean[1];
+
+		try {
+			lock.acquire(true);
+
+			Thread t = new Thread(new Runnable() {
+				public void run() {
+					lock.checkedTransfer(Thread.currentThread());
+					ownedByOther[0] = (lock.getOwner() == Thread.currentThread())
+						&& (lock.getDepth() == 1);
+					lock.checkedTransfer(current);
+				}});
+			t.start();
+			t.join();
+
+			assertTrue(ownedByOther[0]);
+			assertSame(current, lock.getOwner());
+			lock.release();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that readers share the lock and exclude an owner.
+	 */
+	public void test_acquireShared() {
+		final CountDownLatch shared = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					assertTrue(lock.acquireShared(1000L));
+					shared.countDown();
+					done.await();
+					lock.releaseShared();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		try {
+			t.start();
+			shared.await();
+
+			assertTrue(lock.acquireShared(1000L));
+			assertEquals(2, lock.getSharedCount());
+			lock.releaseShared();
+
+			assertFalse(lock.acquire(200L, true));
+
+			done.countDown();
+			assertTrue(lock.acquire(5000L, true));
+			lock.release();
+			t.join();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that a writer that timed out waiting for the lock does not
+	 * hold up readers that arrive after it.
+	 */
+	public void test_acquireShared_afterTimedOutWriter() {
+		final boolean[] acquired = new boolean[] {true};
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					acquired[0] = lock.acquire(200L, true);
+
+					if (acquired[0]) {
+						lock.release();
+					}
+				} catch (InterruptedException e) {
+					// the result is true, then, to fail the test
+				}
+			}});
+
+		try {
+			assertTrue(lock.acquireShared(1000L));
+
+			t.start();
+			t.join();
+			assertFalse(acquired[0]);
+
+			// the writer is no longer waiting, so it is not preferred
+			assertTrue(acquireSharedOnOtherThread(1000L));
+
+			lock.releaseShared();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Tests that an upgradable reader shares the lock with other readers
+	 * until it upgrades, and that it upgrades without releasing the lock.
+	 */
+	public void test_acquireUpgradable() {
+		final CountDownLatch shared = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					assertTrue(lock.acquireShared(1000L));
+					shared.countDown();
+					done.await();
+					lock.releaseShared();
+				} catch (Exception e) {
+					fail();
+				}
+			}});
+
+		try {
+			assertTrue(lock.acquireUpgradable(1000L));
+			t.start();
+			shared.await();
+			assertEquals(1, lock.getSharedCount());
+			assertSame(Thread.currentThread(), lock.getOwner());
+
+			// cannot upgrade while the other thread reads
+			assertFalse(lock.acquire(200L, true));
+			assertEquals(1, lock.getDepth());
+			assertTrue(acquireSharedOnOtherThread(1000L));
+
+			done.countDown();
+			assertTrue(lock.acquire(5000L, true));
+			assertEquals(2, lock.getDepth());
+			assertEquals(0, lock.getSharedCount());
+
+			// no readers while upgraded
+			assertFalse(acquireSharedOnOtherThread(200L));
+
+			// downgrade
+			lock.release();
+			assertSame(Thread.currentThread(), lock.getOwner());
+			assertTrue(acquireSharedOnOtherThread(1000L));
+
+			lock.release();
+			assertNull(lock.getOwner());
+			t.join();
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Attempts to share the lock on another thread, releasing it again if
+	 * successful.
+	 *
+	 * @param timeout the time-out of the attempt
+	 * @return whether the other thread got to share the lock
+	 *
+	 * @throws InterruptedException if interrupted while waiting for the
+	 *     other thread
+	 */
+	private boolean acquireSharedOnOtherThread(final long timeout) throws InterruptedException {
+		final boolean[] result = new boolean[1];
+
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				try {
+					result[0] = lock.acquireShared(timeout);
+
+					if (result[0]) {
+						lock.releaseShared();
+					}
+				} catch (InterruptedException e) {
+					// the result is false, then
+				}
+			}});
+
+		t.start();
+		t.join();
+
+		return result[0];
+	}
+
+	/**
+	 * Tests that an editing domain created with the standalone lock factory
+	 * excludes concurrent writers.
+	 */
+	public void test_editingDomain() {
+		final TransactionalEditingDomain domain = new TransactionalEditingDomainImpl(
+			new ComposedAdapterFactory(ComposedAdapterFactory.Descriptor.Registry.INSTANCE),
+			new TransactionalCommandStackImpl(),
+			TransactionLockFactory.STANDALONE);
+		final int[] counter = new int[1];
+		final int threads = 4;
+		final int iterations = 250;
+
+		Runnable writer = new Runnable() {
+			public void run() {
+				for (int i = 0; i < iterations; i++) {
+					domain.getCommandStack().execute(new RecordingCommand(domain) {
+						@Override
+						protected void doExecute() {
+							int value = counter[0];
+							Thread.yield();
+							counter[0] = value + 1;
+						}});
+				}
+			}};
+
+		try {
+			Thread[] workers = new Thread[threads];
+			for (int i = 0; i < threads; i++) {
+				workers[i] = new Thread(writer);
+				workers[i].start();
+			}
+			for (Thread next : workers) {
+				next.join();
+			}
+
+			assertEquals(threads * iterations, counter[0]);
+		} catch (Exception e) {
+			fail(e);
+		} finally {
+			domain.dispose();
+		}
+	}
+
+	/**
+	 * Stress-tests an editing domain with the standalone lock by running
+	 * a hundred thousand short read and write transactions, each on its own
+	 * virtual thread.  This requires Java 21 or later, and is skipped on
+	 * earlier releases.
+	 */
+	public void test_virtualThreads_editingDomain() throws Exception {
+		ExecutorService executor;
+
+		try {
+			executor = (ExecutorService) Executors.class.getMethod(
+				"newVirtualThreadPerTaskExecutor").invoke(null); //$NON-NLS-1$
+		} catch (NoSuchMethodException e) {
+			AbstractTest.trace("===> Skipped: virtual threads require Java 21"); //$NON-NLS-1$
+			return;
+		}
+
+		final TransactionalEditingDomain domain = new TransactionalEditingDomainImpl(
+			new ComposedAdapterFactory(ComposedAdapterFactory.Descriptor.Registry.INSTANCE),
+			new TransactionalCommandStackImpl(),
+			TransactionLockFactory.STANDALONE);
+		final int transactions = 100000;
+		final int[] counter = new int[1];
+		final AtomicInteger reads = new AtomicInteger();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		try {
+			for (int i = 0; i < transactions; i++) {
+				final boolean write = (i % 4) == 0;
+
+				executor.execute(new Runnable() {
+					public void run() {
+						try {
+							if (write) {
+								InternalTransaction tx = ((InternalTransactionalEditingDomain) domain)
+									.startTransaction(false, null);
+								try {
+									counter[0]++;
+								} finally {
+									tx.commit();
+								}
+							} else {
+								domain.runExclusive(new Runnable() {
+									public void run() {
+										reads.incrementAndGet();
+									}});
+							}
+						} catch (Throwable t) {
+							// report the first failure on the test thread
+							failure.compareAndSet(null, t);
+						}
+					}});
+			}
+
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5L, TimeUnit.MINUTES));
+
+			Throwable t = failure.get();
+			if (t instanceof Error) {
+				throw (Error) t;
+			} else if (t != null) {
+				throw (Exception) t;
+			}
+
+			assertEquals(transactions / 4, counter[0]);
+			assertEquals(transactions - (transactions / 4), reads.get());
+		} finally {
+			executor.shutdownNow();
+			domain.dispose();
+		}
+	}
+
+	/**
+	 * Tests that the priority scheduling policy hands the lock to an
+	 * interactive thread before a background thread that queued first.
+	 */
+	public void test_priorityPolicy() {
+		lock.setSchedulingPolicy(LockSchedulingPolicy.PRIORITY);
+
+		assertEquals(Arrays.asList("interactive", "background"), //$NON-NLS-1$ //$NON-NLS-2$
+			getAcquisitionOrder());
+	}
+
+	/**
+	 * Tests that the priority scheduling policy does not let an interactive
+	 * thread overtake a background thread that has waited for longer than
+	 * the starvation limit.
+	 */
+	public void test_priorityPolicy_starvation() {
+		lock.setSchedulingPolicy(LockSchedulingPolicy.priority(1L));
+
+		assertEquals(Arrays.asList("background", "interactive"), //$NON-NLS-1$ //$NON-NLS-2$
+			getAcquisitionOrder());
+	}
+
+	/**
+	 * Queues a background thread and then an interactive thread for the lock
+	 * while the current thread owns it, and records the order in which they
+	 * acquire it when it is released.
+	 *
+	 * @return the names of the threads in the order of acquisition
+	 */
+	private List<String> getAcquisitionOrder() {
+		final List<String> result = Collections.synchronizedList(new ArrayList<String>());
+
+		class Acquirer extends Thread {
+			private final int priority;
+
+			Acquirer(String name, int priority) {
+				super(name);
+				this.priority = priority;
+			}
+
+			@Override
+			public void run() {
+				try {
+					lock.uiSafeAcquire(true, priority);
+					result.add(getName());
+					lock.release();
+				} catch (Exception e) {
+					fail();
+				}
+			}
+		}
+
+		Thread background = new Acquirer("background", LockSchedulingPolicy.PRIORITY_BACKGROUND); //$NON-NLS-1$
+		Thread interactive = new Acquirer("interactive", LockSchedulingPolicy.PRIORITY_INTERACTIVE); //$NON-NLS-1$
+
+		try {
+			lock.acquire(true);
+
+			background.start();
+			awaitQueueLength(1);
+			Thread.sleep(50L);
+
+			interactive.start();
+			awaitQueueLength(2);
+
+			lock.release();
+
+			background.join(5000L);
+			interactive.join(5000L);
+		} catch (Exception e) {
+			fail(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Waits until the specified number of threads are waiting for the lock.
+	 *
+	 * @param length the expected length of the lock's wait queue
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void awaitQueueLength(int length) throws InterruptedException {
+		for (int i = 0; (i < 500) && (lock.getMetrics().getQueueLength() < length); i++) {
+			Thread.sleep(10L);
+		}
+
+		assertEquals(length, lock.getMetrics().getQueueLength());
+	}
+
+	//
+	// Fixture methods
+	//
+
+	@Override
+	protected void setUp()
+		throws Exception {
+
+		AbstractTest.trace("===> Begin : " + getName()); //$NON-NLS-1$
+
+		lock = new StandaloneLock();
+	}
+
+	@Override
+	protected void tearDown()
+		throws Exception {
+
+		lock = null;
+
+		AbstractTest.trace("===> End   : " + getName()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Records a failure due to an exception that should not have been thrown.
+	 *
+	 * @param e the exception
+	 */
+	protected void fail(Exception e) {
+		e.printStackTrace();
+		fail("Should not have thrown: " + e.getLocalizedMessage()); //$NON-NLS-1$
+	}
+}
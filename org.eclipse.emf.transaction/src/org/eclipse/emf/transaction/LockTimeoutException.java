@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction;
+
+import org.eclipse.emf.transaction.internal.l10n.Messages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Exception indicating that a transaction could not be started because the
+ * editing domain's lock could not be obtained within the time-out specified
+ * by the {@link Transaction#OPTION_LOCK_TIMEOUT} option.  The transaction was
+ * not started and the calling thread holds no lock on its account, so the
+ * caller may simply give up, for example to shed load, or try again later.
+ * <p>
+ * For compatibility with the methods that start transactions, which may be
+ * interrupted while they wait for the lock, this is an
+ * {@link InterruptedException}.  However, the calling thread was not
+ * interrupted, so callers that distinguish time-outs from interrupts
+ * should catch this exception first.
+ * </p>
+ * 
+ * @see Transaction#OPTION_LOCK_TIMEOUT
+ * 
+ * @since 1.10
+ */
+public class LockTimeoutException
+	extends InterruptedException {
+
+	private static final long serialVersionUID = 3105478227369587741L;
+
+	private final long timeout;
+
+	/**
+	 * Initializes me with the time-out that elapsed.
+	 * 
+	 * @param timeout the time-out, in milliseconds
+	 */
+	public LockTimeoutException(long timeout) {
+		super(NLS.bind(Messages.lockTimeout, Long.valueOf(timeout)));
+		
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Obtains the time-out that elapsed before the lock could be obtained.
+	 * 
+	 * @return the time-out, in milliseconds
+	 */
+	public final long getTimeout() {
+		return timeout;
+	}
+}
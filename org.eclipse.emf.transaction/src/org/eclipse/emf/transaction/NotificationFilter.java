@@ -12,6 +12,12 @@
  */
 package org.eclipse.emf.transaction;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
@@ -20,6 +26,8 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.transaction.impl.NotificationIndex;
+import org.eclipse.emf.transaction.internal.NotificationFilterAccess;
 
 /**
  * A filter that determines which {@link Notification}s will be passed to
@@ -40,6 +48,13 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
  * Since the EMF Transaction 1.3 release, clients can implement arbitrary
  * filter criteria by specializing the {@link NotificationFilter.Custom} class.
  * </p>
+ * <p>
+ * Since the EMF Transaction 1.10 release, the filters created by the factories
+ * of this class are expressions that can be inspected by their
+ * {@linkplain #getKind() kind}, {@linkplain #getArguments() arguments}, and
+ * {@linkplain #getOperands() operands}, that are equal if they are
+ * structurally equal, and that can be {@linkplain #optimize() optimized}.
+ * </p>
  *
  * @author Christian W. Damus (cdamus)
  * 
@@ -47,8 +62,16 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
  * @see Notification
  */
 public abstract class NotificationFilter {
+	// these must be initialized before the filter constants
+	private static final Object[] NO_ARGUMENTS = {};
+	private static final NotificationFilter[] NO_OPERANDS = {};
+	
+	/** Marks the index keys as not yet computed. */
+	private static final NotificationIndex.Key[] NOT_COMPUTED =
+		new NotificationIndex.Key[0];
+	
 	/** As its name implies, this filter matches any notification. */
-	public static final NotificationFilter ANY = new NotificationFilter() {
+	public static final NotificationFilter ANY = new NotificationFilter(Kind.ANY) {
 		@Override
 		public boolean matches(Notification notification) {
 			return true;
@@ -59,7 +82,7 @@ public abstract class NotificationFilter {
 	 * 
 	 * @see Notification#isTouch()
 	 */
-	public static final NotificationFilter NOT_TOUCH = new NotificationFilter() {
+	public static final NotificationFilter NOT_TOUCH = new NotificationFilter(Kind.NOT_TOUCH) {
 		@Override
 		public boolean matches(Notification notification) {
 			return !notification.isTouch();
@@ -84,7 +107,7 @@ public abstract class NotificationFilter {
 	/**
 	 * A filter matching "resource loaded" events.
 	 */
-	public static final NotificationFilter RESOURCE_LOADED = new NotificationFilter() {
+	public static final NotificationFilter RESOURCE_LOADED = new NotificationFilter(Kind.RESOURCE_LOADED) {
 		@Override
 		public boolean matches(Notification notification) {
 			return (notification.getNotifier() instanceof Resource)
@@ -97,7 +120,7 @@ public abstract class NotificationFilter {
 	/**
 	 * A filter matching "resource unloaded" events.
 	 */
-	public static final NotificationFilter RESOURCE_UNLOADED = new NotificationFilter() {
+	public static final NotificationFilter RESOURCE_UNLOADED = new NotificationFilter(Kind.RESOURCE_UNLOADED) {
 		@Override
 		public boolean matches(Notification notification) {
 			return (notification.getNotifier() instanceof Resource)
@@ -107,9 +130,51 @@ public abstract class NotificationFilter {
 					&& !notification.getNewBooleanValue();
 		}};
 	
+	static {
+		// the notification index gets the index keys by this internal access
+		NotificationFilterAccess.setInstance(new NotificationFilterAccess() {
+			@Override
+			protected NotificationIndex.Key[] doGetIndexKeys(NotificationFilter filter) {
+				return filter.getIndexKeys();
+			}
+		});
+	}
+	
+	private final Kind kind;
+	private final Object[] arguments;
+	private final NotificationFilter[] operands;
+	private int hash; // computed on demand
+	
+	private volatile NotificationFilter optimized;
+	private volatile NotificationIndex.Key[] indexKeys = NOT_COMPUTED;
+	
 	/** Cannot be instantiated by clients. */
 	NotificationFilter() {
-		super();
+		this(Kind.CUSTOM);
+	}
+	
+	/**
+	 * Initializes me with my kind and the arguments of my factory.
+	 * 
+	 * @param kind my kind
+	 * @param arguments the arguments of my factory
+	 */
+	NotificationFilter(Kind kind, Object... arguments) {
+		this.kind = kind;
+		this.arguments = arguments;
+		this.operands = NO_OPERANDS;
+	}
+	
+	/**
+	 * Initializes me with my kind and the filters that I combine.
+	 * 
+	 * @param kind my kind
+	 * @param operands the filters that I combine
+	 */
+	NotificationFilter(Kind kind, NotificationFilter[] operands) {
+		this.kind = kind;
+		this.arguments = NO_ARGUMENTS;
+		this.operands = operands;
 	}
 	
 	/**
@@ -140,7 +205,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createNotifierFilter(final Object notifier) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.NOTIFIER, notifier) {
 			@Override
 			public boolean matches(Notification notification) {
 				return notification.getNotifier() == notifier;
@@ -156,7 +221,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createEventTypeFilter(final int eventType) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.EVENT_TYPE, eventType) {
 			@Override
 			public boolean matches(Notification notification) {
 				return notification.getEventType() == eventType;
@@ -171,7 +236,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createFeatureFilter(final EStructuralFeature feature) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.FEATURE, feature) {
 			@Override
 			public boolean matches(Notification notification) {
 				return notification.getFeature() == feature;
@@ -189,7 +254,7 @@ public abstract class NotificationFilter {
 	 */
 	public static NotificationFilter createFeatureFilter(
 			final Class<?> ownerType, final int featureId) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.FEATURE_ID, ownerType, featureId) {
 			@Override
 			public boolean matches(Notification notification) {
 				return ownerType.isInstance(notification.getNotifier())
@@ -210,7 +275,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createFeatureFilter(final EClassifier ownerType, final int featureId) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.FEATURE_ID, ownerType, featureId) {
 			@Override
 			public boolean matches(Notification notification) {
 				return ownerType.isInstance(notification.getNotifier())
@@ -228,7 +293,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createNotifierTypeFilter(final Class<?> type) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.NOTIFIER_TYPE, type) {
 			@Override
 			public boolean matches(Notification notification) {
 				return type.isInstance(notification.getNotifier());
@@ -245,7 +310,7 @@ public abstract class NotificationFilter {
 	 * @return the filter
 	 */
 	public static NotificationFilter createNotifierTypeFilter(final EClassifier type) {
-		return new NotificationFilter() {
+		return new NotificationFilter(Kind.NOTIFIER_TYPE, type) {
 			@Override
 			public boolean matches(Notification notification) {
 				return type.isInstance(notification.getNotifier());
@@ -262,12 +327,7 @@ public abstract class NotificationFilter {
 	 * @return a new "and" filter
 	 */
 	public final NotificationFilter and(final NotificationFilter other) {
-		return new NotificationFilter() {
-			@Override
-			public boolean matches(Notification notification) {
-				return NotificationFilter.this.matches(notification)
-						&& other.matches(notification);
-			}};
+		return new Junction(Kind.AND, this, other);
 	}
 	
 	/**
@@ -280,12 +340,7 @@ public abstract class NotificationFilter {
 	 * @return a new "or" filter
 	 */
 	public final NotificationFilter or(final NotificationFilter other) {
-		return new NotificationFilter() {
-			@Override
-			public boolean matches(Notification notification) {
-				return NotificationFilter.this.matches(notification)
-						|| other.matches(notification);
-			}};
+		return new Junction(Kind.OR, this, other);
 	}
 	
 	/**
@@ -294,11 +349,7 @@ public abstract class NotificationFilter {
 	 * @return the opposite of me
 	 */
 	public final NotificationFilter negated() {
-		return new NotificationFilter() {
-			@Override
-			public boolean matches(Notification notification) {
-				return !NotificationFilter.this.matches(notification);
-			}};
+		return new Negation(this);
 	}
 	
 	/**
@@ -312,6 +363,399 @@ public abstract class NotificationFilter {
 	 *     listener; <code>false</code>, otherwise
 	 */
 	public abstract boolean matches(Notification notification);
+	
+	/**
+	 * Queries what kind of filter I am.  All filters that are not created by
+	 * the factories of the {@link NotificationFilter} class are
+	 * {@link Kind#CUSTOM custom} filters.
+	 * 
+	 * @return my kind
+	 * 
+	 * @since 1.10
+	 */
+	public final Kind getKind() {
+		return kind;
+	}
+	
+	/**
+	 * Obtains the arguments of my factory, as described for each
+	 * {@linkplain #getKind() kind} of filter.
+	 * 
+	 * @return my arguments (an unmodifiable list), which is empty if I have none
+	 * 
+	 * @since 1.10
+	 */
+	public final List<Object> getArguments() {
+		return Collections.unmodifiableList(Arrays.asList(arguments));
+	}
+	
+	/**
+	 * Obtains the filters that I combine, if I am a
+	 * {@linkplain Kind#AND conjunction}, {@linkplain Kind#OR disjunction}, or
+	 * {@linkplain Kind#NOT negation}.
+	 * 
+	 * @return my operands (an unmodifiable list), which is empty if I have none
+	 * 
+	 * @since 1.10
+	 */
+	public final List<NotificationFilter> getOperands() {
+		return Collections.unmodifiableList(Arrays.asList(operands));
+	}
+	
+	/**
+	 * Obtains a filter that matches exactly the notifications that I match,
+	 * but that may do so more efficiently.  It is simplified by the laws of
+	 * boolean algebra:  nested conjunctions and disjunctions are flattened,
+	 * {@link #ANY} and its negation are folded, and repeated, absorbed, and
+	 * complementary operands are eliminated.  Moreover, the operands of
+	 * conjunctions and disjunctions are ordered by the cost of matching them,
+	 * the cheapest first, except that none is moved across a {@link Custom}
+	 * filter, because custom filters may depend on the operands that precede
+	 * them.  Finally, the filters are compiled to implementations that are
+	 * equal to them but that match notifications more efficiently.
+	 * 
+	 * @return my optimized equivalent, which may be me
+	 * 
+	 * @since 1.10
+	 */
+	public final NotificationFilter optimize() {
+		NotificationFilter result = optimized;
+		
+		if (result == null) {
+			// filters are immutable, so it does not matter who optimizes them
+			result = (kind == Kind.CUSTOM) ? this : NotificationFilterOptimizer.optimize(this);
+			result.optimized = result;
+			optimized = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Obtains the keys by which the transaction framework
+	 * {@linkplain NotificationIndex indexes} notifications to find those that
+	 * I can match.  Every notification that I match has at least one of these
+	 * keys, but not every notification that has one of them matches me.
+	 * The index gets them by {@link NotificationFilterAccess}.
+	 * 
+	 * @return my index keys, which must not be modified, or <code>null</code>
+	 *     if I can match notifications that have none of the keys, in which
+	 *     case every notification must be matched against me
+	 */
+	final NotificationIndex.Key[] getIndexKeys() {
+		NotificationIndex.Key[] result = indexKeys;
+		
+		if (result == NOT_COMPUTED) {
+			// filters are immutable, so it does not matter who computes them
+			NotificationFilter opt = optimize();
+			result = (opt == this) ? computeIndexKeys() : opt.getIndexKeys();
+			indexKeys = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes my {@linkplain #getIndexKeys() index keys} from my kind, my
+	 * arguments, and my operands.  Filters that can match any notification,
+	 * including all {@link Custom} filters, have none.
+	 * 
+	 * @return my index keys, or <code>null</code> if I have none
+	 */
+	private NotificationIndex.Key[] computeIndexKeys() {
+		NotificationIndex.Key[] result = null;
+		
+		switch (kind) {
+		case RESOURCE_LOADED:
+		case RESOURCE_UNLOADED:
+			result = keys(NotificationIndex.Key.notifierType(Resource.class));
+			break;
+		case NOTIFIER:
+			if (arguments[0] != null) {
+				result = keys(NotificationIndex.Key.notifier(arguments[0]));
+			}
+			break;
+		case EVENT_TYPE:
+			result = keys(NotificationIndex.Key.eventType((Integer) arguments[0]));
+			break;
+		case FEATURE:
+			if (arguments[0] != null) {
+				result = keys(NotificationIndex.Key.feature(arguments[0]));
+			}
+			break;
+		case FEATURE_ID:
+		case NOTIFIER_TYPE:
+			result = keys(NotificationIndex.Key.notifierType(arguments[0]));
+			break;
+		case AND:
+			result = operands[0].computeIndexKeys();
+			for (int i = 1; i < operands.length; i++) {
+				result = conjunction(result, operands[i].computeIndexKeys());
+			}
+			break;
+		case OR:
+			result = operands[0].computeIndexKeys();
+			for (int i = 1; (result != null) && (i < operands.length); i++) {
+				result = disjunction(result, operands[i].computeIndexKeys());
+			}
+			break;
+		default:
+			break;
+		}
+		
+		return result;
+	}
+	
+	private static NotificationIndex.Key[] keys(NotificationIndex.Key key) {
+		return new NotificationIndex.Key[] {key};
+	}
+	
+	/**
+	 * Computes the index keys of a conjunction, which are the keys of
+	 * whichever operand is more selective.
+	 */
+	private static NotificationIndex.Key[] conjunction(NotificationIndex.Key[] left,
+			NotificationIndex.Key[] right) {
+		if (left == null) {
+			return right;
+		} else if (right == null) {
+			return left;
+		}
+		
+		int leftKind = maxKind(left);
+		int rightKind = maxKind(right);
+		
+		if (leftKind != rightKind) {
+			return (leftKind < rightKind) ? left : right;
+		}
+		
+		return (left.length <= right.length) ? left : right;
+	}
+	
+	private static int maxKind(NotificationIndex.Key[] keys) {
+		int result = 0;
+		
+		for (NotificationIndex.Key next : keys) {
+			result = Math.max(result, next.getKind());
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the index keys of a disjunction, which are the keys of both
+	 * operands if both have keys.
+	 */
+	private static NotificationIndex.Key[] disjunction(NotificationIndex.Key[] left,
+			NotificationIndex.Key[] right) {
+		if ((left == null) || (right == null)) {
+			return null;
+		}
+		
+		Set<NotificationIndex.Key> result = new LinkedHashSet<NotificationIndex.Key>();
+		Collections.addAll(result, left);
+		Collections.addAll(result, right);
+		
+		return result.toArray(new NotificationIndex.Key[result.size()]);
+	}
+	
+	/**
+	 * Filters created by the factories of the {@link NotificationFilter} class
+	 * are equal if they are of the same kind and have equal arguments and
+	 * operands, except that {@linkplain Kind#NOTIFIER notifiers} are compared
+	 * by identity.  {@linkplain Kind#CUSTOM Custom} filters are equal only to
+	 * themselves, unless they override this method.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		
+		if ((kind == Kind.CUSTOM) || !(obj instanceof NotificationFilter)) {
+			return false;
+		}
+		
+		NotificationFilter other = (NotificationFilter) obj;
+		
+		if ((kind != other.kind) || (hashCode() != other.hashCode())
+				|| (arguments.length != other.arguments.length)) {
+			return false;
+		}
+		
+		for (int i = 0; i < arguments.length; i++) {
+			Object mine = arguments[i];
+			Object theirs = other.arguments[i];
+			
+			if ((mine != theirs) && ((kind == Kind.NOTIFIER)
+					|| (mine == null) || !mine.equals(theirs))) {
+				return false;
+			}
+		}
+		
+		return Arrays.equals(operands, other.operands);
+	}
+	
+	@Override
+	public int hashCode() {
+		if (kind == Kind.CUSTOM) {
+			return super.hashCode();
+		}
+		
+		int result = hash;
+		
+		if (result == 0) {
+			result = kind.ordinal();
+			
+			for (Object next : arguments) {
+				result = 31 * result + ((next == null) ? 0
+					: (kind == Kind.NOTIFIER) ? System.identityHashCode(next)
+						: next.hashCode());
+			}
+			
+			result = 31 * result + Arrays.hashCode(operands);
+			hash = result;
+		}
+		
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		if (kind == Kind.CUSTOM) {
+			return super.toString();
+		}
+		
+		StringBuilder result = new StringBuilder(kind.name());
+		
+		if ((arguments.length > 0) || (operands.length > 0)) {
+			result.append('(');
+			
+			String separator = ""; //$NON-NLS-1$
+			for (Object next : (operands.length > 0) ? operands : arguments) {
+				result.append(separator).append(next);
+				separator = ", "; //$NON-NLS-1$
+			}
+			
+			result.append(')');
+		}
+		
+		return result.toString();
+	}
+	
+	/**
+	 * The kinds of {@link NotificationFilter}, by the factories that create
+	 * them.
+	 * 
+	 * @since 1.10
+	 * 
+	 * @see NotificationFilter#getKind()
+	 */
+	public static enum Kind {
+		/** The {@link NotificationFilter#ANY} filter. */
+		ANY,
+		/** The {@link NotificationFilter#NOT_TOUCH} filter. */
+		NOT_TOUCH,
+		/** The {@link NotificationFilter#READ} filter. */
+		READ,
+		/** The {@link NotificationFilter#RESOURCE_LOADED} filter. */
+		RESOURCE_LOADED,
+		/** The {@link NotificationFilter#RESOURCE_UNLOADED} filter. */
+		RESOURCE_UNLOADED,
+		/**
+		 * A {@linkplain NotificationFilter#createResourceContentTypeFilter(String) content type}
+		 * filter.  Its argument is the content type identifier.
+		 */
+		RESOURCE_CONTENT_TYPE,
+		/**
+		 * A {@linkplain NotificationFilter#createNotifierFilter(Object) notifier}
+		 * filter.  Its argument is the notifier.
+		 */
+		NOTIFIER,
+		/**
+		 * An {@linkplain NotificationFilter#createEventTypeFilter(int) event type}
+		 * filter.  Its argument is the event type, as an integer.
+		 */
+		EVENT_TYPE,
+		/**
+		 * A {@linkplain NotificationFilter#createFeatureFilter(EStructuralFeature) feature}
+		 * filter.  Its argument is the feature.
+		 */
+		FEATURE,
+		/**
+		 * A {@linkplain NotificationFilter#createFeatureFilter(Class, int) feature ID}
+		 * filter.  Its arguments are the owner type, as a Java class or an
+		 * Ecore classifier, and the feature ID, as an integer.
+		 */
+		FEATURE_ID,
+		/**
+		 * A {@linkplain NotificationFilter#createNotifierTypeFilter(Class) notifier type}
+		 * filter.  Its argument is the type, as a Java class or an Ecore
+		 * classifier.
+		 */
+		NOTIFIER_TYPE,
+		/**
+		 * A {@linkplain NotificationFilter#and(NotificationFilter) conjunction}
+		 * of its operands, which it matches in order.
+		 */
+		AND,
+		/**
+		 * A {@linkplain NotificationFilter#or(NotificationFilter) disjunction}
+		 * of its operands, which it matches in order.
+		 */
+		OR,
+		/**
+		 * The {@linkplain NotificationFilter#negated() negation} of its
+		 * operand.
+		 */
+		NOT,
+		/** A {@linkplain NotificationFilter.Custom custom} filter. */
+		CUSTOM;
+	}
+	
+	/**
+	 * A conjunction or disjunction of filters.
+	 */
+	static final class Junction extends NotificationFilter {
+		private final boolean and;
+		private final NotificationFilter[] filters;
+		
+		Junction(Kind kind, NotificationFilter... operands) {
+			super(kind, operands);
+			
+			this.and = kind == Kind.AND;
+			this.filters = operands;
+		}
+		
+		@Override
+		public boolean matches(Notification notification) {
+			for (NotificationFilter next : filters) {
+				if (next.matches(notification) != and) {
+					return !and;
+				}
+			}
+			
+			return and;
+		}
+	}
+	
+	/**
+	 * The negation of a filter.
+	 */
+	static final class Negation extends NotificationFilter {
+		private final NotificationFilter filter;
+		
+		Negation(NotificationFilter operand) {
+			super(Kind.NOT, new NotificationFilter[] {operand});
+			
+			this.filter = operand;
+		}
+		
+		@Override
+		public boolean matches(Notification notification) {
+			return !filter.matches(notification);
+		}
+	}
 
 	/**
 	 * A custom notification filter, implementing user-defined
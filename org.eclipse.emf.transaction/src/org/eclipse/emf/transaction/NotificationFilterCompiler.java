@@ -0,0 +1,405 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.transaction.NotificationFilter.Kind;
+
+/**
+ * Compilation of {@link NotificationFilter} expressions into specialized
+ * implementations that are equal to the filters that they replace, but that
+ * match notifications with fewer virtual calls:
+ * <ul>
+ *   <li>the notifier, feature, and event type filters are fused in a
+ *       conjunction or disjunction, so that it obtains each of these
+ *       properties of a notification only once for all of them</li>
+ *   <li>notifier type filters test Java types directly if the type is
+ *       generated, or else look up the notifier's {@link EClass} in bit sets
+ *       of the subtypes of the filter's type, by package and classifier ID,
+ *       rather than searching its supertypes for every notification</li>
+ * </ul>
+ * <p>
+ * The compiled filters are instances of final subclasses of {@link Test},
+ * one for each kind of leaf filter, and of {@link FusedJunction} for
+ * conjunctions and disjunctions of them.  No code is generated at run-time.
+ * </p>
+ *
+ * @see NotificationFilterOptimizer
+ */
+final class NotificationFilterCompiler {
+	/**
+	 * Not instantiable.
+	 */
+	private NotificationFilterCompiler() {
+		super();
+	}
+
+	/**
+	 * Compiles a filter that does not combine other filters.
+	 *
+	 * @param filter a filter
+	 * @return its compiled equivalent, or the same filter if it has none
+	 */
+	static NotificationFilter compileLeaf(NotificationFilter filter) {
+		if (filter instanceof Test) {
+			return filter; // already compiled
+		}
+
+		List<Object> arguments = filter.getArguments();
+
+		switch (filter.getKind()) {
+		case NOTIFIER:
+			return new NotifierTest(arguments.get(0));
+		case FEATURE:
+			return new FeatureTest(arguments.get(0));
+		case EVENT_TYPE:
+			return new EventTypeTest((Integer) arguments.get(0));
+		case NOTIFIER_TYPE:
+			Object type = arguments.get(0);
+
+			if (type instanceof Class<?>) {
+				return new JavaTypeTest(type, (Class<?>) type);
+			}
+
+			EClassifier classifier = (EClassifier) type;
+			Class<?> instanceClass = classifier.getInstanceClass();
+
+			if ((instanceClass != null) && !instanceClass.isPrimitive()) {
+				// this is how the classifier tests its instances
+				return new JavaTypeTest(type, instanceClass);
+			} else if ((instanceClass == null) && (classifier instanceof EClass)) {
+				return new EClassTest((EClass) classifier);
+			}
+
+			return filter;
+		default:
+			return filter;
+		}
+	}
+
+	/**
+	 * Compiles a conjunction or disjunction of filters that are already
+	 * compiled.
+	 *
+	 * @param kind the {@link Kind#AND} or {@link Kind#OR} kind
+	 * @param operands the operands
+	 * @return the compiled junction
+	 */
+	static NotificationFilter compileJunction(Kind kind, NotificationFilter[] operands) {
+		int tests = 0;
+		for (NotificationFilter next : operands) {
+			if (next instanceof Test) {
+				tests++;
+			}
+		}
+
+		return (tests > 1) ? new FusedJunction(kind, operands)
+			: new NotificationFilter.Junction(kind, operands);
+	}
+
+	/**
+	 * A filter that tests only the notifier, feature, or event type of a
+	 * notification.
+	 */
+	abstract static class Test extends NotificationFilter {
+		Test(Kind kind, Object argument) {
+			super(kind, argument);
+		}
+
+		@Override
+		public final boolean matches(Notification notification) {
+			return test(notification.getNotifier(), notification.getFeature(),
+				notification.getEventType());
+		}
+
+		/**
+		 * Tests the properties of a notification.
+		 *
+		 * @param notifier the notification's notifier
+		 * @param feature the notification's feature
+		 * @param eventType the notification's event type
+		 *
+		 * @return whether the notification matches
+		 */
+		abstract boolean test(Object notifier, Object feature, int eventType);
+	}
+
+	private static final class NotifierTest extends Test {
+		private final Object notifier;
+
+		NotifierTest(Object notifier) {
+			super(Kind.NOTIFIER, notifier);
+
+			this.notifier = notifier;
+		}
+
+		@Override
+		boolean test(Object notifier, Object feature, int eventType) {
+			return notifier == this.notifier;
+		}
+	}
+
+	private static final class FeatureTest extends Test {
+		private final Object feature;
+
+		FeatureTest(Object feature) {
+			super(Kind.FEATURE, feature);
+
+			this.feature = feature;
+		}
+
+		@Override
+		boolean test(Object notifier, Object feature, int eventType) {
+			return feature == this.feature;
+		}
+	}
+
+	private static final class EventTypeTest extends Test {
+		private final int eventType;
+
+		EventTypeTest(int eventType) {
+			super(Kind.EVENT_TYPE, eventType);
+
+			this.eventType = eventType;
+		}
+
+		@Override
+		boolean test(Object notifier, Object feature, int eventType) {
+			return eventType == this.eventType;
+		}
+	}
+
+	private static final class JavaTypeTest extends Test {
+		private final Class<?> javaType;
+
+		JavaTypeTest(Object type, Class<?> javaType) {
+			super(Kind.NOTIFIER_TYPE, type);
+
+			this.javaType = javaType;
+		}
+
+		@Override
+		boolean test(Object notifier, Object feature, int eventType) {
+			return javaType.isInstance(notifier);
+		}
+	}
+
+	/**
+	 * A test for instances of a dynamic {@link EClass}.  It remembers, for
+	 * each package of the notifiers that it has seen, which of the package's
+	 * classes are subtypes of its class, in a bit set indexed by classifier
+	 * ID.  Dynamic packages may still be under construction, so a class's
+	 * bit is only trusted while the class has the same list of all of its
+	 * supertypes from which the bit was computed:  EMF replaces that list
+	 * when the supertypes of the class or of any of its ancestors change.
+	 * The packages are referenced weakly, so that the test does not retain
+	 * packages that are no longer used.
+	 */
+	private static final class EClassTest extends Test {
+		private static final PackageBits[] NO_PACKAGES = {};
+
+		private final EClass eClass;
+		private volatile PackageBits[] packages = NO_PACKAGES; // copy on write
+
+		EClassTest(EClass eClass) {
+			super(Kind.NOTIFIER_TYPE, eClass);
+
+			this.eClass = eClass;
+		}
+
+		@Override
+		boolean test(Object notifier, Object feature, int eventType) {
+			if (!(notifier instanceof EObject)) {
+				return false;
+			}
+
+			EClass other = ((EObject) notifier).eClass();
+			EPackage ePackage = other.getEPackage();
+
+			if (ePackage == null) {
+				return eClass.isSuperTypeOf(other);
+			}
+
+			int id = other.getClassifierID();
+
+			for (PackageBits next : packages) {
+				if (next.ePackage.get() == ePackage) {
+					if (next.isCurrent(id, other)) {
+						return next.subtypes.get(id);
+					}
+					break;
+				}
+			}
+
+			return learn(other, ePackage, id);
+		}
+
+		/**
+		 * Computes the subtypes of my class in a package that I have not seen
+		 * before, or that has changed since.
+		 */
+		private synchronized boolean learn(EClass other, EPackage ePackage, int id) {
+			List<EClassifier> classifiers = ePackage.getEClassifiers();
+			int size = classifiers.size();
+			BitSet subtypes = new BitSet(size);
+			Reference<?>[] superTypes = new Reference<?>[size];
+
+			for (int i = 0; i < size; i++) {
+				EClassifier next = classifiers.get(i);
+
+				if (next.getClassifierID() != i) {
+					// cannot index this package by classifier ID
+					return eClass.isSuperTypeOf(other);
+				}
+
+				if (next instanceof EClass) {
+					// get the supertypes first, so that a concurrent change
+					//    invalidates the bit rather than going unnoticed
+					superTypes[i] = new WeakReference<Object>(
+						((EClass) next).getEAllSuperTypes());
+
+					if (eClass.isSuperTypeOf((EClass) next)) {
+						subtypes.set(i);
+					}
+				}
+			}
+
+			PackageBits[] oldPackages = packages;
+			PackageBits[] newPackages = new PackageBits[oldPackages.length + 1];
+			int count = 0;
+
+			for (PackageBits next : oldPackages) {
+				EPackage known = next.ePackage.get();
+
+				// forget the packages that have been reclaimed
+				if ((known != null) && (known != ePackage)) {
+					newPackages[count++] = next;
+				}
+			}
+
+			newPackages[count++] = new PackageBits(ePackage, subtypes, superTypes);
+
+			if (count < newPackages.length) {
+				PackageBits[] trimmed = new PackageBits[count];
+				System.arraycopy(newPackages, 0, trimmed, 0, count);
+				newPackages = trimmed;
+			}
+
+			packages = newPackages;
+
+			return ((id >= 0) && (id < size) && (classifiers.get(id) == other))
+				? subtypes.get(id) : eClass.isSuperTypeOf(other);
+		}
+	}
+
+	/**
+	 * The subtypes of a class in a package, by classifier ID.  It is not
+	 * modified after it is published.
+	 */
+	private static final class PackageBits {
+		final Reference<EPackage> ePackage;
+		final BitSet subtypes;
+
+		// the lists of all supertypes of the package's classes from which
+		//    the subtypes were computed, or null for data types
+		private final Reference<?>[] superTypes;
+
+		PackageBits(EPackage ePackage, BitSet subtypes, Reference<?>[] superTypes) {
+			this.ePackage = new WeakReference<EPackage>(ePackage);
+			this.subtypes = subtypes;
+			this.superTypes = superTypes;
+		}
+
+		/**
+		 * Queries whether my bit for a class of my package is still valid.
+		 *
+		 * @param id the class's classifier ID
+		 * @param eClass the class
+		 * @return whether the class's supertypes are the same as when its
+		 *    bit was computed
+		 */
+		boolean isCurrent(int id, EClass eClass) {
+			if ((id < 0) || (id >= superTypes.length)) {
+				return false;
+			}
+
+			Reference<?> known = superTypes[id];
+
+			return (known != null) && (known.get() == eClass.getEAllSuperTypes());
+		}
+	}
+
+	/**
+	 * A conjunction or disjunction that obtains the notifier, feature, and
+	 * event type of a notification once for all of its {@link Test}s.
+	 */
+	private static final class FusedJunction extends NotificationFilter {
+		private final boolean and;
+		private final NotificationFilter[] filters;
+		private final Test[] tests; // parallel to the filters
+
+		FusedJunction(Kind kind, NotificationFilter[] operands) {
+			super(kind, operands);
+
+			this.and = kind == Kind.AND;
+			this.filters = operands;
+			this.tests = new Test[operands.length];
+
+			for (int i = 0; i < operands.length; i++) {
+				if (operands[i] instanceof Test) {
+					tests[i] = (Test) operands[i];
+				}
+			}
+		}
+
+		@Override
+		public boolean matches(Notification notification) {
+			Object notifier = null;
+			Object feature = null;
+			int eventType = 0;
+			boolean fetched = false;
+
+			for (int i = 0; i < filters.length; i++) {
+				boolean result;
+				Test test = tests[i];
+
+				if (test != null) {
+					if (!fetched) {
+						notifier = notification.getNotifier();
+						feature = notification.getFeature();
+						eventType = notification.getEventType();
+						fetched = true;
+					}
+
+					result = test.test(notifier, feature, eventType);
+				} else {
+					result = filters[i].matches(notification);
+				}
+
+				if (result != and) {
+					return !and;
+				}
+			}
+
+			return and;
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.transaction.NotificationFilter.Kind;
+
+/**
+ * Simplification of the expression trees of {@link NotificationFilter}s by
+ * the laws of boolean algebra, ordering of their operands by cost, and
+ * {@linkplain NotificationFilterCompiler compilation}.
+ *
+ * @see NotificationFilter#optimize()
+ */
+final class NotificationFilterOptimizer {
+	/** The cost of a custom filter, which is unknown but presumed to be high. */
+	static final int CUSTOM_COST = 16;
+
+	private static final Comparator<NotificationFilter> BY_COST =
+		new Comparator<NotificationFilter>() {
+			public int compare(NotificationFilter o1, NotificationFilter o2) {
+				return cost(o1) - cost(o2);
+			}};
+
+	/**
+	 * Not instantiable.
+	 */
+	private NotificationFilterOptimizer() {
+		super();
+	}
+
+	/**
+	 * Optimizes a filter.
+	 *
+	 * @param filter a filter
+	 * @return its optimized equivalent, or the same filter if it cannot be
+	 *     improved
+	 */
+	static NotificationFilter optimize(NotificationFilter filter) {
+		switch (filter.getKind()) {
+		case NOT:
+			return optimizeNegation(filter);
+		case AND:
+		case OR:
+			return optimizeJunction(filter);
+		default:
+			return NotificationFilterCompiler.compileLeaf(filter);
+		}
+	}
+
+	/**
+	 * Estimates the relative cost of matching a notification against a
+	 * filter.
+	 *
+	 * @param filter a filter
+	 * @return its cost
+	 */
+	static int cost(NotificationFilter filter) {
+		switch (filter.getKind()) {
+		case ANY:
+		case NOT_TOUCH:
+		case NOTIFIER:
+		case EVENT_TYPE:
+		case FEATURE:
+			return 1;
+		case NOTIFIER_TYPE:
+			// an Ecore classifier may have to search its supertypes
+			return (filter.getArguments().get(0) instanceof EClassifier) ? 4 : 2;
+		case RESOURCE_LOADED:
+		case RESOURCE_UNLOADED:
+			return 3;
+		case FEATURE_ID:
+			return 4;
+		case READ:
+			return 6;
+		case RESOURCE_CONTENT_TYPE:
+			return 8;
+		case AND:
+		case OR:
+		case NOT:
+			int result = 0;
+			for (NotificationFilter next : filter.getOperands()) {
+				result += cost(next);
+			}
+			return result;
+		default:
+			return CUSTOM_COST;
+		}
+	}
+
+	/**
+	 * Queries whether a filter is or contains a custom filter, whose
+	 * evaluation may depend on the filters that precede it.
+	 */
+	private static boolean isCustom(NotificationFilter filter) {
+		if (filter.getKind() == Kind.CUSTOM) {
+			return true;
+		}
+
+		for (NotificationFilter next : filter.getOperands()) {
+			if (isCustom(next)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isFalse(NotificationFilter filter) {
+		return (filter.getKind() == Kind.NOT)
+			&& (filter.getOperands().get(0).getKind() == Kind.ANY);
+	}
+
+	private static NotificationFilter optimizeNegation(NotificationFilter filter) {
+		NotificationFilter operand = filter.getOperands().get(0);
+		NotificationFilter optimized = operand.optimize();
+
+		if (optimized.getKind() == Kind.NOT) {
+			// double negation
+			return optimized.getOperands().get(0);
+		}
+
+		return (optimized == operand) ? filter : optimized.negated();
+	}
+
+	private static NotificationFilter optimizeJunction(NotificationFilter filter) {
+		Kind kind = filter.getKind();
+		boolean and = kind == Kind.AND;
+		List<NotificationFilter> operands = new ArrayList<NotificationFilter>();
+
+		// flatten nested junctions of the same kind and fold the constants
+		for (NotificationFilter next : filter.getOperands()) {
+			NotificationFilter optimized = next.optimize();
+
+			if (optimized.getKind() == kind) {
+				operands.addAll(optimized.getOperands());
+			} else {
+				operands.add(optimized);
+			}
+		}
+
+		for (int i = 0; i < operands.size(); i++) {
+			NotificationFilter next = operands.get(i);
+
+			if ((next.getKind() == Kind.ANY) || isFalse(next)) {
+				if ((next.getKind() == Kind.ANY) == and) {
+					// the identity element
+					operands.remove(i--);
+				} else {
+					// the annihilator
+					return next;
+				}
+			} else if (operands.subList(0, i).contains(next)) {
+				// idempotence
+				operands.remove(i--);
+			}
+		}
+
+		for (int i = 0; i < operands.size(); i++) {
+			NotificationFilter next = operands.get(i);
+
+			// complements
+			if ((next.getKind() == Kind.NOT)
+					&& operands.contains(next.getOperands().get(0))) {
+				return and ? NotificationFilter.ANY.negated() : NotificationFilter.ANY;
+			}
+
+			// absorption:  a and (a or b) = a; a or (a and b) = a.  Only
+			//    by a preceding operand, so that no custom filter loses
+			//    the guard of the absorbed operand
+			if ((next.getKind() == (and ? Kind.OR : Kind.AND)) && !isCustom(next)) {
+				List<NotificationFilter> nested = next.getOperands();
+
+				for (int j = 0; j < i; j++) {
+					if (nested.contains(operands.get(j))) {
+						operands.remove(i--);
+						break;
+					}
+				}
+			}
+		}
+
+		if (operands.isEmpty()) {
+			return and ? NotificationFilter.ANY : NotificationFilter.ANY.negated();
+		}
+
+		// cheapest first, but nothing moves across a custom filter
+		int start = 0;
+		for (int i = 0; i <= operands.size(); i++) {
+			if ((i == operands.size()) || isCustom(operands.get(i))) {
+				Collections.sort(operands.subList(start, i), BY_COST);
+				start = i + 1;
+			}
+		}
+
+		if (operands.size() == 1) {
+			return operands.get(0);
+		}
+
+		NotificationFilter result = NotificationFilterCompiler.compileJunction(kind,
+			operands.toArray(new NotificationFilter[operands.size()]));
+
+		if ((result.getClass() == filter.getClass())
+				&& operands.equals(filter.getOperands())) {
+			// nothing to improve if the operands are the same
+			boolean same = true;
+			for (int i = 0; same && (i < operands.size()); i++) {
+				same = operands.get(i) == filter.getOperands().get(i);
+			}
+
+			if (same) {
+				result = filter;
+			}
+		}
+
+		return result;
+	}
+}
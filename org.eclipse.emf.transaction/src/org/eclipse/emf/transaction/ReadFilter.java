@@ -36,7 +36,7 @@ class ReadFilter extends NotificationFilter {
 	 * Initializes me.
 	 */
 	ReadFilter() {
-		super();
+		super(Kind.READ);
 	}
 	
 	// Documentation inherited from the method specification
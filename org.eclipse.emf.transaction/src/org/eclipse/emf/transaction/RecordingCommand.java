@@ -19,6 +19,7 @@ import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.transaction.impl.InternalTransaction;
 import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
 import org.eclipse.emf.transaction.impl.TransactionImpl;
+import org.eclipse.emf.transaction.impl.TransactionOptionProfile;
 import org.eclipse.emf.transaction.internal.EMFTransactionPlugin;
 import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.internal.l10n.Messages;
@@ -272,16 +273,10 @@ public abstract class RecordingCommand
      * @return whether the active transaction is a trigger transaction
      */
     private boolean isTriggerCommand() {
-        boolean result = false;
         Transaction tx = getActiveTransaction();
         
-        while (!result && (tx != null)) {
-            result = Boolean.TRUE.equals(tx.getOptions().get(
-                TransactionImpl.OPTION_IS_TRIGGER_TRANSACTION));
-            tx = tx.getParent();
-        }
-        
-        return result;
+        return (tx != null)
+            && TransactionOptionProfile.of(tx).isInTriggerContext();
     }
     
     /**
@@ -291,16 +286,10 @@ public abstract class RecordingCommand
      * @return whether the active transaction is recording undo information
      */
     private boolean isUndoable() {
-        boolean result = true;
         Transaction tx = getActiveTransaction();
         
-        while (result && (tx != null)) {
-            result = !Boolean.TRUE.equals(tx.getOptions().get(Transaction.OPTION_NO_UNDO))
-                && !Boolean.TRUE.equals(tx.getOptions().get(Transaction.OPTION_UNPROTECTED));
-            tx = tx.getParent();
-        }
-        
-        return result;
+        return (tx == null)
+            || TransactionOptionProfile.of(tx).isInUndoableContext();
     }
     
     /**
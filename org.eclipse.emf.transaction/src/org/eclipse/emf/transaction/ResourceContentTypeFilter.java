@@ -43,6 +43,8 @@ class ResourceContentTypeFilter extends NotificationFilter {
 	 *     is not defined
 	 */
 	ResourceContentTypeFilter(String contentType) {
+		super(Kind.RESOURCE_CONTENT_TYPE, contentType);
+		
 		this.contentType = Platform.getContentTypeManager().getContentType(
 				contentType);
 		
@@ -202,4 +202,64 @@ public interface ResourceSetListener extends EventListener {
 		 */
 		void unsetTarget(TransactionalEditingDomain domain);
 	}
+
+	/**
+	 * A marker for post-commit listeners that are safe to invoke concurrently
+	 * with other listeners.  The editing domain may deliver post-commit events
+	 * to these listeners on other threads than the one that committed the
+	 * transaction, concurrently with each other and with the listeners that
+	 * are not so marked, which it still invokes one after another in the
+	 * order in which they were added.  The committing thread waits for all
+	 * of the listeners to finish before it releases the editing domain.
+	 * <p>
+	 * Each of these listeners is invoked in a read-only transaction of its
+	 * own, on a thread that shares the lock of the committing thread, so it
+	 * must only read the resource set, just as any
+	 * {@linkplain Transaction#OPTION_SHARED_READ shared reader} must, and it
+	 * must not depend on the order in which it receives events relative to
+	 * other listeners.  Moreover, it must not wait for the committing thread,
+	 * for example to run something on the UI thread synchronously.
+	 * </p><p>
+	 * A listener that is not so marked may still change the resource set in
+	 * an {@linkplain Transaction#OPTION_UNPROTECTED unprotected} transaction.
+	 * Before such a transaction starts, the committing thread waits for all of
+	 * the concurrent listeners to finish, so that they never read the
+	 * resource set while it changes.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	interface Concurrent
+			extends ResourceSetListener {
+		// a marker interface
+	}
+
+	/**
+	 * A marker for post-commit listeners that receive their events
+	 * asynchronously, so that they do not delay the thread that committed
+	 * the transaction.  The editing domain queues the events for these
+	 * listeners and delivers them on its
+	 * {@linkplain TransactionalEditingDomain.AsyncListeners listener executor}
+	 * after the committing thread has released the editing domain, one at a
+	 * time for each listener.  Events that are queued while the listener is
+	 * still busy with an earlier one are coalesced into one event whose
+	 * notifications are those of all of them, in the order in which they
+	 * occurred, and whose transaction is the last of them.
+	 * <p>
+	 * The listener is invoked in a read-only transaction, so it may read the
+	 * resource set.  Note, however, that the resource set may by then have
+	 * changed since the notifications that it receives.
+	 * </p>
+	 * <p>
+	 * An asynchronous listener is not also invoked
+	 * {@linkplain Concurrent concurrently} on the committing thread's behalf,
+	 * even if it is marked as such.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	interface Asynchronous
+			extends ResourceSetListener {
+		// a marker interface
+	}
 }
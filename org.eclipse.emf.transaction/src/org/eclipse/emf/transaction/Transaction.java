@@ -22,6 +22,7 @@ import org.eclipse.emf.transaction.internal.BlockChangePropagationOption;
 import org.eclipse.emf.transaction.internal.ValidateEditOption;
 import org.eclipse.emf.transaction.util.BasicTransactionOptionMetadata;
 import org.eclipse.emf.transaction.util.BasicTransactionOptionMetadataRegistry;
+import org.eclipse.emf.transaction.util.LockSchedulingPolicy;
 import org.eclipse.emf.transaction.util.ValidateEditSupport;
 
 
@@ -139,6 +140,283 @@ public interface Transaction {
      */
     String OPTION_VALIDATE_EDIT_CONTEXT = "validate_edit_context";  //$NON-NLS-1$
     
+    /**
+     * Option requesting that a root read-only transaction share the editing
+     * domain's lock with other such transactions, so that any number of them
+     * may read concurrently on different threads.  Write transactions still
+     * have exclusive access to the resource set.
+     * <p>
+     * Because shared readers really do run concurrently, the code that they
+     * execute must not do anything that changes the resource set or the
+     * objects in it, including the loading of resources and the resolution of
+     * proxies that has not already been done.  For this reason, a shared
+     * read-only transaction may not nest read/write transactions, not even
+     * {@linkplain #OPTION_UNPROTECTED unprotected} ones.  Also, shared readers
+     * never {@linkplain TransactionalEditingDomain#yield() yield} because
+     * they do not block other readers in the first place.
+     * </p><p>
+     * This option is most conveniently applied to all of the editing
+     * domain's read-only transactions via its
+     * {@linkplain TransactionalEditingDomain.DefaultOptions default options}.
+     * It is ignored for read/write transactions and for read-only
+     * transactions nested in read/write transactions.
+     * </p><p>
+     * The value is a {@link Boolean}; the default is {@link Boolean#FALSE}.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_SHARED_READ = "shared_read";  //$NON-NLS-1$
+    
+    /**
+     * Option requesting that a root read-only transaction hold the editing
+     * domain's lock for upgradable reading, so that it may nest read/write
+     * transactions without first committing and starting over.  Only one
+     * transaction at a time can hold the lock in this way, but
+     * {@linkplain #OPTION_SHARED_READ shared} readers may run concurrently
+     * with it until it starts a read/write transaction.  That waits for the
+     * shared readers to finish and admits no new ones until it commits or
+     * rolls back, but it never lets any other transaction in between, so
+     * that nothing that was read needs to be read again.
+     * <p>
+     * A read/write transaction nested in an upgradable read is validated
+     * when it commits, as though it were a root transaction, because its
+     * read-only parent does not validate anything.  An upgradable read never
+     * {@linkplain TransactionalEditingDomain#yield() yields}, because
+     * the other readers that it could yield to share the lock with it
+     * already.
+     * </p><p>
+     * This option takes precedence over the {@link #OPTION_SHARED_READ} option.
+     * It is ignored for read/write transactions and for nested read-only
+     * transactions.
+     * </p><p>
+     * The value is a {@link Boolean}; the default is {@link Boolean#FALSE}.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_UPGRADABLE_READ = "upgradable_read";  //$NON-NLS-1$
+    
+    /**
+     * Option specifying the priority class in which a root transaction waits
+     * for the editing domain's lock, if it has to wait.  Whether and how the
+     * priority is respected depends on the lock's
+     * {@linkplain LockSchedulingPolicy scheduling policy}:  the
+     * {@linkplain LockSchedulingPolicy#PRIORITY priority} policy lets threads
+     * of a more urgent class overtake those of less urgent classes.
+     * <p>
+     * This option is most conveniently applied to all transactions on some
+     * thread, such as the UI thread, by executing them with the option or
+     * via the editing domain's
+     * {@linkplain TransactionalEditingDomain.DefaultOptions default options}.
+     * It is ignored for nested transactions, which do not need to wait.
+     * </p><p>
+     * The value is an {@link Integer}, one of
+     * {@link LockSchedulingPolicy#PRIORITY_INTERACTIVE},
+     * {@link LockSchedulingPolicy#PRIORITY_NORMAL}, or
+     * {@link LockSchedulingPolicy#PRIORITY_BACKGROUND}; the default is
+     * {@link LockSchedulingPolicy#PRIORITY_NORMAL}.
+     * </p>
+     * 
+     * @see org.eclipse.emf.transaction.util.TransactionLockFactory#withSchedulingPolicy(LockSchedulingPolicy)
+     * 
+     * @since 1.10
+     */
+    String OPTION_LOCK_PRIORITY = "lock_priority";  //$NON-NLS-1$
+    
+    /**
+     * Option specifying how long a root transaction waits for the editing
+     * domain's lock before it gives up.  If the lock cannot be obtained in
+     * time, then the transaction is not started and the attempt fails with a
+     * {@link LockTimeoutException}, so that server applications can shed load
+     * instead of accumulating threads that are blocked behind a long-running
+     * transaction.  The time-out applies to the whole of the acquisition,
+     * including the write lock of a read/write transaction.
+     * <p>
+     * This option is honoured by
+     * {@link TransactionalCommandStack#execute(org.eclipse.emf.common.command.Command, Map)}
+     * and by the {@link org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain#startTransaction(boolean, Map)}
+     * API.  It is most conveniently applied to all transactions, including
+     * those started by {@link TransactionalEditingDomain#runExclusive(Runnable)},
+     * via the editing domain's
+     * {@linkplain TransactionalEditingDomain.DefaultOptions default options}.
+     * It is ignored for nested transactions, which do not need to wait, and
+     * for the re-acquisition of the lock by a transaction that has
+     * {@linkplain TransactionalEditingDomain#yield() yielded} it.
+     * </p><p>
+     * The value is a {@link Long} number of milliseconds; the default is
+     * zero, which means to wait as long as necessary.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_LOCK_TIMEOUT = "lock_timeout";  //$NON-NLS-1$
+    
+    /**
+     * Option declaring the resources that a root read/write transaction
+     * writes, so that it may run concurrently with other transactions that
+     * declare disjoint resources.  The editing domain assigns every resource
+     * to one of a fixed number of stripes, and such a partitioned write
+     * shares the editing domain's lock with other partitioned writes while
+     * it holds the stripes of its resources exclusively.  Partitioned writes
+     * never share the lock with {@linkplain #OPTION_SHARED_READ shared} or
+     * {@linkplain #OPTION_UPGRADABLE_READ upgradable} readers:  if any are
+     * present when it starts, the transaction escalates to take the lock
+     * exclusively, as any other read/write transaction does.
+     * <p>
+     * A partitioned write must not modify anything but the contents of the
+     * declared resources.  In particular, it must not create, load, or unload
+     * resources, which changes the resource set.  Any change to anything else
+     * is detected when it is made, which aborts the transaction so that it
+     * rolls back on commit with an error status.  Because the change has
+     * already happened by then, this is a safety net for programming errors
+     * and not a means of deciding which transactions may be partitioned.
+     * </p><p>
+     * Partitioned writes share the editing domain's change recorder, so they
+     * do not record changes for undo and cannot revert them on roll-back, as
+     * though they had the {@link #OPTION_NO_UNDO} option; nor do they support
+     * {@linkplain #OPTION_VALIDATE_EDIT validate-edit}.  Their post-commit
+     * events are broadcast one transaction at a time, and those of
+     * transactions that write the same resources are broadcast in the order
+     * in which the transactions commit.  However, their pre-commit events may
+     * be broadcast concurrently on different threads, so pre-commit listeners
+     * in editing domains that use partitioned writes must be thread-safe.
+     * </p><p>
+     * The option is ignored for read-only transactions and is inherited by
+     * nested transactions, which are bound by the root transaction's resources.
+     * The value is a {@link java.util.Collection} of
+     * {@link org.eclipse.emf.ecore.resource.Resource}s; the default is none,
+     * which means that the transaction takes the editing domain's lock
+     * exclusively.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_WRITE_RESOURCES = "write_resources";  //$NON-NLS-1$
+    
+    /**
+     * Option requesting that a read/write transaction show other threads
+     * a snapshot of the last committed state of the model when it
+     * {@linkplain TransactionalEditingDomain#yield() yields}, so that
+     * read-only transactions need not wait for a long write, such as an
+     * import, to finish.  Read/write transactions ordinarily never yield,
+     * because other threads would read their uncommitted changes.  With this
+     * option, the transaction reverts its changes in place before it lets the
+     * waiting readers in and re-applies them when it resumes.  It keeps
+     * other read/write transactions out while it yields, so the readers see
+     * exactly the state that the transaction started from.
+     * <p>
+     * Reverting and re-applying the changes costs time in proportion to the
+     * changes that the transaction has made so far, so a long write should
+     * yield at intervals that suit how much it changes.  The transaction
+     * does not yield a snapshot if any changes cannot be reverted, including
+     * when it or any transaction that it is nested in does not record them
+     * for undo (in which case it does not yield at all).  Read-only
+     * transactions that run while it yields cannot start read/write
+     * transactions, not even {@linkplain #OPTION_UPGRADABLE_READ upgradable}
+     * or {@linkplain #OPTION_UNPROTECTED unprotected} ones:  these fail with
+     * an {@link IllegalStateException} instead of waiting for the yielding
+     * transaction, which is waiting for them.
+     * </p><p>
+     * The option is ignored for read-only transactions and is inherited by
+     * nested transactions.
+     * The value is a {@link Boolean}; the default is {@link Boolean#FALSE}.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_YIELD_SNAPSHOTS = "yield_snapshots";  //$NON-NLS-1$
+    
+    /**
+     * Option requesting a bulk-load transaction, for populating a model with
+     * large numbers of objects.  A bulk-load transaction does not record undo
+     * information, so it cannot roll back its changes; nor does it invoke
+     * triggers or validate its changes.  Instead of all of the notifications
+     * of its changes, the post-commit event has one
+     * {@link org.eclipse.emf.transaction.util.BulkChangeNotification} for
+     * each resource in which it changed the contents, in addition to the
+     * notifications of changes to the resource set and of changes to the
+     * resources themselves, such as their loading.  It is otherwise a
+     * read/write transaction like any other, excluding other transactions
+     * while it is active.
+     * <p>
+     * The option is ignored for read-only transactions and is inherited by
+     * nested transactions.
+     * The value is a {@link Boolean}; the default is {@link Boolean#FALSE}.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_BULK_LOAD = "bulk_load";  //$NON-NLS-1$
+    
+    /**
+     * Option setting a budget for the memory that a root transaction and the
+     * transactions nested in it may retain, in notifications for listeners
+     * and in change descriptions for undo, before they commit.  The memory
+     * is estimated from the numbers of notifications and of recorded changes;
+     * the {@link org.eclipse.emf.transaction.impl.TransactionImpl#getMemoryUsage()}
+     * method reports the estimate.  What happens when a transaction exceeds
+     * its budget is determined by the {@link #OPTION_MEMORY_BUDGET_POLICY}
+     * option.  A long import, for example, may set a budget to fail cleanly
+     * rather than exhaust the heap.
+     * <p>
+     * The option applies only to root transactions and is not inherited.
+     * The value is a {@link Long} number of bytes; by default, there is no
+     * budget.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_MEMORY_BUDGET = "memory_budget";  //$NON-NLS-1$
+    
+    /**
+     * Option selecting what a transaction does when it exceeds its
+     * {@linkplain #OPTION_MEMORY_BUDGET memory budget}, either of:
+     * <ul>
+     *   <li>{@link #MEMORY_BUDGET_FAIL}:  the transaction is aborted, so
+     *       that it rolls back when it commits, with a {@link RollbackException}
+     *       whose status explains why.  It stops retaining notifications
+     *       at once and rejects any further change to the model with an
+     *       {@link IllegalStateException}, after recording it so that it can
+     *       still be rolled back.  This is the default</li>
+     *   <li>{@link #MEMORY_BUDGET_SUMMARIZE}:  the transaction stops retaining
+     *       notifications of changes to the model and, as in a
+     *       {@linkplain #OPTION_BULK_LOAD bulk load}, sends post-commit
+     *       listeners one notification for each resource that it changed
+     *       since then instead.  This policy applies only to transactions
+     *       that, like a bulk load, record no undo information and neither
+     *       invoke triggers nor validate (as by the {@link #OPTION_NO_UNDO},
+     *       {@link #OPTION_NO_TRIGGERS}, and {@link #OPTION_NO_VALIDATION}
+     *       options), because a summary cannot stand in for the changes that
+     *       these need.  Other transactions fail as by the
+     *       {@link #MEMORY_BUDGET_FAIL} policy</li>
+     * </ul>
+     * <p>
+     * The option applies only to root transactions and is not inherited.
+     * The value is a {@link String}; the default is {@link #MEMORY_BUDGET_FAIL}.
+     * </p>
+     * 
+     * @since 1.10
+     */
+    String OPTION_MEMORY_BUDGET_POLICY = "memory_budget_policy";  //$NON-NLS-1$
+    
+    /**
+     * The {@linkplain #OPTION_MEMORY_BUDGET_POLICY memory budget policy}
+     * that fails the transaction.
+     * 
+     * @since 1.10
+     */
+    String MEMORY_BUDGET_FAIL = "fail";  //$NON-NLS-1$
+    
+    /**
+     * The {@linkplain #OPTION_MEMORY_BUDGET_POLICY memory budget policy}
+     * that summarizes further changes instead of retaining their
+     * notifications.
+     * 
+     * @since 1.10
+     */
+    String MEMORY_BUDGET_SUMMARIZE = "summarize";  //$NON-NLS-1$
+    
 	/**
 	 * Queries the editing domain in which I am transacting.  Note that this
 	 * is available also before I start and after I close.
@@ -289,6 +567,57 @@ public interface Transaction {
 	 * to listeners it appears that nothing ever happened.
 	 */
 	void rollback();
+	
+	/**
+	 * Marks the current state of my changes, so that I can later
+	 * {@linkplain #rollbackTo(Savepoint) roll back} to it without rolling
+	 * back entirely.  This is a lighter-weight alternative to a nested
+	 * transaction for speculative changes that may have to be reverted:
+	 * a savepoint only records the extent of my change description and of
+	 * my notifications.
+	 * <p>
+	 * Only a read/write transaction that records undo information and that
+	 * is the currently active transaction in the editing domain may set a
+	 * savepoint.
+	 * </p>
+	 * 
+	 * @return the new savepoint
+	 * 
+	 * @throws IllegalStateException if I am read-only, do not record undo
+	 *     information, or am not the currently active transaction, or if
+	 *     the current thread is not my owner
+	 * 
+	 * @see #rollbackTo(Savepoint)
+	 * 
+	 * @since 1.10
+	 */
+	Savepoint setSavepoint();
+	
+	/**
+	 * Reverts the model changes that I made since the specified savepoint,
+	 * including those of nested transactions that committed since then, and
+	 * forgets their notifications.  I remain active, and so does the
+	 * savepoint, so that I can roll back to it again.  Savepoints that were
+	 * set after it are no longer {@linkplain Savepoint#isValid() valid}.
+	 * As when I roll back entirely, notifications of changes that cannot be
+	 * reverted, such as the loading of resources, are retained.
+	 * <p>
+	 * Only the transaction that is currently active in the editing domain
+	 * may roll back to a savepoint.
+	 * </p>
+	 * 
+	 * @param savepoint a valid savepoint that I set
+	 * 
+	 * @throws IllegalArgumentException if the savepoint was not set by me or
+	 *     is no longer valid
+	 * @throws IllegalStateException if I am not the currently active
+	 *     transaction, or if the current thread is not my owner
+	 * 
+	 * @see #setSavepoint()
+	 * 
+	 * @since 1.10
+	 */
+	void rollbackTo(Savepoint savepoint);
 
 	/**
 	 * Obtains the change description summarizing the changes made to the model
@@ -318,6 +647,38 @@ public interface Transaction {
 	//
 	// Nested types
 	//
+	
+	/**
+	 * A mark in the changes of a read/write transaction, to which it can
+	 * roll back.
+	 * <p>
+	 * This interface is not intended to be implemented by clients.
+	 * </p>
+	 * 
+	 * @see Transaction#setSavepoint()
+	 * @see Transaction#rollbackTo(Savepoint)
+	 * 
+	 * @noimplement This interface is not intended to be implemented by clients.
+	 * 
+	 * @since 1.10
+	 */
+	interface Savepoint {
+		/**
+		 * Obtains the transaction that set me.
+		 * 
+		 * @return my transaction
+		 */
+		Transaction getTransaction();
+		
+		/**
+		 * Queries whether my transaction can still roll back to me.  I am no
+		 * longer valid once my transaction has closed or it has rolled back
+		 * to a savepoint that was set before me.
+		 * 
+		 * @return whether I am valid
+		 */
+		boolean isValid();
+	}
 
 	/**
 	 * <p>
@@ -507,6 +868,30 @@ public interface Transaction {
 						Transaction.OPTION_UNPROTECTED, false));
 					register(BasicTransactionOptionMetadata.newBoolean(
 						Transaction.OPTION_IS_UNDO_REDO_TRANSACTION, false));
+					register(BasicTransactionOptionMetadata.newBoolean(
+						Transaction.OPTION_SHARED_READ, false));
+					register(BasicTransactionOptionMetadata.newBoolean(
+						Transaction.OPTION_UPGRADABLE_READ, false));
+					register(new BasicTransactionOptionMetadata(
+						Transaction.OPTION_LOCK_PRIORITY, false, true,
+						Integer.class, Integer.valueOf(
+							LockSchedulingPolicy.PRIORITY_NORMAL)));
+					register(new BasicTransactionOptionMetadata(
+						Transaction.OPTION_LOCK_TIMEOUT, false, true,
+						Long.class, Long.valueOf(0L)));
+					register(new BasicTransactionOptionMetadata(
+						Transaction.OPTION_WRITE_RESOURCES, false, true,
+						java.util.Collection.class, null));
+					register(BasicTransactionOptionMetadata.newBoolean(
+						Transaction.OPTION_YIELD_SNAPSHOTS, false));
+					register(BasicTransactionOptionMetadata.newBoolean(
+						Transaction.OPTION_BULK_LOAD, false));
+					register(new BasicTransactionOptionMetadata(
+						Transaction.OPTION_MEMORY_BUDGET, false, false,
+						Long.class, null));
+					register(new BasicTransactionOptionMetadata(
+						Transaction.OPTION_MEMORY_BUDGET_POLICY, false, false,
+						String.class, Transaction.MEMORY_BUDGET_FAIL));
 
 					register(new ValidateEditOption());
 					register(new BasicTransactionOptionMetadata(
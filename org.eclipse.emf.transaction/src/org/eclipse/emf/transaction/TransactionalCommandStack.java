@@ -42,7 +42,10 @@ public interface TransactionalCommandStack
 	 *    <code>null</code> to select the defaults
 	 *    
 	 * @throws InterruptedException if the current thread is interrupted while
-	 *    waiting to start a read/write transaction for the command execution
+	 *    waiting to start a read/write transaction for the command execution,
+	 *    or a {@link LockTimeoutException} if it could not start the
+	 *    transaction within the {@linkplain Transaction#OPTION_LOCK_TIMEOUT
+	 *    time-out} specified in the <code>options</code>
 	 * @throws RollbackException if the changes performed by the command are
 	 *    rolled back by validation of the transaction
 	 */
@@ -66,4 +69,83 @@ public interface TransactionalCommandStack
 	 * @see #setExceptionHandler(ExceptionHandler)
 	 */
 	ExceptionHandler getExceptionHandler();
+	
+	/**
+	 * An optional interface of command stacks that can group commands
+	 * submitted concurrently by many threads into batches that are executed
+	 * under one hold of the editing domain's lock.  This amortizes the cost
+	 * of handing the lock from thread to thread and of broadcasting
+	 * post-commit events over all of the commands in a batch.
+	 * <p>
+	 * Each command in a batch is executed in its own read/write transaction,
+	 * which is nested in a read-only transaction that holds the lock for the
+	 * batch, so that pre-commit listeners and validation apply to every
+	 * command as they do when it is {@linkplain #execute(Command, Map) executed}
+	 * by itself, and a command that is rolled back does not affect the others.
+	 * However, the post-commit listeners receive one event for the batch,
+	 * which has all of the changes of all of the commands that committed, and
+	 * whose transaction is the read-only transaction of the batch.
+	 * </p><p>
+	 * The commands are executed on the thread that leads the batch, which is
+	 * one of the threads that submitted them, so commands submitted for group
+	 * commit must not depend on the thread that executes them.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	interface GroupCommit {
+		/**
+		 * The default number of milliseconds that the thread that leads a
+		 * batch waits for other threads to submit commands.
+		 */
+		long DEFAULT_WINDOW = 2L;
+		
+		/**
+		 * The default maximal number of commands in a batch.
+		 */
+		int DEFAULT_BATCH_SIZE = 64;
+		
+		/**
+		 * Executes the specified command in a batch with commands that other
+		 * threads submit at about the same time, waiting until it has been
+		 * executed.  If the current thread already has a transaction, then
+		 * the command is simply {@linkplain TransactionalCommandStack#execute(Command, Map) executed}
+		 * in it.
+		 * 
+		 * @param command the command to execute
+		 * @param options the options to apply to the command's transaction,
+		 *    or <code>null</code> to select the defaults.  Options that affect
+		 *    how the transaction acquires the lock do not apply, because the
+		 *    lock is acquired for the batch.  The transaction must not be a
+		 *    {@linkplain Transaction#OPTION_WRITE_RESOURCES partitioned} write
+		 *    
+		 * @throws InterruptedException if the current thread is interrupted
+		 *    while waiting for its command to be taken into a batch, in which
+		 *    case the command is not executed
+		 * @throws RollbackException if the changes performed by the command
+		 *    are rolled back by validation of its transaction
+		 * @throws IllegalArgumentException if the <code>options</code> request
+		 *    a partitioned write
+		 *    
+		 * @see TransactionalCommandStack#execute(Command, Map)
+		 */
+		void executeGrouped(Command command, Map<?, ?> options)
+			throws InterruptedException, RollbackException;
+		
+		/**
+		 * Sets how long the thread that leads a batch waits for other threads
+		 * to submit commands, and how many commands a batch may have at most.
+		 * The thread stops waiting as soon as the batch is full.
+		 * 
+		 * @param window the number of milliseconds to wait for commands, or
+		 *    <code>0L</code> to batch only the commands that are already
+		 *    waiting.  The default is {@link #DEFAULT_WINDOW}
+		 * @param batchSize the maximal number of commands in a batch.  The
+		 *    default is {@link #DEFAULT_BATCH_SIZE}
+		 *    
+		 * @throws IllegalArgumentException if the <code>window</code> is
+		 *    negative or the <code>batchSize</code> is not positive
+		 */
+		void setGroupCommitWindow(long window, int batchSize);
+	}
 }
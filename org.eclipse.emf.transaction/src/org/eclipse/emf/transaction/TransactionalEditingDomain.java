@@ -14,7 +14,10 @@ package org.eclipse.emf.transaction;
 
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
@@ -85,6 +88,13 @@ import org.eclipse.emf.transaction.util.TransactionUtil;
  * transaction and editing-domain
  * {@linkplain TransactionalEditingDomainListener lifecycle changes}.
  * </p>
+ * <p>
+ * Since the 1.10 release, editing domains that support it may be adapted to
+ * the {@link org.eclipse.emf.transaction.util.LockMetrics} of their
+ * transaction lock, to measure how long threads wait for and hold it, and
+ * may offer {@linkplain TransactionalEditingDomain.OptimisticReads optimistic
+ * reads} that do not take the transaction lock at all.
+ * </p>
  * 
  * @author Christian W. Damus (cdamus)
  * 
@@ -93,6 +103,7 @@ import org.eclipse.emf.transaction.util.TransactionUtil;
  * @see ResourceSetListener
  * @see ResourceSetListener.Internal
  * @see TransactionalEditingDomain.Lifecycle
+ * @see TransactionalEditingDomain.OptimisticReads
  * @see TransactionalEditingDomainListener
  */
 public interface TransactionalEditingDomain
@@ -197,7 +208,10 @@ public interface TransactionalEditingDomain
 	 * Only read-only transactions may yield, and only the transaction that
 	 * is currently active in the editing domain may yield.  The yielding
 	 * transaction may be nested, but not within a read/write transaction
-	 * at any depth.
+	 * at any depth.  The exception is a read/write transaction that
+	 * {@linkplain Transaction#OPTION_YIELD_SNAPSHOTS yields snapshots}:  it
+	 * reverts its uncommitted changes while it yields, so that the readers
+	 * that take control see the last committed state.
 	 * </p>
 	 * <p>
 	 * Upon yielding, some other read-only transaction that is attempting to
@@ -474,4 +488,183 @@ public interface TransactionalEditingDomain
 				TransactionalEditingDomainListener l);
 		
 	}
+
+	/**
+	 * <p>
+	 * Adapter interface provided by {@link TransactionalEditingDomain}s that
+	 * support optimistic reading.  An optimistic read runs without starting a
+	 * transaction and without acquiring the transaction lock.  It is valid
+	 * only if no read/write transaction was active in the editing domain while
+	 * it ran, nor any read-only transaction that changed the resource set (for
+	 * example, by loading a resource or resolving a proxy); otherwise, it is
+	 * run again in a read-only transaction, as by the
+	 * {@link TransactionalEditingDomain#runExclusive(Runnable)} method.
+	 * </p><p>
+	 * Optimistic reads are intended for small, frequent reads that usually do
+	 * not coincide with any writes, such as fetching a name or checking a flag.
+	 * Because an optimistic read may see the resource set in an inconsistent
+	 * state before it is found to be invalid and repeated, it must not have any
+	 * side-effects, must not retain any objects that it reads beyond its
+	 * result, and must be prepared to fail with run-time exceptions.  Moreover,
+	 * it must not resolve proxies or load resources, which would modify the
+	 * resource set.
+	 * </p><p>
+	 * This interface is not intended to be implemented by clients, but by
+	 * editing domain providers.
+	 * </p>
+	 * 
+	 * @see TransactionUtil#runOptimistic(TransactionalEditingDomain, RunnableWithResult)
+	 * 
+	 * @since 1.10
+	 */
+	interface OptimisticReads {
+		/**
+		 * Runs an operation that requires read-only access to my resource set,
+		 * optimistically without a transaction.  If a read/write transaction,
+		 * or a read-only transaction that changed the resource set, was active
+		 * at any time while the <code>read</code> ran, then it is run again in
+		 * a read-only transaction and its result is the result of that second
+		 * run.  Any run-time exception thrown by an invalid
+		 * optimistic run is discarded; one thrown by a valid run is propagated
+		 * to the caller.
+		 * <p>
+		 * If the current thread already has an active transaction, then the
+		 * <code>read</code> simply runs in that transaction's context.
+		 * </p>
+		 * 
+		 * @param <T> the result type of the runnable
+		 * 
+		 * @param read a read-only operation to execute
+		 * 
+		 * @return the result of the read operation
+		 * 
+		 * @throws InterruptedException if the current thread is interrupted
+		 *    while waiting for access to the resource set, if it had to run
+		 *    the <code>read</code> again in a transaction
+		 */
+		<T> T runOptimistic(RunnableWithResult<? extends T> read)
+			throws InterruptedException;
+	}
+
+	/**
+	 * <p>
+	 * Adapter interface provided by {@link TransactionalEditingDomain}s that
+	 * can run transactions asynchronously, for clients whose threads must not
+	 * block waiting for the transaction lock.  Reads and writes are run on
+	 * separate executors, so that a queue of writes does not hold up reads,
+	 * and the caller is handed a {@link CompletableFuture} that completes when
+	 * the transaction has committed or rolled back.
+	 * </p><p>
+	 * A thread that has an active transaction must not wait for the future
+	 * of an asynchronous transaction, because that transaction cannot start
+	 * until it releases the lock.
+	 * </p><p>
+	 * This interface is not intended to be implemented by clients, but by
+	 * editing domain providers.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	interface AsyncTransactions {
+		/**
+		 * Runs an operation that requires read-only access to my resource set
+		 * {@linkplain TransactionalEditingDomain#runExclusive(Runnable) exclusively},
+		 * on my read executor.
+		 * 
+		 * @param <T> the result type of the runnable
+		 * 
+		 * @param read a read-only operation to execute
+		 * 
+		 * @return the future result of the read operation.  It completes
+		 *    exceptionally with a {@link RollbackException} if the read's
+		 *    transaction was rolled back, in which case that is also the
+		 *    read's {@linkplain RunnableWithResult#getStatus() status}, or
+		 *    with any other exception that the read threw
+		 */
+		<T> CompletableFuture<T> runExclusiveAsync(RunnableWithResult<? extends T> read);
+		
+		/**
+		 * {@linkplain TransactionalCommandStack#execute(Command, Map) Executes}
+		 * a command on my command stack, on my write executor.
+		 * 
+		 * @param command the command to execute
+		 * @param options the options to apply to the command's transaction,
+		 *    or <code>null</code> to select the defaults
+		 * 
+		 * @return the future completion of the command.  It completes
+		 *    exceptionally with a {@link RollbackException} if the command's
+		 *    transaction was rolled back, or with any other exception that
+		 *    the execution threw
+		 */
+		CompletableFuture<Void> executeAsync(Command command, Map<?, ?> options);
+		
+		/**
+		 * Sets the executors that run my asynchronous transactions.  By
+		 * default, writes are run on a single thread and reads on a pool of
+		 * as many threads as there are processors, whose threads terminate
+		 * when they are idle and which are shut down when they are replaced
+		 * or I am disposed.  Executors set by the client are not shut down by
+		 * me.  Once I am disposed, asynchronous transactions complete
+		 * exceptionally with a {@link java.util.concurrent.RejectedExecutionException}.
+		 * 
+		 * @param writeExecutor the executor on which to execute commands, or
+		 *    <code>null</code> to use the default
+		 * @param readExecutor the executor on which to run reads, or
+		 *    <code>null</code> to use the default
+		 */
+		void setAsyncExecutors(Executor writeExecutor, Executor readExecutor);
+	}
+
+	/**
+	 * <p>
+	 * Adapter interface provided by {@link TransactionalEditingDomain}s that
+	 * deliver post-commit events to
+	 * {@linkplain ResourceSetListener.Asynchronous asynchronous} listeners.
+	 * It configures the executor on which they receive their events and
+	 * reports how far each of them has fallen behind the commits.
+	 * </p><p>
+	 * This interface is not intended to be implemented by clients, but by
+	 * editing domain providers.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	interface AsyncListeners {
+		/**
+		 * Sets the executor on which my asynchronous listeners receive their
+		 * post-commit events.  By default, this is a pool of as many threads
+		 * as there are processors, whose threads terminate when they are idle
+		 * and which is shut down when it is replaced or I am disposed.  An
+		 * executor set by the client is not shut down by me.
+		 * 
+		 * @param executor the listener executor, or <code>null</code> to use
+		 *    the default
+		 */
+		void setAsyncListenerExecutor(Executor executor);
+		
+		/**
+		 * Queries how many post-commit events an asynchronous listener has
+		 * yet to receive, including any that it is receiving now.  Events
+		 * that are coalesced are counted separately.
+		 * 
+		 * @param listener an asynchronous listener
+		 * 
+		 * @return the depth of the listener's queue, or <code>0</code> if
+		 *    the listener is not an asynchronous listener of mine
+		 */
+		int getQueueDepth(ResourceSetListener listener);
+		
+		/**
+		 * Queries how far an asynchronous listener lags behind the commits:
+		 * how long ago the oldest of the post-commit events that it has yet
+		 * to receive was queued for it.
+		 * 
+		 * @param listener an asynchronous listener
+		 * 
+		 * @return the listener's lag, in milliseconds, or <code>0</code> if it
+		 *    has received all of its events or it is not an asynchronous
+		 *    listener of mine
+		 */
+		long getLag(ResourceSetListener listener);
+	}
 }
@@ -68,17 +68,19 @@ public final class FilterManager {
 			NotificationFilter filter, ArrayList<Notification> cache) {
 		List<Notification> result;
 		
+		if (filter == null) {
+			// the default filter
+			filter = NotificationFilter.NOT_TOUCH;
+		} else {
+			filter = filter.optimize();
+		}
+		
 		if (filter == NotificationFilter.ANY) {
 			result = notifications;
 		} else {
 			result = cache;
 			result.clear();
 			
-			if (filter == null) {
-				// the default filter
-				filter = NotificationFilter.NOT_TOUCH;
-			}
-			
 			for (Notification next : notifications) {
 				if (filter.matches(next)) {
 					result.add(next);
@@ -109,6 +111,24 @@ public final class FilterManager {
 		return select(notifications, filter, new ArrayList<Notification>());
 	}
 	
+	/**
+	 * Creates an index of the given notifications, from which to select the
+	 * notifications that match the filters of many listeners more efficiently
+	 * than by matching every filter against every notification.
+	 * 
+	 * @param notifications a list of notifications to select from.  It must
+	 *     not change while the index is in use
+	 * 
+	 * @return the index
+	 * 
+	 * @see NotificationIndex#select(NotificationFilter, ArrayList)
+	 * 
+	 * @since 1.10
+	 */
+	public NotificationIndex createIndex(List<Notification> notifications) {
+		return new NotificationIndex(notifications);
+	}
+	
 	/**
 	 * Selects the notifications in the given singleton list of an unbatched
 	 * notification that match the specified filter.  The result is, thus,
@@ -134,6 +154,8 @@ public final class FilterManager {
 		if (filter == null) {
 			// the default filter
 			filter = NotificationFilter.NOT_TOUCH;
+		} else {
+			filter = filter.optimize();
 		}
 
 		if (filter.matches(notification.get(0))) {
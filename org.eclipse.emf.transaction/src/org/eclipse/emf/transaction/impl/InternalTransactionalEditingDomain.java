@@ -41,7 +41,10 @@ public interface InternalTransactionalEditingDomain extends TransactionalEditing
 	 * @return the newly started transaction
 	 * 
 	 * @throws InterruptedException if the current thread is interrupted while
-	 *     waiting for the transaction to start
+	 *     waiting for the transaction to start, or a
+	 *     {@link org.eclipse.emf.transaction.LockTimeoutException} if the
+	 *     transaction could not start within its
+	 *     {@linkplain Transaction#OPTION_LOCK_TIMEOUT lock time-out}
 	 * @throws IllegalArgumentException if the current thread does not
 	 *     {@link Transaction#getOwner() own} the transaction that it wants
 	 *     to start or if it is attempting to start a transaction in an
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.CompositeChangeDescription;
+
+/**
+ * A root read-only transaction without options of its own, such as those
+ * that the editing domain starts to
+ * {@linkplain org.eclipse.emf.transaction.TransactionalEditingDomain#runExclusive(Runnable) run exclusive}
+ * reads.  It allocates nothing but itself until it actually needs more:
+ * it shares an empty change description with all other lightweight reads,
+ * inherits the editing domain's default options only if there are any,
+ * and collects notifications only once it receives some.
+ * <p>
+ * While it is active without nested transactions, the editing domain uses
+ * the shared {@link #VALIDATOR} for it, which does not track anything.  The
+ * first nested transaction replaces that by a validator from the editing
+ * domain's validator factory, which then accounts for all of the
+ * notifications that this transaction has collected so far.
+ * </p>
+ *
+ * @see TransactionalEditingDomainImpl#startTransaction(boolean, java.util.Map)
+ */
+final class LightweightReadTransaction extends TransactionImpl {
+	/**
+	 * The change description that all lightweight reads share.  It is never
+	 * modified, because read-only transactions do not record changes.
+	 */
+	private static final CompositeChangeDescription EMPTY_CHANGE =
+		new CompositeChangeDescription();
+
+	/**
+	 * The validator that the editing domain shares for all lightweight reads
+	 * that have no nested transactions.  It validates nothing and provides,
+	 * for post-commit, the notifications collected by the transaction.
+	 */
+	static final TransactionValidator VALIDATOR = new TransactionValidator() {
+		// Documentation copied from the inherited specification
+		public IStatus validate(Transaction tx) {
+			return Status.OK_STATUS;
+		}
+
+		// Documentation copied from the inherited specification
+		public void add(InternalTransaction transaction) {
+			// nothing to do.  The transaction has its notifications
+		}
+
+		// Documentation copied from the inherited specification
+		public void remove(InternalTransaction transaction) {
+			// nothing to do.  The transaction has its notifications
+		}
+
+		// Documentation copied from the inherited specification
+		public List<Notification> getNotificationsForValidation(Transaction tx) {
+			return Collections.emptyList();
+		}
+
+		// Documentation copied from the inherited specification
+		public List<Notification> getNotificationsForPrecommit(Transaction tx) {
+			return Collections.emptyList();
+		}
+
+		// Documentation copied from the inherited specification
+		public List<Notification> getNotificationsForPostcommit(Transaction tx) {
+			return isNotificationEnabled(tx)
+				? ((InternalTransaction) tx).getNotifications()
+				: Collections.<Notification> emptyList();
+		}
+
+		// Documentation copied from the inherited specification
+		public void dispose() {
+			// nothing to do.  The transaction has its notifications
+		}
+	};
+
+	/**
+	 * Initializes me with my editing domain.
+	 *
+	 * @param domain the editing domain in which I operate
+	 */
+	LightweightReadTransaction(TransactionalEditingDomain domain) {
+		super(domain, EMPTY_CHANGE);
+	}
+
+	/**
+	 * Extends the inherited implementation to create my list of
+	 * notifications when I receive the first one.
+	 */
+	@Override
+	public void add(Notification notification) {
+		if ((notifications == null) && collectsNotifications(this)) {
+			notifications = new org.eclipse.emf.common.util.BasicEList.FastCompare<Notification>();
+		}
+
+		super.add(notification);
+	}
+}
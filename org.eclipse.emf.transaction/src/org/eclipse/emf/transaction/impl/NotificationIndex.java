@@ -0,0 +1,664 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.internal.NotificationFilterAccess;
+
+/**
+ * An index of the notifications that an editing domain broadcasts to its
+ * listeners, so that each listener's filter need only consider the
+ * notifications that it can possibly match rather than all of them.  The
+ * index buckets the notifications by notifier, feature, event type, and
+ * notifier type, each in one pass over the notifications when a filter
+ * first asks for it, according to the
+ * {@linkplain NotificationFilterAccess#getIndexKeys(NotificationFilter) index keys}
+ * of the filters.
+ * Filters that have no index keys, such as {@linkplain NotificationFilter.Custom custom}
+ * filters, are matched against every notification as usual.
+ * <p>
+ * An index is not thread-safe; it is intended for the broadcast of one
+ * list of notifications on one thread.
+ * </p>
+ *
+ * @since 1.10
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ *
+ * @see FilterManager#createIndex(List)
+ */
+public final class NotificationIndex {
+	/**
+	 * The size of notification lists below which it is cheaper just to match
+	 * every notification than to index them.
+	 */
+	static final int MINIMUM_SIZE = 32;
+
+	private final List<Notification> notifications;
+	private final Notification[] array;
+
+	private Map<Object, IntList> byNotifier;
+	private Map<Object, IntList> byFeature;
+	private Map<Integer, IntList> byEventType;
+	private List<TypeBucket> typeBuckets;
+	private Map<Object, IntList> byType; // resolved on demand from the buckets
+
+	private BitSet bits; // scratch pad for the union of several keys
+	private Map<NotificationFilter, Memo> memos; // shared sub-expressions
+
+	/**
+	 * Initializes me with the notifications to index.
+	 *
+	 * @param notifications the notifications
+	 */
+	NotificationIndex(List<Notification> notifications) {
+		this.notifications = notifications;
+		this.array = (notifications.size() < MINIMUM_SIZE) ? null
+			: notifications.toArray(new Notification[notifications.size()]);
+	}
+
+	/**
+	 * Obtains the notifications that I index.
+	 *
+	 * @return my notifications
+	 */
+	public List<Notification> getNotifications() {
+		return notifications;
+	}
+
+	/**
+	 * Selects my notifications that match the specified filter, in their
+	 * original order.  This is equivalent to the
+	 * {@link FilterManager#select(List, NotificationFilter, ArrayList)}
+	 * method, except that it only matches the filter against the
+	 * notifications that have at least one of its index keys, and that it
+	 * remembers the results of the filter's costlier sub-expressions for
+	 * other filters that share them.
+	 *
+	 * @param filter a notification filter
+	 * @param cache a scratch pad to fill with the notifications that
+	 *     match, as in the {@link FilterManager} method
+	 *
+	 * @return the notifications that match the filter
+	 */
+	public List<Notification> select(NotificationFilter filter,
+			ArrayList<Notification> cache) {
+		if ((array == null) || (filter == null)) {
+			return FilterManager.getInstance().select(notifications, filter, cache);
+		}
+
+		NotificationFilter optimized = filter.optimize();
+
+		if (optimized == NotificationFilter.ANY) {
+			return notifications;
+		}
+
+		Evaluator evaluator = compile(optimized);
+		NotificationIndex.Key[] keys = NotificationFilterAccess.getIndexKeys(optimized);
+
+		cache.clear();
+
+		if (keys == null) {
+			for (int i = 0; i < array.length; i++) {
+				if (evaluator.matches(array[i], i)) {
+					cache.add(array[i]);
+				}
+			}
+		} else if (keys.length == 1) {
+			IntList candidates = getCandidates(keys[0]);
+
+			if (candidates != null) {
+				for (int i = 0; i < candidates.size; i++) {
+					int index = candidates.data[i];
+
+					if (evaluator.matches(array[index], index)) {
+						cache.add(array[index]);
+					}
+				}
+			}
+		} else {
+			if (bits == null) {
+				bits = new BitSet(array.length);
+			} else {
+				bits.clear();
+			}
+
+			for (Key key : keys) {
+				IntList candidates = getCandidates(key);
+
+				if (candidates != null) {
+					candidates.setAll(bits);
+				}
+			}
+
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				if (evaluator.matches(array[i], i)) {
+					cache.add(array[i]);
+				}
+			}
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Compiles a filter for evaluation against my notifications.  Its
+	 * costlier sub-expressions are memoized:  each is evaluated at most once
+	 * for each notification, for all of the filters that share it, in all of
+	 * the selections from me.
+	 *
+	 * @param filter an optimized filter
+	 * @return its evaluator
+	 */
+	private Evaluator compile(NotificationFilter filter) {
+		Memo memo = null;
+
+		if (isMemoized(filter)) {
+			if (memos == null) {
+				memos = new HashMap<NotificationFilter, Memo>();
+			} else {
+				memo = memos.get(filter);
+			}
+
+			if (memo != null) {
+				return memo;
+			}
+		}
+
+		Evaluator result;
+		List<NotificationFilter> operands = filter.getOperands();
+
+		switch (filter.getKind()) {
+		case AND:
+		case OR:
+			if (!hasMemoizedOperand(filter)) {
+				// use the filter's own compiled implementation
+				result = new FilterEvaluator(filter);
+				break;
+			}
+
+			Evaluator[] evaluators = new Evaluator[operands.size()];
+			for (int i = 0; i < evaluators.length; i++) {
+				evaluators[i] = compile(operands.get(i));
+			}
+			result = new JunctionEvaluator(
+				filter.getKind() == NotificationFilter.Kind.AND, evaluators);
+			break;
+		case NOT:
+			result = new NegationEvaluator(compile(operands.get(0)));
+			break;
+		default:
+			result = new FilterEvaluator(filter);
+			break;
+		}
+
+		if (isMemoized(filter)) {
+			memo = new Memo(result, array.length);
+			memos.put(filter, memo);
+			result = memo;
+		}
+
+		return result;
+	}
+
+	private static boolean hasMemoizedOperand(NotificationFilter filter) {
+		for (NotificationFilter next : filter.getOperands()) {
+			if (isMemoized(next)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Queries whether a filter is costly enough to be worth memoizing its
+	 * results.  Simple comparisons of a notification's notifier, feature, and
+	 * so on are not.
+	 */
+	private static boolean isMemoized(NotificationFilter filter) {
+		switch (filter.getKind()) {
+		case ANY:
+		case NOT_TOUCH:
+		case NOTIFIER:
+		case EVENT_TYPE:
+		case FEATURE:
+			return false;
+		case NOTIFIER_TYPE:
+			return filter.getArguments().get(0) instanceof EClassifier;
+		case NOT:
+			return isMemoized(filter.getOperands().get(0));
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Obtains the indices of the notifications that have the specified key.
+	 *
+	 * @param key an index key
+	 * @return the indices, in ascending order, or <code>null</code> if none
+	 */
+	private IntList getCandidates(Key key) {
+		switch (key.getKind()) {
+		case Key.NOTIFIER:
+			if (byNotifier == null) {
+				byNotifier = new IdentityHashMap<Object, IntList>();
+
+				for (int i = 0; i < array.length; i++) {
+					Object notifier = array[i].getNotifier();
+
+					if (notifier != null) {
+						add(byNotifier, notifier, i);
+					}
+				}
+			}
+
+			return byNotifier.get(key.getValue());
+		case Key.FEATURE:
+			if (byFeature == null) {
+				byFeature = new IdentityHashMap<Object, IntList>();
+
+				for (int i = 0; i < array.length; i++) {
+					Object feature = array[i].getFeature();
+
+					if (feature != null) {
+						add(byFeature, feature, i);
+					}
+				}
+			}
+
+			return byFeature.get(key.getValue());
+		case Key.EVENT_TYPE:
+			if (byEventType == null) {
+				byEventType = new HashMap<Integer, IntList>();
+
+				for (int i = 0; i < array.length; i++) {
+					add(byEventType, array[i].getEventType(), i);
+				}
+			}
+
+			return byEventType.get(key.getValue());
+		default:
+			return getTypeCandidates(key.getValue());
+		}
+	}
+
+	/**
+	 * Obtains the indices of the notifications from instances of the
+	 * specified type.  Whether a notifier is an instance of a type depends
+	 * only on its Java class and, if it is an {@link EObject}, on its
+	 * {@link EClass}, so the notifications are bucketed by these and each
+	 * bucket is tested by one of its notifiers.
+	 *
+	 * @param type a Java class or an Ecore classifier
+	 * @return the indices, in ascending order, or <code>null</code> if none
+	 */
+	private IntList getTypeCandidates(Object type) {
+		if (typeBuckets == null) {
+			typeBuckets = new ArrayList<TypeBucket>();
+			byType = new HashMap<Object, IntList>();
+
+			Map<Class<?>, TypeBucket> byClass = new HashMap<Class<?>, TypeBucket>();
+
+			for (int i = 0; i < array.length; i++) {
+				Object notifier = array[i].getNotifier();
+
+				if (notifier != null) {
+					EClass eClass = (notifier instanceof EObject)
+						? ((EObject) notifier).eClass() : null;
+					TypeBucket bucket = byClass.get(notifier.getClass());
+
+					while ((bucket != null) && (bucket.eClass != eClass)) {
+						bucket = bucket.next;
+					}
+
+					if (bucket == null) {
+						bucket = new TypeBucket(notifier, eClass,
+							byClass.get(notifier.getClass()));
+						byClass.put(notifier.getClass(), bucket);
+						typeBuckets.add(bucket);
+					}
+
+					bucket.indices.add(i);
+				}
+			}
+		}
+
+		IntList result = byType.get(type);
+
+		if ((result == null) && !byType.containsKey(type)) {
+			TypeBucket single = null;
+			BitSet union = null;
+
+			for (TypeBucket next : typeBuckets) {
+				if (isInstance(type, next.notifier)) {
+					if (single == null) {
+						single = next;
+					} else {
+						if (union == null) {
+							union = new BitSet(array.length);
+							single.indices.setAll(union);
+						}
+						next.indices.setAll(union);
+					}
+				}
+			}
+
+			if (union != null) {
+				result = new IntList(union.cardinality());
+
+				for (int i = union.nextSetBit(0); i >= 0; i = union.nextSetBit(i + 1)) {
+					result.add(i);
+				}
+			} else if (single != null) {
+				result = single.indices;
+			}
+
+			byType.put(type, result);
+		}
+
+		return result;
+	}
+
+	private static boolean isInstance(Object type, Object object) {
+		return (type instanceof EClassifier)
+			? ((EClassifier) type).isInstance(object)
+			: ((Class<?>) type).isInstance(object);
+	}
+
+	private static <K> void add(Map<K, IntList> map, K key, int index) {
+		IntList list = map.get(key);
+
+		if (list == null) {
+			list = new IntList(4);
+			map.put(key, list);
+		}
+
+		list.add(index);
+	}
+
+	/**
+	 * A key by which notifications are indexed.  A notification has a key
+	 * if its notifier, feature, or event type is the key's value, or if its
+	 * notifier is an instance of the type that is the key's value.
+	 *
+	 * @since 1.10
+	 *
+	 * @noinstantiate This class is not intended to be instantiated by clients.
+	 * @noextend This class is not intended to be subclassed by clients.
+	 *
+	 * @see NotificationFilterAccess#getIndexKeys(NotificationFilter)
+	 */
+	public static final class Key {
+		/** The kind of key that is a notifier. */
+		public static final int NOTIFIER = 0;
+
+		/** The kind of key that is a structural feature. */
+		public static final int FEATURE = 1;
+
+		/** The kind of key that is a Java class or an Ecore classifier. */
+		public static final int NOTIFIER_TYPE = 2;
+
+		/** The kind of key that is an event type. */
+		public static final int EVENT_TYPE = 3;
+
+		private final int kind;
+		private final Object value;
+
+		private Key(int kind, Object value) {
+			this.kind = kind;
+			this.value = value;
+		}
+
+		/**
+		 * Creates the key of notifications from the specified notifier.
+		 *
+		 * @param notifier a notifier (not <code>null</code>)
+		 * @return the key
+		 */
+		public static Key notifier(Object notifier) {
+			return new Key(NOTIFIER, notifier);
+		}
+
+		/**
+		 * Creates the key of notifications of the specified feature.
+		 *
+		 * @param feature a feature (not <code>null</code>)
+		 * @return the key
+		 */
+		public static Key feature(Object feature) {
+			return new Key(FEATURE, feature);
+		}
+
+		/**
+		 * Creates the key of notifications from instances of the specified
+		 * type.
+		 *
+		 * @param type a Java class or an Ecore classifier
+		 * @return the key
+		 */
+		public static Key notifierType(Object type) {
+			if (!(type instanceof Class<?>) && !(type instanceof EClassifier)) {
+				throw new IllegalArgumentException("Not a type: " + type); //$NON-NLS-1$
+			}
+
+			return new Key(NOTIFIER_TYPE, type);
+		}
+
+		/**
+		 * Creates the key of notifications of the specified event type.
+		 *
+		 * @param eventType an event type
+		 * @return the key
+		 */
+		public static Key eventType(int eventType) {
+			return new Key(EVENT_TYPE, eventType);
+		}
+
+		/**
+		 * Obtains my kind.  The kinds are ordered by their selectivity, the
+		 * most selective (that which usually has the fewest notifications)
+		 * first.
+		 *
+		 * @return my kind
+		 */
+		public int getKind() {
+			return kind;
+		}
+
+		/**
+		 * Obtains my value.
+		 *
+		 * @return my notifier, feature, type, or event type (as an integer)
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+
+			return (kind == other.kind) && ((kind == EVENT_TYPE)
+				? value.equals(other.value) : (value == other.value));
+		}
+
+		@Override
+		public int hashCode() {
+			return (kind == EVENT_TYPE) ? value.hashCode()
+				: (31 * kind + System.identityHashCode(value));
+		}
+
+		@Override
+		public String toString() {
+			return "Key[kind=" + kind + ", value=" + value + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * The evaluation of a filter expression against the notification at
+	 * an index.
+	 */
+	private abstract static class Evaluator {
+		abstract boolean matches(Notification notification, int index);
+	}
+
+	/**
+	 * Evaluation of a filter that is not combined from other filters.
+	 */
+	private static final class FilterEvaluator extends Evaluator {
+		private final NotificationFilter filter;
+
+		FilterEvaluator(NotificationFilter filter) {
+			this.filter = filter;
+		}
+
+		@Override
+		boolean matches(Notification notification, int index) {
+			return filter.matches(notification);
+		}
+	}
+
+	/**
+	 * Evaluation of a conjunction or disjunction, in the order of its operands.
+	 */
+	private static final class JunctionEvaluator extends Evaluator {
+		private final boolean and;
+		private final Evaluator[] operands;
+
+		JunctionEvaluator(boolean and, Evaluator[] operands) {
+			this.and = and;
+			this.operands = operands;
+		}
+
+		@Override
+		boolean matches(Notification notification, int index) {
+			for (Evaluator next : operands) {
+				if (next.matches(notification, index) != and) {
+					return !and;
+				}
+			}
+
+			return and;
+		}
+	}
+
+	/**
+	 * Evaluation of a negation.
+	 */
+	private static final class NegationEvaluator extends Evaluator {
+		private final Evaluator operand;
+
+		NegationEvaluator(Evaluator operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		boolean matches(Notification notification, int index) {
+			return !operand.matches(notification, index);
+		}
+	}
+
+	/**
+	 * Memoized evaluation of a filter expression, remembering its result for
+	 * each notification.
+	 */
+	private static final class Memo extends Evaluator {
+		private final Evaluator delegate;
+		private final BitSet evaluated;
+		private final BitSet matched;
+
+		Memo(Evaluator delegate, int size) {
+			this.delegate = delegate;
+			this.evaluated = new BitSet(size);
+			this.matched = new BitSet(size);
+		}
+
+		@Override
+		boolean matches(Notification notification, int index) {
+			if (evaluated.get(index)) {
+				return matched.get(index);
+			}
+
+			boolean result = delegate.matches(notification, index);
+
+			evaluated.set(index);
+			if (result) {
+				matched.set(index);
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * The notifications from notifiers of one Java class and, for
+	 * {@link EObject}s, one {@link EClass}.
+	 */
+	private static final class TypeBucket {
+		final Object notifier;
+		final EClass eClass;
+		final TypeBucket next; // the next bucket of the same Java class
+		final IntList indices = new IntList(4);
+
+		TypeBucket(Object notifier, EClass eClass, TypeBucket next) {
+			this.notifier = notifier;
+			this.eClass = eClass;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * A growable list of notification indices.
+	 */
+	private static final class IntList {
+		int[] data;
+		int size;
+
+		IntList(int capacity) {
+			data = new int[capacity];
+		}
+
+		void add(int value) {
+			if (size == data.length) {
+				int[] newData = new int[size * 2];
+				System.arraycopy(data, 0, newData, 0, size);
+				data = newData;
+			}
+
+			data[size++] = value;
+		}
+
+		void setAll(BitSet bits) {
+			for (int i = 0; i < size; i++) {
+				bits.set(data[i]);
+			}
+		}
+	}
+}
@@ -106,8 +106,14 @@ public class ReadWriteValidatorImpl implements TransactionValidator {
 			if (newTree != null) {
 				txToNode.put(transaction, newTree);
 				
-				// next phase of aggregated precommit must start with this transaction
-				if ((transactionToPrecommit == null) && !transaction.isReadOnly()) {
+				// next phase of aggregated precommit must start with this
+				//    transaction.  A write nested in a read-only transaction
+				//    (such as a command of a group commit) always starts its
+				//    own phase, because its read-only parent does not
+				//    pre-commit and an earlier sibling may have rolled back
+				//    before its phase
+				if (!transaction.isReadOnly() && ((transactionToPrecommit == null)
+						|| transaction.getParent().isReadOnly())) {
 					transactionToPrecommit = newTree;
 				}
 			}
@@ -138,6 +144,64 @@ public class ReadWriteValidatorImpl implements TransactionValidator {
 		}
 	}
 	
+	/**
+	 * Obtains the number of nested transactions that the specified
+	 * transaction has had so far, that collected notifications, for a
+	 * savepoint.
+	 * 
+	 * @param transaction an active transaction
+	 * @return the number of its children in my notification tree
+	 * 
+	 * @see #rollbackTo(InternalTransaction, int, int)
+	 */
+	synchronized int getChildCount(InternalTransaction transaction) {
+		NotificationTree node = findTree(transaction);
+		
+		return (node == null) ? 0 : node.getChildren().size();
+	}
+	
+	/**
+	 * Filters the notifications of changes that the specified transaction
+	 * reverted by rolling back to a savepoint, both its own and those of the
+	 * nested transactions that it had since then.  As in roll-back, the
+	 * notifications of changes that cannot be reverted are retained.
+	 * 
+	 * @param transaction the active transaction that rolled back
+	 * @param notificationCount the number of notifications that it had
+	 *     collected when it set the savepoint
+	 * @param childCount the {@linkplain #getChildCount(InternalTransaction) number of children}
+	 *     that it had when it set the savepoint
+	 * @return <code>true</code> if I filtered the transaction's notifications;
+	 *     <code>false</code> if I have no notifications for it
+	 */
+	synchronized boolean rollbackTo(InternalTransaction transaction,
+			int notificationCount, int childCount) {
+		
+		NotificationTree node = findTree(transaction);
+		
+		if (node != null) {
+			node.rollbackTo(notificationCount, childCount);
+		}
+		
+		return node != null;
+	}
+	
+	/**
+	 * Determines whether the specified notification indicates an undoable
+	 * change to a model element.  This filters out non-model changes such
+	 * as changes to the modification/loaded state of resources, their
+	 * URIs, etc.
+	 * 
+	 * @param notification a notification
+	 * @return <code>true</code> if it represents an undoable change to an
+	 *     object or a resource (the contents list, in particular)
+	 */
+	static boolean isUndoableObjectChange(Notification notification) {
+		return (notification.getNotifier() instanceof EObject) ||
+			((notification.getNotifier() instanceof Resource)
+					&& (notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS));
+	}
+	
 	// Documentation copied from the inherited method specification
 	public synchronized List<Notification> getNotificationsForValidation(Transaction tx) {
 		List<Notification> result = null;
@@ -256,14 +320,15 @@ public class ReadWriteValidatorImpl implements TransactionValidator {
 	 */
 	private static byte computeNotificationMask(Transaction transaction) {
 		byte result = 0;
+		TransactionOptionProfile profile = TransactionOptionProfile.of(transaction);
 		
-		if (TransactionImpl.isNotificationEnabled(transaction)) {
+		if (profile.isNotificationEnabled()) {
 			result |= ReadWriteValidatorImpl.POSTCOMMIT;
 		}
-		if (TransactionImpl.isTriggerEnabled(transaction)) {
+		if (profile.isTriggerEnabled()) {
 			result |= ReadWriteValidatorImpl.PRECOMMIT;
 		}
-		if (TransactionImpl.isValidationEnabled(transaction)) {
+		if (profile.isValidationEnabled()) {
 			result |= ReadWriteValidatorImpl.VALIDATION;
 		}
 		
@@ -494,19 +559,39 @@ public class ReadWriteValidatorImpl implements TransactionValidator {
 		}
 		
 		/**
-		 * Determines whether the specified notification indicates an undoable
-		 * change to a model element.  This filters out non-model changes such
-		 * as changes to the modification/loaded state of resources, their
-		 * URIs, etc.
+		 * Indicates that my active transaction has rolled back to a savepoint.
+		 * This filters, as in {@link #setRolledBack()}, the notifications
+		 * that my transaction received since then and those of the children
+		 * that it had since then.
 		 * 
-		 * @param notification a notification
-		 * @return <code>true</code> if it represents an undoable change to an
-		 *     object or a resource (the contents list, in particular)
+		 * @param notificationCount the number of notifications that my
+		 *     transaction had when it set the savepoint
+		 * @param childCount the number of children that I had when my
+		 *     transaction set the savepoint
 		 */
-		private boolean isUndoableObjectChange(Notification notification) {
-			return (notification.getNotifier() instanceof EObject) ||
-				((notification.getNotifier() instanceof Resource)
-						&& (notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS));
+		void rollbackTo(int notificationCount, int childCount) {
+			ListIterator<Notification> iter =
+				getNotifications().listIterator(notificationCount);
+			int i = notificationCount;
+			
+			for (NotificationTree child : children.subList(childCount, children.size())) {
+				for (; (i < child.parentNotificationCount) && iter.hasNext(); i++) {
+					if (isUndoableObjectChange(iter.next())) {
+						iter.remove();
+					}
+				}
+				
+				// adjust for the reduced list of notifications
+				child.parentNotificationCount = iter.nextIndex();
+				
+				child.setRolledBack();
+			}
+			
+			while (iter.hasNext()) {
+				if (isUndoableObjectChange(iter.next())) {
+					iter.remove();
+				}
+			}
 		}
 		
 		/**
@@ -12,6 +12,7 @@
  */
 package org.eclipse.emf.transaction.impl;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 
@@ -296,12 +297,21 @@ public class TransactionChangeRecorder extends ChangeRecorder {
 	protected void appendNotification(Notification notification) {
 		if (!NotificationFilter.READ.matches(notification)) {
 			assertWriting();
+			assertPartition(notification);
 		}
 		
 		InternalTransaction tx = getEditingDomain().getActiveTransaction();
 		
 		if (tx != null) {
 			if (tx.getOwner() == Thread.currentThread()) {
+				if (tx.isReadOnly()
+					&& (getEditingDomain() instanceof TransactionalEditingDomainImpl)) {
+					// loading resources and resolving proxies invalidate
+					//    optimistic reads, as writes do
+					((TransactionalEditingDomainImpl) getEditingDomain())
+						.readOnlyChange(tx);
+				}
+				
 				tx.add(notification);
 			} else if (Tracing
 				.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
@@ -350,6 +360,56 @@ public class TransactionChangeRecorder extends ChangeRecorder {
 		}
 	}
 
+	/**
+	 * Implements the check that a
+	 * {@linkplain org.eclipse.emf.transaction.Transaction#OPTION_WRITE_RESOURCES partitioned}
+	 * transaction modifies only the resources that it declares that it writes.
+	 * Objects that are not in any resource may be modified freely.
+	 * 
+	 * @param notification a notification of a change by the active transaction
+	 * 
+	 * @throws IllegalStateException if the active transaction is partitioned
+	 *     and the notification is from the resource set or from a resource,
+	 *     or an object in a resource, that the transaction does not declare
+	 * 
+	 * @since 1.10
+	 */
+	protected void assertPartition(Notification notification) {
+		InternalTransaction tx = domain.getActiveTransaction();
+		Collection<?> resources = TransactionImpl.getWriteResources(tx.getRoot());
+		
+		if (resources != null) {
+			Object notifier = notification.getNotifier();
+			boolean inPartition;
+			
+			if (notifier instanceof Resource) {
+				inPartition = resources.contains(notifier);
+			} else if (notifier instanceof EObject) {
+				Resource res = ((EObject) notifier).eResource();
+				inPartition = (res == null) || resources.contains(res);
+			} else {
+				// the resource set is not in any partition
+				inPartition = false;
+			}
+			
+			if (!inPartition) {
+				tx.abort(new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.PARTITION_VIOLATION,
+					Messages.partitionViolation,
+					null));
+				
+				IllegalStateException ise = new IllegalStateException(
+					Messages.partitionViolation);
+				
+				Tracing.throwing(TransactionChangeRecorder.class, "assertPartition", ise); //$NON-NLS-1$
+				
+				throw ise;
+			}
+		}
+	}
+
 	/**
 	 * Temporarily pauses the recording of the current change description.
 	 * 
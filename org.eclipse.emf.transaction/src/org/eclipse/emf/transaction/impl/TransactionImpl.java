@@ -12,23 +12,35 @@
  */
 package org.eclipse.emf.transaction.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.NotificationFilter;
 import org.eclipse.emf.transaction.RollbackException;
 import org.eclipse.emf.transaction.Transaction;
 import org.eclipse.emf.transaction.TransactionChangeDescription;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.emf.transaction.internal.EMFTransactionDebugOptions;
 import org.eclipse.emf.transaction.internal.EMFTransactionPlugin;
+import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.internal.Tracing;
 import org.eclipse.emf.transaction.internal.l10n.Messages;
+import org.eclipse.emf.transaction.util.BulkChangeNotification;
 import org.eclipse.emf.transaction.util.CommandChangeDescription;
 import org.eclipse.emf.transaction.util.CompositeChangeDescription;
 import org.eclipse.emf.transaction.util.ConditionalRedoCommand;
@@ -101,27 +113,57 @@ public class TransactionImpl
 		DEFAULT_UNDO_REDO_OPTIONS = Collections.unmodifiableMap(map);
 	}
 	
-	private static long nextId = 0L;
+	private static final AtomicLong nextId = new AtomicLong();
+	
+	// rough estimates of the memory retained by a notification and by the
+	//    feature change that records it for undo, for the memory budget
+	private static final long ESTIMATED_NOTIFICATION_SIZE = 64L;
+	private static final long ESTIMATED_CHANGE_SIZE = 96L;
 	
 	final long id;
 	
 	private final TransactionalEditingDomain domain;
 	private Thread owner;
 	private final boolean readOnly;
-	private final Map<Object, Object> options;
-	private final Map<Object, Object> mutableOptions;
+	private Map<Object, Object> options;
+	private Map<Object, Object> mutableOptions; // lazy in lightweight reads
+	private TransactionOptionProfile optionProfile;
 	
 	private InternalTransaction parent;
 	private InternalTransaction root;
 	
-	private boolean active;
-	private boolean closing; // prevents re-entrant commit/rollback
-	private boolean rollingBack;
+	/*
+	 * My life-cycle state, as a combination of the state bits.  A transaction
+	 * goes from inactive to ACTIVE when it starts, adds CLOSING when it
+	 * commits or rolls back (which prevents re-entrant commit/rollback) and
+	 * ROLLING_BACK while it undoes its changes, and clears ACTIVE and
+	 * CLOSING when it closes.  ABORTED may be added by any thread at any
+	 * time and is never cleared.
+	 */
+	private static final int ACTIVE = 1 << 0;
+	private static final int CLOSING = 1 << 1;
+	private static final int ROLLING_BACK = 1 << 2;
+	private static final int ABORTED = 1 << 3;
+	
+	private static final AtomicIntegerFieldUpdater<TransactionImpl> STATE =
+		AtomicIntegerFieldUpdater.newUpdater(TransactionImpl.class, "state"); //$NON-NLS-1$
+	
+	private volatile int state;
+	
+	private static final AtomicLongFieldUpdater<TransactionImpl> TREE_MEMORY_USAGE =
+		AtomicLongFieldUpdater.newUpdater(TransactionImpl.class, "treeMemoryUsage"); //$NON-NLS-1$
+	
+	private boolean yieldingSnapshot; // ignores the changes that show the snapshot
 	protected List<Notification> notifications;
 	protected final CompositeChangeDescription change;
+	private List<SavepointImpl> savepoints; // the valid ones, created on demand
+	private Set<Resource> bulkResources; // resources changed by a bulk load
+	private Object lastBulkNotifier; // short-cuts runs of changes to an object
+	private long memoryUsage; // mine and my committed children's
+	private volatile long treeMemoryUsage; // my whole tree's, if I am a root
+	private boolean overBudget; // whether my tree exceeded my memory budget
 	
-	private boolean aborted;
-	private IStatus status = Status.OK_STATUS;
+	private volatile IStatus status = Status.OK_STATUS;
 	private Command triggers;
 	private CommandChangeDescription triggerChange;
 	
@@ -158,23 +200,54 @@ public class TransactionImpl
 			mutableOptions.putAll(options);
 		}
 		
-		synchronized (TransactionImpl.class) {
-			this.id = nextId++;
-		}
+		this.id = nextId.getAndIncrement();
+		
+		optionProfile = TransactionOptionProfile.compile(this, null);
 		
 		change = new CompositeChangeDescription();
 		
-		if (collectsNotifications(this)) {
+		if (optionProfile.collectsNotifications()) {
 			notifications = new org.eclipse.emf.common.util.BasicEList.FastCompare<Notification>();
 		} else {
 			// no need to collect any notifications if we won't use them
 			notifications = null;
 		}
 	}
+	
+	/**
+	 * Initializes me as a root read-only transaction that has no options
+	 * other than my editing domain's defaults, which I allocate only if
+	 * there are any.  I share the specified change description with other
+	 * transactions like me, which is safe because read-only transactions
+	 * never record changes.
+	 * 
+	 * @param domain the editing domain in which I operate
+	 * @param emptyChange the empty change description to share
+	 * 
+	 * @see LightweightReadTransaction
+	 */
+	TransactionImpl(TransactionalEditingDomain domain,
+			CompositeChangeDescription emptyChange) {
+		this.domain = domain;
+		this.readOnly = true;
+		this.owner = Thread.currentThread();
+		
+		this.mutableOptions = null;
+		this.options = Collections.emptyMap();
+		
+		this.id = nextId.getAndIncrement();
+		
+		optionProfile = TransactionOptionProfile.READ_ONLY_DEFAULT;
+		
+		change = emptyChange;
+		
+		// allocated on demand
+		notifications = null;
+	}
 
 	
 	// Documentation copied from the inherited specification
-	public synchronized void start() throws InterruptedException {
+	public void start() throws InterruptedException {
 		if (Thread.currentThread() != getOwner()) {
 			IllegalStateException exc = new IllegalStateException("Not transaction owner"); //$NON-NLS-1$
 			Tracing.throwing(TransactionImpl.class, "start", exc); //$NON-NLS-1$
@@ -209,7 +282,11 @@ public class TransactionImpl
 			throw e; // re-throw
 		}
 		
-		active = true;
+		if (!transition(ACTIVE, 0, ACTIVE, 0)) {
+			IllegalStateException exc = new IllegalStateException("Transaction is already active"); //$NON-NLS-1$
+			Tracing.throwing(TransactionImpl.class, "start", exc); //$NON-NLS-1$
+			throw exc;
+		}
 
 		if (this != getInternalDomain().getActiveTransaction()) {
 			IllegalStateException exc = new IllegalStateException("Activated transaction while another is active"); //$NON-NLS-1$
@@ -239,8 +316,9 @@ public class TransactionImpl
 			parent.pause();
 		}
 		
-		if (getRoot() == this) {
-		    // root transaction sets up validate-edit support
+		if ((getRoot() == this) && (getWriteResources(this) == null)) {
+		    // root transaction sets up validate-edit support, unless it is
+		    //    partitioned because then it shares the change recorder
     		
     		Object validateEdit = getOptions().get(OPTION_VALIDATE_EDIT);
     		if (Boolean.TRUE.equals(validateEdit)) {
@@ -296,6 +374,10 @@ public class TransactionImpl
 		this.root = (parent == null)? this : parent.getRoot();
 		
         inheritOptions(parent);
+		
+		// now that I have all of my options, compile them
+		optionProfile = TransactionOptionProfile.compile(this,
+			(parent == null) ? null : TransactionOptionProfile.of(parent));
 	}
 	
 	// Documentation copied from the inherited specification
@@ -318,9 +400,47 @@ public class TransactionImpl
 		return options;
 	}
 
+	/**
+	 * Obtains the compiled profile of my options, which is current with my
+	 * {@link #getOptions() options} map.
+	 * 
+	 * @return my option profile
+	 * 
+	 * @since 1.10
+	 */
+	public final TransactionOptionProfile getOptionProfile() {
+		return optionProfile;
+	}
+	
 	// Documentation copied from the inherited specification
-	public synchronized boolean isActive() {
-		return active;
+	public boolean isActive() {
+		return (state & ACTIVE) != 0;
+	}
+	
+	/**
+	 * Atomically changes my state, if the bits selected by the
+	 * <code>mask</code> have the <code>expected</code> values.
+	 * 
+	 * @param mask the state bits to check
+	 * @param expected the expected values of the bits selected by the mask
+	 * @param set the state bits to set
+	 * @param clear the state bits to clear
+	 * 
+	 * @return <code>true</code> if I made the transition; <code>false</code>
+	 *     if my state did not match
+	 */
+	private boolean transition(int mask, int expected, int set, int clear) {
+		for (;;) {
+			int current = state;
+			
+			if ((current & mask) != expected) {
+				return false;
+			}
+			
+			if (STATE.compareAndSet(this, current, (current & ~clear) | set)) {
+				return true;
+			}
+		}
 	}
 	
 	// Documentation copied from the inherited specification
@@ -338,11 +458,12 @@ public class TransactionImpl
 	}
 	
 	// Documentation copied from the inherited specification
-	public synchronized void abort(IStatus status) {
+	public void abort(IStatus status) {
 		assert status != null;
 		
-		this.aborted = true;
+		// set the status first, so that whoever sees the abort sees its status
 		this.status = status;
+		transition(0, 0, ABORTED, 0);
 		
 		if (parent != null) {
 			// propagate
@@ -358,7 +479,7 @@ public class TransactionImpl
 	 * @see InternalTransaction#abort(IStatus)
 	 */
 	protected boolean isAborted() {
-		return aborted;
+		return (state & ABORTED) != 0;
 	}
 
 	// Documentation copied from the inherited specification
@@ -369,7 +490,7 @@ public class TransactionImpl
 			throw exc;
 		}
 		
-		if (closing) {
+		if (isClosing()) {
 			IllegalStateException exc = new IllegalStateException("Transaction is already closing"); //$NON-NLS-1$
 			Tracing.throwing(TransactionImpl.class, "commit", exc); //$NON-NLS-1$
 			throw exc;
@@ -402,7 +523,7 @@ public class TransactionImpl
 				throw exc;
 			}
 			
-			closing = true;
+			beginClosing("commit"); //$NON-NLS-1$
 			
 			if (isTriggerEnabled(this)) {
 				try {
@@ -415,6 +536,21 @@ public class TransactionImpl
 				}
 			}
 			
+			if ((getParent() != null) && getParent().isReadOnly()
+					&& isValidationEnabled(this)) {
+				// a write nested in an upgradable read validates its own
+				//    changes, because the read-only root does not
+				IStatus validationStatus = validate();
+				setStatus(validationStatus);
+				
+				if (validationStatus.getSeverity() >= IStatus.ERROR) {
+					doRollback();
+					RollbackException exc = new RollbackException(validationStatus);
+					Tracing.throwing(TransactionImpl.class, "commit", exc); //$NON-NLS-1$
+					throw exc;
+				}
+			}
+			
 			if (getRoot() == this) {
                 // only the root validates.  Do validation before validate-edit
 			    // because its results are generally more interesting
@@ -457,6 +593,8 @@ public class TransactionImpl
 	                validateEdit.finalizeForCommit();
 	            }
 			}
+			
+			flushBulkChanges();
 		} finally {
 			// in case of exception, rollback() already stopped recording
 			stopRecording();
@@ -518,7 +656,7 @@ public class TransactionImpl
 			throw exc;
 		}
 		
-		if (closing) {
+		if (isClosing()) {
 			IllegalStateException exc = new IllegalStateException("Transaction is already closing"); //$NON-NLS-1$
 			Tracing.throwing(TransactionImpl.class, "rollback", exc); //$NON-NLS-1$
 			throw exc;
@@ -538,12 +676,43 @@ public class TransactionImpl
 			}
 		}
 		
-		closing = true;
+		beginClosing("rollback"); //$NON-NLS-1$
 		doRollback();
 	}
 	
+	/**
+	 * Queries whether I am committing or rolling back.
+	 * 
+	 * @return whether I am closing
+	 */
+	private boolean isClosing() {
+		return (state & CLOSING) != 0;
+	}
+	
+	/**
+	 * Makes the transition from active to closing.
+	 * 
+	 * @param methodName the method that is closing me, for tracing
+	 * 
+	 * @throws IllegalStateException if I am not active or already closing
+	 */
+	private void beginClosing(String methodName) {
+		if (!transition(ACTIVE | CLOSING, ACTIVE, CLOSING, 0)) {
+			IllegalStateException exc = new IllegalStateException("Transaction is closed or closing"); //$NON-NLS-1$
+			Tracing.throwing(TransactionImpl.class, methodName, exc);
+			throw exc;
+		}
+	}
+	
 	private void doRollback() {
-		rollingBack = true;
+		transition(0, 0, ROLLING_BACK, 0);
+		
+		// my changes and notifications are no longer retained
+		TransactionImpl budgetRoot = getBudgetRoot();
+		if ((budgetRoot != null) && (budgetRoot != this)) {
+			TREE_MEMORY_USAGE.addAndGet(budgetRoot, -memoryUsage);
+		}
+		memoryUsage = 0L;
 		
 		if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
 			Tracing.trace("*** Rolling back " + TransactionalEditingDomainImpl.getDebugID(this) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -596,19 +765,218 @@ public class TransactionImpl
 					rbStatus.getMessage(), null));
 			}
 		} finally {
-			rollingBack = false;
+			transition(0, 0, 0, ROLLING_BACK);
 			close();
 		}
 	}
 
+	// Documentation copied from the inherited specification
+	public Savepoint setSavepoint() {
+		checkSavepointContext("setSavepoint"); //$NON-NLS-1$
+		
+		// cut my change description here, so that I can revert to it
+		stopRecording();
+		
+		TransactionValidator validator = getInternalDomain().getValidator();
+		SavepointImpl result = new SavepointImpl(this, change.mark(),
+			(notifications == null) ? 0 : notifications.size(),
+			(validator instanceof ReadWriteValidatorImpl)
+				? ((ReadWriteValidatorImpl) validator).getChildCount(this)
+				: 0,
+			memoryUsage);
+		
+		startRecording();
+		
+		if (savepoints == null) {
+			savepoints = new ArrayList<SavepointImpl>(2);
+		}
+		savepoints.add(result);
+		
+		return result;
+	}
+	
+	// Documentation copied from the inherited specification
+	public void rollbackTo(Savepoint savepoint) {
+		checkSavepointContext("rollbackTo"); //$NON-NLS-1$
+		
+		int index = (savepoints == null) ? -1 : savepoints.indexOf(savepoint);
+		if (index < 0) {
+			IllegalArgumentException exc = new IllegalArgumentException("Invalid savepoint"); //$NON-NLS-1$
+			Tracing.throwing(TransactionImpl.class, "rollbackTo", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		SavepointImpl target = savepoints.get(index);
+		
+		// savepoints set after this one are now invalid
+		savepoints.subList(index + 1, savepoints.size()).clear();
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
+			Tracing.trace("*** Rolling back to savepoint in " + TransactionalEditingDomainImpl.getDebugID(this) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		
+		// ignore the notifications of the reverting changes
+		transition(0, 0, ROLLING_BACK, 0);
+		
+		try {
+			stopRecording();
+			change.applyToMark(target.changeMark);
+		} finally {
+			transition(0, 0, 0, ROLLING_BACK);
+			startRecording();
+		}
+		
+		// the reverted changes and their notifications are no longer retained
+		TransactionImpl budgetRoot = getBudgetRoot();
+		if (budgetRoot != null) {
+			TREE_MEMORY_USAGE.addAndGet(budgetRoot, target.memoryUsage - memoryUsage);
+		}
+		memoryUsage = target.memoryUsage;
+		
+		TransactionValidator validator = getInternalDomain().getValidator();
+		if (!(validator instanceof ReadWriteValidatorImpl)
+				|| !((ReadWriteValidatorImpl) validator).rollbackTo(
+					this, target.notificationCount, target.childCount)) {
+			
+			if (notifications != null) {
+				// filter my notifications as roll-back would
+				for (Iterator<Notification> iter = notifications.subList(
+						target.notificationCount, notifications.size()).iterator();
+						iter.hasNext();) {
+					
+					if (ReadWriteValidatorImpl.isUndoableObjectChange(iter.next())) {
+						iter.remove();
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Asserts that I can set a savepoint or roll back to one:  the current
+	 * thread must be my owner and I must be the active read/write transaction
+	 * in my editing domain, recording undo information.
+	 * 
+	 * @param methodName the name of the calling method, for tracing
+	 * 
+	 * @throws IllegalStateException if I cannot
+	 */
+	private void checkSavepointContext(String methodName) {
+		String problem = null;
+		
+		if (Thread.currentThread() != getOwner()) {
+			problem = "Not transaction owner"; //$NON-NLS-1$
+		} else if ((state & (ACTIVE | CLOSING)) != ACTIVE) {
+			problem = "Transaction is closed or closing"; //$NON-NLS-1$
+		} else if (isReadOnly() || !isUndoEnabled(this)) {
+			problem = "Transaction does not record changes"; //$NON-NLS-1$
+		} else if (getInternalDomain().getActiveTransaction() != this) {
+			problem = "Transaction has an active nested transaction"; //$NON-NLS-1$
+		}
+		
+		if (problem != null) {
+			IllegalStateException exc = new IllegalStateException(problem);
+			Tracing.throwing(TransactionImpl.class, methodName, exc);
+			throw exc;
+		}
+	}
+
 	// Documentation copied from the inherited specification
 	public void yield() {
 		getEditingDomain().yield();
 	}
 
+	/**
+	 * Queries whether I can show other threads a snapshot of the last
+	 * committed state when I yield, by reverting my uncommitted changes and
+	 * those of the transactions that I am nested in.  This requires that I
+	 * {@linkplain Transaction#OPTION_YIELD_SNAPSHOTS request it} and that
+	 * all of these changes are recorded and can be applied.
+	 * 
+	 * @return whether I can yield a snapshot
+	 * 
+	 * @see #revertForYield()
+	 */
+	boolean canYieldSnapshot() {
+		if (!isSnapshotYield(this) || !isActive()) {
+			return false;
+		}
+		
+		for (Transaction tx = this; tx != null; tx = tx.getParent()) {
+			if (!(tx instanceof TransactionImpl) || tx.isReadOnly()
+					|| !isUndoEnabled(tx)) {
+				return false;
+			}
+			
+			TransactionImpl next = (TransactionImpl) tx;
+			if (next.isClosing() || !next.change.canApply()) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Reverts my uncommitted changes and those of the transactions that I am
+	 * nested in, most recent first, so that other threads see the last
+	 * committed state while I yield.  I stop recording while I yield.
+	 * 
+	 * @see #canYieldSnapshot()
+	 * @see #restoreAfterYield()
+	 */
+	void revertForYield() {
+		yieldingSnapshot = true;
+		stopRecording();
+		
+		List<TransactionImpl> reverted = new ArrayList<TransactionImpl>();
+		
+		try {
+			for (Transaction tx = this; tx != null; tx = tx.getParent()) {
+				TransactionImpl next = (TransactionImpl) tx;
+				
+				// reversing the description lets us re-apply it, later
+				next.change.applyAndReverse();
+				reverted.add(next);
+			}
+		} catch (RuntimeException e) {
+			// put back what we reverted, so that I can carry on
+			for (int i = reverted.size() - 1; i >= 0; i--) {
+				reverted.get(i).change.applyAndReverse();
+			}
+			
+			yieldingSnapshot = false;
+			startRecording();
+			
+			Tracing.throwing(TransactionImpl.class, "revertForYield", e); //$NON-NLS-1$
+			throw e;
+		}
+	}
+	
+	/**
+	 * Re-applies the changes that I {@linkplain #revertForYield() reverted}
+	 * for yielding, in the order in which they were made, and resumes
+	 * recording my changes.
+	 */
+	void restoreAfterYield() {
+		List<TransactionImpl> chain = new ArrayList<TransactionImpl>();
+		for (Transaction tx = this; tx != null; tx = tx.getParent()) {
+			chain.add((TransactionImpl) tx);
+		}
+		
+		try {
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				chain.get(i).change.applyAndReverse();
+			}
+		} finally {
+			yieldingSnapshot = false;
+			startRecording();
+		}
+	}
+	
 	// Documentation copied from the inherited specification
 	public TransactionChangeDescription getChangeDescription() {
-		return (isActive() && !closing) ? null : change;
+		return ((state & (ACTIVE | CLOSING)) == ACTIVE) ? null : change;
 	}
 
 	/**
@@ -687,7 +1055,8 @@ public class TransactionImpl
 	
 	// Documentation copied from the inherited specification
 	public boolean isRollingBack() {
-		return rollingBack || ((parent != null) && parent.isRollingBack());
+		return ((state & ROLLING_BACK) != 0)
+			|| ((parent != null) && parent.isRollingBack());
 	}
 
 	/**
@@ -700,13 +1069,18 @@ public class TransactionImpl
 	 * implementation is also invoked.
 	 * </p>
 	 */
-	protected synchronized void close() {
-		if (isActive()) {
-			active = false;
-			closing = false;
+	protected void close() {
+		// only one caller may deactivate me
+		if (transition(ACTIVE, ACTIVE, 0, ACTIVE | CLOSING)) {
+			savepoints = null;
 			getInternalDomain().deactivate(this);
 			
 			if (parent != null) {
+				if (parent instanceof TransactionImpl) {
+					// my parent now retains what I retained
+					((TransactionImpl) parent).memoryUsage += memoryUsage;
+				}
+				
 				// my parent resumes recording its changes now that mine are either
 				//  committed to it or rolled back. The parent accumulates
 				//  my changes except for certain special cases where we must
@@ -737,8 +1111,228 @@ public class TransactionImpl
 	
 	// Documentation copied from the inherited specification
 	public void add(Notification notification) {
-		if (!rollingBack && (notifications != null)) {
+		if (((state & ROLLING_BACK) == 0) && !yieldingSnapshot) {
+			TransactionImpl budgetRoot = getBudgetRoot();
+			
+			if ((budgetRoot != null) && budgetRoot.overBudget) {
+				addOverBudget(budgetRoot, notification);
+				return;
+			}
+			
+			long size = optionProfile.isUndoEnabled() ? ESTIMATED_CHANGE_SIZE : 0L;
+			
+			if (notifications != null) {
+				if (optionProfile.isBulkLoad()) {
+					addBulkChange(notification);
+				} else {
+					notifications.add(notification);
+					size += ESTIMATED_NOTIFICATION_SIZE;
+				}
+			}
+			
+			if ((budgetRoot != null) && (size > 0L)) {
+				accountMemory(budgetRoot, size);
+			}
+		}
+	}
+	
+	/**
+	 * Accounts for a notification received after my root transaction
+	 * exceeded its memory budget.  If I may summarize, the notification only
+	 * contributes to a summary.  Otherwise, my root was aborted, so I reject
+	 * any further change:  it is recorded so that it can be rolled back, but
+	 * the writer must stop, so that my change description cannot go on
+	 * growing.
+	 * 
+	 * @param budgetRoot my root transaction
+	 * @param notification the notification
+	 * 
+	 * @throws IllegalStateException if the notification is of a change that
+	 *     I reject
+	 */
+	private void addOverBudget(TransactionImpl budgetRoot, Notification notification) {
+		if (canSummarize(budgetRoot)) {
+			if (notifications != null) {
+				addBulkChange(notification);
+			}
+		} else if (!NotificationFilter.READ.matches(notification)) {
+			// in case that I am nested in a summarizing transaction
+			abortOverBudget();
+			
+			IllegalStateException exc = new IllegalStateException(
+				"Transaction exceeded its memory budget"); //$NON-NLS-1$
+			Tracing.throwing(TransactionImpl.class, "add", exc); //$NON-NLS-1$
+			throw exc;
+		} // else the transaction is aborted and will not need it
+	}
+	
+	/**
+	 * Obtains my root transaction, which keeps the account of the memory
+	 * budget for all of the transactions in its tree, if it has a budget.
+	 * 
+	 * @return my root, or <code>null</code> if it is not a
+	 *     <code>TransactionImpl</code> or it has no memory budget, in which
+	 *     case there is no account to keep
+	 */
+	private TransactionImpl getBudgetRoot() {
+		if (root instanceof TransactionImpl) {
+			TransactionImpl result = (TransactionImpl) root;
+			
+			if (result.optionProfile.getMemoryBudget() > 0L) {
+				return result;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Queries whether I may summarize my changes, rather than fail, when my
+	 * root transaction exceeds its memory budget.  This requires the
+	 * summarizing policy and that neither I nor my root record undo
+	 * information, invoke triggers, or validate, because a summary cannot
+	 * stand in for the notifications and changes that these need.
+	 * 
+	 * @param budgetRoot my root transaction
+	 * @return whether I may summarize
+	 */
+	private boolean canSummarize(TransactionImpl budgetRoot) {
+		return budgetRoot.optionProfile.isSummarizeOverBudget()
+			&& !needsChanges(optionProfile)
+			&& !needsChanges(budgetRoot.optionProfile);
+	}
+	
+	/**
+	 * Queries whether a transaction needs all of its notifications and
+	 * changes, to record undo information, invoke triggers, or validate.
+	 * 
+	 * @param profile the transaction's option profile
+	 * @return whether it needs its notifications and changes
+	 */
+	private static boolean needsChanges(TransactionOptionProfile profile) {
+		return profile.isUndoEnabled() || profile.isTriggerEnabled()
+			|| profile.isValidationEnabled();
+	}
+	
+	/**
+	 * Accounts for memory that I retain, applying my root transaction's
+	 * {@linkplain Transaction#OPTION_MEMORY_BUDGET memory budget} policy if
+	 * the transactions in its tree now exceed it.
+	 * 
+	 * @param budgetRoot my root transaction
+	 * @param size the estimated size of the memory
+	 */
+	private void accountMemory(TransactionImpl budgetRoot, long size) {
+		memoryUsage += size;
+		
+		long usage = TREE_MEMORY_USAGE.addAndGet(budgetRoot, size);
+		
+		if ((usage > budgetRoot.optionProfile.getMemoryBudget())
+				&& !budgetRoot.overBudget) {
+			budgetRoot.overBudget = true;
+			
+			if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
+				Tracing.trace("*** Memory budget exceeded by " + TransactionalEditingDomainImpl.getDebugID(budgetRoot) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			
+			if (!canSummarize(budgetRoot)) {
+				abortOverBudget();
+			}
+		}
+	}
+	
+	/**
+	 * Aborts me and, by propagation, my ancestors because my root transaction
+	 * exceeded its memory budget.
+	 */
+	private void abortOverBudget() {
+		abort(new Status(
+			IStatus.ERROR,
+			EMFTransactionPlugin.getPluginId(),
+			EMFTransactionStatusCodes.MEMORY_BUDGET_EXCEEDED,
+			Messages.memoryBudgetExceeded,
+			null));
+	}
+	
+	/**
+	 * Obtains an estimate of the memory that my root transaction and the
+	 * transactions nested in it retain for listeners and for undo, which
+	 * is what the {@linkplain Transaction#OPTION_MEMORY_BUDGET memory budget}
+	 * limits.  Changes and notifications of nested transactions that rolled
+	 * back are not counted.  Only transactions that have a budget keep this
+	 * account; the usage of others is always zero.
+	 * 
+	 * @return the estimated number of bytes
+	 * 
+	 * @since 1.10
+	 */
+	public long getMemoryUsage() {
+		TransactionImpl budgetRoot = getBudgetRoot();
+		
+		return (budgetRoot != null) ? budgetRoot.treeMemoryUsage : memoryUsage;
+	}
+	
+	/**
+	 * Accounts for a notification received during a
+	 * {@linkplain Transaction#OPTION_BULK_LOAD bulk load}.  Notifications of
+	 * changes to model contents only record the resource that they change;
+	 * others, such as the loading of resources, are kept.
+	 * 
+	 * @param notification the notification
+	 * 
+	 * @see #flushBulkChanges()
+	 */
+	private void addBulkChange(Notification notification) {
+		Object notifier = notification.getNotifier();
+		
+		if (!(notifier instanceof EObject)
+				&& !ReadWriteValidatorImpl.isUndoableObjectChange(notification)) {
 			notifications.add(notification);
+		} else if (notifier != lastBulkNotifier) {
+			lastBulkNotifier = notifier;
+			
+			// objects that are not in a resource are accounted for when
+			//    they are added to one
+			Resource resource = (notifier instanceof Resource)
+				? (Resource) notifier
+				: ((EObject) notifier).eResource();
+			
+			if (resource != null) {
+				if (bulkResources == null) {
+					bulkResources = new java.util.LinkedHashSet<Resource>();
+				}
+				bulkResources.add(resource);
+			}
+		}
+	}
+	
+	/**
+	 * Summarizes the changes of a {@linkplain Transaction#OPTION_BULK_LOAD bulk load}
+	 * upon commit, in a {@link BulkChangeNotification} for each resource
+	 * that it changed, unless my parent is also a bulk load, in which case
+	 * it summarizes my changes with its own.
+	 */
+	private void flushBulkChanges() {
+		if (bulkResources != null) {
+			if ((parent instanceof TransactionImpl)
+					&& (((TransactionImpl) parent).notifications != null)
+					&& ((TransactionImpl) parent).optionProfile.isBulkLoad()) {
+				
+				TransactionImpl bulkParent = (TransactionImpl) parent;
+				
+				if (bulkParent.bulkResources == null) {
+					bulkParent.bulkResources = bulkResources;
+				} else {
+					bulkParent.bulkResources.addAll(bulkResources);
+				}
+			} else {
+				for (Resource next : bulkResources) {
+					notifications.add(new BulkChangeNotification(next));
+				}
+			}
+			
+			bulkResources = null;
+			lastBulkNotifier = null;
 		}
 	}
 	
@@ -803,7 +1397,10 @@ public class TransactionImpl
 		InternalTransactionalEditingDomain internalDomain =
 			(InternalTransactionalEditingDomain) getEditingDomain();
 		
-		if (!isActive() || (internalDomain.getActiveTransaction() != this)) {
+		// a shared reader is not visible as the active transaction to other
+		//    threads, so the editing domain has to check that one
+		if (!isActive() || ((internalDomain.getActiveTransaction() != this)
+				&& !isSharedRead(this))) {
 			throw new IllegalStateException(
 					"transaction is not the domain's current transaction"); //$NON-NLS-1$
 		}
@@ -843,10 +1440,16 @@ public class TransactionImpl
         Map<?, ?> parentOptions = isRoot ?
         	getDefaultOptions(getEditingDomain()) : parent.getOptions();
         
-        if (parentOptions != null) {
+        if ((parentOptions != null) && !parentOptions.isEmpty()) {
 			Transaction.OptionMetadata.Registry reg = TransactionUtil
 				.getTransactionOptionRegistry(getEditingDomain());
 			
+			if (mutableOptions == null) {
+				// a lightweight read-only transaction is inheriting defaults
+				mutableOptions = new java.util.HashMap<Object, Object>();
+				options = Collections.unmodifiableMap(mutableOptions);
+			}
+			
             for (Object option : parentOptions.keySet()) {
 				reg.getOptionMetadata(option).inherit(parentOptions,
 					mutableOptions, isRoot);
@@ -854,6 +1457,39 @@ public class TransactionImpl
         }
 	}
 	
+	/**
+	 * A savepoint, which records the extent of my change description, of my
+	 * notifications, and of the memory that they retain when it was set.
+	 */
+	private static final class SavepointImpl implements Savepoint {
+		private final TransactionImpl transaction;
+		final CompositeChangeDescription.Mark changeMark;
+		final int notificationCount;
+		final int childCount;
+		final long memoryUsage;
+		
+		SavepointImpl(TransactionImpl transaction,
+				CompositeChangeDescription.Mark changeMark,
+				int notificationCount, int childCount, long memoryUsage) {
+			this.transaction = transaction;
+			this.changeMark = changeMark;
+			this.notificationCount = notificationCount;
+			this.childCount = childCount;
+			this.memoryUsage = memoryUsage;
+		}
+		
+		// Documentation copied from the inherited specification
+		public Transaction getTransaction() {
+			return transaction;
+		}
+		
+		// Documentation copied from the inherited specification
+		public boolean isValid() {
+			List<SavepointImpl> valid = transaction.savepoints;
+			return (valid != null) && valid.contains(this);
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return "Transaction[active=" + isActive() //$NON-NLS-1$
@@ -871,9 +1507,7 @@ public class TransactionImpl
 	 *     information; <code>false</code>, otherwise
 	 */
 	protected static boolean isUndoEnabled(Transaction tx) {
-		return !(tx.isReadOnly()
-				|| hasOption(tx, OPTION_NO_UNDO)
-				|| hasOption(tx, OPTION_UNPROTECTED));
+		return TransactionOptionProfile.of(tx).isUndoEnabled();
 	}
 	
 	/**
@@ -886,9 +1520,7 @@ public class TransactionImpl
 	 *     changes; <code>false</code>, otherwise
 	 */
 	protected static boolean isValidationEnabled(Transaction tx) {
-		return !(tx.isReadOnly()
-				|| hasOption(tx, OPTION_NO_VALIDATION)
-				|| hasOption(tx, OPTION_UNPROTECTED));
+		return TransactionOptionProfile.of(tx).isValidationEnabled();
 	}
 	
 	/**
@@ -901,9 +1533,7 @@ public class TransactionImpl
 	 *     procedures; <code>false</code>, otherwise
 	 */
 	protected static boolean isTriggerEnabled(Transaction tx) {
-		return !(tx.isReadOnly()
-				|| hasOption(tx, OPTION_NO_TRIGGERS)
-				|| hasOption(tx, OPTION_UNPROTECTED));
+		return TransactionOptionProfile.of(tx).isTriggerEnabled();
 	}
 	
 	/**
@@ -915,7 +1545,7 @@ public class TransactionImpl
 	 *     events; <code>false</code>, otherwise
 	 */
 	protected static boolean isNotificationEnabled(Transaction tx) {
-		return !hasOption(tx, OPTION_NO_NOTIFICATIONS);
+		return TransactionOptionProfile.of(tx).isNotificationEnabled();
 	}
 	
 	/**
@@ -928,8 +1558,57 @@ public class TransactionImpl
 	 *     transaction; <code>false</code>, otherwise
 	 */
 	protected static boolean isUnprotected(Transaction tx) {
-		return !tx.isReadOnly()
-				&& hasOption(tx, OPTION_UNPROTECTED);
+		return TransactionOptionProfile.of(tx).isUnprotected();
+	}
+	
+	/**
+	 * Queries whether the specified transaction requests to share the editing
+	 * domain's lock with other readers, according to its
+	 * {@link Transaction#getOptions() options} and
+	 * {@link Transaction#isReadOnly() read-only state}.
+	 * 
+	 * @param tx a transaction
+	 * @return <code>true</code> if the transaction is a shared read-only
+	 *     transaction; <code>false</code>, otherwise
+	 * 
+	 * @see Transaction#OPTION_SHARED_READ
+	 * @since 1.10
+	 */
+	protected static boolean isSharedRead(Transaction tx) {
+		return TransactionOptionProfile.of(tx).isSharedRead();
+	}
+	
+	/**
+	 * Queries whether the specified transaction requests to show other
+	 * threads a snapshot of the last committed state when it yields,
+	 * according to its {@link Transaction#getOptions() options} and
+	 * {@link Transaction#isReadOnly() read-only state}.
+	 * 
+	 * @param tx a transaction
+	 * @return <code>true</code> if the transaction is a read/write transaction
+	 *     that yields snapshots; <code>false</code>, otherwise
+	 * 
+	 * @see Transaction#OPTION_YIELD_SNAPSHOTS
+	 * @since 1.10
+	 */
+	protected static boolean isSnapshotYield(Transaction tx) {
+		return TransactionOptionProfile.of(tx).isSnapshotYield();
+	}
+	
+	/**
+	 * Obtains the resources that the specified transaction declares that it
+	 * writes, according to its {@link Transaction#getOptions() options} and
+	 * {@link Transaction#isReadOnly() read-only state}.
+	 * 
+	 * @param tx a transaction
+	 * @return the resources that the transaction writes, or <code>null</code>
+	 *     if it is not a partitioned read/write transaction
+	 * 
+	 * @see Transaction#OPTION_WRITE_RESOURCES
+	 * @since 1.10
+	 */
+	protected static Collection<?> getWriteResources(Transaction tx) {
+		return TransactionOptionProfile.of(tx).getWriteResources();
 	}
 	
 	/**
@@ -947,9 +1626,7 @@ public class TransactionImpl
 	 * @see #isValidationEnabled(Transaction)
 	 */
 	protected static boolean collectsNotifications(Transaction tx) {
-		return isNotificationEnabled(tx)
-			|| isTriggerEnabled(tx)
-			|| isValidationEnabled(tx);
+		return TransactionOptionProfile.of(tx).collectsNotifications();
 	}
 	
 	/**
@@ -961,6 +1638,13 @@ public class TransactionImpl
 	 *    <code>false</code> if it does not
 	 */
 	protected static boolean hasOption(Transaction tx, String option) {
+		if (tx instanceof TransactionImpl) {
+			Boolean compiled = ((TransactionImpl) tx).optionProfile.hasOption(option);
+			if (compiled != null) {
+				return compiled.booleanValue();
+			}
+		}
+		
 		return Boolean.TRUE.equals(tx.getOptions().get(option));
 	}
 	
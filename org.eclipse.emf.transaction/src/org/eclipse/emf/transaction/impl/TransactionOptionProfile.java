@@ -0,0 +1,360 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.impl;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.emf.transaction.Transaction;
+
+/**
+ * The options of a transaction that the transaction framework queries on its
+ * hot paths, compiled into bits so that they need not be looked up in the
+ * transaction's {@linkplain Transaction#getOptions() options map} again and
+ * again.  The options map remains the authoritative view of the options;
+ * a profile is immutable and is compiled from it when a transaction is
+ * created and again when it is activated, after it has inherited the options
+ * of its parent.
+ * <p>
+ * Besides the transaction's own boolean options, a profile accumulates the
+ * options that are set on the transaction or on any of the transactions that
+ * it is nested in, for queries about the transaction's context.
+ * </p>
+ *
+ * @since 1.10
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ *
+ * @see TransactionImpl#getOptionProfile()
+ */
+public final class TransactionOptionProfile {
+	private static final int READ_ONLY = 1 << 0;
+	private static final int NO_NOTIFICATIONS = 1 << 1;
+	private static final int NO_TRIGGERS = 1 << 2;
+	private static final int NO_VALIDATION = 1 << 3;
+	private static final int NO_UNDO = 1 << 4;
+	private static final int UNPROTECTED = 1 << 5;
+	private static final int SHARED_READ = 1 << 6;
+	private static final int YIELD_SNAPSHOTS = 1 << 7;
+	private static final int IS_TRIGGER_TRANSACTION = 1 << 8;
+	private static final int IS_UNDO_REDO_TRANSACTION = 1 << 9;
+	private static final int BULK_LOAD = 1 << 10;
+
+	// the option keys, by the index of their bits
+	private static final String[] KEYS = {
+		null,  // read-only is not an option
+		Transaction.OPTION_NO_NOTIFICATIONS,
+		Transaction.OPTION_NO_TRIGGERS,
+		Transaction.OPTION_NO_VALIDATION,
+		Transaction.OPTION_NO_UNDO,
+		Transaction.OPTION_UNPROTECTED,
+		Transaction.OPTION_SHARED_READ,
+		Transaction.OPTION_YIELD_SNAPSHOTS,
+		TransactionImpl.OPTION_IS_TRIGGER_TRANSACTION,
+		Transaction.OPTION_IS_UNDO_REDO_TRANSACTION,
+		Transaction.OPTION_BULK_LOAD,
+	};
+
+	/** The profile of root read-only transactions without any options. */
+	static final TransactionOptionProfile READ_ONLY_DEFAULT =
+		new TransactionOptionProfile(READ_ONLY, READ_ONLY, null, 0L, false);
+
+	/** The profile of root read/write transactions without any options. */
+	static final TransactionOptionProfile READ_WRITE_DEFAULT =
+		new TransactionOptionProfile(0, 0, null, 0L, false);
+
+	private final int flags;
+	private final int contextFlags;
+	private final Collection<?> writeResources;
+	private final long memoryBudget;
+	private final boolean summarizeOverBudget;
+
+	private TransactionOptionProfile(int flags, int contextFlags,
+			Collection<?> writeResources, long memoryBudget,
+			boolean summarizeOverBudget) {
+		this.flags = flags;
+		this.contextFlags = contextFlags;
+		this.writeResources = writeResources;
+		this.memoryBudget = memoryBudget;
+		this.summarizeOverBudget = summarizeOverBudget;
+	}
+
+	/**
+	 * Compiles the profile of the specified transaction from its current
+	 * options.
+	 *
+	 * @param tx a transaction
+	 * @param parent the profile of the transaction's parent, or
+	 *     <code>null</code> if it is a root transaction or it does not yet
+	 *     know its parent
+	 *
+	 * @return the transaction's profile
+	 */
+	static TransactionOptionProfile compile(Transaction tx,
+			TransactionOptionProfile parent) {
+		Map<?, ?> options = tx.getOptions();
+		int flags = tx.isReadOnly() ? READ_ONLY : 0;
+
+		if (!options.isEmpty()) {
+			for (int i = 1; i < KEYS.length; i++) {
+				if (Boolean.TRUE.equals(options.get(KEYS[i]))) {
+					flags |= 1 << i;
+				}
+			}
+		}
+
+		int contextFlags = (parent == null) ? flags : (flags | parent.contextFlags);
+
+		Collection<?> writeResources = null;
+		if (!tx.isReadOnly()) {
+			Object value = options.get(Transaction.OPTION_WRITE_RESOURCES);
+
+			if ((value instanceof Collection<?>)
+					&& !((Collection<?>) value).isEmpty()) {
+				writeResources = (Collection<?>) value;
+			}
+		}
+
+		long memoryBudget = 0L;
+		boolean summarizeOverBudget = false;
+		Object budget = options.get(Transaction.OPTION_MEMORY_BUDGET);
+
+		if ((budget instanceof Number) && (((Number) budget).longValue() > 0L)) {
+			memoryBudget = ((Number) budget).longValue();
+			summarizeOverBudget = Transaction.MEMORY_BUDGET_SUMMARIZE.equals(
+				options.get(Transaction.OPTION_MEMORY_BUDGET_POLICY));
+		}
+
+		if ((writeResources == null) && (memoryBudget == 0L)
+				&& (flags == contextFlags)) {
+			// share the common profiles
+			if (flags == READ_ONLY) {
+				return READ_ONLY_DEFAULT;
+			} else if (flags == 0) {
+				return READ_WRITE_DEFAULT;
+			}
+		}
+
+		return new TransactionOptionProfile(flags, contextFlags, writeResources,
+			memoryBudget, summarizeOverBudget);
+	}
+
+	/**
+	 * Obtains the profile of the specified transaction.  This is the profile
+	 * that it compiled for itself, if it is a {@link TransactionImpl}, or
+	 * otherwise a profile compiled now from the options of it and its
+	 * ancestors.
+	 *
+	 * @param tx a transaction
+	 * @return its option profile
+	 */
+	public static TransactionOptionProfile of(Transaction tx) {
+		if (tx instanceof TransactionImpl) {
+			return ((TransactionImpl) tx).getOptionProfile();
+		}
+
+		Transaction parent = tx.getParent();
+
+		return compile(tx, (parent == null) ? null : of(parent));
+	}
+
+	private boolean has(int flag) {
+		return (flags & flag) != 0;
+	}
+
+	/**
+	 * Queries whether the transaction should record undo information.
+	 *
+	 * @return whether the transaction records undo information
+	 *
+	 * @see TransactionImpl#isUndoEnabled(Transaction)
+	 */
+	public boolean isUndoEnabled() {
+		return ((flags & (READ_ONLY | NO_UNDO | UNPROTECTED | BULK_LOAD)) == 0)
+			&& (writeResources == null);
+	}
+
+	/**
+	 * Queries whether the transaction should validate changes.
+	 *
+	 * @return whether the transaction validates changes
+	 *
+	 * @see TransactionImpl#isValidationEnabled(Transaction)
+	 */
+	public boolean isValidationEnabled() {
+		return (flags & (READ_ONLY | NO_VALIDATION | UNPROTECTED | BULK_LOAD)) == 0;
+	}
+
+	/**
+	 * Queries whether the transaction should invoke pre-commit listeners.
+	 *
+	 * @return whether the transaction invokes pre-commit listeners
+	 *
+	 * @see TransactionImpl#isTriggerEnabled(Transaction)
+	 */
+	public boolean isTriggerEnabled() {
+		return (flags & (READ_ONLY | NO_TRIGGERS | UNPROTECTED | BULK_LOAD)) == 0;
+	}
+
+	/**
+	 * Queries whether the transaction should send post-commit events.
+	 *
+	 * @return whether the transaction sends post-commit events
+	 *
+	 * @see TransactionImpl#isNotificationEnabled(Transaction)
+	 */
+	public boolean isNotificationEnabled() {
+		return !has(NO_NOTIFICATIONS);
+	}
+
+	/**
+	 * Queries whether the transaction collects notifications for broadcast
+	 * to listeners or for validation.
+	 *
+	 * @return whether the transaction collects notifications
+	 *
+	 * @see TransactionImpl#collectsNotifications(Transaction)
+	 */
+	public boolean collectsNotifications() {
+		return isNotificationEnabled() || isTriggerEnabled()
+			|| isValidationEnabled();
+	}
+
+	/**
+	 * Queries whether the transaction is an unprotected write.
+	 *
+	 * @return whether the transaction is an unprotected write
+	 *
+	 * @see TransactionImpl#isUnprotected(Transaction)
+	 */
+	public boolean isUnprotected() {
+		return (flags & (READ_ONLY | UNPROTECTED)) == UNPROTECTED;
+	}
+
+	/**
+	 * Queries whether the transaction is a shared read.
+	 *
+	 * @return whether the transaction is a shared read
+	 *
+	 * @see TransactionImpl#isSharedRead(Transaction)
+	 */
+	public boolean isSharedRead() {
+		return (flags & (READ_ONLY | SHARED_READ)) == (READ_ONLY | SHARED_READ);
+	}
+
+	/**
+	 * Queries whether the transaction is a read/write transaction that yields
+	 * snapshots.
+	 *
+	 * @return whether the transaction yields snapshots
+	 *
+	 * @see TransactionImpl#isSnapshotYield(Transaction)
+	 */
+	public boolean isSnapshotYield() {
+		return (flags & (READ_ONLY | YIELD_SNAPSHOTS)) == YIELD_SNAPSHOTS;
+	}
+
+	/**
+	 * Queries whether the transaction is a read/write transaction that
+	 * bulk-loads the model.
+	 *
+	 * @return whether the transaction is a bulk load
+	 *
+	 * @see Transaction#OPTION_BULK_LOAD
+	 */
+	public boolean isBulkLoad() {
+		return (flags & (READ_ONLY | BULK_LOAD)) == BULK_LOAD;
+	}
+
+	/**
+	 * Obtains the resources that a partitioned write declares that it writes.
+	 *
+	 * @return the resources, or <code>null</code> if the transaction is not
+	 *     a partitioned write
+	 *
+	 * @see TransactionImpl#getWriteResources(Transaction)
+	 */
+	public Collection<?> getWriteResources() {
+		return writeResources;
+	}
+
+	/**
+	 * Obtains the memory budget of the transaction.
+	 *
+	 * @return the budget, in bytes, or <code>0L</code> if it has none
+	 *
+	 * @see Transaction#OPTION_MEMORY_BUDGET
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Queries whether the transaction summarizes its changes, rather than
+	 * failing, when it exceeds its memory budget, if it records no undo
+	 * information and neither invokes triggers nor validates.
+	 *
+	 * @return whether the memory budget policy is to summarize
+	 *
+	 * @see Transaction#OPTION_MEMORY_BUDGET_POLICY
+	 */
+	public boolean isSummarizeOverBudget() {
+		return summarizeOverBudget;
+	}
+
+	/**
+	 * Queries whether the transaction or any transaction that it is nested
+	 * in is a trigger transaction.
+	 *
+	 * @return whether the transaction runs in the context of triggers
+	 */
+	public boolean isInTriggerContext() {
+		return (contextFlags & IS_TRIGGER_TRANSACTION) != 0;
+	}
+
+	/**
+	 * Queries whether neither the transaction nor any transaction that it is
+	 * nested in disables undo recording, is unprotected, or is a bulk load.
+	 *
+	 * @return whether the transaction runs in an undoable context
+	 */
+	public boolean isInUndoableContext() {
+		return (contextFlags & (NO_UNDO | UNPROTECTED | BULK_LOAD)) == 0;
+	}
+
+	/**
+	 * Queries whether the transaction has a boolean option that is compiled
+	 * into this profile.
+	 *
+	 * @param option a boolean-valued option
+	 * @return <code>Boolean.TRUE</code> or <code>Boolean.FALSE</code> if the
+	 *     option is compiled into this profile, according to whether the
+	 *     transaction has it; <code>null</code> if the option is not compiled
+	 */
+	Boolean hasOption(String option) {
+		for (int i = 1; i < KEYS.length; i++) {
+			// the keys are constants, so compare identities first
+			if ((KEYS[i] == option) || KEYS[i].equals(option)) {
+				return Boolean.valueOf(has(1 << i));
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "TransactionOptionProfile[flags=" + Integer.toBinaryString(flags) //$NON-NLS-1$
+			+ ", context=" + Integer.toBinaryString(contextFlags) + ']'; //$NON-NLS-1$
+	}
+}
@@ -11,10 +11,14 @@
  */
 package org.eclipse.emf.transaction.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.command.Command;
@@ -22,6 +26,7 @@ import org.eclipse.emf.common.command.CompoundCommand;
 import org.eclipse.emf.transaction.RecordingCommand;
 import org.eclipse.emf.transaction.RollbackException;
 import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalCommandStack;
 import org.eclipse.emf.transaction.internal.EMFTransactionPlugin;
 import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.internal.Tracing;
@@ -35,8 +40,20 @@ import org.eclipse.emf.transaction.util.TriggerCommand;
  * @author Christian W. Damus (cdamus)
  */
 public class TransactionalCommandStackImpl
-	extends AbstractTransactionalCommandStack {
+	extends AbstractTransactionalCommandStack
+	implements TransactionalCommandStack.GroupCommit {
 
+	/** The options of the read-only transaction that holds the lock for a batch. */
+	private static final Map<String, Boolean> GROUP_OPTIONS = Collections.singletonMap(
+		Transaction.OPTION_UPGRADABLE_READ, Boolean.TRUE);
+	
+	// the commands submitted for group commit that are not yet in a batch.
+	//    Also the monitor that guards the group commit state
+	private final List<GroupRequest> groupQueue = new ArrayList<GroupRequest>();
+	private boolean groupLeading;
+	private long groupWindow = DEFAULT_WINDOW;
+	private int groupSize = DEFAULT_BATCH_SIZE;
+	
 	/**
 	 * Initializes me.
 	 */
@@ -52,6 +69,12 @@ public class TransactionalCommandStackImpl
 	@Override
 	protected void doExecute(Command command, Map<?, ?> options) throws InterruptedException, RollbackException {
 		InternalTransaction tx = createTransaction(command, options);
+		
+		if (TransactionImpl.getWriteResources(tx) != null) {
+			doExecutePartitioned(command, tx);
+			return;
+		}
+		
 		boolean completed = false;
 		
 		try {
@@ -93,6 +116,39 @@ public class TransactionalCommandStackImpl
 		}
 	}
     
+	/**
+	 * Executes a command in a
+	 * {@linkplain Transaction#OPTION_WRITE_RESOURCES partitioned} write.
+	 * Partitioned writes do not record undo information and may run
+	 * concurrently on different threads, so the command is not appended to my
+	 * undo history.
+	 * 
+	 * @param command the command to execute
+	 * @param tx the partitioned write in which to execute it
+	 * 
+	 * @throws RollbackException if the execution of the command is rolled back
+	 */
+	private void doExecutePartitioned(Command command, InternalTransaction tx)
+			throws RollbackException {
+		
+		try {
+			command.execute();
+			
+			// commit the transaction now
+			tx.commit();
+		} catch (OperationCanceledException e) {
+			// snuff the exception, because this is expected (user asked to
+			//    cancel the model change).  We will rollback, below
+		} finally {
+			if (tx.isActive()) {
+				// roll back (some exception, possibly being thrown now or
+				//    an operation cancel, has occurred)
+				rollback(tx);
+				handleRollback(command, null);
+			}
+		}
+	}
+	
     /**
      * Extends the superclass implementation to first pop the failed command
      * off of the stack, if it was already appended.
@@ -248,10 +304,261 @@ public class TransactionalCommandStackImpl
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The first thread to submit a command when no batch is forming leads the
+	 * next batch:  it waits for the group commit window to collect commands
+	 * from other threads, then executes them all in a read-only transaction
+	 * that permits nested read/write transactions.  The other threads wait
+	 * for their commands to be executed, and the first of those that are left
+	 * over when the batch is full leads the next batch.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	public void executeGrouped(Command command, Map<?, ?> options)
+			throws InterruptedException, RollbackException {
+		
+		if (options != null) {
+			Object resources = options.get(Transaction.OPTION_WRITE_RESOURCES);
+			
+			if ((resources instanceof Collection<?>)
+					&& !((Collection<?>) resources).isEmpty()) {
+				IllegalArgumentException exc = new IllegalArgumentException(
+					"Partitioned writes cannot be grouped"); //$NON-NLS-1$
+				Tracing.throwing(TransactionalCommandStackImpl.class, "executeGrouped", exc); //$NON-NLS-1$
+				throw exc;
+			}
+		}
+		
+		Transaction active = getDomain().getActiveTransaction();
+		
+		if ((active != null) && (active.getOwner() == Thread.currentThread())) {
+			// cannot wait for another thread to lead a batch while we have
+			//    the lock, so just execute the command now
+			execute(command, options);
+			return;
+		}
+		
+		GroupRequest request = new GroupRequest(command, options);
+		boolean interrupted = false;
+		
+		synchronized (groupQueue) {
+			groupQueue.add(request);
+			
+			if (!groupLeading) {
+				groupLeading = true;
+				request.leader = true;
+			} else {
+				// the leader may be waiting for the batch to fill
+				groupQueue.notifyAll();
+			}
+			
+			while (!request.done && !request.leader) {
+				try {
+					groupQueue.wait();
+				} catch (InterruptedException e) {
+					if (!request.leader && groupQueue.remove(request)) {
+						// not yet in a batch, so it will never be executed
+						Tracing.throwing(TransactionalCommandStackImpl.class, "executeGrouped", e); //$NON-NLS-1$
+						throw e;
+					}
+					
+					// too late to withdraw the command
+					interrupted = true;
+				}
+			}
+		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		
+		if (!request.done) {
+			leadGroup();
+		}
+		
+		Throwable error = request.error;
+		
+		if (error instanceof RollbackException) {
+			throw (RollbackException) error;
+		} else if (error instanceof InterruptedException) {
+			throw (InterruptedException) error;
+		} else if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		} else if (error instanceof Error) {
+			throw (Error) error;
+		}
+	}
+	
+	/**
+	 * Collects the next batch of commands submitted for group commit and
+	 * executes it, then hands the leadership of the batch after it to the
+	 * first thread that is left waiting, if any.  The current thread's own
+	 * command is the first in the queue.
+	 */
+	private void leadGroup() {
+		List<GroupRequest> batch;
+		boolean interrupted = false;
+		
+		synchronized (groupQueue) {
+			long deadline = System.currentTimeMillis() + groupWindow;
+			long wait = groupWindow;
+			
+			while ((groupQueue.size() < groupSize) && (wait > 0L)) {
+				try {
+					groupQueue.wait(wait);
+				} catch (InterruptedException e) {
+					// our own command is committed to the batch, so just
+					//    stop waiting for others
+					interrupted = true;
+					break;
+				}
+				
+				wait = deadline - System.currentTimeMillis();
+			}
+			
+			List<GroupRequest> taken = groupQueue.subList(0,
+				Math.min(groupQueue.size(), groupSize));
+			batch = new ArrayList<GroupRequest>(taken);
+			taken.clear();
+		}
+		
+		// the commands of other threads must not see our interruption
+		interrupted |= Thread.interrupted();
+		
+		try {
+			interrupted |= executeBatch(batch);
+		} finally {
+			synchronized (groupQueue) {
+				for (GroupRequest next : batch) {
+					next.done = true;
+				}
+				
+				if (groupQueue.isEmpty()) {
+					groupLeading = false;
+				} else {
+					groupQueue.get(0).leader = true;
+				}
+				
+				groupQueue.notifyAll();
+			}
+			
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Executes a batch of commands, each in its own read/write transaction,
+	 * all nested in one read-only transaction whose commit broadcasts the
+	 * changes of all of them to post-commit listeners in a single event.
+	 * The outcome of every command is recorded in its request.
+	 * 
+	 * @param batch the commands to execute
+	 * @return whether the current thread was interrupted while it waited
+	 *    for the lock
+	 */
+	private boolean executeBatch(List<GroupRequest> batch) {
+		boolean interrupted = false;
+		Transaction root = null;
+		
+		try {
+			while (root == null) {
+				try {
+					root = getDomain().startTransaction(true, GROUP_OPTIONS);
+				} catch (InterruptedException e) {
+					// other threads depend on this batch, so keep trying
+					Tracing.catching(TransactionalCommandStackImpl.class, "executeBatch", e); //$NON-NLS-1$
+					interrupted = true;
+				}
+			}
+		} catch (RuntimeException e) {
+			Tracing.catching(TransactionalCommandStackImpl.class, "executeBatch", e); //$NON-NLS-1$
+			
+			for (GroupRequest next : batch) {
+				next.error = e;
+			}
+			
+			return interrupted;
+		}
+		
+		try {
+			for (GroupRequest next : batch) {
+				try {
+					execute(next.command, next.options);
+				} catch (RollbackException e) {
+					next.error = e;
+				} catch (InterruptedException e) {
+					next.error = e;
+				} catch (RuntimeException e) {
+					next.error = e;
+				} catch (Error e) {
+					next.error = e;
+				}
+			}
+		} finally {
+			if (root.isActive()) {
+				try {
+					root.commit();
+				} catch (RollbackException e) {
+					Tracing.catching(TransactionalCommandStackImpl.class, "executeBatch", e); //$NON-NLS-1$
+					EMFTransactionPlugin.INSTANCE.log(new MultiStatus(
+						EMFTransactionPlugin.getPluginId(),
+						EMFTransactionStatusCodes.READ_ROLLED_BACK,
+						new IStatus[] {e.getStatus()},
+						Messages.readTxRollback,
+						null));
+				}
+			}
+		}
+		
+		return interrupted;
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public void setGroupCommitWindow(long window, int batchSize) {
+		if ((window < 0L) || (batchSize < 1)) {
+			IllegalArgumentException exc = new IllegalArgumentException(
+				"Invalid group commit window: " + window + "ms, " + batchSize); //$NON-NLS-1$ //$NON-NLS-2$
+			Tracing.throwing(TransactionalCommandStackImpl.class, "setGroupCommitWindow", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		synchronized (groupQueue) {
+			groupWindow = window;
+			groupSize = batchSize;
+		}
+	}
+	
 	// Documentation copied from the inherited specification
 	public void dispose() {
 		flush();
 		setEditingDomain(null);
 		exceptionHandler = null;
 	}
+	
+	/**
+	 * A command submitted for group commit, and the outcome of its execution.
+	 */
+	private static final class GroupRequest {
+		final Command command;
+		final Map<?, ?> options;
+		
+		// these are guarded by the group queue
+		boolean leader;
+		boolean done;
+		
+		// published by the group queue's monitor with the done flag
+		Throwable error;
+		
+		GroupRequest(Command command, Map<?, ?> options) {
+			this.command = command;
+			this.options = options;
+		}
+	}
 }
@@ -15,16 +15,29 @@ package org.eclipse.emf.transaction.impl;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.emf.common.EMFPlugin;
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.AdapterFactory;
@@ -37,6 +50,7 @@ import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.edit.domain.IEditingDomainProvider;
 import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
+import org.eclipse.emf.transaction.LockTimeoutException;
 import org.eclipse.emf.transaction.ResourceSetChangeEvent;
 import org.eclipse.emf.transaction.ResourceSetListener;
 import org.eclipse.emf.transaction.RollbackException;
@@ -50,12 +64,14 @@ import org.eclipse.emf.transaction.internal.EMFTransactionDebugOptions;
 import org.eclipse.emf.transaction.internal.EMFTransactionPlugin;
 import org.eclipse.emf.transaction.internal.EMFTransactionStatusCodes;
 import org.eclipse.emf.transaction.internal.ITransactionLock;
+import org.eclipse.emf.transaction.internal.LockFactoryAccess;
 import org.eclipse.emf.transaction.internal.Tracing;
 import org.eclipse.emf.transaction.internal.l10n.Messages;
 import org.eclipse.emf.transaction.util.Adaptable;
 import org.eclipse.emf.transaction.util.BasicTransactionOptionMetadataRegistry;
-import org.eclipse.emf.transaction.util.EmptyLock;
-import org.eclipse.emf.transaction.util.Lock;
+import org.eclipse.emf.transaction.util.LockMetrics;
+import org.eclipse.emf.transaction.util.LockSchedulingPolicy;
+import org.eclipse.emf.transaction.util.TransactionLockFactory;
 import org.eclipse.emf.transaction.util.TransactionUtil;
 
 /**
@@ -75,7 +91,13 @@ import org.eclipse.emf.transaction.util.TransactionUtil;
 public class TransactionalEditingDomainImpl
 	extends AdapterFactoryEditingDomain
     implements InternalTransactionalEditingDomain, Adaptable,
-    TransactionalEditingDomain.DefaultOptions {
+    TransactionalEditingDomain.DefaultOptions,
+    TransactionalEditingDomain.OptimisticReads,
+    TransactionalEditingDomain.AsyncTransactions,
+    TransactionalEditingDomain.AsyncListeners {
+	
+	// the number of stripes to which partitioned writes assign resources
+	private static final int STRIPE_COUNT = 32;
 	
 	private String id;
 	
@@ -84,6 +106,37 @@ public class TransactionalEditingDomainImpl
 	private volatile InternalTransaction activeTransaction;
 	private TransactionValidator validator;
 	
+	// transaction contexts of the threads that share the transaction lock
+	//    for concurrent reading or partitioned writing.  The counts of
+	//    readers and of partitioned writers let threads skip looking up the
+	//    thread-local when nobody shares the lock, and keep the readers and
+	//    partitioned writers from sharing it with each other
+	private final ThreadLocal<SharedReadContext> sharedReadContext =
+		new ThreadLocal<SharedReadContext>();
+	private final AtomicInteger sharedReaderCount = new AtomicInteger();
+	private final AtomicInteger partitionedWriterCount = new AtomicInteger();
+	private final Map<InternalTransaction, SharedReadContext> sharedReadRoots =
+		new java.util.concurrent.ConcurrentHashMap<InternalTransaction, SharedReadContext>();
+	
+	// the deliveries to concurrent post-commit listeners that the current
+	//    thread has forked and not yet joined
+	private final ThreadLocal<ConcurrentPostcommit[]> pendingPostcommit =
+		new ThreadLocal<ConcurrentPostcommit[]>();
+	
+	// the number of outermost read/write transactions (whether roots or
+	//    nested in an upgradable read), partitioned writes, and read-only
+	//    roots that changed the resource set that are active (including
+	//    those that are yielding) and a version that changes whenever one
+	//    of them is activated or deactivated, by which optimistic reads
+	//    detect that they may have seen a change
+	private final AtomicInteger writeTransactionCount = new AtomicInteger();
+	private final AtomicLong writeTransactionVersion = new AtomicLong();
+	
+	// read-only root transactions that have loaded resources, resolved
+	//    proxies, or otherwise changed the resource set
+	private final Set<InternalTransaction> changingReadRoots = Collections
+		.newSetFromMap(new java.util.concurrent.ConcurrentHashMap<InternalTransaction, Boolean>());
+	
 	private TransactionValidator.Factory validatorFactory = null;
 	
 	private final Map<Object, Object> defaultTransactionOptions =
@@ -94,6 +147,36 @@ public class TransactionalEditingDomainImpl
 	private ITransactionLock transactionLock = null;
 	private ITransactionLock writeLock = null;
 	
+	// the thread, if any, whose read/write transaction is yielding a snapshot
+	//    of the committed state to readers while it still has the write lock
+	private volatile Thread snapshotWriter = null;
+	
+	// the locks of the stripes to which partitioned writes assign the
+	//    resources that they write, created on demand, and the lock that
+	//    lets them broadcast post-commit events one at a time
+	private TransactionLockFactory lockFactory;
+	private final ITransactionLock[] stripeLocks = new ITransactionLock[STRIPE_COUNT];
+	private ITransactionLock postcommitLock = null;
+	
+	// metrics of my transaction lock, once requested
+	private volatile LockMetrics lockMetrics = null;
+	
+	// stands in for the asynchronous executors once I am disposed
+	private static final Executor DISPOSED_EXECUTOR = new Executor() {
+		public void execute(Runnable command) {
+			throw new RejectedExecutionException("Editing domain is disposed"); //$NON-NLS-1$
+		}};
+	
+	// the executors of asynchronous transactions, created on demand unless
+	//    set by the client, in which case they are not mine to shut down
+	private Executor asyncWriteExecutor;
+	private Executor asyncReadExecutor;
+	private final List<ExecutorService> ownedAsyncExecutors =
+		new java.util.ArrayList<ExecutorService>(2);
+	
+	// the executor of asynchronous post-commit listeners, likewise
+	private Executor asyncListenerExecutor;
+	
 	private final List<ResourceSetListener> precommitListeners =
 		new java.util.ArrayList<ResourceSetListener>();
 	private final List<ResourceSetListener> aggregatePrecommitListeners =
@@ -101,6 +184,11 @@ public class TransactionalEditingDomainImpl
 	private final List<ResourceSetListener> postcommitListeners =
 		new java.util.ArrayList<ResourceSetListener>();
 	
+	// queues of the events of the asynchronous post-commit listeners,
+	//    guarded by the post-commit listener list
+	private final Map<ResourceSetListener, AsyncListenerQueue> asyncListenerQueues =
+		new java.util.HashMap<ResourceSetListener, AsyncListenerQueue>();
+	
 	// reusable notification list and event for unbatched change events
 	private final List<Notification> unbatchedNotifications =
 		new java.util.ArrayList<Notification>(1);
@@ -124,9 +212,26 @@ public class TransactionalEditingDomainImpl
 	 * @param resourceSet my resource set
 	 */
 	public TransactionalEditingDomainImpl(AdapterFactory adapterFactory, TransactionalCommandStack stack, ResourceSet resourceSet) {
+		this(adapterFactory, stack, resourceSet, null);
+	}
+
+	/**
+	 * Initializes me with my adapter factory, command stack, resource set, and
+	 * the factory of the locks that protect my resource set.
+	 * 
+	 * @param adapterFactory my adapter factory
+	 * @param stack my command stack
+	 * @param resourceSet my resource set
+	 * @param lockFactory the factory of my transaction locks, or
+	 *     <code>null</code> to use the {@linkplain TransactionLockFactory#getDefault() default}
+	 * 
+	 * @since 1.10
+	 */
+	public TransactionalEditingDomainImpl(AdapterFactory adapterFactory, TransactionalCommandStack stack,
+			ResourceSet resourceSet, TransactionLockFactory lockFactory) {
 		super(adapterFactory, stack, resourceSet);
 		
-		initialize();
+		initialize(lockFactory);
 	}
 
 	/**
@@ -137,9 +242,26 @@ public class TransactionalEditingDomainImpl
 	 * @param stack my command stack
 	 */
 	public TransactionalEditingDomainImpl(AdapterFactory adapterFactory, TransactionalCommandStack stack) {
+		this(adapterFactory, stack, (TransactionLockFactory) null);
+	}
+	
+	/**
+	 * Initializes me with my adapter factory, a command stack, and the
+	 * factory of the locks that protect my resource set, and a default
+	 * resource set implementation.
+	 * 
+	 * @param adapterFactory my adapter factory
+	 * @param stack my command stack
+	 * @param lockFactory the factory of my transaction locks, or
+	 *     <code>null</code> to use the {@linkplain TransactionLockFactory#getDefault() default}
+	 * 
+	 * @since 1.10
+	 */
+	public TransactionalEditingDomainImpl(AdapterFactory adapterFactory, TransactionalCommandStack stack,
+			TransactionLockFactory lockFactory) {
 		super(adapterFactory, stack);
 		
-		initialize();
+		initialize(lockFactory);
 	}
 	
 	/**
@@ -165,16 +287,20 @@ public class TransactionalEditingDomainImpl
 	
 	/**
 	 * Initializes my state.
+	 * 
+	 * @param lockFactory the factory of my transaction locks, or
+	 *     <code>null</code> to use the default
 	 */
-	private void initialize() {
+	private void initialize(TransactionLockFactory lockFactory) {
+		if (lockFactory == null) {
+			lockFactory = TransactionLockFactory.getDefault();
+		}
+		
 		synchronized (this) {
-			if ( EMFPlugin.IS_ECLIPSE_RUNNING ) {
-				transactionLock = new Lock();
-				writeLock = new Lock();
-			} else {
-				transactionLock = new EmptyLock();
-				writeLock = new EmptyLock();
-			}
+			this.lockFactory = lockFactory;
+			transactionLock = LockFactoryAccess.createLock(lockFactory);
+			writeLock = LockFactoryAccess.createLock(lockFactory);
+			postcommitLock = LockFactoryAccess.createLock(lockFactory);
 		}
 		
 		((InternalTransactionalCommandStack) commandStack).setEditingDomain(this);
@@ -182,8 +308,10 @@ public class TransactionalEditingDomainImpl
 		validator = TransactionValidator.NULL;
         
         // create a map for read-only-resource support.  Use a weak map
-        //    to avoid retaining resources in this map
-        resourceToReadOnlyMap = new java.util.WeakHashMap<Resource, Boolean>();
+        //    to avoid retaining resources in this map, synchronized for the
+        //    transactions that may share the lock
+        resourceToReadOnlyMap = Collections.synchronizedMap(
+            new java.util.WeakHashMap<Resource, Boolean>());
 	}
 	
 	/**
@@ -259,6 +387,10 @@ public class TransactionalEditingDomainImpl
 					
 					if (!l.isPrecommitOnly() && !postcommitListeners.contains(l)) {
 						wasAdded |= postcommitListeners.add(l);
+						
+						if (l instanceof ResourceSetListener.Asynchronous) {
+							asyncListenerQueues.put(l, new AsyncListenerQueue(l));
+						}
 					}
 					
 					if (wasAdded && (l instanceof ResourceSetListener.Internal)) {
@@ -281,6 +413,12 @@ public class TransactionalEditingDomainImpl
 					wasRemoved |= aggregatePrecommitListeners.remove(l);
 					wasRemoved |= postcommitListeners.remove(l);
 					
+					AsyncListenerQueue queue = asyncListenerQueues.remove(l);
+					if (queue != null) {
+						// discard the events that it has yet to receive
+						queue.dispose();
+					}
+					
 					if (wasRemoved
 						&& (l instanceof ResourceSetListener.Internal)) {
 						
@@ -349,10 +487,330 @@ public class TransactionalEditingDomainImpl
 		return (rwr != null)? rwr.getResult() : null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * An optimistic read is valid if no read/write transaction was activated
+	 * or deactivated while it ran, and none was active when it started.
+	 * Read-only transactions invalidate it only when they change the
+	 * resource set, such as by loading resources or resolving proxies, from
+	 * their first change until they are deactivated.  A run-time exception
+	 * thrown by an invalid read is taken for an effect of the inconsistent
+	 * state that it saw, so the read is retried in a transaction.
+	 * </p>
+	 * 
+	 * @since 1.10
+	 */
+	public <T> T runOptimistic(RunnableWithResult<? extends T> read)
+		throws InterruptedException {
+		
+		long version = writeTransactionVersion.get();
+		
+		if (writeTransactionCount.get() == 0) {
+			try {
+				read.run();
+			} catch (RuntimeException e) {
+				if (isOptimisticReadValid(version)) {
+					// the read saw a consistent state, so the failure is real
+					Tracing.throwing(TransactionalEditingDomainImpl.class, "runOptimistic", e); //$NON-NLS-1$
+					throw e;
+				}
+				
+				// the read failed on an inconsistent state.  Read again
+				Tracing.catching(TransactionalEditingDomainImpl.class, "runOptimistic", e); //$NON-NLS-1$
+				return TransactionUtil.<T> runExclusive(this, read);
+			}
+			
+			if (isOptimisticReadValid(version)) {
+				read.setStatus(Status.OK_STATUS);
+				return read.getResult();
+			}
+		}
+		
+		// a write intervened, so read again under the lock
+		return TransactionUtil.<T> runExclusive(this, read);
+	}
+	
+	/**
+	 * Queries whether a transaction is read/write and not nested in another
+	 * read/write transaction.  Such transactions invalidate optimistic reads.
+	 * 
+	 * @param tx a transaction that is being activated or deactivated
+	 * @return whether it is an outermost read/write transaction
+	 */
+	private static boolean isOutermostWrite(Transaction tx) {
+		if (tx.isReadOnly()) {
+			return false;
+		}
+		
+		for (Transaction parent = tx.getParent(); parent != null; parent = parent.getParent()) {
+			if (!parent.isReadOnly()) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Notes that a read-only transaction changed the resource set, as by
+	 * loading a resource or resolving a proxy.  Until its root transaction
+	 * is deactivated, this invalidates optimistic reads like a write would.
+	 * 
+	 * @param tx a read-only transaction that recorded a change
+	 */
+	void readOnlyChange(InternalTransaction tx) {
+		Transaction root = tx;
+		
+		for (Transaction parent = tx.getParent(); parent != null; parent = parent.getParent()) {
+			if (!parent.isReadOnly()) {
+				// the read/write ancestor already invalidates optimistic reads
+				return;
+			}
+			
+			root = parent;
+		}
+		
+		if (changingReadRoots.add((InternalTransaction) root)) {
+			writeTransactionCount.incrementAndGet();
+			writeTransactionVersion.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Queries whether no read/write transaction was activated or deactivated
+	 * since an optimistic read started.
+	 * 
+	 * @param version the transaction version when the read started
+	 * @return whether the read saw a consistent state
+	 */
+	private boolean isOptimisticReadValid(long version) {
+		// the atomic update orders all of the read's accesses before
+		//    the check of the version
+		return writeTransactionVersion.compareAndSet(version, version);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public <T> CompletableFuture<T> runExclusiveAsync(
+			final RunnableWithResult<? extends T> read) {
+		
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		
+		submitAsync(getAsyncReadExecutor(), result, new Runnable() {
+			public void run() {
+				try {
+					T value = TransactionUtil.<T> runExclusive(
+						TransactionalEditingDomainImpl.this, read);
+					IStatus status = read.getStatus();
+					
+					if ((status != null) && (status.getSeverity() >= IStatus.ERROR)) {
+						result.completeExceptionally(new RollbackException(status));
+					} else {
+						result.complete(value);
+					}
+				} catch (Throwable e) {
+					Tracing.catching(TransactionalEditingDomainImpl.class, "runExclusiveAsync", e); //$NON-NLS-1$
+					result.completeExceptionally(e);
+				}
+			}});
+		
+		return result;
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public CompletableFuture<Void> executeAsync(final Command command,
+			final Map<?, ?> options) {
+		
+		final CompletableFuture<Void> result = new CompletableFuture<Void>();
+		
+		submitAsync(getAsyncWriteExecutor(), result, new Runnable() {
+			public void run() {
+				try {
+					getTransactionalCommandStack().execute(command, options);
+					result.complete(null);
+				} catch (Throwable e) {
+					Tracing.catching(TransactionalEditingDomainImpl.class, "executeAsync", e); //$NON-NLS-1$
+					result.completeExceptionally(e);
+				}
+			}});
+		
+		return result;
+	}
+
+	/**
+	 * Submits an asynchronous transaction to an executor, completing its
+	 * future exceptionally if the executor rejects it.
+	 * 
+	 * @param executor the executor on which to run the transaction
+	 * @param future the future of the transaction
+	 * @param transaction the transaction to run
+	 */
+	private void submitAsync(Executor executor, CompletableFuture<?> future,
+			Runnable transaction) {
+		
+		try {
+			executor.execute(transaction);
+		} catch (RejectedExecutionException e) {
+			Tracing.catching(TransactionalEditingDomainImpl.class, "submitAsync", e); //$NON-NLS-1$
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public synchronized void setAsyncExecutors(Executor writeExecutor,
+			Executor readExecutor) {
+		
+		releaseAsyncExecutor(asyncWriteExecutor, writeExecutor);
+		releaseAsyncExecutor(asyncReadExecutor, readExecutor);
+		
+		asyncWriteExecutor = writeExecutor;
+		asyncReadExecutor = readExecutor;
+	}
+
+	/**
+	 * Obtains the executor of my asynchronous writes, creating the default
+	 * single-thread executor if necessary.  Once I am disposed, this is an
+	 * executor that rejects all tasks.
+	 * 
+	 * @return the write executor
+	 * 
+	 * @since 1.10
+	 */
+	protected synchronized Executor getAsyncWriteExecutor() {
+		if (asyncWriteExecutor == null) {
+			asyncWriteExecutor = disposed ? DISPOSED_EXECUTOR
+				: createAsyncExecutor("Writer", 1); //$NON-NLS-1$
+		}
+		
+		return asyncWriteExecutor;
+	}
+
+	/**
+	 * Obtains the executor of my asynchronous reads, creating the default
+	 * pool if necessary.  Once I am disposed, this is an executor that
+	 * rejects all tasks.
+	 * 
+	 * @return the read executor
+	 * 
+	 * @since 1.10
+	 */
+	protected synchronized Executor getAsyncReadExecutor() {
+		if (asyncReadExecutor == null) {
+			asyncReadExecutor = disposed ? DISPOSED_EXECUTOR
+				: createAsyncExecutor("Reader", //$NON-NLS-1$
+					Runtime.getRuntime().availableProcessors());
+		}
+		
+		return asyncReadExecutor;
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public synchronized void setAsyncListenerExecutor(Executor executor) {
+		releaseAsyncExecutor(asyncListenerExecutor, executor);
+		
+		asyncListenerExecutor = executor;
+	}
+
+	/**
+	 * Obtains the executor of my asynchronous post-commit listeners, creating
+	 * the default pool if necessary.  Once I am disposed, this is an executor
+	 * that rejects all tasks.
+	 * 
+	 * @return the listener executor
+	 * 
+	 * @since 1.10
+	 */
+	protected synchronized Executor getAsyncListenerExecutor() {
+		if (asyncListenerExecutor == null) {
+			asyncListenerExecutor = disposed ? DISPOSED_EXECUTOR
+				: createAsyncExecutor("Listener", //$NON-NLS-1$
+					Runtime.getRuntime().availableProcessors());
+		}
+		
+		return asyncListenerExecutor;
+	}
+
+	/**
+	 * Shuts down an executor that is being replaced, if I created it.  Its
+	 * pending tasks still run.
+	 * 
+	 * @param executor the executor being replaced, or <code>null</code>
+	 * @param replacement the executor that replaces it, or <code>null</code>
+	 */
+	private void releaseAsyncExecutor(Executor executor, Executor replacement) {
+		if ((executor != replacement) && ownedAsyncExecutors.remove(executor)) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public int getQueueDepth(ResourceSetListener listener) {
+		AsyncListenerQueue queue = getAsyncListenerQueue(listener);
+		
+		return (queue == null) ? 0 : queue.getDepth();
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public long getLag(ResourceSetListener listener) {
+		AsyncListenerQueue queue = getAsyncListenerQueue(listener);
+		
+		return (queue == null) ? 0L : queue.getLag();
+	}
+
+	/**
+	 * Creates a default executor of asynchronous transactions, whose daemon
+	 * threads terminate when they are idle.  I shut it down when it is
+	 * replaced or I am disposed.
+	 * 
+	 * @param kind the kind of transactions that the executor runs, for the
+	 *    names of its threads
+	 * @param threads the maximal number of threads
+	 * 
+	 * @return the new executor
+	 */
+	private ExecutorService createAsyncExecutor(final String kind, int threads) {
+		final String name = "EMF Transaction " + kind //$NON-NLS-1$
+			+ " [" + ((getID() == null) ? "<anonymous>" : getID()) + "] "; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		
+		ThreadPoolExecutor result = new ThreadPoolExecutor(threads, threads,
+			60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+			new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+				
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, name + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}});
+		result.allowCoreThreadTimeOut(true);
+		
+		ownedAsyncExecutors.add(result);
+		
+		return result;
+	}
+
 	// Documentation copied from the inherited specification
 	public void yield() {
 		final Thread current = Thread.currentThread();
 		
+		if (getSharedReadContext() != null) {
+			// shared readers do not block other readers, so there is
+			//    nothing to yield
+			return;
+		}
+		
 		if (transactionLock.getOwner() != current) {
 			IllegalStateException exc = new IllegalStateException("Only the active transaction may yield"); //$NON-NLS-1$
 			Tracing.throwing(TransactionalEditingDomainImpl.class, "yield", exc); //$NON-NLS-1$
@@ -361,22 +819,47 @@ public class TransactionalEditingDomainImpl
 		
 		// we cannot yield in a read-write transaction context, even if we
 		//    are in a read transaction nested in a write.  Otherwise,
-		//    other threads could read uncommitted changes.  Ensure that
-		//    we only yield if some other thread is waiting for the lock,
-		//    otherwise nobody will resume us
-		if ((writeLock.getOwner() == null) && transactionLock.yield()) {
+		//    other threads could read uncommitted changes.  The exception is
+		//    a write that can revert its changes to show a snapshot of the
+		//    committed state.  Ensure that we only yield if some other thread
+		//    is waiting for the lock, otherwise nobody will resume us
+		final boolean snapshot = (writeLock.getOwner() == current)
+			&& (activeTransaction instanceof TransactionImpl)
+			&& ((TransactionImpl) activeTransaction).canYieldSnapshot();
+		
+		if (((writeLock.getOwner() == null) || snapshot) && transactionLock.yield()) {
 			if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
-				Tracing.trace(">>> Yielding " + getDebugID(activeTransaction) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
+				Tracing.trace(">>> Yielding " + getDebugID(activeTransaction) //$NON-NLS-1$
+					+ (snapshot ? " snapshot" : "") + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			}
 			
 			InternalTransaction transactionToRestore = activeTransaction;
 			TransactionValidator validatorToRestore = validator;
 			
+			int depth = transactionLock.getDepth();
+			int priority = getLockPriority(transactionToRestore);
+			
+			if (snapshot) {
+				// revert while the transaction is still active, so that it
+				//    may make the changes
+				try {
+					((TransactionImpl) transactionToRestore).revertForYield();
+				} catch (RuntimeException e) {
+					// the transaction still has its changes, so it must not
+					//    yield.  Re-acquiring the lock cancels the yield
+					reacquire(1, priority);
+					transactionLock.release();
+					
+					throw e;
+				}
+				
+				// readers cannot write while we have the write lock
+				snapshotWriter = current;
+			}
+			
 			activeTransaction = null;
 			validator = TransactionValidator.NULL;
 			
-			int depth = transactionLock.getDepth();
-			
 			// unwind my read locks so that others may acquire
 			for (int i = 0; i < depth; i++) {
 				// notifies the next thread waiting for the lock
@@ -384,18 +867,7 @@ public class TransactionalEditingDomainImpl
 			}
 			
 			// re-acquire my locks to the depth that I had them
-			for (int i = 0; i < depth; i++) {
-				inner: for (;;) {
-					try {
-						transactionLock.uiSafeAcquire(false);
-						break inner;
-					} catch (InterruptedException e) {
-						// must ignore this because we cannot afford to be
-						//     interrupted:  we *must* restore the locks
-						Tracing.catching(TransactionalEditingDomainImpl.class, "yield", e); //$NON-NLS-1$
-					}
-				}
-			}
+			reacquire(depth, priority);
 			
 			// I am no longer yielding: restore the active transaction
 			activeTransaction = transactionToRestore;
@@ -403,24 +875,70 @@ public class TransactionalEditingDomainImpl
 			
 			assert activeTransaction != null;
 			
+			if (snapshot) {
+				snapshotWriter = null;
+				((TransactionImpl) activeTransaction).restoreAfterYield();
+			}
+			
 			if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
 				Tracing.trace(">>> Resuming " + getDebugID(activeTransaction) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 		}
 	}
 
+	/**
+	 * Re-acquires the transaction lock after yielding it, ignoring interrupts.
+	 * 
+	 * @param depth the number of times to acquire the lock
+	 * @param priority the priority class in which to wait for it
+	 */
+	private void reacquire(int depth, int priority) {
+		for (int i = 0; i < depth; i++) {
+			inner: for (;;) {
+				try {
+					transactionLock.uiSafeAcquire(false, priority);
+					break inner;
+				} catch (InterruptedException e) {
+					// must ignore this because we cannot afford to be
+					//     interrupted:  we *must* restore the locks
+					Tracing.catching(TransactionalEditingDomainImpl.class, "yield", e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+	
 	// Documentation copied from the inherited specification
 	public InternalTransaction startTransaction(boolean readOnly, Map<?, ?> options)
 			throws InterruptedException {
 		
 		InternalTransaction result;
 		
-		result = new TransactionImpl(this, readOnly, options);
+		if (readOnly && ((options == null) || options.isEmpty())
+				&& isLightweightReadAllowed()) {
+			result = new LightweightReadTransaction(this);
+		} else {
+			result = new TransactionImpl(this, readOnly, options);
+		}
+		
 		result.start();
 		
 		return result;
 	}
 	
+	/**
+	 * Queries whether a read-only transaction without options that the
+	 * current thread starts now may be a lightweight read, which does
+	 * not allocate anything that it does not need.  This is the case if it
+	 * will be a root transaction and I use the default validators.
+	 * 
+	 * @return whether a lightweight read may be started
+	 */
+	private boolean isLightweightReadAllowed() {
+		return (getValidatorFactory() == TransactionValidator.Factory.INSTANCE)
+			&& (transactionLock.getOwner() != Thread.currentThread())
+			&& (getSharedReadContext() == null);
+	}
+	
 	/**
 	 * Obtains an ID suitable for display in debug/trace messages.
 	 * 
@@ -440,11 +958,43 @@ public class TransactionalEditingDomainImpl
 	
 	// Documentation copied from the inherited specification
 	public TransactionValidator getValidator() {
-		return validator;
+		SharedReadContext shared = getSharedReadContext();
+		
+		return (shared != null) ? shared.validator : validator;
 	}
 	
 	protected void setValidator(TransactionValidator newValidator) {
-		validator = newValidator;
+		SharedReadContext shared = getSharedReadContext();
+		
+		if (shared != null) {
+			shared.validator = newValidator;
+		} else {
+			validator = newValidator;
+		}
+	}
+	
+	/**
+	 * Obtains the count of the threads that share my transaction lock in the
+	 * same manner as the specified context:  either for reading or for
+	 * partitioned writing.
+	 * 
+	 * @param shared a shared transaction context
+	 * @return the count of the threads that share the lock as it does
+	 */
+	private AtomicInteger getSharerCount(SharedReadContext shared) {
+		return (shared.stripes != null) ? partitionedWriterCount : sharedReaderCount;
+	}
+	
+	/**
+	 * Obtains the transaction context of the current thread if it shares
+	 * my transaction lock with other readers or partitioned writers.
+	 * 
+	 * @return the current thread's shared context, or <code>null</code>
+	 *     if it is neither a shared reader nor a partitioned writer
+	 */
+	private SharedReadContext getSharedReadContext() {
+		return ((sharedReaderCount.get() > 0) || (partitionedWriterCount.get() > 0))
+			? sharedReadContext.get() : null;
 	}
 	
 	/**
@@ -489,7 +1039,9 @@ public class TransactionalEditingDomainImpl
 	
 	// Documentation copied from the inherited specification
 	public InternalTransaction getActiveTransaction() {
-		return activeTransaction;
+		SharedReadContext shared = getSharedReadContext();
+		
+		return (shared != null) ? shared.activeTransaction : activeTransaction;
 	}
 	
 	// Documentation copied from the inherited specification
@@ -502,14 +1054,64 @@ public class TransactionalEditingDomainImpl
 		
 		acquire(tx);
 		
+		if (TransactionImpl.isUnprotected(tx)) {
+			ConcurrentPostcommit[] concurrent = pendingPostcommit.get();
+			
+			if (concurrent != null) {
+				// a post-commit listener is writing.  The concurrent listeners
+				//    must finish reading before it changes anything
+				awaitConcurrentPostcommit(concurrent);
+			}
+		}
+		
+		SharedReadContext shared = getSharedReadContext();
+		if (shared != null) {
+			// tell this transaction what its parent is
+			tx.setParent(shared.activeTransaction);
+			
+			if (shared.activeTransaction == null) {
+				if (shared.stripes != null) {
+					// a partitioned write invalidates optimistic reads
+					writeTransactionCount.incrementAndGet();
+					writeTransactionVersion.incrementAndGet();
+				}
+				
+				// activation of a root transaction creates a validator for it
+				shared.validator = ((shared.stripes == null) || tx.isReadOnly())
+					? getValidatorFactory().createReadOnlyValidator()
+					: getValidatorFactory().createReadWriteValidator();
+				sharedReadRoots.put(tx, shared);
+			}
+			
+			shared.activeTransaction = tx;
+			shared.validator.add(tx);
+			return;
+		}
+		
 		// tell this transaction what its parent is
 		tx.setParent(activeTransaction);
 		
+		if (isOutermostWrite(tx)) {
+			// invalidate any optimistic reads that are in progress
+			writeTransactionCount.incrementAndGet();
+			writeTransactionVersion.incrementAndGet();
+		}
+		
 		if (activeTransaction == null) {
-			// activation of a root transaction creates a validator for it
-			validator = tx.isReadOnly()
-				? getValidatorFactory().createReadOnlyValidator()
-				: getValidatorFactory().createReadWriteValidator();
+			// activation of a root transaction creates a validator for it,
+			//    except that lightweight reads share one until they nest
+			if (tx instanceof LightweightReadTransaction) {
+				validator = LightweightReadTransaction.VALIDATOR;
+			} else {
+				validator = tx.isReadOnly()
+					? getValidatorFactory().createReadOnlyValidator()
+					: getValidatorFactory().createReadWriteValidator();
+			}
+		} else if (validator == LightweightReadTransaction.VALIDATOR) {
+			// a lightweight read is nesting a transaction, which needs the
+			//    validator that it would otherwise have had from the start
+			validator = getValidatorFactory().createReadOnlyValidator();
+			validator.add(activeTransaction);
 		}
 		
 		activeTransaction = tx;
@@ -524,16 +1126,23 @@ public class TransactionalEditingDomainImpl
 			Tracing.trace(">>> Deactivating " + getDebugID(tx) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		
-		if (activeTransaction != tx) {
+		if (getActiveTransaction() != tx) {
 			IllegalArgumentException exc = new IllegalArgumentException("Can only deactivate the active transaction"); //$NON-NLS-1$
 			Tracing.throwing(TransactionalEditingDomainImpl.class, "deactivate", exc); //$NON-NLS-1$
 			throw exc;
 		}
 		
+		SharedReadContext shared = getSharedReadContext();
+		if (shared != null) {
+			deactivateShared(shared, tx);
+			return;
+		}
+		
 		activeTransaction = (InternalTransaction) tx.getParent();
+		final boolean root = activeTransaction == null;
 		
         try {
-    		if (activeTransaction == null) {
+    		if (root) {
     			// deactivation of a root transaction generates post-commit event
     			postcommit(tx);
     			
@@ -545,47 +1154,358 @@ public class TransactionalEditingDomainImpl
                 //     its map (if it's a read/write validator)
                 validator.remove(tx);
             }
-        } finally {		
+        } finally {
+            if (isOutermostWrite(tx)
+                    || (root && changingReadRoots.remove(tx))) {
+                writeTransactionVersion.incrementAndGet();
+                writeTransactionCount.decrementAndGet();
+            }
+            
             release(tx);
         }
 	}
 	
 	/**
-	 * Acquires the appropriate locks for the specified transaction.
-	 * 
-	 * @param tx a transaction to be activated or resumed from a yield
+	 * Deactivates a transaction in the context of a shared reader thread.
 	 * 
-	 * @throws InterruptedException if the current thread is interrupted while
-	 *     waiting for the lock
+	 * @param shared the current thread's shared read context
+	 * @param tx the transaction to deactivate
 	 */
-	private void acquire(InternalTransaction tx) throws InterruptedException {
+	private void deactivateShared(SharedReadContext shared, InternalTransaction tx) {
+		shared.activeTransaction = (InternalTransaction) tx.getParent();
+		final boolean root = shared.activeTransaction == null;
+		
+		try {
+			if (root) {
+				sharedReadRoots.remove(tx);
+				
+				// deactivation of a root transaction generates post-commit event
+				if ((shared.stripes != null) && !tx.isReadOnly()) {
+					postcommitPartitioned(tx);
+				} else {
+					postcommit(tx);
+				}
+				
+				// and also clears the validator
+				shared.validator.dispose();
+				shared.validator = TransactionValidator.NULL;
+			} else {
+				shared.validator.remove(tx);
+			}
+		} finally {
+			if (root && ((shared.stripes != null) || changingReadRoots.remove(tx))) {
+				writeTransactionVersion.incrementAndGet();
+				writeTransactionCount.decrementAndGet();
+			}
+			
+			release(tx);
+		}
+	}
+	
+	/**
+	 * Performs the post-commit processing of a partitioned write.  Partitioned
+	 * writes on different threads take turns to broadcast their post-commit
+	 * events, so that listeners do not receive them concurrently.  Those that
+	 * write the same resources do so in the order of their commits, because
+	 * each still holds its stripes until it has broadcast its events.
+	 * 
+	 * @param tx the partitioned write that has committed
+	 */
+	private void postcommitPartitioned(InternalTransaction tx) {
+		// the post-commit must happen, so ignore interrupts while waiting
+		//    for the turn to broadcast it, but remember them
+		boolean interrupted = false;
+		
+		for (;;) {
+			try {
+				postcommitLock.uiSafeAcquire(true);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		
+		try {
+			postcommit(tx);
+		} finally {
+			postcommitLock.release();
+			
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Acquires the appropriate locks for the specified transaction.
+	 * 
+	 * @param tx a transaction to be activated or resumed from a yield
+	 * 
+	 * @throws InterruptedException if the current thread is interrupted while
+	 *     waiting for the lock
+	 */
+	private void acquire(InternalTransaction tx) throws InterruptedException {
 		Thread current = Thread.currentThread();
 		
+		SharedReadContext shared = getSharedReadContext();
+		if (shared != null) {
+			// nested in a shared read or partitioned write.  The thread
+			//    already has the locks that it needs, and must not write while
+			//    other threads are reading
+			if (!tx.isReadOnly() && (shared.stripes == null)) {
+				IllegalStateException exc = new IllegalStateException(
+					"Cannot activate read/write transaction in shared read-only transaction context"); //$NON-NLS-1$
+				Tracing.throwing(TransactionalEditingDomainImpl.class, "acquire", exc); //$NON-NLS-1$
+				throw exc;
+			}
+			
+			shared.depth++;
+			return;
+		}
+		
+		if (tx.isReadOnly() && (transactionLock.getOwner() != current)
+				&& isUpgradableReadRequested(tx)) {
+			// a root upgradable read owns the lock like any other root,
+			//    except that shared readers may still join it
+			long timeout = getLockTimeout(tx);
+			if (!transactionLock.uiSafeAcquireUpgradable(timeout, getLockPriority(tx))) {
+				throw lockTimedOut(timeout);
+			}
+			
+			if (partitionedWriterCount.get() == 0) {
+				return;
+			}
+			
+			// partitioned writers are sharing the lock, so escalate to
+			//    the exclusive lock.  A nested write then needs no upgrade
+			transactionLock.release();
+		}
+		
+		if (tx.isReadOnly() && (transactionLock.getOwner() != current)
+				&& isSharedReadRequested(tx) && !isUpgradableReadRequested(tx)) {
+			// a root shared read
+			long timeout = getLockTimeout(tx);
+			if (!transactionLock.uiSafeAcquireShared(timeout, getLockPriority(tx))) {
+				throw lockTimedOut(timeout);
+			}
+			
+			shared = new SharedReadContext();
+			shared.depth = 1;
+			sharedReadContext.set(shared);
+			sharedReaderCount.incrementAndGet();
+			
+			if (partitionedWriterCount.get() == 0) {
+				return;
+			}
+			
+			// partitioned writers are sharing the lock, so escalate to
+			//    the exclusive lock
+			sharedReadContext.remove();
+			sharedReaderCount.decrementAndGet();
+			transactionLock.releaseShared();
+		}
+		
+		final Collection<?> resources = TransactionImpl.getWriteResources(tx);
+		if ((resources != null) && (transactionLock.getOwner() != current)) {
+			// a root partitioned write shares the lock with others like it and
+			//    excludes them only from the stripes of its resources
+			long timeout = getLockTimeout(tx);
+			long start = (timeout > 0L) ? System.currentTimeMillis() : 0L;
+			int priority = getLockPriority(tx);
+			
+			if (!transactionLock.uiSafeAcquireShared(timeout, priority)) {
+				throw lockTimedOut(timeout);
+			}
+			
+			partitionedWriterCount.incrementAndGet();
+			
+			if ((sharedReaderCount.get() == 0) && (transactionLock.getOwner() == null)) {
+				int[] stripes = null;
+				
+				try {
+					stripes = acquireStripes(resources, timeout, start, priority);
+				} finally {
+					if (stripes == null) {
+						partitionedWriterCount.decrementAndGet();
+						transactionLock.releaseShared();
+					}
+				}
+				
+				if (stripes == null) {
+					throw lockTimedOut(timeout);
+				}
+				
+				shared = new SharedReadContext();
+				shared.depth = 1;
+				shared.stripes = stripes;
+				sharedReadContext.set(shared);
+				return;
+			}
+			
+			// readers are sharing the lock, so escalate to the exclusive lock
+			partitionedWriterCount.decrementAndGet();
+			transactionLock.releaseShared();
+		}
+		
 		if ((transactionLock.getOwner() == current)
 				&& (activeTransaction != null)
 				&& (activeTransaction.getOwner() == current)
 				&& activeTransaction.isReadOnly()
 				&& !tx.isReadOnly()
-				&& !TransactionImpl.isUnprotected(tx)) {
-
+				&& !TransactionImpl.isUnprotected(tx)
+				&& !isUpgradableReadRequested((InternalTransaction) activeTransaction.getRoot())) {
+			// a nested write may only upgrade an upgradable read
 			throw new IllegalStateException(
 				"Cannot activate read/write transaction in read-only transaction context"); //$NON-NLS-1$
 		}
 		
-		transactionLock.uiSafeAcquire(!tx.isReadOnly());
+		final long timeout = getLockTimeout(tx);
+		final long start = (timeout > 0L) ? System.currentTimeMillis() : 0L;
+		
+		if (!transactionLock.uiSafeAcquire(timeout, !tx.isReadOnly(), getLockPriority(tx))) {
+			throw lockTimedOut(timeout);
+		}
+		
+		if (!tx.isReadOnly() && (snapshotWriter != null)) {
+			// a reader that got the lock from a read/write transaction that
+			//    is yielding a snapshot cannot wait for that write to finish
+			transactionLock.release();
+			
+			IllegalStateException exc = new IllegalStateException(
+				"Cannot activate read/write transaction while another yields a snapshot"); //$NON-NLS-1$
+			Tracing.throwing(TransactionalEditingDomainImpl.class, "acquire", exc); //$NON-NLS-1$
+			throw exc;
+		}
 		
 		if (!tx.isReadOnly()) {
 			// also acquire the write lock.  Ignore interrupts because getting
 			//    the write lock is trivial once we have the transaction lock,
-			//    because the transaction lock is always acquired first
+			//    because the transaction lock is always acquired first.  It
+			//    gets whatever remains of the time-out, if any
+			boolean acquired = false;
+			
 			for (;;) {
 				try {
-					writeLock.acquire(false);
+					acquired = (timeout > 0L)
+						? writeLock.acquire(Math.max(1L,
+							timeout - (System.currentTimeMillis() - start)), false)
+						: writeLock.acquire(0L, false);
 					break;
 				} catch (InterruptedException e) {
 					Thread.interrupted();  // clear interrupt flag
 				}
 			}
+			
+			if (!acquired) {
+				transactionLock.release();
+				throw lockTimedOut(timeout);
+			}
+		}
+	}
+	
+	/**
+	 * Creates the exception that reports the failure to acquire my lock
+	 * for a transaction within its time-out.
+	 * 
+	 * @param timeout the transaction's lock time-out
+	 * @return the exception to throw
+	 */
+	private LockTimeoutException lockTimedOut(long timeout) {
+		LockTimeoutException exc = new LockTimeoutException(timeout);
+		Tracing.throwing(TransactionalEditingDomainImpl.class, "acquire", exc); //$NON-NLS-1$
+		return exc;
+	}
+	
+	/**
+	 * Acquires the locks of the stripes to which the resources written by a
+	 * partitioned write are assigned.  They are acquired in ascending order,
+	 * so that partitioned writes that need some of the same stripes cannot
+	 * deadlock.
+	 * 
+	 * @param resources the resources that the transaction writes
+	 * @param timeout the transaction's lock time-out
+	 * @param start when the transaction started to wait for its locks, if it
+	 *     has a time-out
+	 * @param priority the transaction's lock priority
+	 * 
+	 * @return the stripes, in ascending order, or <code>null</code> if they
+	 *     could not all be acquired in time, in which case none are held
+	 * 
+	 * @throws InterruptedException if the current thread is interrupted while
+	 *     waiting for a stripe, in which case none are held
+	 */
+	private int[] acquireStripes(Collection<?> resources, long timeout,
+			long start, int priority) throws InterruptedException {
+		
+		boolean[] needed = new boolean[STRIPE_COUNT];
+		int count = 0;
+		
+		for (Object next : resources) {
+			int stripe = (System.identityHashCode(next) & 0x7fffffff) % STRIPE_COUNT;
+			
+			if (!needed[stripe]) {
+				needed[stripe] = true;
+				count++;
+			}
+		}
+		
+		int[] result = new int[count];
+		for (int i = 0, j = 0; i < STRIPE_COUNT; i++) {
+			if (needed[i]) {
+				result[j++] = i;
+			}
+		}
+		
+		int acquired = 0;
+		
+		try {
+			for (; acquired < count; acquired++) {
+				long remaining = (timeout > 0L)
+					? Math.max(1L, timeout - (System.currentTimeMillis() - start))
+					: 0L;
+				
+				if (!getStripeLock(result[acquired]).uiSafeAcquire(remaining, true, priority)) {
+					return null;
+				}
+			}
+		} finally {
+			if (acquired < count) {
+				releaseStripes(result, acquired);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Releases the locks of the stripes held by a partitioned write, in the
+	 * reverse order of their acquisition.
+	 * 
+	 * @param stripes the stripes, in the order in which they were acquired
+	 * @param count the number of the stripes that are held
+	 */
+	private void releaseStripes(int[] stripes, int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			getStripeLock(stripes[i]).release();
+		}
+	}
+	
+	/**
+	 * Obtains the lock of a stripe, creating it if necessary.
+	 * 
+	 * @param stripe a stripe index
+	 * @return its lock
+	 */
+	private ITransactionLock getStripeLock(int stripe) {
+		synchronized (stripeLocks) {
+			ITransactionLock result = stripeLocks[stripe];
+			
+			if (result == null) {
+				result = LockFactoryAccess.createLock(lockFactory);
+				stripeLocks[stripe] = result;
+			}
+			
+			return result;
 		}
 	}
 	
@@ -595,6 +1515,23 @@ public class TransactionalEditingDomainImpl
 	 * @param tx a transaction
 	 */
 	private void release(InternalTransaction tx) {
+		SharedReadContext shared = getSharedReadContext();
+		if (shared != null) {
+			if (--shared.depth == 0) {
+				sharedReadContext.remove();
+				
+				if (shared.stripes != null) {
+					releaseStripes(shared.stripes, shared.stripes.length);
+					partitionedWriterCount.decrementAndGet();
+				} else {
+					sharedReaderCount.decrementAndGet();
+				}
+				
+				transactionLock.releaseShared();
+			}
+			return;
+		}
+		
 		if (!tx.isReadOnly()) {
 			writeLock.release();
 		}
@@ -602,6 +1539,86 @@ public class TransactionalEditingDomainImpl
 		transactionLock.release();
 	}
 	
+	/**
+	 * Queries whether the specified read-only transaction requests to share
+	 * the transaction lock with other readers.  Because the transaction is
+	 * not yet activated, it has not yet inherited my default options, so
+	 * they are consulted when it does not specify the option itself.
+	 * 
+	 * @param tx a read-only transaction that is being activated
+	 * @return whether it is to be a shared reader
+	 */
+	private boolean isSharedReadRequested(InternalTransaction tx) {
+		Object value = tx.getOptions().get(Transaction.OPTION_SHARED_READ);
+		
+		if (value == null) {
+			value = defaultTransactionOptionsRO.get(Transaction.OPTION_SHARED_READ);
+		}
+		
+		return Boolean.TRUE.equals(value);
+	}
+	
+	/**
+	 * Queries whether the specified read-only transaction requests to hold
+	 * the transaction lock for upgradable reading.  As for the
+	 * {@linkplain #isSharedReadRequested(InternalTransaction) shared read}
+	 * option, my default options are consulted when the transaction does not
+	 * specify the option itself.
+	 * 
+	 * @param tx a read-only transaction that is being activated, or the root
+	 *     of one that is
+	 * @return whether it is to be an upgradable reader
+	 */
+	private boolean isUpgradableReadRequested(InternalTransaction tx) {
+		Object value = tx.getOptions().get(Transaction.OPTION_UPGRADABLE_READ);
+		
+		if (value == null) {
+			value = defaultTransactionOptionsRO.get(Transaction.OPTION_UPGRADABLE_READ);
+		}
+		
+		return Boolean.TRUE.equals(value);
+	}
+	
+	/**
+	 * Queries the priority class in which the specified transaction waits
+	 * for my transaction lock.  As for the {@linkplain #isSharedReadRequested(InternalTransaction)
+	 * shared read} option, my default options are consulted when the
+	 * transaction does not specify the priority itself.
+	 * 
+	 * @param tx a transaction that is being activated
+	 * @return its lock priority class
+	 */
+	private int getLockPriority(InternalTransaction tx) {
+		Object value = tx.getOptions().get(Transaction.OPTION_LOCK_PRIORITY);
+		
+		if (value == null) {
+			value = defaultTransactionOptionsRO.get(Transaction.OPTION_LOCK_PRIORITY);
+		}
+		
+		return (value instanceof Integer) ? ((Integer) value).intValue()
+			: LockSchedulingPolicy.PRIORITY_NORMAL;
+	}
+	
+	/**
+	 * Queries how long the specified transaction waits for my transaction
+	 * lock.  As for the {@linkplain #getLockPriority(InternalTransaction)
+	 * lock priority}, my default options are consulted when the transaction
+	 * does not specify the time-out itself.
+	 * 
+	 * @param tx a transaction that is being activated
+	 * @return its lock time-out, in millis, or zero to wait indefinitely
+	 */
+	private long getLockTimeout(InternalTransaction tx) {
+		Object value = tx.getOptions().get(Transaction.OPTION_LOCK_TIMEOUT);
+		
+		if (value == null) {
+			value = defaultTransactionOptionsRO.get(Transaction.OPTION_LOCK_TIMEOUT);
+		}
+		
+		return (value instanceof Number) ? Math.max(0L, ((Number) value).longValue())
+			: 0L;
+	}
+	
 	// Documentation copied from the inherited specification
 	public void precommit(final InternalTransaction tx) throws RollbackException {
 		class PrecommitRunnable extends RunnableWithResult.Impl<List<Command>> {
@@ -635,11 +1652,12 @@ public class TransactionalEditingDomainImpl
 				
 				ArrayList<Notification> cache = new ArrayList<Notification>(
 						notifications.size());
+				NotificationIndex index = FilterManager.getInstance().createIndex(
+						notifications);
 				
 				for (ResourceSetListener element : listeners) {
 					try {
-						List<Notification> filtered = FilterManager.getInstance().select(
-								notifications,
+						List<Notification> filtered = index.select(
 								element.getFilter(),
 								cache);
 						
@@ -708,7 +1726,7 @@ public class TransactionalEditingDomainImpl
 						command, triggers, tx.getOptions());
 				}
 				
-				List<Notification> notifications = validator.getNotificationsForPrecommit(
+				List<Notification> notifications = getValidator().getNotificationsForPrecommit(
 					tx);
 				
 				if ((notifications == null) || notifications.isEmpty()) {
@@ -739,7 +1757,13 @@ public class TransactionalEditingDomainImpl
 	/**
 	 * Performs post-commit processing of the specified transaction.  This
 	 * consists of broadcasting the post-commit events to my resource set
-	 * listeners.
+	 * listeners.  The {@linkplain ResourceSetListener.Concurrent concurrent}
+	 * listeners receive their events on my
+	 * {@linkplain #getPostcommitPool() post-commit pool} while the others
+	 * receive theirs one after another on the current thread, which waits
+	 * for all of them.  If one of the others starts an unprotected write,
+	 * the current thread waits for the concurrent listeners before the write
+	 * starts, so that they do not read while it changes the resource set.
 	 * 
 	 * @param tx the transaction that has committed
 	 */
@@ -748,6 +1772,7 @@ public class TransactionalEditingDomainImpl
 			Tracing.trace(">>> Postcommitting " + getDebugID(tx) + " at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		
+		final TransactionValidator validator = getValidator();
 		final List<Notification> notifications = validator.getNotificationsForPostcommit(
 			tx);
 		if ((notifications == null) || notifications.isEmpty()) {
@@ -755,6 +1780,8 @@ public class TransactionalEditingDomainImpl
 		}
 		final ArrayList<Notification> cache = new ArrayList<Notification>(
 				notifications.size());
+		final NotificationIndex index = FilterManager.getInstance().createIndex(
+				notifications);
 		
 		// dispose the validator now because starting the read-only transaction
 		//    below will replace it with a new validator
@@ -765,29 +1792,73 @@ public class TransactionalEditingDomainImpl
 		try {
 			runExclusive(new Runnable() {
 				public void run() {
-					for (ResourceSetListener element : listeners) {
-						try {
-							List<Notification> filtered = FilterManager.getInstance().select(
-									notifications,
-									element.getFilter(),
-									cache);
+					ConcurrentPostcommit[] concurrent = forkConcurrentPostcommit(
+						tx, listeners, index);
+					
+					// the failures of the listeners are reported together if
+					//    some of them are concurrent, otherwise as they occur
+					List<IStatus> failures = null;
+					if (concurrent != null) {
+						failures = new ArrayList<IStatus>(0);
+						pendingPostcommit.set(concurrent);
+					}
+					
+					try {
+						for (ResourceSetListener element : listeners) {
+							if ((concurrent != null) && isConcurrent(element)) {
+								continue; // already forked
+							}
+						
+							try {
+								List<Notification> filtered = index.select(
+										element.getFilter(),
+										cache);
+							
+								if (filtered.isEmpty()) {
+									// nothing to deliver
+								} else if (element instanceof ResourceSetListener.Asynchronous) {
+									postAsync(element, tx, filtered);
+								} else {
+									element.resourceSetChanged(
+											new ResourceSetChangeEvent(
+													TransactionalEditingDomainImpl.this,
+													tx,
+													filtered));
+								}
+							} catch (Exception e) {
+								Tracing.catching(TransactionalEditingDomainImpl.class, "postcommit", e); //$NON-NLS-1$
+								IStatus status = new Status(
+									IStatus.ERROR,
+									EMFTransactionPlugin.getPluginId(),
+									EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
+									Messages.postcommitFailed,
+									e);
 							
-							if (!filtered.isEmpty()) {
-								element.resourceSetChanged(
-										new ResourceSetChangeEvent(
-												TransactionalEditingDomainImpl.this,
-												tx,
-												filtered));
+								if (failures != null) {
+									failures.add(status);
+								} else {
+									EMFTransactionPlugin.INSTANCE.log(status);
+								}
 							}
-						} catch (Exception e) {
-							Tracing.catching(TransactionalEditingDomainImpl.class, "postcommit", e); //$NON-NLS-1$
-							IStatus status = new Status(
-								IStatus.ERROR,
+						}
+					} finally {
+						if (concurrent != null) {
+							pendingPostcommit.remove();
+						}
+					}
+					
+					if (concurrent != null) {
+						joinConcurrentPostcommit(concurrent, failures);
+						
+						if (failures.size() == 1) {
+							EMFTransactionPlugin.INSTANCE.log(failures.get(0));
+						} else if (!failures.isEmpty()) {
+							EMFTransactionPlugin.INSTANCE.log(new MultiStatus(
 								EMFTransactionPlugin.getPluginId(),
 								EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
-								Messages.postcommitFailed,
-								e);
-							EMFTransactionPlugin.INSTANCE.log(status);
+								failures.toArray(new IStatus[failures.size()]),
+								Messages.postcommitFailures,
+								null));
 						}
 					}
 				}});
@@ -803,6 +1874,475 @@ public class TransactionalEditingDomainImpl
 		}
 	}
 	
+	/**
+	 * Obtains the pool on which I deliver post-commit events to the
+	 * {@linkplain ResourceSetListener.Concurrent concurrent} listeners.
+	 * The default is the {@linkplain ForkJoinPool#commonPool() common pool}.
+	 * Subclasses may override to isolate their listeners from other users
+	 * of the common pool.
+	 * 
+	 * @return the post-commit pool
+	 * 
+	 * @since 1.10
+	 */
+	protected ForkJoinPool getPostcommitPool() {
+		return ForkJoinPool.commonPool();
+	}
+	
+	/**
+	 * Queries whether a listener receives its post-commit events concurrently
+	 * with other listeners, on behalf of the committing thread.
+	 * 
+	 * @param listener a post-commit listener
+	 * @return whether it is concurrent and not asynchronous
+	 */
+	private static boolean isConcurrent(ResourceSetListener listener) {
+		return (listener instanceof ResourceSetListener.Concurrent)
+			&& !(listener instanceof ResourceSetListener.Asynchronous);
+	}
+	
+	/**
+	 * Forks the delivery of post-commit events to the concurrent listeners
+	 * whose filters match any notifications.  Their notifications are selected
+	 * on the current thread, because the index is not thread-safe.
+	 * 
+	 * @param tx the transaction that has committed
+	 * @param listeners my post-commit listeners
+	 * @param index the index of the transaction's notifications
+	 * 
+	 * @return the forked deliveries, or <code>null</code> if there would not
+	 *     be more than one listener to invoke, so that there is nothing to
+	 *     gain from forking
+	 */
+	private ConcurrentPostcommit[] forkConcurrentPostcommit(InternalTransaction tx,
+			ResourceSetListener[] listeners, NotificationIndex index) {
+		int concurrentCount = 0;
+		for (ResourceSetListener next : listeners) {
+			if (isConcurrent(next)) {
+				concurrentCount++;
+			}
+		}
+		
+		if ((concurrentCount == 0) || (listeners.length < 2)) {
+			return null;
+		}
+		
+		List<ConcurrentPostcommit> result = new ArrayList<ConcurrentPostcommit>(
+			concurrentCount);
+		List<IStatus> failures = null;
+		
+		for (ResourceSetListener next : listeners) {
+			if (isConcurrent(next)) {
+				try {
+					List<Notification> filtered = index.select(next.getFilter(),
+						new ArrayList<Notification>());
+					
+					if (!filtered.isEmpty()) {
+						result.add(new ConcurrentPostcommit(next,
+							new ResourceSetChangeEvent(this, tx, filtered)));
+					}
+				} catch (Exception e) {
+					// the listener's filter failed
+					Tracing.catching(TransactionalEditingDomainImpl.class, "postcommit", e); //$NON-NLS-1$
+					if (failures == null) {
+						failures = new ArrayList<IStatus>(1);
+					}
+					failures.add(new Status(
+						IStatus.ERROR,
+						EMFTransactionPlugin.getPluginId(),
+						EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
+						Messages.postcommitFailed,
+						e));
+				}
+			}
+		}
+		
+		if (failures != null) {
+			// report these with the others
+			result.add(new ConcurrentPostcommit(failures));
+		}
+		
+		ForkJoinPool pool = getPostcommitPool();
+		for (ConcurrentPostcommit next : result) {
+			if (next.listener != null) {
+				pool.execute(next);
+			}
+		}
+		
+		return result.toArray(new ConcurrentPostcommit[result.size()]);
+	}
+	
+	/**
+	 * Waits for the forked delivery of post-commit events to the concurrent
+	 * listeners.  Deliveries that the pool has not yet started are run on the
+	 * current thread, so that a pool whose threads are all busy (perhaps
+	 * waiting for me) cannot keep the current thread waiting forever.
+	 * 
+	 * @param concurrent the forked deliveries
+	 * @param failures collects the failures of the listeners
+	 */
+	private void joinConcurrentPostcommit(ConcurrentPostcommit[] concurrent,
+			List<IStatus> failures) {
+		awaitConcurrentPostcommit(concurrent);
+		
+		for (ConcurrentPostcommit next : concurrent) {
+			failures.addAll(next.failures);
+		}
+	}
+	
+	/**
+	 * Waits for the forked delivery of post-commit events to the concurrent
+	 * listeners, without collecting their failures.  This may be done more
+	 * than once.
+	 * 
+	 * @param concurrent the forked deliveries
+	 */
+	private void awaitConcurrentPostcommit(ConcurrentPostcommit[] concurrent) {
+		for (ConcurrentPostcommit next : concurrent) {
+			if (next.claim()) {
+				next.deliver();
+				next.delivered = true;
+			}
+		}
+		
+		for (ConcurrentPostcommit next : concurrent) {
+			if (!next.delivered && (next.listener != null)) {
+				// claimed by a thread of the pool
+				next.join();
+				next.delivered = true;
+			}
+		}
+	}
+	
+	/**
+	 * Lends my lock to the current thread for the delivery of a post-commit
+	 * event to a concurrent listener.  The thread gets a shared read context
+	 * of its own, in which it may start a root read-only transaction without
+	 * acquiring the lock, because the thread that owns the lock is waiting
+	 * for it.
+	 * 
+	 * @return the shared read context that the current thread had, if any,
+	 *     to be restored when its delivery is done
+	 * 
+	 * @see #returnSharedReadContext(SharedReadContext)
+	 */
+	private SharedReadContext lendSharedReadContext() {
+		SharedReadContext previous = sharedReadContext.get();
+		
+		SharedReadContext shared = new SharedReadContext();
+		shared.depth = 1; // the lender holds the lock
+		sharedReadContext.set(shared);
+		sharedReaderCount.incrementAndGet();
+		
+		return previous;
+	}
+	
+	/**
+	 * Returns the lock that was lent to the current thread for the delivery of
+	 * a post-commit event.
+	 * 
+	 * @param previous the shared read context that the thread had before
+	 * 
+	 * @see #lendSharedReadContext()
+	 */
+	private void returnSharedReadContext(SharedReadContext previous) {
+		sharedReaderCount.decrementAndGet();
+		
+		if (previous != null) {
+			sharedReadContext.set(previous);
+		} else {
+			sharedReadContext.remove();
+		}
+	}
+	
+	/**
+	 * The delivery of a post-commit event to a concurrent listener.  It is run
+	 * by whichever thread claims it first:  a thread of the post-commit pool
+	 * or the committing thread.
+	 */
+	private final class ConcurrentPostcommit extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		final ResourceSetListener listener;
+		private final ResourceSetChangeEvent event;
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		
+		// whether the committing thread has seen the delivery done
+		boolean delivered;
+		
+		// written before the task completes and read after joining it
+		List<IStatus> failures = Collections.emptyList();
+		
+		ConcurrentPostcommit(ResourceSetListener listener, ResourceSetChangeEvent event) {
+			this.listener = listener;
+			this.event = event;
+		}
+		
+		/**
+		 * Initializes me with failures that are already known, and no listener
+		 * to which to deliver an event.
+		 */
+		ConcurrentPostcommit(List<IStatus> failures) {
+			this.listener = null;
+			this.event = null;
+			this.failures = failures;
+			claimed.set(true);
+		}
+		
+		boolean claim() {
+			return claimed.compareAndSet(false, true);
+		}
+		
+		@Override
+		protected void compute() {
+			if (claim()) {
+				deliver();
+			}
+		}
+		
+		void deliver() {
+			SharedReadContext previous = lendSharedReadContext();
+			
+			try {
+				// the listener gets a read-only transaction of its own
+				runExclusive(new Runnable() {
+					public void run() {
+						listener.resourceSetChanged(event);
+					}});
+			} catch (InterruptedException e) {
+				Tracing.catching(TransactionalEditingDomainImpl.class, "postcommit", e); //$NON-NLS-1$
+				failures = Collections.<IStatus>singletonList(new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.POSTCOMMIT_INTERRUPTED,
+					Messages.postcommitInterrupted,
+					e));
+			} catch (Exception e) {
+				Tracing.catching(TransactionalEditingDomainImpl.class, "postcommit", e); //$NON-NLS-1$
+				failures = Collections.<IStatus>singletonList(new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
+					Messages.postcommitFailed,
+					e));
+			} finally {
+				returnSharedReadContext(previous);
+			}
+		}
+	}
+	
+	/**
+	 * Obtains the queue of the post-commit events of an asynchronous listener.
+	 * 
+	 * @param listener a post-commit listener
+	 * @return its queue, or <code>null</code> if it is not one of my
+	 *     asynchronous listeners
+	 */
+	private AsyncListenerQueue getAsyncListenerQueue(ResourceSetListener listener) {
+		synchronized (postcommitListeners) {
+			return asyncListenerQueues.get(listener);
+		}
+	}
+	
+	/**
+	 * Queues a post-commit event for an asynchronous listener.
+	 * 
+	 * @param listener an asynchronous listener
+	 * @param tx the transaction that has committed, or <code>null</code> if
+	 *     the notifications are unbatched
+	 * @param notifications the notifications that the listener selected, which
+	 *     are copied
+	 */
+	private void postAsync(ResourceSetListener listener, Transaction tx,
+			List<Notification> notifications) {
+		AsyncListenerQueue queue = getAsyncListenerQueue(listener);
+		
+		if (queue != null) {
+			queue.post(tx, notifications);
+		}
+	}
+	
+	/**
+	 * The queue of the post-commit events of an asynchronous listener.  The
+	 * events are not queued separately:  their notifications are appended to
+	 * those that the listener has yet to receive, which it receives in one
+	 * event when its turn on the listener executor comes.  At most one
+	 * delivery is scheduled at a time, so that the listener receives its
+	 * events one after another.
+	 */
+	private final class AsyncListenerQueue implements Runnable {
+		private final ResourceSetListener listener;
+		
+		// the notifications of the coalesced events, the last of their
+		//    transactions, how many there are, and when the oldest of them
+		//    was posted
+		private List<Notification> pending = new ArrayList<Notification>();
+		private Transaction pendingTransaction;
+		private int pendingCount;
+		private long pendingSince;
+		
+		// the count of the events being delivered and since when the oldest
+		//    of them was posted
+		private int deliveringCount;
+		private long deliveringSince;
+		
+		private boolean scheduled;
+		private boolean disposed;
+		
+		AsyncListenerQueue(ResourceSetListener listener) {
+			this.listener = listener;
+		}
+		
+		/**
+		 * Posts an event, scheduling its delivery unless one is already
+		 * scheduled that will deliver it.
+		 */
+		void post(Transaction tx, List<Notification> notifications) {
+			synchronized (this) {
+				if (disposed) {
+					return;
+				}
+				
+				if (pendingCount++ == 0) {
+					pendingSince = System.nanoTime();
+				}
+				
+				pending.addAll(notifications);
+				pendingTransaction = tx;
+				
+				if (scheduled) {
+					return; // coalesced
+				}
+				
+				scheduled = true;
+			}
+			
+			schedule();
+		}
+		
+		private void schedule() {
+			try {
+				getAsyncListenerExecutor().execute(this);
+			} catch (RejectedExecutionException e) {
+				Tracing.catching(TransactionalEditingDomainImpl.class, "postAsync", e); //$NON-NLS-1$
+				IStatus status = new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
+					Messages.postcommitFailed,
+					e);
+				EMFTransactionPlugin.INSTANCE.log(status);
+				
+				synchronized (this) {
+					// drop the events, but accept later ones
+					pending = new ArrayList<Notification>();
+					pendingTransaction = null;
+					pendingCount = 0;
+					scheduled = false;
+				}
+			}
+		}
+		
+		/**
+		 * Delivers the coalesced events that are pending.
+		 */
+		public void run() {
+			final List<Notification> notifications;
+			final Transaction tx;
+			
+			synchronized (this) {
+				if (disposed || (pendingCount == 0)) {
+					scheduled = false;
+					return;
+				}
+				
+				notifications = pending;
+				tx = pendingTransaction;
+				deliveringCount = pendingCount;
+				deliveringSince = pendingSince;
+				
+				pending = new ArrayList<Notification>();
+				pendingTransaction = null;
+				pendingCount = 0;
+			}
+			
+			if (Tracing.shouldTrace(EMFTransactionDebugOptions.TRANSACTIONS)) {
+				Tracing.trace(">>> Delivering " + deliveringCount //$NON-NLS-1$
+					+ " post-commit event(s) to " + listener //$NON-NLS-1$
+					+ " lagging " + getLag() + " ms at " + Tracing.now()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			
+			try {
+				runExclusive(new Runnable() {
+					public void run() {
+						listener.resourceSetChanged(new ResourceSetChangeEvent(
+							TransactionalEditingDomainImpl.this, tx, notifications));
+					}});
+			} catch (InterruptedException e) {
+				Tracing.catching(TransactionalEditingDomainImpl.class, "postAsync", e); //$NON-NLS-1$
+				IStatus status = new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.POSTCOMMIT_INTERRUPTED,
+					Messages.postcommitInterrupted,
+					e);
+				EMFTransactionPlugin.INSTANCE.log(status);
+			} catch (Exception e) {
+				Tracing.catching(TransactionalEditingDomainImpl.class, "postAsync", e); //$NON-NLS-1$
+				IStatus status = new Status(
+					IStatus.ERROR,
+					EMFTransactionPlugin.getPluginId(),
+					EMFTransactionStatusCodes.POSTCOMMIT_FAILED,
+					Messages.postcommitFailed,
+					e);
+				EMFTransactionPlugin.INSTANCE.log(status);
+			} finally {
+				boolean reschedule;
+				
+				synchronized (this) {
+					deliveringCount = 0;
+					
+					// events that were posted meanwhile take another turn,
+					//    so that other listeners are not starved
+					reschedule = !disposed && (pendingCount > 0);
+					scheduled = reschedule;
+				}
+				
+				if (reschedule) {
+					schedule();
+				}
+			}
+		}
+		
+		/**
+		 * Discards the events that are pending, and any that are posted later.
+		 */
+		synchronized void dispose() {
+			disposed = true;
+			pending = new ArrayList<Notification>();
+			pendingTransaction = null;
+			pendingCount = 0;
+		}
+		
+		synchronized int getDepth() {
+			return pendingCount + deliveringCount;
+		}
+		
+		synchronized long getLag() {
+			long since;
+			
+			if (deliveringCount > 0) {
+				since = deliveringSince;
+			} else if (pendingCount > 0) {
+				since = pendingSince;
+			} else {
+				return 0L;
+			}
+			
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+		}
+	}
+	
 	// Documentation copied from the inherited specification
 	public void broadcastUnbatched(Notification notification) {
 		final ResourceSetListener[] listeners = getPostcommitListeners();
@@ -818,7 +2358,11 @@ public class TransactionalEditingDomainImpl
 									unbatchedNotifications,
 									element.getFilter());
 							
-							if (!filtered.isEmpty()) {
+							if (filtered.isEmpty()) {
+								// nothing to deliver
+							} else if (element instanceof ResourceSetListener.Asynchronous) {
+								postAsync(element, null, filtered);
+							} else {
 								element.resourceSetChanged(unbatchedChangeEvent);
 							}
 						} catch (Exception e) {
@@ -868,6 +2412,22 @@ public class TransactionalEditingDomainImpl
 		}
 		
 		Thread current = Thread.currentThread();
+		
+		SharedReadContext shared = sharedReadRoots.get(
+			((InternalTransaction) runnable.getTransaction()).getRoot());
+		if (shared != null) {
+			if (shared.activeTransaction != runnable.getTransaction()) {
+				throw new IllegalStateException(
+					"transaction is not the domain's current transaction"); //$NON-NLS-1$
+			}
+			
+			// the shared lock stays with the reader that is lending it, which
+			//    waits for us.  Just lend the reader's context to this thread
+			shared.borrowerContext = sharedReadContext.get();
+			sharedReadContext.set(shared);
+			getSharerCount(shared).incrementAndGet();
+			return;
+		}
 			
 		// transfer the locks to the current thread
 		transactionLock.checkedTransfer(current);
@@ -881,6 +2441,20 @@ public class TransactionalEditingDomainImpl
 					"runnable has no privileges on this editing domain"); //$NON-NLS-1$
 		}
 		
+		SharedReadContext shared = getSharedReadContext();
+		if ((shared != null) && (shared == sharedReadRoots.get(
+				((InternalTransaction) runnable.getTransaction()).getRoot()))) {
+			// give the reader's context back to it
+			getSharerCount(shared).decrementAndGet();
+			if (shared.borrowerContext != null) {
+				sharedReadContext.set(shared.borrowerContext);
+				shared.borrowerContext = null;
+			} else {
+				sharedReadContext.remove();
+			}
+			return;
+		}
+		
 		Thread owner = runnable.getOwner();
 		
 		// transfer the locks to their previous owner
@@ -923,6 +2497,14 @@ public class TransactionalEditingDomainImpl
 			postcommitListeners.clear();
 			getLifecycle().dispose();
 			
+			synchronized (postcommitListeners) {
+				for (AsyncListenerQueue next : asyncListenerQueues.values()) {
+					next.dispose();
+				}
+				
+				asyncListenerQueues.clear();
+			}
+			
 			// only clear my ID after notifying listeners, because they may
 			// need to key on it
 			setID(null);
@@ -938,6 +2520,20 @@ public class TransactionalEditingDomainImpl
 			
 			// disconnect the resource set from the editing domain
 			((FactoryImpl) Factory.INSTANCE).unmapResourceSet(this);
+			
+			if (lockMetrics != null) {
+				// in case the metrics were published
+				lockMetrics.unregisterMBean();
+			}
+			
+			synchronized (this) {
+				// let pending asynchronous transactions finish (or fail)
+				for (ExecutorService next : ownedAsyncExecutors) {
+					next.shutdown();
+				}
+				
+				ownedAsyncExecutors.clear();
+			}
 		}
 	}
 
@@ -957,6 +2553,14 @@ public class TransactionalEditingDomainImpl
 	        result = (T) getLifecycle();
 	    } else if (adapterType == InternalLifecycle.class) {
 	        result = (T) getLifecycle();
+	    } else if (adapterType == LockMetrics.class) {
+	        result = (T) getLockMetrics();
+	    } else if (adapterType == OptimisticReads.class) {
+	        result = (T) this;
+	    } else if (adapterType == AsyncTransactions.class) {
+	        result = (T) this;
+	    } else if (adapterType == AsyncListeners.class) {
+	        result = (T) this;
 	    } else {
 	        result = null;
 	    }
@@ -964,6 +2568,26 @@ public class TransactionalEditingDomainImpl
 	    return result;
 	}
 	
+	/**
+	 * Obtains the contention metrics of my transaction lock, which starts to
+	 * record them when they are first requested.
+	 * 
+	 * @return my lock metrics, or <code>null</code> if my lock does not
+	 *     record any
+	 * 
+	 * @since 1.10
+	 */
+	protected LockMetrics getLockMetrics() {
+		LockMetrics result = lockMetrics;
+		
+		if (result == null) {
+			result = transactionLock.getMetrics();
+			lockMetrics = result;
+		}
+		
+		return result;
+	}
+	
 	public Map<?, ?> getDefaultTransactionOptions() {
 	    return defaultTransactionOptionsRO;  // return the read-only view
 	}
@@ -1066,6 +2690,26 @@ public class TransactionalEditingDomainImpl
 	// Nested classes
 	//
 	
+	/**
+	 * The transaction context of a thread that shares the transaction lock
+	 * with other readers, or with other partitioned writers.  It takes the
+	 * place of the editing domain's active transaction and validator for that
+	 * thread, only.
+	 */
+	private static final class SharedReadContext {
+		InternalTransaction activeTransaction;
+		TransactionValidator validator = TransactionValidator.NULL;
+		
+		// number of transactions active in this context
+		int depth;
+		
+		// the stripes held by a partitioned writer, or null for a reader
+		int[] stripes;
+		
+		// context of a thread that borrows this one to run a privileged runnable
+		SharedReadContext borrowerContext;
+	}
+	
 	/**
 	 * Default implementation of the validator factory
 	 * 
@@ -1105,11 +2749,44 @@ public class TransactionalEditingDomainImpl
 	 * @author Christian W. Damus (cdamus)
 	 */
 	public static class FactoryImpl implements TransactionalEditingDomain.Factory {
+		private TransactionLockFactory lockFactory;
+		
+		/**
+		 * Queries the factory of the locks of the editing domains that I
+		 * create.
+		 * 
+		 * @return my lock factory, or <code>null</code> if my editing domains
+		 *     use the {@linkplain TransactionLockFactory#getDefault() default}
+		 * 
+		 * @since 1.10
+		 */
+		public synchronized TransactionLockFactory getLockFactory() {
+			return lockFactory;
+		}
+		
+		/**
+		 * Sets the factory of the locks of the editing domains that I create
+		 * from now on.  For example, applications running outside of the
+		 * Eclipse platform that access their editing domains from multiple
+		 * threads should use the {@link TransactionLockFactory#STANDALONE}
+		 * lock factory.
+		 * 
+		 * @param lockFactory my lock factory, or <code>null</code> to use the
+		 *     {@linkplain TransactionLockFactory#getDefault() default}
+		 * 
+		 * @since 1.10
+		 */
+		public synchronized void setLockFactory(TransactionLockFactory lockFactory) {
+			this.lockFactory = lockFactory;
+		}
+		
 		// Documentation copied from the inherited specification
 		public synchronized TransactionalEditingDomain createEditingDomain() {
 			TransactionalEditingDomain result = new TransactionalEditingDomainImpl(
 				new ComposedAdapterFactory(
-					ComposedAdapterFactory.Descriptor.Registry.INSTANCE));
+					ComposedAdapterFactory.Descriptor.Registry.INSTANCE),
+				new TransactionalCommandStackImpl(),
+				lockFactory);
 			
 			mapResourceSet(result);
 			
@@ -1121,7 +2798,9 @@ public class TransactionalEditingDomainImpl
 			TransactionalEditingDomain result = new TransactionalEditingDomainImpl(
 				new ComposedAdapterFactory(
 					ComposedAdapterFactory.Descriptor.Registry.INSTANCE),
-				rset);
+				new TransactionalCommandStackImpl(),
+				rset,
+				lockFactory);
 			
 			mapResourceSet(result);
 			
@@ -45,7 +45,7 @@ public class TriggerCommandTransaction
 	 * description, so that I will not propagate these changes upwards.
 	 */
 	@Override
-	protected synchronized void close() {
+	protected void close() {
 		change.detach();
 		
 		super.close();
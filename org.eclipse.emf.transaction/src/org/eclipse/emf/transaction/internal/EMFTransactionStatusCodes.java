@@ -35,6 +35,8 @@ public class EMFTransactionStatusCodes {
 	public static final int PRECOMMIT_FAILED = 43;
 	public static final int POSTCOMMIT_INTERRUPTED = 44;
 	public static final int POSTCOMMIT_FAILED = 45;
+	public static final int PARTITION_VIOLATION = 46;
+	public static final int MEMORY_BUDGET_EXCEEDED = 47;
 
 	public static final int EXCEPTION_HANDLER_FAILED = 50;
 	public static final int PRIVILEGED_RUNNABLE_FAILED = 51;
@@ -11,6 +11,9 @@
  ****************************************************************************/
 package org.eclipse.emf.transaction.internal;
 
+import org.eclipse.emf.transaction.util.LockMetrics;
+import org.eclipse.emf.transaction.util.LockSchedulingPolicy;
+
 /**
  * Common interface for locks in transactionable editing domains.
  * 
@@ -111,6 +114,204 @@ public interface ITransactionLock {
 	public abstract void uiSafeAcquire(boolean exclusive)
 			throws InterruptedException;
 
+	/**
+	 * Attempts to acquire me (without a timeout) in a manner that is safe to
+	 * execute on the UI thread, as for {@link #uiSafeAcquire(boolean)},
+	 * waiting in the specified priority class for my
+	 * {@linkplain #getSchedulingPolicy() scheduling policy} to consider.
+	 * 
+	 * @param exclusive <code>true</code> if the current thread needs exclusive
+	 *     access (i.e., no other threads may currently be
+	 *     {@link #yield() yielding} me); <code>false</code>, otherwise
+	 * @param priority the calling thread's priority class, usually one of
+	 *     the <code>PRIORITY_*</code> constants of the {@link LockSchedulingPolicy}
+	 * 
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 * 
+	 * @since 1.10
+	 */
+	public abstract void uiSafeAcquire(boolean exclusive, int priority)
+			throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me in a manner that is safe to execute on the UI
+	 * thread, as for {@link #uiSafeAcquire(boolean, int)}, but giving up
+	 * after the specified number of millis.
+	 * 
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param exclusive <code>true</code> if the current thread needs exclusive
+	 *     access (i.e., no other threads may currently be
+	 *     {@link #yield() yielding} me); <code>false</code>, otherwise
+	 * @param priority the calling thread's priority class, usually one of
+	 *     the <code>PRIORITY_*</code> constants of the {@link LockSchedulingPolicy}
+	 * 
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 * 
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 * 
+	 * @since 1.10
+	 */
+	public abstract boolean uiSafeAcquire(long timeout, boolean exclusive,
+			int priority) throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me for shared access, timing out after the specified
+	 * number of millis.  Any number of threads may share me at once for
+	 * reading, but not while any thread {@linkplain #getOwner() owns} me.
+	 * If the calling thread already shares me, then its hold on me is
+	 * increased, which means one more call to {@link #releaseShared()} for it
+	 * to make.
+	 * <p>
+	 * <b>Note:</b>  The current thread must not own my monitor when it calls
+	 * this method, otherwise it will cause deadlock.
+	 * </p>
+	 * 
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 *     
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *    
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread owns me
+	 * @throws InterruptedException on interruption of the calling thread
+	 * 
+	 * @since 1.10
+	 */
+	public abstract boolean acquireShared(long timeout)
+			throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me for shared access (without a timeout) in a manner
+	 * that is safe to execute on the UI thread, as for
+	 * {@link #uiSafeAcquire(boolean)}.
+	 * 
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 * 
+	 * @see #acquireShared(long)
+	 * @since 1.10
+	 */
+	public abstract void uiSafeAcquireShared() throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me for shared access (without a timeout) in a manner
+	 * that is safe to execute on the UI thread, waiting in the specified
+	 * priority class for my {@linkplain #getSchedulingPolicy() scheduling policy}
+	 * to consider.
+	 * 
+	 * @param priority the calling thread's priority class, usually one of
+	 *     the <code>PRIORITY_*</code> constants of the {@link LockSchedulingPolicy}
+	 * 
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 * 
+	 * @see #uiSafeAcquireShared()
+	 * @since 1.10
+	 */
+	public abstract void uiSafeAcquireShared(int priority) throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me for shared access in a manner that is safe to
+	 * execute on the UI thread, as for {@link #uiSafeAcquireShared(int)},
+	 * but giving up after the specified number of millis.
+	 * 
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param priority the calling thread's priority class, usually one of
+	 *     the <code>PRIORITY_*</code> constants of the {@link LockSchedulingPolicy}
+	 * 
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 * 
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread owns me
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 * 
+	 * @since 1.10
+	 */
+	public abstract boolean uiSafeAcquireShared(long timeout, int priority)
+			throws InterruptedException;
+
+	/**
+	 * Releases the calling thread's shared access to me.  Note that its hold
+	 * may still be positive, in which case I would need to be released again
+	 * (recursively).
+	 * 
+	 * @throws IllegalStateException if the calling thread does not share me
+	 * 
+	 * @since 1.10
+	 */
+	public abstract void releaseShared();
+
+	/**
+	 * Attempts to acquire me for upgradable read access, timing out after the
+	 * specified number of millis.  The calling thread then
+	 * {@linkplain #getOwner() owns} me, but other threads may still
+	 * {@linkplain #acquireShared(long) share} me for reading, so only one
+	 * thread at a time can hold me in this mode.  When the owner later
+	 * acquires me again for exclusive access, it waits until the readers
+	 * have released me and admits no new ones until it releases me back down
+	 * to the depth at which it upgraded.  Thus, it can write without ever
+	 * letting another thread own me in the meantime.
+	 * <p>
+	 * If the calling thread already owns me, then this is the same as
+	 * {@linkplain #acquire(long, boolean) acquiring} me non-exclusively.
+	 * Like exclusive access, upgradable access is not granted while other
+	 * threads are {@linkplain #yield() yielding} me.
+	 * </p>
+	 *
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 *
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread shares me
+	 * @throws InterruptedException on interruption of the calling thread
+	 *
+	 * @since 1.10
+	 */
+	public abstract boolean acquireUpgradable(long timeout)
+			throws InterruptedException;
+
+	/**
+	 * Attempts to acquire me for upgradable read access in a manner that is
+	 * safe to execute on the UI thread, as for {@link #uiSafeAcquire(boolean, int)},
+	 * but giving up after the specified number of millis.
+	 *
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param priority the calling thread's priority class, usually one of
+	 *     the <code>PRIORITY_*</code> constants of the {@link LockSchedulingPolicy}
+	 *
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread shares me
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 *
+	 * @see #acquireUpgradable(long)
+	 * @since 1.10
+	 */
+	public abstract boolean uiSafeAcquireUpgradable(long timeout, int priority)
+			throws InterruptedException;
+
 	/**
 	 * Releases me.  Note that my depth may still be positive, in which case
 	 * I would need to be released again (recursively).
@@ -136,4 +337,36 @@ public interface ITransactionLock {
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
 	public void checkedTransfer(Thread thread);
+
+	/**
+	 * Obtains my contention metrics.  I start recording them when they are
+	 * first requested.
+	 * 
+	 * @return my metrics, or <code>null</code> if I do not record any
+	 * 
+	 * @since 1.10
+	 */
+	public LockMetrics getMetrics();
+
+	/**
+	 * Queries the policy that decides which of the threads waiting for me
+	 * gets me next.
+	 * 
+	 * @return my scheduling policy, or <code>null</code> if I never make
+	 *     any thread wait
+	 * 
+	 * @since 1.10
+	 */
+	public LockSchedulingPolicy getSchedulingPolicy();
+
+	/**
+	 * Sets the policy that decides which of the threads waiting for me
+	 * gets me next.
+	 * 
+	 * @param policy my scheduling policy, or <code>null</code> for the
+	 *     default {@linkplain LockSchedulingPolicy#FIFO FIFO} policy
+	 * 
+	 * @since 1.10
+	 */
+	public void setSchedulingPolicy(LockSchedulingPolicy policy);
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.internal;
+
+import org.eclipse.emf.transaction.util.TransactionLockFactory;
+
+/**
+ * Internal access to the creation of locks by {@link TransactionLockFactory}s,
+ * which is not API because the locks are of an internal type.  The lock
+ * factory class installs the implementation when it is initialized, which
+ * is before any factory exists from which to create a lock.
+ *
+ * @since 1.10
+ */
+public abstract class LockFactoryAccess {
+	private static volatile LockFactoryAccess instance;
+
+	/**
+	 * Initializes me.
+	 */
+	protected LockFactoryAccess() {
+		super();
+	}
+
+	/**
+	 * Installs the implementation of the lock factory access.  Only the
+	 * {@link TransactionLockFactory} class may call this.
+	 *
+	 * @param access the implementation
+	 */
+	public static void setInstance(LockFactoryAccess access) {
+		if (instance != null) {
+			throw new IllegalStateException("lock factory access already set"); //$NON-NLS-1$
+		}
+
+		instance = access;
+	}
+
+	/**
+	 * Creates a new lock.
+	 *
+	 * @param factory the lock factory
+	 * @return the new lock
+	 */
+	public static ITransactionLock createLock(TransactionLockFactory factory) {
+		return instance.doCreateLock(factory);
+	}
+
+	/**
+	 * Implements the creation of a new lock.
+	 *
+	 * @param factory the lock factory
+	 * @return the new lock
+	 */
+	protected abstract ITransactionLock doCreateLock(TransactionLockFactory factory);
+}
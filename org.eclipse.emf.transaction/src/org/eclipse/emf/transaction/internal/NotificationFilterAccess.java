@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.internal;
+
+import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.impl.NotificationIndex;
+
+/**
+ * Internal access to the index keys of {@link NotificationFilter}s, by which
+ * the {@link NotificationIndex} finds the notifications that a filter can
+ * match.  The keys are not API because they are an implementation detail of
+ * the index.  The filter class installs the implementation when it is
+ * initialized, which is before any filter exists whose keys to get.
+ *
+ * @since 1.10
+ */
+public abstract class NotificationFilterAccess {
+	private static volatile NotificationFilterAccess instance;
+
+	/**
+	 * Initializes me.
+	 */
+	protected NotificationFilterAccess() {
+		super();
+	}
+
+	/**
+	 * Installs the implementation of the notification filter access.  Only
+	 * the {@link NotificationFilter} class may call this.
+	 *
+	 * @param access the implementation
+	 */
+	public static void setInstance(NotificationFilterAccess access) {
+		if (instance != null) {
+			throw new IllegalStateException("notification filter access already set"); //$NON-NLS-1$
+		}
+
+		instance = access;
+	}
+
+	/**
+	 * Obtains the keys by which notifications are indexed to find those that
+	 * a filter can match.  Every notification that the filter matches has at
+	 * least one of these keys, but not every notification that has one of
+	 * them matches the filter.
+	 *
+	 * @param filter a notification filter
+	 * @return its index keys, which must not be modified, or <code>null</code>
+	 *     if it can match notifications that have none of the keys, in which
+	 *     case every notification must be matched against it
+	 */
+	public static NotificationIndex.Key[] getIndexKeys(NotificationFilter filter) {
+		return instance.doGetIndexKeys(filter);
+	}
+
+	/**
+	 * Implements the retrieval of a filter's index keys.
+	 *
+	 * @param filter a notification filter
+	 * @return its index keys
+	 */
+	protected abstract NotificationIndex.Key[] doGetIndexKeys(NotificationFilter filter);
+}
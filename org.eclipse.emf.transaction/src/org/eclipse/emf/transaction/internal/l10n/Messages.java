@@ -36,11 +36,15 @@ public class Messages
 	
 	public static String noWriteTx;
 	public static String concurrentWrite;
+	public static String partitionViolation;
+	public static String memoryBudgetExceeded;
+	public static String lockTimeout;
 	public static String readTxRollback;
 	public static String precommitInterrupted;
 	public static String precommitFailed;
 	public static String postcommitInterrupted;
 	public static String postcommitFailed;
+	public static String postcommitFailures;
 	
 	public static String exceptionHandlerFailed;
 	
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+import org.eclipse.emf.common.notify.impl.NotificationImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.Transaction;
+
+/**
+ * A notification that summarizes the changes that a
+ * {@linkplain Transaction#OPTION_BULK_LOAD bulk-load} transaction made to
+ * the contents of a resource, in place of the notifications of the
+ * individual changes.  Its notifier is the resource and its event type is
+ * {@link #BULK_CHANGE}, so post-commit listeners that are interested in bulk
+ * loads can select it with a filter such as
+ * <code>NotificationFilter.createEventTypeFilter(BulkChangeNotification.BULK_CHANGE)</code>.
+ * It has no feature and no old or new value.
+ *
+ * @since 1.10
+ *
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public final class BulkChangeNotification extends NotificationImpl {
+	/**
+	 * The event type of bulk change notifications.
+	 */
+	public static final int BULK_CHANGE = EVENT_TYPE_COUNT + 1;
+
+	private final Resource resource;
+
+	/**
+	 * Initializes me with the resource whose contents were changed.
+	 *
+	 * @param resource the changed resource
+	 */
+	public BulkChangeNotification(Resource resource) {
+		super(BULK_CHANGE, null, null);
+
+		this.resource = resource;
+	}
+
+	/**
+	 * Obtains the resource whose contents were changed.
+	 *
+	 * @return my resource
+	 */
+	public Resource getResource() {
+		return resource;
+	}
+
+	@Override
+	public Object getNotifier() {
+		return resource;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkChangeNotification[" + resource.getURI() + ']'; //$NON-NLS-1$
+	}
+}
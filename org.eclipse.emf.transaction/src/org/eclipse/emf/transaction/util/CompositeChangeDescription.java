@@ -150,6 +150,58 @@ public class CompositeChangeDescription
 		Collections.reverse(changes);
 	}
 	
+	/**
+	 * Obtains a mark of the change descriptions that I have now, to which
+	 * I can later {@linkplain #applyToMark(Mark) revert}.
+	 * 
+	 * @return a mark of my current extent
+	 * 
+	 * @since 1.10
+	 */
+	public final Mark mark() {
+		return new Mark(this, changes.size(),
+			(detached == null) ? 0 : detached.size());
+	}
+	
+	/**
+	 * Applies, in the reverse order that they were added, and then removes
+	 * the change descriptions that were added to me since the specified
+	 * mark.  Detached change descriptions added since then are just removed.
+	 * 
+	 * @param mark a mark that I created
+	 * 
+	 * @throws IllegalArgumentException if the mark is not mine or I no longer
+	 *     have the change descriptions that I had when I created it
+	 * 
+	 * @since 1.10
+	 */
+	public void applyToMark(Mark mark) {
+		if ((mark.owner != this) || (mark.changeCount > changes.size())
+				|| (mark.detachedCount > ((detached == null) ? 0 : detached.size()))) {
+			throw new IllegalArgumentException("Invalid mark"); //$NON-NLS-1$
+		}
+		
+		List<ChangeDescription> tail = changes.subList(mark.changeCount, changes.size());
+		
+		// must apply changes in the reverse order that they were added
+		for (ListIterator<ChangeDescription> iter = tail.listIterator(tail.size());
+				iter.hasPrevious();) {
+			
+			iter.previous().apply();
+		}
+		
+		tail.clear();
+		
+		if (detached != null) {
+			detached.subList(mark.detachedCount, detached.size()).clear();
+		}
+		
+		// the aggregate change model is computed again on demand
+		objectChanges = null;
+		objectsToAttach = null;
+		resourceChanges = null;
+	}
+	
 	/**
 	 * Adds a change description to me.
 	 * 
@@ -332,4 +384,25 @@ public class CompositeChangeDescription
 		result.append(getResourceChanges().size()).append(']');
 		return result.toString();
 	}
+	
+	/**
+	 * A mark of the extent of a composite change description.
+	 * 
+	 * @see CompositeChangeDescription#mark()
+	 * @see CompositeChangeDescription#applyToMark(Mark)
+	 * 
+	 * @since 1.10
+	 */
+	public static final class Mark {
+		private final CompositeChangeDescription owner;
+		private final int changeCount;
+		private final int detachedCount;
+		
+		private Mark(CompositeChangeDescription owner, int changeCount,
+				int detachedCount) {
+			this.owner = owner;
+			this.changeCount = changeCount;
+			this.detachedCount = detachedCount;
+		}
+	}
 }
@@ -43,9 +43,27 @@ public final class EmptyLock implements ITransactionLock {
 		return true;
 	}
 
+	/**
+	 * @since 1.10
+	 */
+	public boolean acquireShared(long timeout) throws InterruptedException {
+		return acquire(timeout, false);
+	}
+
 	public void checkedTransfer(Thread thread) {
 	}
 
+	/**
+	 * I do not exclude anything, so I have no contention to measure.
+	 * 
+	 * @return <code>null</code>
+	 * 
+	 * @since 1.10
+	 */
+	public LockMetrics getMetrics() {
+		return null;
+	}
+
 	public int getDepth() {
 		return count.get();
 	}
@@ -58,10 +76,86 @@ public final class EmptyLock implements ITransactionLock {
 		count.decrementAndGet();
 	}
 
+	/**
+	 * @since 1.10
+	 */
+	public void releaseShared() {
+		release();
+	}
+
 	public void uiSafeAcquire(boolean exclusive) throws InterruptedException {
 		acquire(exclusive);
 	}
 
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquire(boolean exclusive, int priority) throws InterruptedException {
+		acquire(exclusive);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquire(long timeout, boolean exclusive, int priority) throws InterruptedException {
+		return acquire(timeout, exclusive);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquireShared() throws InterruptedException {
+		acquireShared(0L);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquireShared(int priority) throws InterruptedException {
+		acquireShared(0L);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquireShared(long timeout, int priority) throws InterruptedException {
+		return acquireShared(timeout);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public boolean acquireUpgradable(long timeout) throws InterruptedException {
+		return acquire(timeout, false);
+	}
+
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquireUpgradable(long timeout, int priority) throws InterruptedException {
+		return acquireUpgradable(timeout);
+	}
+
+	/**
+	 * Nobody ever waits for me, so I have no scheduling policy.
+	 * 
+	 * @return <code>null</code>
+	 * 
+	 * @since 1.10
+	 */
+	public LockSchedulingPolicy getSchedulingPolicy() {
+		return null;
+	}
+
+	/**
+	 * Nobody ever waits for me, so I ignore the scheduling policy.
+	 * 
+	 * @since 1.10
+	 */
+	public void setSchedulingPolicy(LockSchedulingPolicy policy) {
+		// nothing to schedule
+	}
+
 	public boolean yield() {
 		return true;
 	}
@@ -14,6 +14,8 @@
 package org.eclipse.emf.transaction.util;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -53,12 +55,42 @@ import org.eclipse.emf.transaction.internal.l10n.Messages;
  * While the lock is being yielded, it cannot be acquired for exclusive access.
  * </p>
  * <p>
+ * In addition to these modes, a lock may be {@link #acquireShared(long)
+ * acquired for shared access} by any number of reading threads at once.
+ * While any thread shares the lock, it cannot be acquired by another thread
+ * for either exclusive or non-exclusive access, and vice-versa.  A thread
+ * that tries to share the lock while others are waiting to own it waits its
+ * turn, so that a steady stream of readers cannot starve the other threads.
+ * </p>
+ * <p>
+ * One thread at a time may {@link #acquireUpgradable(long) own the lock for
+ * upgradable read access}, while others share it.  It may later acquire the
+ * lock again for exclusive access, which waits for the readers to release
+ * it but never lets another thread own it in the meantime.
+ * </p>
+ * <p>
  * This lock implementation ensures fairness of awakening threads waiting to
- * acquire it by enqueuing them in FIFO fashion.  In addition, if a thread
- * times out of a timed <code>acquire</code> call, it maintains its position in
- * the queue if it re-attempts the acquire before it is dequeued.  This helps
- * threads that need to time out regularly (e.g., to check for progress monitor
- * cancellation) to still benefit from the fairness of the scheduling strategy.
+ * acquire it by enqueuing them in FIFO fashion, unless some other
+ * {@linkplain #setSchedulingPolicy(LockSchedulingPolicy) scheduling policy}
+ * prefers threads of higher priority or of some kind of access, while still
+ * protecting the others from starvation.  In addition, if a thread
+ * times out of a timed <code>acquire</code> call, it regains its position in
+ * the queue if it re-attempts the acquire before it would have been dequeued.
+ * This helps threads that need to time out regularly (e.g., to check for
+ * progress monitor cancellation) to still benefit from the fairness of the
+ * scheduling strategy.
+ * </p>
+ * <p>
+ * A thread that finds the lock free, or that already owns it, acquires it
+ * without contending for its monitor.  Such a thread is registered as a lock
+ * owner in the Eclipse Jobs lock table, which lets its
+ * <code>Display.syncExec()</code> calls reach a UI thread that is blocked
+ * for the lock, only while some thread is blocked in a UI-safe acquisition.
+ * An owner that took the lock before then registers when it next acquires
+ * it, as it does for every nested transaction.  Threads that had to wait
+ * for the lock are always registered.  Threads that are running a job do
+ * not need the registration, because the job manager already treats them
+ * as lock owners.
  * </p>
  * <p>
  * The interaction of threads with <code>Lock</code> instances can be debugged
@@ -73,6 +105,19 @@ public class Lock implements ITransactionLock {
 	
 	private static long nextId = 0;
 	
+	private static final AtomicReferenceFieldUpdater<Lock, Thread> OWNER =
+		AtomicReferenceFieldUpdater.newUpdater(Lock.class, Thread.class, "owner"); //$NON-NLS-1$
+	
+	// stands in for the owner while the lock is shared by readers, so that
+	//    every transition out of the free state is a compare-and-set of the owner
+	private static final Thread SHARED = new Thread("Shared Lock Marker"); //$NON-NLS-1$
+	
+	// the kinds of access for which a UI-safe acquisition may be made
+	private static final int NON_EXCLUSIVE_ACCESS = 0;
+	private static final int EXCLUSIVE_ACCESS = 1;
+	private static final int SHARED_ACCESS = 2;
+	private static final int UPGRADABLE_ACCESS = 3;
+	
 	/**
 	 * The status object returned by an {@link AcquireJob} when it detects that
 	 * the thread for which it is acquiring the lock has somehow obtained it
@@ -84,6 +129,18 @@ public class Lock implements ITransactionLock {
 			1,
 			"UI thread re-entered to get the lock", //$NON-NLS-1$
 			null);
+	
+	/**
+	 * The status object returned by an {@link AcquireJob} when it gives up
+	 * acquiring the lock because the time-out of the UI-safe acquisition
+	 * has elapsed.
+	 */
+	static final IStatus TIMED_OUT_STATUS = new Status(
+			IStatus.WARNING,
+			EMFTransactionPlugin.getPluginId(),
+			2,
+			"Timed out waiting for the lock", //$NON-NLS-1$
+			null);
 
 	private final long id;
 	
@@ -91,6 +148,32 @@ public class Lock implements ITransactionLock {
 
 	private int depth = 0;
 	
+	// the number of yielders, for threads that do not hold my monitor
+	private volatile int yielderCount = 0;
+	
+	// the number of threads that are blocked in a UI-safe acquisition
+	private volatile int uiWaiterCount = 0;
+	
+	// my contention metrics, if anybody asked for them
+	private volatile LockMetrics metrics = null;
+	
+	// when my owner acquired me, if I am recording metrics
+	private long ownerSince = 0L;
+	
+	// whether my owner acquired me for exclusive access
+	private boolean ownerExclusive = false;
+	
+	// whether my owner acquired me for upgradable read access
+	private boolean upgradable = false;
+	
+	// the depth at which my upgradable owner upgraded me to exclusive access,
+	//    or zero if it did not
+	private int upgradeDepth = 0;
+	
+	// my upgradable owner's wait for the readers to release me, if it is
+	//    upgrading.  It is not in the queue, because it already owns me
+	private Queue.Wait upgrade = null;
+	
 	// threads currently waiting for the lock
 	private final Queue waiting = new Queue();
 	
@@ -99,15 +182,23 @@ public class Lock implements ITransactionLock {
 	private final Map<Thread, Lock> yielders =
 		new java.util.IdentityHashMap<Thread, Lock>();
 	
+	// threads currently sharing the lock for reading, with their hold counts
+	//    and the times when they started to share it.
+	// Must use identity map because threads can override equals()
+	private final Map<Thread, long[]> readers =
+		new java.util.IdentityHashMap<Thread, long[]>();
+	
 	// every thread has its own ILock that it acquires while it owns the
 	//    transaction lock, to ensure that the thread is registered as a
 	//    "lock owner" in the lock table.  This ensures that Display.syncExec()
 	//    calls from these threads will use the work queue to communicate
-	//    runnables to a waiting UI thread
-	private final ThreadLocal<ILock> threadLock = new ThreadLocal<ILock>() {
+	//    runnables to a waiting UI thread.  Threads running jobs are always
+	//    considered to be lock owners, so they do not need an ILock.  The
+	//    ILock is created when the thread first registers
+	private final ThreadLocal<ThreadLock> threadLock = new ThreadLocal<ThreadLock>() {
 		@Override
-		protected ILock initialValue() {
-			return Job.getJobManager().newLock();
+		protected ThreadLock initialValue() {
+			return new ThreadLock();
 		}};
 		
 	/**
@@ -127,7 +218,8 @@ public class Lock implements ITransactionLock {
 		//   calling thread is currently the owner, it cannot cease to be while
 		//   invoking this method.  Likewise, if it is not the owner, it cannot
 		//   become the owner while invoking this method
-		return owner;
+		Thread result = owner;
+		return (result == SHARED) ? null : result;
 	}
 	
 	/* (non-Javadoc)
@@ -156,6 +248,26 @@ public class Lock implements ITransactionLock {
 	 * @see org.eclipse.emf.transaction.util.ITransactionLock#acquire(long, boolean)
 	 */
 	public boolean acquire(long timeout, boolean exclusive) throws InterruptedException {
+		return acquire(timeout, exclusive, LockSchedulingPolicy.PRIORITY_NORMAL, metrics);
+	}
+	
+	/**
+	 * Implementation of the timed acquisition of the lock.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param exclusive whether the lock is to be obtained for exclusive
+	 *     access
+	 * @param priority the priority class in which to wait for the lock
+	 * @param metrics the metrics in which to record the wait, or
+	 *     <code>null</code> if the caller records it
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 */
+	private boolean acquire(long timeout, boolean exclusive, int priority, LockMetrics metrics) throws InterruptedException {
 		if (timeout < 0) {
 			IllegalArgumentException exc = new IllegalArgumentException("negative timeout"); //$NON-NLS-1$
 			Tracing.throwing(Lock.class, "acquire", exc); //$NON-NLS-1$
@@ -187,27 +299,56 @@ public class Lock implements ITransactionLock {
 			}
 		}
 		
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		
+		if (tryFastAcquire(current, exclusive)) {
+			if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+				Tracing.trace("::: Taken            [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() //$NON-NLS-1$
+						+ ", depth=" + depth + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			}
+			
+			if ((metrics != null) && (depth == 1)) {
+				metrics.acquired(exclusive, System.nanoTime() - start);
+			}
+			
+			return true;
+		}
+		
 		boolean result = false;
+		boolean upgrading = false;
 		Queue.Wait node = null;
 		
 		synchronized (this) {
-			if (!exclusive || notYielded()) {
+			if (exclusive && (current == owner) && upgradable && (upgradeDepth == 0)) {
+				if (readers.isEmpty()) {
+					// upgrade straight away, because nobody is reading
+					upgradeDepth = depth++;
+					result = true;
+				} else {
+					// wait for the readers to release me, admitting no more of them
+					node = new Queue.Wait(current);
+					node.initialize(true, false, priority);
+					upgrade = node;
+					upgrading = true;
+				}
+			} else if (!exclusive || notYielded()) {
 				// check whether I am easily available
 				if ((current == owner)) {
 					// trivially re-acquire the lock, increasing the depth
 					depth++;
 					result = true;
-				} else if (owner == null) {
+				} else if ((owner == null) && OWNER.compareAndSet(this, null, current)) {
 					// first to try to get the lock
 					depth = 1;
-					owner = current;
+					startHold(exclusive);
 					result = true;
 					
-					// ensure that the current thread has an ILock for Display.syncExec() safety
-					getThreadLock().acquire();
+					registerThreadLockForUIWaiters();
 				} else {
 					// add myself to the queue of waiting threads
-					node = waiting.put(timeout, exclusive);
+					node = waiting.put(exclusive, false, priority);
 				}
 			} else if (owner == current) {
 				// I can already appear to own the lock if I am the
@@ -221,48 +362,578 @@ public class Lock implements ITransactionLock {
 				throw new InterruptedException(Messages.upgradeReadLock);
 			} else {
 				// add myself to the queue of waiting threads
-				node = waiting.put(timeout, exclusive);
+				node = waiting.put(exclusive, false, priority);
+			}
+		}
+		
+		if (upgrading) {
+			result = awaitUpgrade(node, timeout);
+		} else if (node != null) {
+			// must not be holding the lock's monitor when we block on the node
+			waiting.await(node, timeout);
+			
+			synchronized (this) {
+				if (node.wasNotified()) {
+					// the releasing thread already made me the owner
+					depth = 1;
+					startHold(exclusive);
+					result = true;
+					
+					registerThreadLock();
+				}
+			}
+		}
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			if (result) {
+				Tracing.trace("::: Taken            [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() //$NON-NLS-1$
+						+ ", depth=" + depth + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			} else {
+				Tracing.trace("::: Timed Out        [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			}
+		}
+		
+		// if I successfully acquired a lock, then I cannot be yielding
+		if (result) {
+			resume();
+		}
+		
+		if (metrics != null) {
+			if (!result) {
+				metrics.timedOut();
+			} else if (depth == 1) {
+				metrics.acquired(exclusive, System.nanoTime() - start);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Blocks the current thread, which is my upgradable owner, until the
+	 * readers sharing me have released me, the time-out elapses, or it is
+	 * interrupted.  If it does not get to upgrade, then the readers that
+	 * queued up meanwhile are admitted.
+	 * 
+	 * @param node the current thread's upgrade node
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * 
+	 * @return <code>true</code> if the current thread now has exclusive
+	 *     access; <code>false</code> on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 */
+	private boolean awaitUpgrade(Queue.Wait node, long timeout) throws InterruptedException {
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			Tracing.trace("::: Upgrading        [id=" //$NON-NLS-1$
+					+ id + ", thread=" + node.getThread().getName() //$NON-NLS-1$
+					+ ", readers=" + getSharedCount() + ']' //$NON-NLS-1$
+					+ " at " + Tracing.now()); //$NON-NLS-1$
+		}
+		
+		try {
+			// must not be holding the lock's monitor when we block on the node
+			node.waitFor(timeout);
+		} finally {
+			synchronized (this) {
+				upgrade = null;
+				
+				if (node.wasNotified()) {
+					upgradeDepth = depth++;
+				} else {
+					admitReaders();
+				}
 			}
 		}
 		
-		if (node != null) {
-			// must not be holding the lock's monitor when we block on the node
-			node.waitFor(timeout);
-			
-			synchronized (this) {
-				if (node.wasNotified()) {
-					depth = 1;
-					owner = current;
-					result = true;
-				}
-			}
-		}
+		return node.wasNotified();
+	}
+
+	/**
+	 * Attempts to acquire me without contending for my monitor, which succeeds
+	 * if the current thread already owns me or if I am neither owned, shared,
+	 * nor (for exclusive access) yielded.  The current thread is registered in
+	 * the Jobs lock table only if some thread is blocked in a UI-safe
+	 * acquisition.
+	 * 
+	 * @param current the current thread
+	 * @param exclusive whether the lock is to be obtained for exclusive
+	 *     access
+	 * 
+	 * @return whether the current thread now owns me
+	 */
+	private boolean tryFastAcquire(Thread current, boolean exclusive) {
+		if (exclusive && (yielderCount > 0)) {
+			// the slow path deals with yielders and UI re-entry
+			return false;
+		}
+		
+		if (current == owner) {
+			if (exclusive && upgradable && (upgradeDepth == 0)) {
+				// the slow path upgrades upgradable read access
+				return false;
+			}
+			
+			// only the owner changes the depth while it owns me
+			depth++;
+			
+			// a UI thread may have blocked since I took the lock
+			registerThreadLockForUIWaiters();
+			return true;
+		}
+		
+		if ((owner != null) || !OWNER.compareAndSet(this, null, current)) {
+			return false;
+		}
+		
+		depth = 1;
+		
+		if (yielderCount > 0) {
+			synchronized (this) {
+				if (exclusive) {
+					// some thread yielded me after I checked, so I must not
+					//    have it after all.  Pass it on and take the slow path
+					depth = 0;
+					wakeNext();
+					return false;
+				}
+				
+				// if I was yielding, then I no longer am
+				resume();
+			}
+		}
+		
+		startHold(exclusive);
+		
+		registerThreadLockForUIWaiters();
+		
+		return true;
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public boolean acquireShared(long timeout) throws InterruptedException {
+		return acquireShared(timeout, LockSchedulingPolicy.PRIORITY_NORMAL, metrics);
+	}
+	
+	/**
+	 * Implementation of the timed acquisition of the lock for shared access.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param priority the priority class in which to wait for the lock
+	 * @param metrics the metrics in which to record the wait, or
+	 *     <code>null</code> if the caller records it
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 */
+	private boolean acquireShared(long timeout, int priority, LockMetrics metrics) throws InterruptedException {
+		if (timeout < 0) {
+			IllegalArgumentException exc = new IllegalArgumentException("negative timeout"); //$NON-NLS-1$
+			Tracing.throwing(Lock.class, "acquireShared", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		// should always check whether a thread is already interrupted before
+		//     trying to get a lock
+		if (Thread.interrupted()) {
+			InterruptedException exc = new InterruptedException();
+			Tracing.throwing(Lock.class, "acquireShared", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		final Thread current = Thread.currentThread();
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			Tracing.trace("::: Acquire Shared   [id=" //$NON-NLS-1$
+					+ id + ", thread=" + current.getName() //$NON-NLS-1$
+					+ ", timeout=" + timeout + ']' //$NON-NLS-1$
+					+ " at " + Tracing.now()); //$NON-NLS-1$
+		}
+		
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		boolean result = false;
+		boolean first = true;
+		Queue.Wait node = null;
+		
+		synchronized (this) {
+			long[] holds = readers.get(current);
+			
+			if (holds != null) {
+				// trivially re-acquire the lock, increasing my hold count
+				holds[0]++;
+				first = false;
+				result = true;
+			} else if (current == owner) {
+				// the owner cannot share the lock with other threads
+				IllegalStateException exc = new IllegalStateException("Lock is owned by current thread"); //$NON-NLS-1$
+				Tracing.throwing(Lock.class, "acquireShared", exc); //$NON-NLS-1$
+				throw exc;
+			} else if (mayShare(priority)
+					|| ((owner == null) && OWNER.compareAndSet(this, null, SHARED))) {
+				// join the other readers, if any, unless the scheduling
+				//    policy prefers some thread that is waiting to own the
+				//    lock:  it gets its turn, first
+				readers.put(current, newHolds());
+				result = true;
+				
+				registerThreadLockForUIWaiters();
+			} else {
+				// add myself to the queue of waiting threads
+				node = waiting.put(false, true, priority);
+			}
+		}
+		
+		if (node != null) {
+			// must not be holding the lock's monitor when we block on the node
+			waiting.await(node, timeout);
+			
+			synchronized (this) {
+				if (node.wasNotified()) {
+					// the releasing thread already counted me among the readers
+					result = true;
+					
+					registerThreadLock();
+				}
+			}
+		}
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			if (result) {
+				Tracing.trace("::: Shared           [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() //$NON-NLS-1$
+						+ ", readers=" + getSharedCount() + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			} else {
+				Tracing.trace("::: Timed Out        [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			}
+		}
+		
+		// if I successfully acquired a lock, then I cannot be yielding
+		if (result) {
+			resume();
+		}
+		
+		if (metrics != null) {
+			if (!result) {
+				metrics.timedOut();
+			} else if (first) {
+				metrics.acquired(false, System.nanoTime() - start);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Queries whether a new reader may join those that share me without
+	 * waiting.  This is the case if I am shared, or owned by an upgradable
+	 * reader that is not upgrading, unless the scheduling policy prefers some
+	 * thread that is waiting:  it gets its turn, first.  Must be called while
+	 * holding my monitor.
+	 * 
+	 * @param priority the new reader's priority class
+	 * @return whether the reader may share me now
+	 */
+	private boolean mayShare(int priority) {
+		if (owner == SHARED) {
+			return waiting.admitsReader(notYielded(), priority);
+		}
+		
+		return (owner != null) && upgradable && (upgradeDepth == 0)
+			&& (upgrade == null) && waiting.admitsReader(notYielded(), priority);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public boolean acquireUpgradable(long timeout) throws InterruptedException {
+		return acquireUpgradable(timeout, LockSchedulingPolicy.PRIORITY_NORMAL, metrics);
+	}
+	
+	/**
+	 * Implementation of the timed acquisition of the lock for upgradable read
+	 * access.  While they wait, upgradable readers count as exclusive because
+	 * they usually upgrade, eventually.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param priority the priority class in which to wait for the lock
+	 * @param metrics the metrics in which to record the wait, or
+	 *     <code>null</code> if the caller records it
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 */
+	private boolean acquireUpgradable(long timeout, int priority, LockMetrics metrics) throws InterruptedException {
+		if (timeout < 0) {
+			IllegalArgumentException exc = new IllegalArgumentException("negative timeout"); //$NON-NLS-1$
+			Tracing.throwing(Lock.class, "acquireUpgradable", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		// should always check whether a thread is already interrupted before
+		//     trying to get a lock
+		if (Thread.interrupted()) {
+			InterruptedException exc = new InterruptedException();
+			Tracing.throwing(Lock.class, "acquireUpgradable", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		final Thread current = Thread.currentThread();
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			Tracing.trace("::: Acquire Upgrade  [id=" //$NON-NLS-1$
+					+ id + ", thread=" + current.getName() //$NON-NLS-1$
+					+ ", timeout=" + timeout + ']' //$NON-NLS-1$
+					+ " at " + Tracing.now()); //$NON-NLS-1$
+		}
+		
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		boolean result = false;
+		Queue.Wait node = null;
+		
+		synchronized (this) {
+			if (current == owner) {
+				// trivially re-acquire the lock, increasing the depth
+				depth++;
+				result = true;
+			} else if (readers.containsKey(current)) {
+				// a reader cannot also own the lock
+				IllegalStateException exc = new IllegalStateException("Lock is shared by current thread"); //$NON-NLS-1$
+				Tracing.throwing(Lock.class, "acquireUpgradable", exc); //$NON-NLS-1$
+				throw exc;
+			} else if (notYielded() && (((owner == SHARED) && waiting.admitsReader(true, priority))
+					|| ((owner == null) && OWNER.compareAndSet(this, null, current)))) {
+				// join the readers, if any, as their owner
+				owner = current;
+				depth = 1;
+				upgradable = true;
+				startHold(false);
+				result = true;
+				
+				registerThreadLockForUIWaiters();
+			} else {
+				// add myself to the queue of waiting threads
+				node = waiting.put(true, false, priority);
+				node.upgradable = true;
+			}
+		}
+		
+		if (node != null) {
+			// must not be holding the lock's monitor when we block on the node
+			waiting.await(node, timeout);
+			
+			synchronized (this) {
+				if (node.wasNotified()) {
+					// the releasing thread already made me the owner
+					depth = 1;
+					startHold(false);
+					result = true;
+					
+					registerThreadLock();
+				}
+			}
+		}
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			if (result) {
+				Tracing.trace("::: Taken            [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() //$NON-NLS-1$
+						+ ", depth=" + depth + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			} else {
+				Tracing.trace("::: Timed Out        [id=" //$NON-NLS-1$
+						+ id + ", thread=" + current.getName() + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			}
+		}
+		
+		if (metrics != null) {
+			if (!result) {
+				metrics.timedOut();
+			} else if (depth == 1) {
+				metrics.acquired(false, System.nanoTime() - start);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Records that the current thread now owns me, for measurement of the
+	 * time for which it holds me.
+	 * 
+	 * @param exclusive whether the current thread acquired me for exclusive
+	 *     access
+	 */
+	private void startHold(boolean exclusive) {
+		ownerExclusive = exclusive;
+		ownerSince = (metrics == null) ? 0L : System.nanoTime();
+	}
+	
+	/**
+	 * Creates the hold count of a new reader, with the time when it started
+	 * to share me if I am recording metrics.
+	 * 
+	 * @return the new reader's hold count
+	 */
+	private long[] newHolds() {
+		return new long[] {1L, (metrics == null) ? 0L : System.nanoTime()};
+	}
+	
+	/**
+	 * Queries how many threads currently share me for reading.
+	 * 
+	 * @return the number of reading threads, or zero if I am not shared
+	 * 
+	 * @since 1.10
+	 */
+	public synchronized int getSharedCount() {
+		return readers.size();
+	}
+	
+	/**
+	 * Queries whether the specified thread currently shares me for reading.
+	 * 
+	 * @param thread a thread
+	 * @return whether it is one of my readers
+	 */
+	private synchronized boolean isReader(Thread thread) {
+		return readers.containsKey(thread);
+	}
+	
+	/**
+	 * Queries how many times the current thread holds its share of me.
+	 * 
+	 * @return the current thread's hold count, or zero if it does not share me
+	 */
+	private synchronized long getSharedHolds() {
+		long[] holds = readers.get(Thread.currentThread());
+		return (holds == null) ? 0L : holds[0];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.emf.transaction.util.ITransactionLock#uiSafeAcquire(boolean)
+	 */
+	public void uiSafeAcquire(boolean exclusive) throws InterruptedException {
+		uiSafeAcquire(0L, exclusive ? EXCLUSIVE_ACCESS : NON_EXCLUSIVE_ACCESS,
+			LockSchedulingPolicy.PRIORITY_NORMAL);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquire(boolean exclusive, int priority) throws InterruptedException {
+		uiSafeAcquire(0L, exclusive ? EXCLUSIVE_ACCESS : NON_EXCLUSIVE_ACCESS, priority);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquire(long timeout, boolean exclusive, int priority) throws InterruptedException {
+		return uiSafeAcquire(timeout, exclusive ? EXCLUSIVE_ACCESS : NON_EXCLUSIVE_ACCESS, priority);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquireShared() throws InterruptedException {
+		uiSafeAcquire(0L, SHARED_ACCESS, LockSchedulingPolicy.PRIORITY_NORMAL);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public void uiSafeAcquireShared(int priority) throws InterruptedException {
+		uiSafeAcquire(0L, SHARED_ACCESS, priority);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquireShared(long timeout, int priority) throws InterruptedException {
+		return uiSafeAcquire(timeout, SHARED_ACCESS, priority);
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public boolean uiSafeAcquireUpgradable(long timeout, int priority) throws InterruptedException {
+		return uiSafeAcquire(timeout, UPGRADABLE_ACCESS, priority);
+	}
+	
+	/**
+	 * Implementation of the UI-safe acquisition of the lock, for ownership,
+	 * shared access, or upgradable read access.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param access the kind of access for which the lock is to be obtained
+	 * @param priority the priority class in which to wait for the lock
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
+	 */
+	private boolean uiSafeAcquire(long timeout, int access, int priority) throws InterruptedException {
+		if (timeout < 0) {
+			IllegalArgumentException exc = new IllegalArgumentException("negative timeout"); //$NON-NLS-1$
+			Tracing.throwing(Lock.class, "uiSafeAcquire", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		final LockMetrics metrics = this.metrics;
+		final long start = (metrics == null) ? 0L : System.nanoTime();
 		
-		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
-			if (result) {
-				Tracing.trace("::: Taken            [id=" //$NON-NLS-1$
-						+ id + ", thread=" + current.getName() //$NON-NLS-1$
-						+ ", depth=" + depth + ']' //$NON-NLS-1$
-						+ " at " + Tracing.now()); //$NON-NLS-1$
-			} else {
-				Tracing.trace("::: Timed Out        [id=" //$NON-NLS-1$
-						+ id + ", thread=" + current.getName() + ']' //$NON-NLS-1$
-						+ " at " + Tracing.now()); //$NON-NLS-1$
-			}
-		}
+		boolean result = doUISafeAcquire(timeout, access, priority, metrics);
 		
-		// if I successfully acquired a lock, then I cannot be yielding
-		if (result) {
-			resume();
+		if (metrics != null) {
+			if (!result) {
+				metrics.timedOut();
+			} else if ((access == SHARED_ACCESS) ? (getSharedHolds() == 1) : (depth == 1)) {
+				metrics.acquired(access == EXCLUSIVE_ACCESS, System.nanoTime() - start);
+			}
 		}
 		
 		return result;
 	}
-
-	/* (non-Javadoc)
-	 * @see org.eclipse.emf.transaction.util.ITransactionLock#uiSafeAcquire(boolean)
+	
+	/**
+	 * Performs the UI-safe acquisition of the lock, without recording the
+	 * wait in my metrics.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param access the kind of access for which the lock is to be obtained
+	 * @param priority the priority class in which to wait for the lock
+	 * @param metrics my metrics, in which to count the scheduling of jobs, or
+	 *     <code>null</code> if I am not recording any
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 *     or if the user cancels the lock-acquisition job that is blocking
+	 *     the UI thread
 	 */
-	public void uiSafeAcquire(boolean exclusive) throws InterruptedException {
+	private boolean doUISafeAcquire(long timeout, int access, int priority, LockMetrics metrics) throws InterruptedException {
         // Only try the special acquiring procedure for Display thread and when
         // no begin rule is done on the display thread.
         boolean acquired = false;
@@ -291,19 +962,42 @@ public class Lock implements ITransactionLock {
                 + " at " + Tracing.now()); //$NON-NLS-1$
         }
 
+        final long deadline = (timeout > 0L)
+            ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)
+            : 0L;
+
+        if ((access == EXCLUSIVE_ACCESS) && (current == owner) && upgradable
+                && (upgradeDepth == 0)) {
+            // no job can upgrade the lock on my behalf, because I must keep
+            // it meanwhile.  So, just wait for the readers to release it,
+            // still not allowing the UI thread to be interrupted
+            return uninterruptibleUpgrade(deadline, priority);
+        }
+
         // try acquiring it just in case we can avoid scheduling a job.
         // Don't allow the UI thread to be interrupted during this interval
-        acquired = uninterruptibleAcquire(250L, exclusive);
+        acquired = uninterruptibleAcquire(timeSlice(deadline), access, priority);
 
         if (acquired) {
-            assert getOwner() == current;
-            return;
+            assert holds(current, access);
+            return true;
         }
 
-        // loop until the lock is acquired
-    	AcquireJob job = new AcquireJob(current, exclusive);
+        // loop until the lock is acquired or the time-out elapses
+    	AcquireJob job = new AcquireJob(current, access, priority, deadline);
         job.setRule(jobRule);
         while (!acquired) {
+            if (isExpired(deadline)) {
+                // no job is running now, so I do not have the lock
+                if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+                    Tracing.trace("::: Timed Out        [id=" //$NON-NLS-1$
+                        + id + ", thread=" + current.getName() + ']' //$NON-NLS-1$
+                        + " at " + Tracing.now()); //$NON-NLS-1$
+                }
+                
+                return false;
+            }
+            
             Object sync = job.getSync();
             ILock jobLock = job.getILock();
             job.aborted = false;
@@ -317,6 +1011,10 @@ public class Lock implements ITransactionLock {
 
                 job.schedule();
                 
+                if (metrics != null) {
+                	metrics.uiSafeJobScheduled();
+                }
+                
                 if (Job.getJobManager().isSuspended()) {
 					// the Job Manager is suspended. We cannot use a job to
 					// acquire.
@@ -329,8 +1027,7 @@ public class Lock implements ITransactionLock {
                 	
 					// If the Job Manager is suspended, then under normal
 					// Eclipse circumstances, this is not the UI thread, anyway
-                	acquire(exclusive);
-                	return;
+                	return acquire(remaining(deadline), access, priority);
                 }
 
                 // wait for the job to tell us it's running. Don't allow
@@ -340,7 +1037,12 @@ public class Lock implements ITransactionLock {
 
             // wait for the job's ILock. This ensures that if we are the
             // display thread, then the job manager shows a Blocked
-            // dialog until the job finishes
+            // dialog until the job finishes.  Meanwhile, threads that take
+            // the lock must register in the lock table
+            if (jobRule != null) {
+                uiWaiterStarted();
+            }
+            
             try {
                 if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
                     Tracing.trace("::: Blocking         [id=" //$NON-NLS-1$
@@ -384,16 +1086,16 @@ public class Lock implements ITransactionLock {
 
                             // try again quickly
                             try {
-                            	acquired = acquire(250L, exclusive);
+                            	acquired = acquire(250L, access, priority);
                             } catch (InterruptedException e) {
                             	Thread.interrupted();
                             	// ignore the exception
                             }
                         } else {
-                            acquired = getOwner() == current;
+                            acquired = holds(current, access);
 
                             // need to acquire this because we will release it, later
-                            getThreadLock().acquire();
+                            registerThreadLock();
 
                             if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
                                 if (acquired) {
@@ -407,6 +1109,9 @@ public class Lock implements ITransactionLock {
                     }
 
                     resume();
+                } else if (jobStatus == TIMED_OUT_STATUS) {
+                    // the job gave up at the deadline, so I will, too, when
+                    //    I loop around again
                 } else if (jobStatus.getSeverity() == IStatus.CANCEL) {
                     // user canceled.  Interrupt
                     Thread.interrupted();
@@ -439,7 +1144,7 @@ public class Lock implements ITransactionLock {
                     if (!acquired && !job.abort()) {
                         // failed to wait for the job to get the lock but the
                         // job has already transferred the lock, so release
-                        release();
+                    	release(access);
                     }
                 }
                 
@@ -447,21 +1152,141 @@ public class Lock implements ITransactionLock {
                     jobLock.release();
                 } else {
                     jobmgr.endRule(jobRule);
+                    uiWaiterFinished();
                 }
             }
         }
 
-        assert getOwner() == current;
+        assert holds(current, access);
+        return true;
     }
 
+	/**
+	 * Waits until the current thread, which is my upgradable owner, can
+	 * upgrade its access to exclusive, ignoring any attempt to interrupt.
+	 * 
+	 * @param deadline a deadline, in terms of the {@link System#nanoTime()}
+	 *     clock, or <code>0L</code> if there is none
+	 * @param priority the priority class in which to wait for the lock
+	 * 
+	 * @return <code>true</code> if the lock was upgraded; <code>false</code>
+	 *     if the deadline passed
+	 */
+	private boolean uninterruptibleUpgrade(long deadline, int priority) {
+		for (;;) {
+			try {
+				return acquire(remaining(deadline), true, priority, null);
+			} catch (InterruptedException e) {
+				// ignore it and clear the interrupt status
+				Thread.interrupted();
+				
+				if (isExpired(deadline)) {
+					return false;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Attempts to acquire me for the specified kind of access, without
+	 * recording the wait in my metrics.
+	 * 
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *     indefinitely
+	 * @param access the kind of access for which the lock is to be obtained
+	 * @param priority the priority class in which to wait for the lock
+	 * 
+	 * @return <code>true</code> if the lock was acquired; <code>false</code>
+	 *     on time-out
+	 *     
+	 * @throws InterruptedException in case of interrupt while waiting
+	 */
+	private boolean acquire(long timeout, int access, int priority) throws InterruptedException {
+		switch (access) {
+		case SHARED_ACCESS:
+			return acquireShared(timeout, priority, null);
+		case UPGRADABLE_ACCESS:
+			return acquireUpgradable(timeout, priority, null);
+		default:
+			return acquire(timeout, access == EXCLUSIVE_ACCESS, priority, null);
+		}
+	}
+	
+	/**
+	 * Queries whether the specified thread holds me for the specified kind
+	 * of access.
+	 * 
+	 * @param thread a thread
+	 * @param access a kind of access
+	 * 
+	 * @return whether the thread shares me, for shared access, or else owns me
+	 */
+	private boolean holds(Thread thread, int access) {
+		return (access == SHARED_ACCESS) ? isReader(thread) : (getOwner() == thread);
+	}
+	
+	/**
+	 * Releases the current thread's hold on me for the specified kind of
+	 * access.
+	 * 
+	 * @param access a kind of access
+	 */
+	private void release(int access) {
+		if (access == SHARED_ACCESS) {
+			releaseShared();
+		} else {
+			release();
+		}
+	}
+
+	/**
+	 * Computes the time remaining until a deadline.
+	 * 
+	 * @param deadline a deadline, in terms of the {@link System#nanoTime()}
+	 *     clock, or <code>0L</code> if there is none
+	 *     
+	 * @return the millis remaining, at least one, or <code>0L</code> if there
+	 *     is no deadline
+	 */
+	private static long remaining(long deadline) {
+		return (deadline == 0L) ? 0L : Math.max(1L,
+			TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+	}
+	
+	/**
+	 * Computes the time for which to wait for the lock before checking again
+	 * for cancellation, re-entry of the UI thread, or the deadline.
+	 * 
+	 * @param deadline a deadline, in terms of the {@link System#nanoTime()}
+	 *     clock, or <code>0L</code> if there is none
+	 *     
+	 * @return the positive time slice, in millis
+	 */
+	private static long timeSlice(long deadline) {
+		long result = remaining(deadline);
+		return ((result == 0L) || (result > 250L)) ? 250L : result;
+	}
+	
+	/**
+	 * Queries whether a deadline has passed.
+	 * 
+	 * @param deadline a deadline, in terms of the {@link System#nanoTime()}
+	 *     clock, or <code>0L</code> if there is none
+	 *     
+	 * @return whether the deadline has passed
+	 */
+	private static boolean isExpired(long deadline) {
+		return (deadline != 0L) && ((deadline - System.nanoTime()) <= 0L);
+	}
+
 	/**
 	 * Performs a timed wait, during which I ignore any attempt to interrupt.
 	 * Because this method ignores interrupts, it must time out, so the
 	 * <tt>timeout</tt> must be positive.
 	 * 
 	 * @param timeout the positive timeout, in millis
-	 * @param exclusive whether the lock is to be obtained for exclusive
-	 *     access
+	 * @param access the kind of access for which the lock is to be obtained
+	 * @param priority the priority class in which to wait for the lock
 	 *     
 	 * @return <code>true</code> if the lock was successfully acquired;
 	 *     <code>false</code> if it timed out
@@ -469,7 +1294,7 @@ public class Lock implements ITransactionLock {
 	 * @throws IllegalArgumentException if the <tt>timeout</tt> is not more
 	 *     than zero
 	 */
-	private boolean uninterruptibleAcquire(long timeout, boolean exclusive) {
+	private boolean uninterruptibleAcquire(long timeout, int access, int priority) {
 		if (timeout <= 0L) {
 			IllegalArgumentException exc = new IllegalArgumentException("nonpositive timeout"); //$NON-NLS-1$
 			Tracing.throwing(Lock.class, "uninterruptibleAcquire", exc); //$NON-NLS-1$
@@ -481,7 +1306,7 @@ public class Lock implements ITransactionLock {
 		
 		while (timeout > 0L) {
 			try {
-				result = acquire(timeout, exclusive);
+				result = acquire(timeout, access, priority);
 				break;
 			} catch (InterruptedException e) {
 				// ignore it and clear the interrupt status
@@ -520,7 +1345,7 @@ public class Lock implements ITransactionLock {
 	/* (non-Javadoc)
 	 * @see org.eclipse.emf.transaction.util.ITransactionLock#release()
 	 */
-	public synchronized void release() {
+	public void release() {
 		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
 			Tracing.trace("::: Release          [id=" //$NON-NLS-1$
 					+ id + ", thread=" + Thread.currentThread().getName() //$NON-NLS-1$
@@ -535,30 +1360,143 @@ public class Lock implements ITransactionLock {
 			throw exc;
 		}
 		
-		depth--;
-
-		if (depth == 0) {
+		if ((depth > 1) && !upgradable) {
+			// only the owner changes the depth while it owns me
+			depth--;
+			return;
+		}
+		
+		synchronized (this) {
+			if (--depth > 0) {
+				if (depth == upgradeDepth) {
+					// downgrade to upgradable read access, admitting the
+					//    readers that queued up meanwhile
+					upgradeDepth = 0;
+					admitReaders();
+				}
+				return;
+			}
+			
+			LockMetrics metrics = this.metrics;
+			if ((metrics != null) && (ownerSince != 0L)) {
+				metrics.released(ownerExclusive, System.nanoTime() - ownerSince);
+			}
+			ownerSince = 0L;
+			
 			// no longer need this thread's dummy ILock
-			getThreadLock().release();
+			unregisterThreadLock();
+			
+			if (upgradable) {
+				upgradable = false;
+				upgradeDepth = 0;
+				
+				if (!readers.isEmpty()) {
+					// the last of the readers will wake up the next thread
+					owner = SHARED;
+					return;
+				}
+			}
 			
 			// wake up next thread that wants this lock
+			wakeNext();
+		}
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public synchronized void releaseShared() {
+		final Thread current = Thread.currentThread();
+		long[] holds = readers.get(current);
+		
+		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+			Tracing.trace("::: Release Shared   [id=" //$NON-NLS-1$
+					+ id + ", thread=" + current.getName() //$NON-NLS-1$
+					+ ", depth=" + ((holds == null) ? 0 : holds[0] - 1) + ']' //$NON-NLS-1$
+					+ " at " + Tracing.now()); //$NON-NLS-1$
+		}
+		
+		if (holds == null) {
+			IllegalArgumentException exc = new IllegalArgumentException("Lock not shared by current thread"); //$NON-NLS-1$
+			Tracing.throwing(Lock.class, "releaseShared", exc); //$NON-NLS-1$
+			throw exc;
+		}
+		
+		if (--holds[0] == 0) {
+			readers.remove(current);
 			
-			boolean allowExclusive = notYielded();
-			for (;;) {
-				Queue.Wait node = waiting.take(allowExclusive);
-				
-				if (node == null) {
-					owner = null;
-					// nobody left to wake up
-					break;
-				} else if (node.wakeUp()) {
-					// this will be the new owner
-					owner = node.getThread();
+			LockMetrics metrics = this.metrics;
+			if ((metrics != null) && (holds[1] != 0L)) {
+				metrics.released(false, System.nanoTime() - holds[1]);
+			}
+			
+			// no longer need this thread's dummy ILock
+			unregisterThreadLock();
+			
+			if (readers.isEmpty()) {
+				if (owner == SHARED) {
+					// the last reader wakes up next thread that wants this lock
+					wakeNext();
+				} else if (upgrade != null) {
+					// the upgradable owner may write, now
+					upgrade.wakeUp();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Wakes up the next thread waiting for me, now that I am neither owned nor
+	 * shared.  If that thread wants to share me, or to own me for upgradable
+	 * read access, then the readers queued immediately behind it share me, too.  The previous owner (or the
+	 * {@link #SHARED} marker) remains my owner until I am handed over, so
+	 * that no other thread can barge in meanwhile.
+	 */
+	private void wakeNext() {
+		boolean allowExclusive = notYielded();
+		for (;;) {
+			Queue.Wait node = waiting.take(allowExclusive);
+			
+			if (node == null) {
+				owner = null;
+				// nobody left to wake up
+				break;
+			} else if (node.isShared()) {
+				if (node.wakeUp()) {
+					// this is the first of the new readers
+					owner = SHARED;
+					readers.put(node.getThread(), newHolds());
+					
+					// admit the rest of the batch of readers with it
+					admitReaders();
 					break;
-				} else {
-					// just loop around again to look for another candidate
-					//    because this one had timed out
 				}
+			} else if (node.wakeUp()) {
+				// this will be the new owner
+				owner = node.getThread();
+				
+				if (node.upgradable) {
+					upgradable = true;
+					admitReaders();
+				}
+				break;
+			} else {
+				// just loop around again to look for another candidate
+				//    because this one had timed out
+			}
+		}
+	}
+	
+	/**
+	 * Admits the readers that are next in line, as long as the scheduling
+	 * policy chooses readers.
+	 */
+	private void admitReaders() {
+		boolean allowExclusive = notYielded();
+		
+		for (Queue.Wait node = waiting.takeShared(allowExclusive); node != null; node = waiting.takeShared(allowExclusive)) {
+			if (node.wakeUp()) {
+				readers.put(node.getThread(), newHolds());
 			}
 		}
 	}
@@ -577,11 +1515,20 @@ public class Lock implements ITransactionLock {
 	 * @see org.eclipse.emf.transaction.util.ITransactionLock#yield()
 	 */
 	public synchronized boolean yield() {
-		boolean result = waiting.size() > waiting.exclusiveCount();
+		// an upgradable owner cannot yield:  it already shares me with all
+		//    of the readers that it can
+		boolean result = !upgradable
+			&& (waiting.size() > waiting.exclusiveCount());
 		
 		if (result) {
 			// do not yield if no other non-exclusive threads are waiting for access
 			yielders.put(Thread.currentThread(), this);
+			yielderCount = yielders.size();
+			
+			LockMetrics metrics = this.metrics;
+			if (metrics != null) {
+				metrics.yielded();
+			}
 		}
 		
 		if (result && Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
@@ -596,10 +1543,12 @@ public class Lock implements ITransactionLock {
 	/**
 	 * Resumes the current thread from a yield, after it has acquired me.
 	 */
-	private void resume() {
+	private synchronized void resume() {
 		boolean removed = yielders.remove(Thread.currentThread()) == this;
 		
 		if (removed) {
+			yielderCount = yielders.size();
+			
 			if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
 				Tracing.trace("::: Resuming         [id=" + id //$NON-NLS-1$
 						+ ", thread=" + Thread.currentThread().getName() + ']' //$NON-NLS-1$
@@ -625,7 +1574,7 @@ public class Lock implements ITransactionLock {
 			throw new IllegalArgumentException("thread is null"); //$NON-NLS-1$
 		}
 		
-		if (owner != null) {
+		if ((owner != null) && (owner != SHARED)) {
 			final Thread current = Thread.currentThread();
 			
 		if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
@@ -637,10 +1586,10 @@ public class Lock implements ITransactionLock {
 		
 			if (current == thread) {
 				// ensure that the new owner has an ILock for Display.syncExec() safety
-				getThreadLock().acquire();
+				registerThreadLock();
 			} else if (current == owner) {
 				// current thread no longer needs the dummy lock
-				getThreadLock().release();
+				unregisterThreadLock();
 			} // else non-owner is transferring.  Shouldn't happen
 			
 		owner = thread;
@@ -648,23 +1597,147 @@ public class Lock implements ITransactionLock {
 	}
 	
 	/**
-	 * Obtains the thread-private <tt>ILock</tt> for the current thread.
+	 * Transfers the current thread's share of me to the specified
+	 * <code>thread</code>, if the current thread is one of my readers.
+	 * Otherwise, does nothing.
+	 * <p>
+	 * <b>Note</b> that this should only be called by the {@link AcquireJob}
+	 * after it has acquired me, to transfer me to the thread that scheduled it.
+	 * </p>
 	 * 
-	 * @return the current thread's thread lock
+	 * @param thread the new reader (must not be null)
+	 */
+	synchronized void transferShared(Thread thread) {
+		if (thread == null) {
+			throw new IllegalArgumentException("thread is null"); //$NON-NLS-1$
+		}
+		
+		final Thread current = Thread.currentThread();
+		long[] holds = readers.remove(current);
+		
+		if (holds != null) {
+			if (Tracing.shouldTrace(EMFTransactionDebugOptions.LOCKING)) {
+				Tracing.trace("::: Transfer Shared  [id=" //$NON-NLS-1$
+						+ id + ", src=" + current.getName() //$NON-NLS-1$
+						+ ", dst=" + thread.getName() + ']' //$NON-NLS-1$
+						+ " at " + Tracing.now()); //$NON-NLS-1$
+			}
+			
+			// current thread no longer needs the dummy lock
+			unregisterThreadLock();
+			
+			long[] existing = readers.get(thread);
+			if (existing != null) {
+				existing[0] += holds[0];
+			} else {
+				readers.put(thread, holds);
+			}
+		}
+	}
+	
+	/**
+	 * Registers the current thread as a lock owner in the Jobs lock table, if
+	 * it needs to be and is not already, by acquiring its thread-private
+	 * <tt>ILock</tt>.  A thread that is running a job does not need to be.
+	 */
+	private void registerThreadLock() {
+		ThreadLock lock = threadLock.get();
+		
+		if (!lock.held && (jobmgr.currentJob() == null)) {
+			if (lock.ilock == null) {
+				lock.ilock = jobmgr.newLock();
+			}
+			
+			lock.ilock.acquire();
+			lock.held = true;
+		}
+	}
+	
+	/**
+	 * Registers the current thread, which has taken me without waiting, as a
+	 * lock owner in the Jobs lock table if some thread is blocked in a
+	 * UI-safe acquisition.  Otherwise, nobody needs the registration, yet.
+	 */
+	private void registerThreadLockForUIWaiters() {
+		if (uiWaiterCount > 0) {
+			registerThreadLock();
+		}
+	}
+	
+	/**
+	 * Notes that the current thread is about to block in a UI-safe
+	 * acquisition.  Until it is done, threads that take the lock register in
+	 * the Jobs lock table.
+	 */
+	private synchronized void uiWaiterStarted() {
+		uiWaiterCount++;
+	}
+	
+	/**
+	 * Notes that the current thread is no longer blocked in a UI-safe
+	 * acquisition.
+	 */
+	private synchronized void uiWaiterFinished() {
+		uiWaiterCount--;
+	}
+	
+	/**
+	 * Unregisters the current thread as a lock owner in the Jobs lock table,
+	 * if it was {@linkplain #registerThreadLock() registered}.
 	 */
-	private ILock getThreadLock() {
-		return threadLock.get();
+	private void unregisterThreadLock() {
+		ThreadLock lock = threadLock.get();
+		
+		if (lock.held) {
+			lock.held = false;
+			lock.ilock.release();
+		}
 	}
 	
 	@Override
 	public String toString() {
-		Thread lastKnownOwner = owner;
+		Thread lastKnownOwner = getOwner();
 		
 		return "Lock[id=" + id + ", depth=" + depth //$NON-NLS-1$ //$NON-NLS-2$
 			+ ", owner=" + ((lastKnownOwner == null) ? null : lastKnownOwner.getName()) //$NON-NLS-1$
+			+ ", readers=" + readers.size() //$NON-NLS-1$
 			+ ", waiting=" + waiting + ']'; //$NON-NLS-1$
 	}
 	
+	/**
+	 * @since 1.10
+	 */
+	public LockMetrics getMetrics() {
+		LockMetrics result = metrics;
+		
+		if (result == null) {
+			synchronized (this) {
+				result = metrics;
+				
+				if (result == null) {
+					result = new LockMetrics(waiting);
+					metrics = result;
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public LockSchedulingPolicy getSchedulingPolicy() {
+		return waiting.getPolicy();
+	}
+	
+	/**
+	 * @since 1.10
+	 */
+	public void setSchedulingPolicy(LockSchedulingPolicy policy) {
+		waiting.setPolicy(policy);
+	}
+	
 	/**
 	 * @since 1.4
 	 */
@@ -683,7 +1756,9 @@ public class Lock implements ITransactionLock {
 	class AcquireJob extends Job {
         private final Object sync = new Object();
         private final Thread thread;
-        private final boolean exclusive;
+        private final int access;
+        private final int priority;
+        private final long deadline;
 
         private final ILock ilock = jobmgr.newLock();
         private IStatus acquireStatus;
@@ -691,11 +1766,13 @@ public class Lock implements ITransactionLock {
         private boolean aborted;
         private boolean transferred;
 
-        AcquireJob(Thread schedulingThread, boolean exclusive) {
+        AcquireJob(Thread schedulingThread, int access, int priority, long deadline) {
             super(Messages.acquireJobLabel);
 
             this.thread = schedulingThread;
-            this.exclusive = exclusive;
+            this.access = access;
+            this.priority = priority;
+            this.deadline = deadline;
 
             setSystem(true);
         }
@@ -716,7 +1793,7 @@ public class Lock implements ITransactionLock {
                 // attempt to acquire the lock. Time out so that we may check
                 // regularly for user cancellation
                 try {
-                    while (!acquire(250L, exclusive)) {
+                    while (!acquire(timeSlice(deadline), access, priority)) {
                         synchronized (Lock.this) {
                             // the UI thread can re-enter the uiSafeAcquire() method
                             // and schedule additional AcquireJobs because it
@@ -726,7 +1803,7 @@ public class Lock implements ITransactionLock {
                             // lock already has it, so we stop waiting. Not only
                             // that, but because the UI thread will think that
                             // we have acquired the lock, we must increase the depth
-                            if (Lock.this.getOwner() == thread) {
+                            if (holds(thread, access)) {
                                 acquireStatus = UI_REENTERED_STATUS;
                                 return acquireStatus;
                             }
@@ -738,6 +1815,11 @@ public class Lock implements ITransactionLock {
                                 return acquireStatus;
                             }
                         }
+                        
+                        if (isExpired(deadline)) {
+                            acquireStatus = TIMED_OUT_STATUS;
+                            return acquireStatus;
+                        }
                     }
                 } catch (InterruptedException e) {
                     // I was interrupted: give up
@@ -750,8 +1832,12 @@ public class Lock implements ITransactionLock {
                 synchronized (sync) {
                     if (aborted) {
                         // abort the lock acquisition (thread failed to block)
-                        Lock.this.release();
+                    	release(access);
                         acquireStatus = Status.CANCEL_STATUS;
+                    } else if (access == SHARED_ACCESS) {
+                        Lock.this.transferShared(thread);
+                        transferred = true;
+                        acquireStatus = Status.OK_STATUS;
                     } else {
                         Lock.this.transfer(thread);
                         transferred = true;
@@ -845,6 +1931,17 @@ public class Lock implements ITransactionLock {
 		}
 	}
 	
+	/**
+	 * A thread's private <tt>ILock</tt>, with a record of whether the thread
+	 * currently holds it.  Only the thread itself accesses it.
+	 */
+	private static final class ThreadLock {
+		// created when the thread first needs to register
+		ILock ilock;
+		
+		boolean held;
+	}
+	
 	/**
 	 * A class that grants special {@link Lock} manipulation privileges to its
 	 * subclasses, that it knows as particular friends.
@@ -0,0 +1,485 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.emf.transaction.internal.Tracing;
+
+/**
+ * Statistics of the contention for a transaction lock:  how long threads
+ * wait to acquire it and how long they hold it, for exclusive (write) and
+ * non-exclusive or shared (read) access, as well as the number of threads
+ * currently waiting for it, and counts of yields, UI-safe acquisition jobs,
+ * and time-outs.
+ * <p>
+ * A lock only starts to collect its metrics when they are first requested
+ * from it, so that there is no cost to locks that nobody measures.  The
+ * metrics of an editing domain's transaction lock are obtained by
+ * {@linkplain Adaptable#getAdapter(Class) adapting} the editing domain to
+ * this class.  Recording of metrics does not allocate any objects, so it may
+ * be left enabled in production.  Clients may also publish the metrics as a
+ * JMX MBean by {@linkplain #registerMBean(String) registering} them.
+ * </p>
+ *
+ * @since 1.10
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public final class LockMetrics implements LockMetricsMBean {
+	/** The JMX domain of the MBeans that publish lock metrics. */
+	public static final String JMX_DOMAIN = "org.eclipse.emf.transaction"; //$NON-NLS-1$
+
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	// the queue of threads waiting for the lock that I measure
+	private final Queue waiting;
+
+	private final Histogram exclusiveWaitTimes = new Histogram();
+	private final Histogram readWaitTimes = new Histogram();
+	private final Histogram exclusiveHoldTimes = new Histogram();
+	private final Histogram readHoldTimes = new Histogram();
+
+	private final AtomicLong yields = new AtomicLong();
+	private final AtomicLong uiSafeJobs = new AtomicLong();
+	private final AtomicLong timeouts = new AtomicLong();
+
+	// the thread that held the lock exclusively for the longest time.  Its
+	//    name is only looked up on request because that allocates a string
+	private volatile Thread longestExclusiveHolder;
+
+	private ObjectName objectName;
+
+	/**
+	 * Initializes me with the queue of the lock that I measure.
+	 *
+	 * @param waiting the lock's queue of waiting threads
+	 */
+	LockMetrics(Queue waiting) {
+		this.waiting = waiting;
+	}
+
+	/**
+	 * Obtains the distribution of the times that threads waited to acquire
+	 * the lock, including acquisitions that did not have to wait at all.
+	 *
+	 * @param exclusive <code>true</code> for exclusive acquisitions;
+	 *    <code>false</code> for non-exclusive and shared acquisitions
+	 *
+	 * @return the wait-time histogram
+	 */
+	public Histogram getWaitTimes(boolean exclusive) {
+		return exclusive ? exclusiveWaitTimes : readWaitTimes;
+	}
+
+	/**
+	 * Obtains the distribution of the times for which threads held the lock,
+	 * from acquisition until final release.
+	 *
+	 * @param exclusive <code>true</code> for exclusive holds;
+	 *    <code>false</code> for non-exclusive and shared holds
+	 *
+	 * @return the hold-time histogram
+	 */
+	public Histogram getHoldTimes(boolean exclusive) {
+		return exclusive ? exclusiveHoldTimes : readHoldTimes;
+	}
+
+	// Documentation copied from the inherited specification
+	public int getQueueLength() {
+		return waiting.size();
+	}
+
+	// Documentation copied from the inherited specification
+	public int getExclusiveQueueLength() {
+		return waiting.exclusiveCount();
+	}
+
+	// Documentation copied from the inherited specification
+	public long getYieldCount() {
+		return yields.get();
+	}
+
+	// Documentation copied from the inherited specification
+	public long getUISafeJobCount() {
+		return uiSafeJobs.get();
+	}
+
+	// Documentation copied from the inherited specification
+	public long getTimeoutCount() {
+		return timeouts.get();
+	}
+
+	// Documentation copied from the inherited specification
+	public long getExclusiveAcquireCount() {
+		return exclusiveWaitTimes.getCount();
+	}
+
+	// Documentation copied from the inherited specification
+	public double getExclusiveWaitMeanMillis() {
+		return toMillis(exclusiveWaitTimes.getMeanNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getExclusiveWaitMaxMillis() {
+		return toMillis(exclusiveWaitTimes.getMaxNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getExclusiveHoldMeanMillis() {
+		return toMillis(exclusiveHoldTimes.getMeanNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getExclusiveHoldMaxMillis() {
+		return toMillis(exclusiveHoldTimes.getMaxNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getExclusiveHold99thPercentileMillis() {
+		return toMillis(exclusiveHoldTimes.getPercentileNanos(0.99));
+	}
+
+	// Documentation copied from the inherited specification
+	public String getLongestExclusiveHolder() {
+		Thread holder = longestExclusiveHolder;
+		return (holder == null) ? null : holder.getName();
+	}
+
+	// Documentation copied from the inherited specification
+	public long getReadAcquireCount() {
+		return readWaitTimes.getCount();
+	}
+
+	// Documentation copied from the inherited specification
+	public double getReadWaitMeanMillis() {
+		return toMillis(readWaitTimes.getMeanNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getReadWaitMaxMillis() {
+		return toMillis(readWaitTimes.getMaxNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getReadHoldMeanMillis() {
+		return toMillis(readHoldTimes.getMeanNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public double getReadHoldMaxMillis() {
+		return toMillis(readHoldTimes.getMaxNanos());
+	}
+
+	// Documentation copied from the inherited specification
+	public void reset() {
+		exclusiveWaitTimes.reset();
+		readWaitTimes.reset();
+		exclusiveHoldTimes.reset();
+		readHoldTimes.reset();
+		yields.set(0L);
+		uiSafeJobs.set(0L);
+		timeouts.set(0L);
+		longestExclusiveHolder = null;
+	}
+
+	/**
+	 * Publishes me as an MBean in the platform MBean server, under the
+	 * {@link #JMX_DOMAIN} with the specified name.  If I am already published,
+	 * then I am first unpublished.
+	 *
+	 * @param name a name distinguishing me from other lock metrics, usually
+	 *    the ID of the editing domain
+	 *
+	 * @return my object name in the MBean server
+	 *
+	 * @throws JMException if I could not be registered in the MBean server
+	 */
+	public synchronized ObjectName registerMBean(String name) throws JMException {
+		unregisterMBean();
+
+		ObjectName result = new ObjectName(JMX_DOMAIN
+			+ ":type=TransactionLock,name=" + ObjectName.quote(String.valueOf(name))); //$NON-NLS-1$
+
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, result);
+		objectName = result;
+
+		return result;
+	}
+
+	/**
+	 * Removes me from the platform MBean server, if I was
+	 * {@linkplain #registerMBean(String) registered} in it.
+	 */
+	public synchronized void unregisterMBean() {
+		if (objectName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			try {
+				if (server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+			} catch (JMException e) {
+				Tracing.catching(LockMetrics.class, "unregisterMBean", e); //$NON-NLS-1$
+			} finally {
+				objectName = null;
+			}
+		}
+	}
+
+	/**
+	 * Records an acquisition of the lock.
+	 *
+	 * @param exclusive whether the lock was acquired for exclusive access
+	 * @param waitNanos how long the acquiring thread waited for it
+	 */
+	void acquired(boolean exclusive, long waitNanos) {
+		getWaitTimes(exclusive).record(waitNanos);
+	}
+
+	/**
+	 * Records the final release of the lock.
+	 *
+	 * @param exclusive whether the lock was held for exclusive access
+	 * @param holdNanos how long the releasing thread held it
+	 */
+	void released(boolean exclusive, long holdNanos) {
+		if (getHoldTimes(exclusive).record(holdNanos) && exclusive) {
+			longestExclusiveHolder = Thread.currentThread();
+		}
+	}
+
+	/**
+	 * Records a yield of the lock.
+	 */
+	void yielded() {
+		yields.incrementAndGet();
+	}
+
+	/**
+	 * Records the scheduling of a job to acquire the lock for the UI thread.
+	 */
+	void uiSafeJobScheduled() {
+		uiSafeJobs.incrementAndGet();
+	}
+
+	/**
+	 * Records a timed attempt to acquire the lock that timed out.
+	 */
+	void timedOut() {
+		timeouts.incrementAndGet();
+	}
+
+	private static double toMillis(long nanos) {
+		return (double) nanos / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public String toString() {
+		return "LockMetrics[exclusiveWait=" + exclusiveWaitTimes //$NON-NLS-1$
+			+ ", readWait=" + readWaitTimes //$NON-NLS-1$
+			+ ", exclusiveHold=" + exclusiveHoldTimes //$NON-NLS-1$
+			+ ", readHold=" + readHoldTimes //$NON-NLS-1$
+			+ ", queue=" + getQueueLength() //$NON-NLS-1$
+			+ ", yields=" + getYieldCount() //$NON-NLS-1$
+			+ ", uiSafeJobs=" + getUISafeJobCount() //$NON-NLS-1$
+			+ ", timeouts=" + getTimeoutCount() + ']'; //$NON-NLS-1$
+	}
+
+	/**
+	 * A histogram of durations, in buckets of exponentially increasing
+	 * width.  The first bucket counts durations of less than a microsecond,
+	 * and each subsequent bucket <i>i</i> counts durations of less than
+	 * 2<sup><i>i</i></sup> microseconds that do not fit in the previous
+	 * bucket.  The last bucket counts all durations that are longer.
+	 *
+	 * @since 1.10
+	 *
+	 * @noinstantiate This class is not intended to be instantiated by clients.
+	 */
+	public static final class Histogram {
+		/** The number of buckets in a histogram. */
+		public static final int BUCKET_COUNT = 32;
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong total = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		/**
+		 * Initializes me.
+		 */
+		Histogram() {
+			super();
+		}
+
+		/**
+		 * Records a duration.
+		 *
+		 * @param nanos the duration, in nanoseconds
+		 *
+		 * @return whether it is the longest duration that I have recorded
+		 */
+		boolean record(long nanos) {
+			if (nanos < 0L) {
+				// the clock is only monotonic on any one thread
+				nanos = 0L;
+			}
+
+			buckets.incrementAndGet(bucketOf(nanos));
+			count.incrementAndGet();
+			total.addAndGet(nanos);
+
+			for (;;) {
+				long currentMax = max.get();
+
+				if (nanos <= currentMax) {
+					return false;
+				} else if (max.compareAndSet(currentMax, nanos)) {
+					return true;
+				}
+			}
+		}
+
+		private static int bucketOf(long nanos) {
+			int result = Long.SIZE - Long.numberOfLeadingZeros(nanos / 1000L);
+
+			return Math.min(result, BUCKET_COUNT - 1);
+		}
+
+		/**
+		 * Obtains the exclusive upper bound of the durations that are counted
+		 * in the specified bucket.
+		 *
+		 * @param bucket a bucket index, from zero to {@link #BUCKET_COUNT}
+		 *    (exclusive)
+		 *
+		 * @return the upper bound, in nanoseconds, or {@link Long#MAX_VALUE}
+		 *    for the last bucket
+		 */
+		public static long getUpperBoundNanos(int bucket) {
+			return (bucket >= BUCKET_COUNT - 1) ? Long.MAX_VALUE : (1L << bucket) * 1000L;
+		}
+
+		/**
+		 * Obtains the number of durations that I have recorded.
+		 *
+		 * @return my count
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		/**
+		 * Obtains the sum of the durations that I have recorded.
+		 *
+		 * @return my total duration, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return total.get();
+		}
+
+		/**
+		 * Obtains the mean of the durations that I have recorded.
+		 *
+		 * @return my mean duration, in nanoseconds, or zero if I am empty
+		 */
+		public long getMeanNanos() {
+			long n = count.get();
+			return (n == 0L) ? 0L : total.get() / n;
+		}
+
+		/**
+		 * Obtains the longest of the durations that I have recorded.
+		 *
+		 * @return my maximal duration, in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return max.get();
+		}
+
+		/**
+		 * Estimates a percentile of the durations that I have recorded, as
+		 * the upper bound of the bucket that contains it, but no more than
+		 * the longest duration recorded.
+		 *
+		 * @param fraction the percentile, as a fraction between zero and one
+		 *
+		 * @return the estimated percentile, in nanoseconds
+		 */
+		public long getPercentileNanos(double fraction) {
+			long[] counts = getBuckets();
+			long n = 0L;
+
+			for (long next : counts) {
+				n += next;
+			}
+
+			long rank = (long) Math.ceil(fraction * n);
+			long seen = 0L;
+
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+
+				if ((seen >= rank) && (seen > 0L)) {
+					return Math.min(getUpperBoundNanos(i), getMaxNanos());
+				}
+			}
+
+			return 0L;
+		}
+
+		/**
+		 * Obtains a snapshot of my bucket counts.
+		 *
+		 * @return the counts of my {@link #BUCKET_COUNT} buckets
+		 *
+		 * @see #getUpperBoundNanos(int)
+		 */
+		public long[] getBuckets() {
+			long[] result = new long[BUCKET_COUNT];
+
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				result[i] = buckets.get(i);
+			}
+
+			return result;
+		}
+
+		/**
+		 * Forgets all of the durations that I have recorded.
+		 */
+		void reset() {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				buckets.set(i, 0L);
+			}
+
+			count.set(0L);
+			total.set(0L);
+			max.set(0L);
+		}
+
+		@Override
+		public String toString() {
+			return "Histogram[count=" + getCount() //$NON-NLS-1$
+				+ ", mean=" + getMeanNanos() //$NON-NLS-1$
+				+ "ns, max=" + getMaxNanos() + "ns]"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+/**
+ * The management interface of the {@link LockMetrics}, by which they are
+ * published as a JMX MBean.  Times are reported in milliseconds.
+ *
+ * @since 1.10
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface LockMetricsMBean {
+	/**
+	 * Queries how many threads are currently waiting for the lock.
+	 *
+	 * @return the length of the lock's wait queue
+	 */
+	int getQueueLength();
+
+	/**
+	 * Queries how many threads are currently waiting for exclusive access to
+	 * the lock.
+	 *
+	 * @return the number of waiting writers
+	 */
+	int getExclusiveQueueLength();
+
+	/**
+	 * Queries how many times the lock was yielded to other readers.
+	 *
+	 * @return the number of yields
+	 */
+	long getYieldCount();
+
+	/**
+	 * Queries how many jobs were scheduled to acquire the lock on behalf of
+	 * a thread that could not get it promptly in a UI-safe acquisition.
+	 *
+	 * @return the number of UI-safe acquisition jobs
+	 */
+	long getUISafeJobCount();
+
+	/**
+	 * Queries how many timed attempts to acquire the lock timed out.
+	 *
+	 * @return the number of time-outs
+	 */
+	long getTimeoutCount();
+
+	/**
+	 * Queries how many times the lock was acquired for exclusive access.
+	 *
+	 * @return the number of exclusive acquisitions
+	 */
+	long getExclusiveAcquireCount();
+
+	/**
+	 * Queries the mean time that threads waited for exclusive access.
+	 *
+	 * @return the mean exclusive wait time
+	 */
+	double getExclusiveWaitMeanMillis();
+
+	/**
+	 * Queries the longest time that a thread waited for exclusive access.
+	 *
+	 * @return the maximal exclusive wait time
+	 */
+	double getExclusiveWaitMaxMillis();
+
+	/**
+	 * Queries the mean time for which threads held exclusive access.
+	 *
+	 * @return the mean exclusive hold time
+	 */
+	double getExclusiveHoldMeanMillis();
+
+	/**
+	 * Queries the longest time for which a thread held exclusive access.
+	 *
+	 * @return the maximal exclusive hold time
+	 */
+	double getExclusiveHoldMaxMillis();
+
+	/**
+	 * Estimates the 99th percentile of the times for which threads held
+	 * exclusive access.
+	 *
+	 * @return the 99th percentile exclusive hold time
+	 */
+	double getExclusiveHold99thPercentileMillis();
+
+	/**
+	 * Queries the name of the thread that held exclusive access for the
+	 * {@linkplain #getExclusiveHoldMaxMillis() longest time}.
+	 *
+	 * @return the thread name, or <code>null</code> if none is known
+	 */
+	String getLongestExclusiveHolder();
+
+	/**
+	 * Queries how many times the lock was acquired for non-exclusive or
+	 * shared access.
+	 *
+	 * @return the number of read acquisitions
+	 */
+	long getReadAcquireCount();
+
+	/**
+	 * Queries the mean time that threads waited for read access.
+	 *
+	 * @return the mean read wait time
+	 */
+	double getReadWaitMeanMillis();
+
+	/**
+	 * Queries the longest time that a thread waited for read access.
+	 *
+	 * @return the maximal read wait time
+	 */
+	double getReadWaitMaxMillis();
+
+	/**
+	 * Queries the mean time for which threads held read access.
+	 *
+	 * @return the mean read hold time
+	 */
+	double getReadHoldMeanMillis();
+
+	/**
+	 * Queries the longest time for which a thread held read access.
+	 *
+	 * @return the maximal read hold time
+	 */
+	double getReadHoldMaxMillis();
+
+	/**
+	 * Forgets all of the metrics recorded so far.
+	 */
+	void reset();
+}
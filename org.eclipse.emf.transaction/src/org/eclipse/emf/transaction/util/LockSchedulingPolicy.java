@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A policy that decides which of the threads waiting for a transaction lock
+ * gets it next, when it is released.  The lock's wait queue is ordered by
+ * arrival within every combination of
+ * {@linkplain org.eclipse.emf.transaction.Transaction#OPTION_LOCK_PRIORITY priority}
+ * class and kind of access (exclusive, non-exclusive, or shared), so that
+ * a policy only has to choose among the threads at the heads of these
+ * sub-queues.  When the chosen thread wants to share the lock, the policy
+ * is consulted again to decide whether the next thread may share it, too.
+ * <p>
+ * Every policy is protected from starving any thread:  when the thread that
+ * has been waiting the longest has waited for more than the policy's
+ * starvation limit, it gets the lock next, regardless of what the policy
+ * would have chosen.
+ * </p>
+ * <p>
+ * The built-in policies are
+ * </p>
+ * <ul>
+ *   <li>{@link #FIFO}:  the lock goes to the thread that has been waiting
+ *       the longest.  This is the default</li>
+ *   <li>{@link #WRITER_PREFERENCE}:  threads waiting for exclusive access
+ *       get the lock before any readers</li>
+ *   <li>{@link #READER_BATCHING}:  threads waiting for shared access get
+ *       the lock before any others, so that as many of them as possible
+ *       read together</li>
+ *   <li>{@link #PRIORITY}:  the lock goes to the threads of the most
+ *       urgent priority class first, so that the UI thread and interactive
+ *       commands do not wait behind background jobs</li>
+ * </ul>
+ * <p>
+ * A policy is installed on the locks of an editing domain by means of the
+ * {@link TransactionLockFactory#withSchedulingPolicy(LockSchedulingPolicy)}
+ * lock factory.  Clients may define other policies by extending this class.
+ * Policies are invoked while the lock is synchronized, so they must be
+ * quick and must not attempt to acquire any locks.
+ * </p>
+ *
+ * @since 1.10
+ */
+public abstract class LockSchedulingPolicy {
+	/**
+	 * The priority class of threads that a user is waiting for, such as the
+	 * UI thread and interactive commands.
+	 */
+	public static final int PRIORITY_INTERACTIVE = 0;
+
+	/**
+	 * The priority class of threads that do not specify any other.
+	 */
+	public static final int PRIORITY_NORMAL = 1;
+
+	/**
+	 * The priority class of threads doing background work, such as indexing
+	 * and validation jobs.
+	 */
+	public static final int PRIORITY_BACKGROUND = 2;
+
+	/**
+	 * The number of milliseconds that, by default, a thread may wait before
+	 * the built-in policies give it the lock in preference to any other.
+	 */
+	public static final long DEFAULT_STARVATION_LIMIT = 1000L;
+
+	/**
+	 * The policy that gives the lock to the thread that has been waiting the
+	 * longest, which is the default.
+	 */
+	public static final LockSchedulingPolicy FIFO = new LockSchedulingPolicy(0L) {
+		@Override
+		protected int select(Waiter[] candidates, int count) {
+			return oldest(candidates, count);
+		}
+
+		@Override
+		public String toString() {
+			return "LockSchedulingPolicy[fifo]"; //$NON-NLS-1$
+		}
+	};
+
+	/**
+	 * The policy that gives the lock to threads waiting for exclusive access
+	 * before any readers, with the {@linkplain #DEFAULT_STARVATION_LIMIT default}
+	 * starvation limit.
+	 *
+	 * @see #writerPreference(long)
+	 */
+	public static final LockSchedulingPolicy WRITER_PREFERENCE =
+		writerPreference(DEFAULT_STARVATION_LIMIT);
+
+	/**
+	 * The policy that gives the lock to threads waiting for shared access
+	 * before any others, with the {@linkplain #DEFAULT_STARVATION_LIMIT default}
+	 * starvation limit.
+	 *
+	 * @see #readerBatching(long)
+	 */
+	public static final LockSchedulingPolicy READER_BATCHING =
+		readerBatching(DEFAULT_STARVATION_LIMIT);
+
+	/**
+	 * The policy that gives the lock to threads in order of their priority
+	 * class, with the {@linkplain #DEFAULT_STARVATION_LIMIT default}
+	 * starvation limit.
+	 *
+	 * @see #priority(long)
+	 */
+	public static final LockSchedulingPolicy PRIORITY =
+		priority(DEFAULT_STARVATION_LIMIT);
+
+	private final long starvationLimit;  // in nanos
+
+	/**
+	 * Initializes me with my starvation limit.
+	 *
+	 * @param starvationLimit the number of milliseconds after which a
+	 *     waiting thread gets the lock in preference to any other, or
+	 *     <code>0L</code> if I do not need to protect any threads from
+	 *     starvation
+	 *
+	 * @throws IllegalArgumentException if the <code>starvationLimit</code>
+	 *     is negative
+	 */
+	protected LockSchedulingPolicy(long starvationLimit) {
+		if (starvationLimit < 0L) {
+			throw new IllegalArgumentException("negative starvation limit"); //$NON-NLS-1$
+		}
+
+		this.starvationLimit = TimeUnit.MILLISECONDS.toNanos(starvationLimit);
+	}
+
+	/**
+	 * Obtains a policy that gives the lock to threads waiting for exclusive
+	 * access before any readers.  Among the writers, and among the readers,
+	 * the lock goes to the thread that has been waiting the longest.
+	 *
+	 * @param starvationLimit the number of milliseconds after which a
+	 *     waiting reader gets the lock in preference to any writer
+	 *
+	 * @return the writer-preference policy
+	 *
+	 * @throws IllegalArgumentException if the <code>starvationLimit</code>
+	 *     is not positive
+	 */
+	public static LockSchedulingPolicy writerPreference(long starvationLimit) {
+		return new Preference(true, starvationLimit);
+	}
+
+	/**
+	 * Obtains a policy that gives the lock to threads waiting for shared
+	 * access before any others, so that readers which would otherwise be
+	 * interleaved with writers in the wait queue are admitted together.
+	 *
+	 * @param starvationLimit the number of milliseconds after which a
+	 *     waiting thread that does not share the lock gets it in preference
+	 *     to any reader
+	 *
+	 * @return the reader-batching policy
+	 *
+	 * @throws IllegalArgumentException if the <code>starvationLimit</code>
+	 *     is not positive
+	 */
+	public static LockSchedulingPolicy readerBatching(long starvationLimit) {
+		return new Preference(false, starvationLimit);
+	}
+
+	/**
+	 * Obtains a policy that gives the lock to threads of the most urgent
+	 * priority class first.  Within a priority class, the lock goes to the
+	 * thread that has been waiting the longest.
+	 *
+	 * @param starvationLimit the number of milliseconds after which a
+	 *     waiting thread of a less urgent class gets the lock in preference
+	 *     to any other
+	 *
+	 * @return the priority-class policy
+	 *
+	 * @throws IllegalArgumentException if the <code>starvationLimit</code>
+	 *     is not positive
+	 *
+	 * @see org.eclipse.emf.transaction.Transaction#OPTION_LOCK_PRIORITY
+	 */
+	public static LockSchedulingPolicy priority(long starvationLimit) {
+		checkStarvationLimit(starvationLimit);
+
+		return new LockSchedulingPolicy(starvationLimit) {
+			@Override
+			protected int select(Waiter[] candidates, int count) {
+				int result = 0;
+
+				for (int i = 1; i < count; i++) {
+					Waiter next = candidates[i];
+					Waiter best = candidates[result];
+
+					if ((next.getPriority() < best.getPriority())
+							|| ((next.getPriority() == best.getPriority())
+								&& (next.getSequence() < best.getSequence()))) {
+						result = i;
+					}
+				}
+
+				return result;
+			}
+
+			@Override
+			public String toString() {
+				return "LockSchedulingPolicy[priority]"; //$NON-NLS-1$
+			}
+		};
+	}
+
+	/**
+	 * Ensures that a built-in policy, which prefers some threads over others,
+	 * protects the others from starvation.
+	 *
+	 * @param starvationLimit a starvation limit
+	 */
+	private static void checkStarvationLimit(long starvationLimit) {
+		if (starvationLimit <= 0L) {
+			throw new IllegalArgumentException("starvation limit must be positive"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Selects the thread that gets the lock next.
+	 *
+	 * @param candidates the threads that are first in line for the lock,
+	 *     one for each priority class and kind of access that has any
+	 *     threads waiting.  The array is only valid for the duration of
+	 *     this call and must not be modified
+	 * @param count the number of candidates in the array, which is always
+	 *     at least two
+	 *
+	 * @return the index of the candidate that gets the lock
+	 */
+	protected abstract int select(Waiter[] candidates, int count);
+
+	/**
+	 * Finds the candidate that has been waiting the longest.
+	 *
+	 * @param candidates the threads that are first in line for the lock
+	 * @param count the number of candidates in the array
+	 *
+	 * @return the index of the oldest candidate
+	 */
+	protected static int oldest(Waiter[] candidates, int count) {
+		int result = 0;
+
+		for (int i = 1; i < count; i++) {
+			if (candidates[i].getSequence() < candidates[result].getSequence()) {
+				result = i;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Chooses the thread that gets the lock next, protecting the thread that
+	 * has been waiting the longest from starvation.  An invalid selection
+	 * by the policy is not allowed to break the lock:  it is corrected to
+	 * the oldest candidate.
+	 *
+	 * @param candidates the threads that are first in line for the lock
+	 * @param count the number of candidates in the array
+	 *
+	 * @return the index of the candidate that gets the lock
+	 */
+	final int choose(Waiter[] candidates, int count) {
+		if (count <= 1) {
+			return 0;
+		}
+
+		int oldest = oldest(candidates, count);
+
+		if ((starvationLimit > 0L)
+				&& ((System.nanoTime() - candidates[oldest].getWaitingSince()) >= starvationLimit)) {
+			return oldest;
+		}
+
+		int result = select(candidates, count);
+
+		return ((result >= 0) && (result < count)) ? result : oldest;
+	}
+
+	/**
+	 * A policy that prefers either writers or readers.
+	 */
+	private static final class Preference extends LockSchedulingPolicy {
+		private final boolean writers;
+
+		Preference(boolean writers, long starvationLimit) {
+			super(starvationLimit);
+
+			checkStarvationLimit(starvationLimit);
+			this.writers = writers;
+		}
+
+		@Override
+		protected int select(Waiter[] candidates, int count) {
+			int result = -1;
+
+			for (int i = 0; i < count; i++) {
+				Waiter next = candidates[i];
+
+				if ((writers ? next.isExclusive() : next.isShared())
+						&& ((result < 0)
+							|| (next.getSequence() < candidates[result].getSequence()))) {
+					result = i;
+				}
+			}
+
+			return (result < 0) ? oldest(candidates, count) : result;
+		}
+
+		@Override
+		public String toString() {
+			return writers ? "LockSchedulingPolicy[writerPreference]" //$NON-NLS-1$
+				: "LockSchedulingPolicy[readerBatching]"; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * A view of a thread that is waiting for the lock, on which the policy
+	 * bases its decisions.  It is only valid during the selection of the next
+	 * thread; the policy must not retain it, because the lock reuses it for
+	 * later waits of the same thread.
+	 *
+	 * @noimplement This interface is not intended to be implemented by clients.
+	 */
+	public interface Waiter {
+		/**
+		 * Queries the thread that is waiting.
+		 *
+		 * @return my thread
+		 */
+		Thread getThread();
+
+		/**
+		 * Queries whether my thread needs the lock to itself and must not
+		 * get it while other threads are {@linkplain Lock#yield() yielding}
+		 * it.  This is the case for read/write transactions.
+		 *
+		 * @return whether my thread needs exclusive access
+		 */
+		boolean isExclusive();
+
+		/**
+		 * Queries whether my thread is waiting to share the lock with other
+		 * readers.
+		 *
+		 * @return whether my thread needs shared access
+		 */
+		boolean isShared();
+
+		/**
+		 * Queries my thread's priority class, which is one of
+		 * {@link LockSchedulingPolicy#PRIORITY_INTERACTIVE},
+		 * {@link LockSchedulingPolicy#PRIORITY_NORMAL}, or
+		 * {@link LockSchedulingPolicy#PRIORITY_BACKGROUND}.
+		 *
+		 * @return my priority class
+		 */
+		int getPriority();
+
+		/**
+		 * Queries my position in the overall order of arrival in the queue.
+		 * Threads that arrived earlier have smaller sequence numbers.
+		 *
+		 * @return my sequence number
+		 */
+		long getSequence();
+
+		/**
+		 * Queries when my thread started waiting, in terms of the
+		 * {@link System#nanoTime()} clock.
+		 *
+		 * @return the start of my thread's wait
+		 */
+		long getWaitingSince();
+	}
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2005, 2007 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
  * which is available at https://www.eclipse.org/legal/epl-2.0/
@@ -11,347 +11,707 @@
  */
 package org.eclipse.emf.transaction.util;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
 import org.eclipse.emf.transaction.internal.Tracing;
 
 
 /**
- * Simplistic implementation of a FIFO wait queue for fair notification of
- * threads that are waiting for a lock.
+ * Implementation of a wait queue for the fair notification of threads that
+ * are waiting for a lock, in the order determined by a
+ * {@linkplain LockSchedulingPolicy scheduling policy}.
+ * <p>
+ * Threads are kept in separate doubly-linked sub-queues for every combination
+ * of priority class and kind of access (exclusive, non-exclusive, or shared),
+ * and every node is stamped with its position in the overall order of arrival.
+ * This makes the queue's principal operations constant-time:  enqueueing a
+ * thread, dequeueing the next thread (which the policy chooses from the heads
+ * of the sub-queues), and admitting a batch of readers.
+ * </p>
+ * <p>
+ * A thread that times out or is interrupted is unlinked from the queue, so
+ * that it neither counts as waiting nor holds up the threads behind it.  If
+ * it waits again before it would have been dequeued, it is re-inserted in its
+ * former position, retaining its seniority.
+ * </p>
+ * <p>
+ * Every thread reuses one node for all of its waits in a queue, rather than
+ * allocating a node each time.  This is safe because the lock dequeues and
+ * wakes up nodes only while holding the same monitor under which its threads
+ * put themselves on the queue, so no thread can still be waking up a node
+ * when its owner reinitializes it to wait again.
+ * </p>
  *
  * @author Christian W. Damus (cdamus)
  */
 final class Queue {
-	private Wait head;
-	private Wait tail;
+	// kinds of access, by which the sub-queues are organized
+	private static final int SHARED = 0;
+	private static final int NON_EXCLUSIVE = 1;
+	private static final int EXCLUSIVE = 2;
+	private static final int KINDS = 3;
+
+	private static final int PRIORITIES = LockSchedulingPolicy.PRIORITY_BACKGROUND + 1;
+
+	// the sub-queues, indexed by priority class and then by kind of access
+	private final SubQueue[] subQueues = new SubQueue[PRIORITIES * KINDS];
+
+	// the heads of the sub-queues, from which the policy chooses.  There is
+	//    room for one more, which is a reader that is not yet queued
+	private final LockSchedulingPolicy.Waiter[] candidates =
+		new LockSchedulingPolicy.Waiter[PRIORITIES * KINDS + 1];
+
+	// each thread's node, which it reuses every time that it waits.  If it
+	//    abandoned the node on time-out or interrupt, the node remembers its
+	//    place for when the thread waits again.  Thread-local so that I do
+	//    not retain references to threads that have gone away
+	private final ThreadLocal<Wait> nodes = new ThreadLocal<Wait>();
+
+	// stands in for a reader that is not queued when choosing the next thread
+	private final Wait readerProbe = new Wait(null);
+
+	private LockSchedulingPolicy policy = LockSchedulingPolicy.FIFO;
+
+	private long nextSequence;
 	private int size;
 	private int exclusiveCount;  // number of threads waiting for exclusive access
-	
+
 	/**
 	 * Initializes me.
 	 */
 	public Queue() {
 		super();
+
+		for (int i = 0; i < subQueues.length; i++) {
+			subQueues[i] = new SubQueue();
+		}
 	}
-	
+
+	/**
+	 * Queries the policy that decides which thread is dequeued next.
+	 *
+	 * @return my scheduling policy
+	 */
+	public synchronized LockSchedulingPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Sets the policy that decides which thread is dequeued next.
+	 *
+	 * @param policy my scheduling policy, or <code>null</code> for the
+	 *     default {@linkplain LockSchedulingPolicy#FIFO FIFO} policy
+	 */
+	public synchronized void setPolicy(LockSchedulingPolicy policy) {
+		this.policy = (policy == null) ? LockSchedulingPolicy.FIFO : policy;
+	}
+
 	/**
 	 * Queries whether the queue is empty of threads.
-	 * 
+	 *
 	 * @return <code>true</code> if I have no threads; <code>false</code>, otherwise
 	 */
 	public synchronized boolean isEmpty() {
 		return size == 0;
 	}
-	
+
 	/**
 	 * Queries the number of waiting threads.
-	 * 
+	 *
 	 * @return my size
 	 */
 	public synchronized int size() {
 		return size;
 	}
-	
+
 	/**
 	 * Queries the number of threads waiting for exclusive access.
-	 * 
+	 *
 	 * @return my count of exclusive threads
 	 */
 	public synchronized int exclusiveCount() {
 		return exclusiveCount;
 	}
-	
+
 	/**
-	 * Adds the current thread to the queue, blocking until either:
-	 * <ul>
-	 *    <li>the thread is awakened again by being dequeued</li>
-	 *    <li>the thread times out (if a time-out is specified)</li>
-	 *    <li>the thread is interrupted while it is waiting</li>
-	 * </ul>
-	 * 
-	 * @param timeout the time-out interval, in millis, or <code>0L</code>
-	 *     if no time-out is desired (i.e., wait as long as necessary)
+	 * Adds the current thread to the queue, without blocking.  The caller
+	 * then {@linkplain #await(Wait, long) waits} on the node that is returned,
+	 * which must be done without holding the lock's own monitor.  A thread
+	 * that abandoned its previous node on time-out or interrupt gets its old
+	 * position back if that node would not yet have been dequeued.  The node
+	 * is the one that the current thread used the last time that it waited,
+	 * unless it is still queued.
+	 *
 	 * @param exclusive <code>true</code> if the current thread needs exclusive
 	 *     access (i.e., no other threads may currently be
 	 *     {@link #yield() yielding}); <code>false</code>, otherwise
-	 *     
-	 * @return the new wait node
-	 *    
+	 * @param shared <code>true</code> if the current thread is waiting to
+	 *     share the lock with other reading threads; <code>false</code>,
+	 *     otherwise
+	 * @param priority the current thread's priority class
+	 *
+	 * @return the current thread's wait node
+	 */
+	public synchronized Wait put(boolean exclusive, boolean shared, int priority) {
+		int prio = clamp(priority);
+		Wait result = nodes.get();
+
+		// see whether we abandoned a node that has not yet been overtaken.
+		//    If so, take its place to preserve seniority.  This allows
+		//    threads to loop with short time-outs for the sake of liveness
+		//    (e.g., to check for cancellation of progress monitors).
+		//    Threads that change their minds lose their seniority
+		boolean senior = isSenior(result, indexOf(exclusive, shared, prio));
+
+		if ((result == null) || result.queued) {
+			// first wait, or (defensively) a nested wait in the same queue
+			result = new Wait(Thread.currentThread());
+			nodes.set(result);
+		}
+
+		// this forgets that the node was abandoned
+		result.initialize(exclusive, shared, prio);
+
+		if (!senior) {
+			// otherwise, the node retains its former sequence and time
+			result.sequence = nextSequence++;
+			result.since = System.nanoTime();
+		}
+
+		insert(result);
+
+		return result;
+	}
+
+	/**
+	 * Blocks the current thread on its node until it is dequeued, its
+	 * time-out elapses, or it is interrupted.  In the latter two cases, the
+	 * node is unlinked so that it no longer counts as waiting, remembering its
+	 * position in case the thread waits again.  The caller must not hold the
+	 * lock's own monitor.
+	 *
+	 * @param node the current thread's node, as {@linkplain #put put} by it
+	 * @param timeout the time-out interval, in millis, or <code>0L</code>
+	 *     if no time-out is desired (i.e., wait as long as necessary)
+	 *
 	 * @throws InterruptedException if the thread was interrupted while
 	 *    waiting for notification.  If it is interrupted after it has been
 	 *    notified but before it awakes, no exception is thrown
 	 */
-	public synchronized Wait put(long timeout, boolean exclusive) throws InterruptedException {
-		final Thread current = Thread.currentThread();
-		Wait result;
-		
-		// first, see whether we can find an existing node that timed out, but
-		//    that we have not yet dequeued.  If found, just re-use it to
-		//    to preserve seniority.  This allows threads to loop with short
-		//    time-outs for the sake of liveness (e.g., to check for cancellation
-		//    of progress monitors)
-		result = findNode(current);
-		
-		if (result == null) {
-			// must enqueue a new node
-			result = new Wait(current);
-		
-			if (tail == null) {
-				tail = result;
-				head = tail;
-			} else {
-				tail.next = result;
-				tail = result;
-			}			
-			
-			size++;
-			
-			if (exclusive) {
-				exclusiveCount++;
-			}
-		} else {
-			// must keep the count of exclusive waits in sync
-			if (exclusive != result.isExclusive()) {
-				exclusiveCount += exclusive? 1 : -1;
+	public void await(Wait node, long timeout) throws InterruptedException {
+		try {
+			node.waitFor(timeout);
+		} finally {
+			if (!node.wasNotified()) {
+				abandon(node);
 			}
 		}
-		
-		result.initialize(exclusive);
-		
-		return result;
 	}
-	
+
+	/**
+	 * Unlinks the node of the current thread that gave up waiting, if it is
+	 * still queued, and remembers it for the sake of seniority.
+	 *
+	 * @param node the abandoned node
+	 */
+	private synchronized void abandon(Wait node) {
+		if (node.queued) {
+			unlink(node);
+			node.abandoned = true;
+			nodes.set(node);
+		}
+	}
+
+	/**
+	 * Queries whether a formerly abandoned node would not yet have been
+	 * dequeued, so that its thread may resume its position.
+	 *
+	 * @param former the thread's node, or <code>null</code> if none
+	 * @param index the index of the sub-queue in which the thread waits now
+	 *
+	 * @return whether the node was abandoned and retains its seniority
+	 */
+	private boolean isSenior(Wait former, int index) {
+		return (former != null) && former.abandoned && (former.index == index)
+			&& (former.sequence > subQueues[index].lastTaken);
+	}
+
 	/**
 	 * Dequeues the next eligible (not timed-out or interrupted)
-	 * thread.  If any threads are currently yielding, then we look for the
-	 * the next eligible non-exclusive thread.
-	 * 
+	 * thread that the policy chooses.  If any threads are currently yielding,
+	 * then the policy chooses among the non-exclusive threads, only.
+	 *
 	 * @param allowExclusive whether to allow dequeueing of threads waiting
 	 *     for exclusive access
-	 * 
+	 *
 	 * @return the next eligible thread, or <code>null</code> if
 	 *     no threads were waiting or they all timed out
 	 */
 	public synchronized Wait take(boolean allowExclusive) {
-		Wait result = null;
-		
-		Wait prev = null;
-		for (Wait node = head; (result == null) && (node != null); node = node.next) {
-			if (allowExclusive || !node.isExclusive()) {
-				// this is a candidate.  Remove it from the list
-				if (prev != null) {
-					prev.next = node.next;
-				} else {
-					head = node.next;
-				}
-				
-				if (head == null) {
-					tail = null;
-				} else if (node == tail) {
-					tail = prev;
-				}
-				
-				// help the garbage collector
-				node.next = null;
-				
-				size--;
-				
-				if (node.isExclusive()) {
-					exclusiveCount--;
-				}
-				
-				result = node;
-			} else {
-				prev = node;
-			}
+		Wait result = choose(allowExclusive, null);
+
+		if (result != null) {
+			remove(result);
 		}
-		
+
 		return result;
 	}
-	
+
 	/**
-	 * Finds an existing node for the specified <code>thread</code>, to be
-	 * re-used for another wait following a time-out.  This ensures the
-	 * preservation of ordering for threads that time-out periodically but
-	 * with the intention of waiting again each time.
-	 * 
-	 * @param thread a thread to look for in the queue
-	 * 
-	 * @return the thread's node, or <code>null</code> if it is not found
+	 * Dequeues the thread that the policy chooses next if it is waiting for
+	 * shared access.  This is used to admit, together, a batch of readers.
+	 *
+	 * @param allowExclusive whether the policy may choose threads waiting
+	 *     for exclusive access
+	 *
+	 * @return the next thread if it is waiting for shared access, or
+	 *     <code>null</code> if the queue is empty or the next thread needs
+	 *     the lock to itself
 	 */
-	private Wait findNode(Thread thread) {
-		Wait result = null;
-		
-		for (Wait next = head; next != null; next = next.next) {
-			if (next.thread == thread) {
-				result = next;
-				break;
+	public synchronized Wait takeShared(boolean allowExclusive) {
+		Wait result = choose(allowExclusive, null);
+
+		if ((result != null) && result.isShared()) {
+			remove(result);
+		} else {
+			result = null;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Queries whether the current thread may join the readers that currently
+	 * share the lock, without waiting.  This is the case if the policy would
+	 * next admit a reader, counting the current thread as if it were waiting,
+	 * so that readers do not overtake the threads that the policy prefers.
+	 *
+	 * @param allowExclusive whether the policy may choose threads waiting
+	 *     for exclusive access
+	 * @param priority the current thread's priority class
+	 *
+	 * @return whether the current thread may share the lock now
+	 */
+	public synchronized boolean admitsReader(boolean allowExclusive, int priority) {
+		if (size == 0) {
+			return true;
+		}
+
+		Wait reader = readerProbe;
+		reader.thread = Thread.currentThread();
+		reader.initialize(false, true, clamp(priority));
+
+		Wait former = nodes.get();
+
+		if (isSenior(former, reader.index)) {
+			// a thread that timed out retains its seniority
+			reader.sequence = former.sequence;
+			reader.since = former.since;
+		} else {
+			reader.sequence = nextSequence;
+			reader.since = System.nanoTime();
+		}
+
+		Wait next = choose(allowExclusive, reader);
+
+		// help the garbage collector
+		reader.thread = null;
+
+		return (next != null) && next.isShared();
+	}
+
+	/**
+	 * Lets the policy choose the next thread from the heads of the sub-queues.
+	 *
+	 * @param allowExclusive whether the policy may choose threads waiting
+	 *     for exclusive access
+	 * @param reader an additional candidate that is not queued, or
+	 *     <code>null</code> if none
+	 *
+	 * @return the chosen thread, or <code>null</code> if there are no
+	 *     candidates
+	 */
+	private Wait choose(boolean allowExclusive, Wait reader) {
+		LockSchedulingPolicy.Waiter[] waiters = candidates;
+		int count = 0;
+
+		for (int i = 0; i < subQueues.length; i++) {
+			Wait head = subQueues[i].head;
+
+			if ((head != null) && (allowExclusive || !head.isExclusive())) {
+				waiters[count++] = head;
 			}
 		}
-		
+
+		if (reader != null) {
+			waiters[count++] = reader;
+		}
+
+		Wait result = null;
+
+		if (count > 0) {
+			result = (Wait) waiters[policy.choose(waiters, count)];
+
+			// help the garbage collector
+			java.util.Arrays.fill(waiters, 0, count, null);
+		}
+
 		return result;
 	}
-	
+
+	/**
+	 * Inserts a node into its sub-queue, in order of its sequence.
+	 *
+	 * @param node the node to insert
+	 */
+	private void insert(Wait node) {
+		subQueues[node.index].insert(node);
+		node.queued = true;
+
+		size++;
+		if (node.isExclusive()) {
+			exclusiveCount++;
+		}
+	}
+
+	/**
+	 * Unlinks a node from its sub-queue.
+	 *
+	 * @param node the node to unlink
+	 */
+	private void unlink(Wait node) {
+		subQueues[node.index].unlink(node);
+		node.queued = false;
+
+		size--;
+		if (node.isExclusive()) {
+			exclusiveCount--;
+		}
+	}
+
+	/**
+	 * Dequeues a node, which overtakes any abandoned nodes that arrived
+	 * before it.
+	 *
+	 * @param node the node to dequeue
+	 */
+	private void remove(Wait node) {
+		unlink(node);
+
+		SubQueue subQueue = subQueues[node.index];
+		subQueue.lastTaken = Math.max(subQueue.lastTaken, node.sequence);
+	}
+
+	/**
+	 * Coerces a priority into the range of the priority classes.
+	 *
+	 * @param priority a priority
+	 *
+	 * @return the nearest priority class
+	 */
+	static int clamp(int priority) {
+		return Math.max(LockSchedulingPolicy.PRIORITY_INTERACTIVE,
+			Math.min(LockSchedulingPolicy.PRIORITY_BACKGROUND, priority));
+	}
+
+	/**
+	 * Computes the index of the sub-queue for waits of the specified kind.
+	 *
+	 * @param exclusive whether the wait is for exclusive access
+	 * @param shared whether the wait is for shared access
+	 * @param priority the priority class of the wait
+	 *
+	 * @return the sub-queue index
+	 */
+	static int indexOf(boolean exclusive, boolean shared, int priority) {
+		int kind = exclusive ? EXCLUSIVE : (shared ? SHARED : NON_EXCLUSIVE);
+
+		return (priority * KINDS) + kind;
+	}
+
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuffer result = new StringBuffer();
-		boolean first = true;
-		
-		result.append("Queue["); //$NON-NLS-1$
-		for (Wait next = head; head != null; next = next.next) {
-			if (first) {
-				first = false;
-			} else {
-				result.append(", "); //$NON-NLS-1$
+
+		result.append("Queue[policy=").append(policy); //$NON-NLS-1$
+
+		for (int i = 0; i < subQueues.length; i++) {
+			if (subQueues[i].head != null) {
+				result.append(", ").append(i).append('='); //$NON-NLS-1$
+				subQueues[i].appendTo(result);
 			}
-			
-			result.append(next);
 		}
-		
+
 		result.append(']');
-		
+
 		return result.toString();
 	}
-	
+
 	/**
-	 * Implementation of a linked node in the wait queue. 
+	 * A doubly-linked list of wait nodes, in order of arrival.
+	 */
+	private static final class SubQueue {
+		Wait head;
+		Wait tail;
+		int size;
+		long lastTaken = -1L;  // the sequence of the latest node dequeued
+
+		void insert(Wait node) {
+			// usually, this appends.  Only a thread that resumes its former
+			//    position after a time-out needs to walk back from the tail
+			Wait prev = tail;
+			while ((prev != null) && (prev.sequence > node.sequence)) {
+				prev = prev.prev;
+			}
+
+			Wait next = (prev == null) ? head : prev.next;
+
+			node.prev = prev;
+			node.next = next;
+
+			if (prev == null) {
+				head = node;
+			} else {
+				prev.next = node;
+			}
+
+			if (next == null) {
+				tail = node;
+			} else {
+				next.prev = node;
+			}
+
+			size++;
+		}
+
+		void unlink(Wait node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+
+			// help the garbage collector
+			node.prev = null;
+			node.next = null;
+
+			size--;
+		}
+
+		void appendTo(StringBuffer buffer) {
+			buffer.append('[');
+
+			for (Wait next = head; next != null; next = next.next) {
+				if (next != head) {
+					buffer.append(", "); //$NON-NLS-1$
+				}
+
+				buffer.append(next);
+			}
+
+			buffer.append(']');
+		}
+	}
+
+	/**
+	 * Implementation of a linked node in the wait queue.  The waiting thread
+	 * parks until the node is awakened, its time-out elapses, or it is
+	 * interrupted.  The race between these outcomes is resolved by a
+	 * compare-and-set of the node's state, not by its monitor, so that a
+	 * waiting virtual thread never pins its carrier thread.
 	 *
 	 * @author Christian W. Damus (cdamus)
 	 */
-	static class Wait {
+	static class Wait implements LockSchedulingPolicy.Waiter {
+		private static final int WAITING = 0;
+		private static final int NOTIFIED = 1;
+		private static final int TIMED_OUT = 2;
+
+		private static final AtomicIntegerFieldUpdater<Wait> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(Wait.class, "state"); //$NON-NLS-1$
+
+		Wait prev;
 		Wait next;
-		private final Thread thread;
+		long sequence;
+		long since;  // when the thread started waiting in its sub-queue
+		int index;   // the index of my sub-queue
+		boolean upgradable;  // whether my thread wants upgradable read access
+		boolean queued;  // whether I am linked in my sub-queue
+		boolean abandoned;  // whether my thread gave up waiting on me
+		Thread thread;  // final, except in the queue's reader probe
 		private boolean exclusive;
-		private boolean notified;
-		private boolean timedOut;
-		
+		private boolean shared;
+		private int priority;
+
+		// whether I am still waiting, or was notified or timed out
+		private volatile int state;
+
 		/**
 		 * Initializes me with the thread that is waiting on me.
-		 * 
+		 *
 		 * @param thread my thread
 		 */
 		Wait(Thread thread) {
 			this.thread = thread;
 		}
-		
+
 		/**
 		 * Queries whether my thread was successfully notified.
-		 * 
+		 *
 		 * @return whether my thread was notified
 		 */
 		boolean wasNotified() {
-			return notified && !timedOut;
+			return state == NOTIFIED;
 		}
-		
-		/**
-		 * Queries whether I require exclusive scheduling.
-		 * 
-		 * @return whether I am exclusive
-		 */
-		boolean isExclusive() {
+
+		// Documentation copied from the inherited specification
+		public boolean isExclusive() {
 			return exclusive;
 		}
-		
+
+		// Documentation copied from the inherited specification
+		public boolean isShared() {
+			return shared;
+		}
+
+		// Documentation copied from the inherited specification
+		public int getPriority() {
+			return priority;
+		}
+
+		// Documentation copied from the inherited specification
+		public long getSequence() {
+			return sequence;
+		}
+
+		// Documentation copied from the inherited specification
+		public long getWaitingSince() {
+			return since;
+		}
+
 		/**
 		 * Initializes my state.
-		 * 
+		 *
 		 * @param excl <code>true</code> if I should not be dequeue while
 		 *    there are any yielders; <code>false</code>, otherwise
+		 * @param shr <code>true</code> if I am waiting for shared access;
+		 *    <code>false</code>, otherwise
+		 * @param prio my priority class
 		 */
-		void initialize(boolean excl) {
+		void initialize(boolean excl, boolean shr, int prio) {
 			this.exclusive = excl;
-			timedOut = false;
-			notified = false;
+			this.shared = shr;
+			this.priority = prio;
+			this.index = indexOf(excl, shr, prio);
+			this.upgradable = false;
+			this.abandoned = false;
+			state = WAITING;
 		}
-		
+
 		/**
 		 * Retrieves that thread that is/was waiting on me.
-		 * 
+		 *
 		 * @return my thread
 		 */
-		Thread getThread() {
+		public Thread getThread() {
 			return thread;
 		}
-		
+
 		/**
 		 * Attempts to wake my thread.  Wake-up can be attempted once only
 		 * upon dequeueing the thread.  It will succeed only if the thread
 		 * did not already time-out or interrupt.
-		 * 
+		 *
 		 * @return <code>true</code> if my thread was awakened;
 		 *    <code>false</code> if it had already been awakened or timed out,
 		 *    or if it had been interrupted
 		 */
-		synchronized boolean wakeUp() {
-			boolean result = false;
-			
-			if (!(notified || timedOut)) {
-				notified = true;
-				result = true;
-				notify();  // wake me up!
+		boolean wakeUp() {
+			boolean result = STATE.compareAndSet(this, WAITING, NOTIFIED);
+
+			if (result) {
+				LockSupport.unpark(thread);  // wake me up!
 			}
-			
+
 			return result;
 		}
-		
+
 		/**
 		 * Waits for the specified time-out.
-		 * 
+		 *
 		 * @param timeout the time-out, in millis, or <code>0L</code> to wait
 		 *    indefinitely
-		 *    
+		 *
 		 * @throws InterruptedException if the waiting thread was interrupted
 		 */
-		synchronized void waitFor(long timeout) throws InterruptedException {
+		void waitFor(long timeout) throws InterruptedException {
 			// first, check whether perhaps another thread has already awakened
 			//   me *after* I was put on the queue but *before* calling this
 			//   method (as there is an unsynchronized gap in the
-			//   Lock.acquire() method)
-			if (notified) {
+			//   Lock.acquire() method).  An unpark() in this gap is not lost,
+			//   either, because it lets the next park() return immediately
+			if (state == NOTIFIED) {
 				return;
 			}
-			
-			long waitTime = timeout;
-			long start = System.currentTimeMillis();
-			
-			try {
-				for (;;) {
-					wait(waitTime);
-					
-					if (notified) {
+
+			final long deadline = (timeout > 0L)
+				? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)
+				: 0L;
+
+			for (;;) {
+				if (timeout > 0L) {
+					long waitTime = deadline - System.nanoTime();
+
+					if (waitTime <= 0L) {
+						// giving up waiting, unless notified in the meantime
+						STATE.compareAndSet(this, WAITING, TIMED_OUT);
 						break;
 					}
-					
-					if (timeout > 0L) {
-						waitTime = timeout - (System.currentTimeMillis() - start);
-						
-						if (waitTime <= 0L) {
-							// giving up waiting
-							timedOut = true;
-							break;
-						}
-					}
-				}
-			} catch (InterruptedException e) {
-				Tracing.catching(Wait.class, "waitFor", e); //$NON-NLS-1$
-				if (!notified) {
-					// thread was interrupted while it was waiting.
-					//   Pretend like we timed out (just in case), but
-					//   propagate the exception
-					timedOut = true;
-					Tracing.throwing(Wait.class, "waitFor", e); //$NON-NLS-1$
-					throw e;
+
+					LockSupport.parkNanos(this, waitTime);
 				} else {
-					// the thread was interrupted after notification, but
-					//    before it woke up from the wait().  Must propagate
-					//    the interrupt status but not fail this operation
+					LockSupport.park(this);
+				}
+
+				if (state == NOTIFIED) {
+					// if the thread was interrupted after notification, but
+					//    before it woke up, then the interrupt status is
+					//    propagated but does not fail this operation
+					break;
+				}
+
+				if (Thread.interrupted()) {
+					if (STATE.compareAndSet(this, WAITING, TIMED_OUT)) {
+						// thread was interrupted while it was waiting.
+						//   Pretend like we timed out (just in case), but
+						//   propagate the exception
+						InterruptedException exc = new InterruptedException();
+						Tracing.throwing(Wait.class, "waitFor", exc); //$NON-NLS-1$
+						throw exc;
+					}
+
+					// notified in the meantime:  must propagate the interrupt
+					//    status but not fail this operation
 					Thread.currentThread().interrupt();
+					break;
 				}
 			}
 		}
-		
+
 		@Override
 		public String toString() {
-			return thread.getName() + "[" + notified + ", " + timedOut + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+			int currentState = state;
+
+			return thread.getName() + "[" + (currentState == NOTIFIED) //$NON-NLS-1$
+				+ ", " + (currentState == TIMED_OUT) + ']'; //$NON-NLS-1$
 		}
 	}
 }
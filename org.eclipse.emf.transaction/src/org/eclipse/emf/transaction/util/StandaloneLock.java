@@ -0,0 +1,790 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.emf.transaction.internal.ITransactionLock;
+import org.eclipse.emf.transaction.internal.Tracing;
+
+/**
+ * Implementation of a transaction lock for deployments outside of the
+ * Eclipse platform, that is built only on the <tt>java.util.concurrent</tt>
+ * facilities of the JVM.  It has the same semantics as the {@link Lock}:
+ * it is recursive, it may be {@linkplain #yield() yielded} to other threads
+ * that do not need exclusive access, it may be shared by readers, it may be
+ * held for {@linkplain #acquireUpgradable(long) upgradable} reading, and it
+ * fairly hands itself over to waiting threads in FIFO order or as its
+ * {@linkplain #setSchedulingPolicy(LockSchedulingPolicy) scheduling policy}
+ * prefers.  However, it does
+ * not depend on the Eclipse Jobs API, so its {@link #uiSafeAcquire(boolean)}
+ * method simply {@linkplain #acquire(boolean) acquires} it.
+ * <p>
+ * Unlike the {@link EmptyLock}, which does not exclude anything, this lock
+ * is suitable for editing domains that are accessed concurrently by multiple
+ * threads in a plain JVM.  Select it for new editing domains by means of
+ * the {@link TransactionLockFactory#STANDALONE} lock factory.
+ * </p>
+ * <p>
+ * This lock is also the one to use for editing domains that are accessed by
+ * virtual threads, even within the Eclipse platform.  It never blocks a
+ * thread while it holds a monitor, so that waiting virtual threads do not pin
+ * their carrier threads, and it does not create any per-thread objects
+ * in the Jobs framework.
+ * </p>
+ *
+ * @since 1.10
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public final class StandaloneLock implements ITransactionLock {
+	// guards all of my state.  It is only ever held for short, non-blocking
+	//    sections, so threads waiting for me block on their own nodes instead
+	private final ReentrantLock mutex = new ReentrantLock();
+
+	private volatile Thread owner = null;
+
+	private int depth = 0;
+
+	// my contention metrics, if anybody asked for them
+	private volatile LockMetrics metrics = null;
+
+	// when my owner acquired me, if I am recording metrics
+	private long ownerSince = 0L;
+
+	// whether my owner acquired me for exclusive access
+	private boolean ownerExclusive = false;
+
+	// whether my owner acquired me for upgradable read access
+	private boolean upgradable = false;
+
+	// the depth at which my upgradable owner upgraded me to exclusive access,
+	//    or zero if it did not
+	private int upgradeDepth = 0;
+
+	// my upgradable owner's wait for the readers to release me, if it is
+	//    upgrading.  It is not in the queue, because it already owns me
+	private Queue.Wait upgrade = null;
+
+	// threads currently waiting for the lock
+	private final Queue waiting = new Queue();
+
+	// threads currently yielding read access.
+	// Must use identity map because threads can override equals()
+	private final Map<Thread, StandaloneLock> yielders =
+		new java.util.IdentityHashMap<Thread, StandaloneLock>();
+
+	// threads currently sharing the lock for reading, with their hold counts
+	//    and the times when they started to share it.
+	// Must use identity map because threads can override equals()
+	private final Map<Thread, long[]> readers =
+		new java.util.IdentityHashMap<Thread, long[]>();
+
+	/**
+	 * Initializes me.
+	 */
+	public StandaloneLock() {
+		super();
+	}
+
+	// Documentation copied from the inherited specification
+	public Thread getOwner() {
+		// the calling thread cannot become or cease to be the owner while
+		//    it is calling this method
+		return owner;
+	}
+
+	// Documentation copied from the inherited specification
+	public int getDepth() {
+		// only the owner modifies the depth, so it needs no synchronization
+		//    to read it
+		return (Thread.currentThread() == owner) ? depth : 0;
+	}
+
+	/**
+	 * Queries how many threads currently share me for reading.
+	 *
+	 * @return the number of reading threads, or zero if I am not shared
+	 */
+	public int getSharedCount() {
+		mutex.lock();
+		try {
+			return readers.size();
+		} finally {
+			mutex.unlock();
+		}
+	}
+
+	// Documentation copied from the inherited specification
+	public void acquire(boolean exclusive) throws InterruptedException {
+		acquire(0L, exclusive);
+	}
+
+	// Documentation copied from the inherited specification
+	public boolean acquire(long timeout, boolean exclusive) throws InterruptedException {
+		return acquire(timeout, exclusive, LockSchedulingPolicy.PRIORITY_NORMAL);
+	}
+
+	/**
+	 * Attempts to acquire me, timing out after the specified number of millis,
+	 * waiting in the specified priority class.
+	 *
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param exclusive whether the current thread needs exclusive access
+	 * @param priority the priority class in which to wait for the lock
+	 *
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws InterruptedException on interruption of the calling thread
+	 */
+	private boolean acquire(long timeout, boolean exclusive, int priority) throws InterruptedException {
+		checkAcquire(timeout, "acquire"); //$NON-NLS-1$
+
+		final Thread current = Thread.currentThread();
+		final LockMetrics metrics = this.metrics;
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		final boolean upgrading;
+		Queue.Wait node;
+
+		mutex.lock();
+		try {
+			upgrading = (current == owner) && exclusive && upgradable && (upgradeDepth == 0);
+
+			if (upgrading) {
+				if (readers.isEmpty()) {
+					// upgrade straight away, because nobody is reading
+					upgradeDepth = depth++;
+					return true;
+				}
+
+				// wait for the readers to release me, admitting no more of them
+				node = new Queue.Wait(current);
+				node.initialize(true, false, priority);
+				upgrade = node;
+			} else if (current == owner) {
+				// trivially re-acquire the lock, increasing the depth
+				depth++;
+				return true;
+			} else if ((owner == null) && readers.isEmpty()
+					&& (!exclusive || yielders.isEmpty())) {
+				// first to try to get the lock
+				depth = 1;
+				owner = current;
+				yielders.remove(current);
+				startHold(exclusive, metrics, start);
+				return true;
+			} else {
+				// add myself to the queue of waiting threads
+				node = waiting.put(exclusive, false, priority);
+			}
+		} finally {
+			mutex.unlock();
+		}
+
+		if (upgrading) {
+			return awaitUpgrade(node, timeout, metrics);
+		}
+
+		boolean result = await(node, timeout, metrics);
+
+		if (result) {
+			startHold(exclusive, metrics, start);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Blocks the current thread, which is my upgradable owner, until the
+	 * readers sharing me have released me, the time-out elapses, or it is
+	 * interrupted.  If it does not get to upgrade, then the readers that
+	 * queued up meanwhile are admitted.
+	 *
+	 * @param node the current thread's upgrade node
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *    indefinitely
+	 * @param metrics my metrics, in which to count a time-out, or
+	 *    <code>null</code> if I am not recording any
+	 *
+	 * @return <code>true</code> if the current thread now has exclusive
+	 *    access; <code>false</code> on time-out
+	 *
+	 * @throws InterruptedException if the current thread was interrupted
+	 *    before the last reader released me
+	 */
+	private boolean awaitUpgrade(Queue.Wait node, long timeout, LockMetrics metrics) throws InterruptedException {
+		try {
+			// must not be holding the mutex when we block on the node
+			node.waitFor(timeout);
+		} finally {
+			mutex.lock();
+			try {
+				upgrade = null;
+
+				if (node.wasNotified()) {
+					upgradeDepth = depth++;
+				} else {
+					admitReaders();
+				}
+			} finally {
+				mutex.unlock();
+			}
+		}
+
+		if (!node.wasNotified() && (metrics != null)) {
+			metrics.timedOut();
+		}
+
+		return node.wasNotified();
+	}
+
+	/**
+	 * Records that the current thread now owns me, having waited since the
+	 * specified time.
+	 *
+	 * @param exclusive whether the current thread acquired me for exclusive
+	 *    access
+	 * @param metrics my metrics, or <code>null</code> if I am not recording any
+	 * @param start when the current thread started to wait for me
+	 */
+	private void startHold(boolean exclusive, LockMetrics metrics, long start) {
+		ownerExclusive = exclusive;
+
+		if (metrics == null) {
+			ownerSince = 0L;
+		} else {
+			ownerSince = System.nanoTime();
+			metrics.acquired(exclusive, ownerSince - start);
+		}
+	}
+
+	// Documentation copied from the inherited specification
+	public boolean acquireShared(long timeout) throws InterruptedException {
+		return acquireShared(timeout, LockSchedulingPolicy.PRIORITY_NORMAL);
+	}
+
+	/**
+	 * Attempts to acquire me for shared access, timing out after the
+	 * specified number of millis, waiting in the specified priority class.
+	 *
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param priority the priority class in which to wait for the lock
+	 *
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread owns me
+	 * @throws InterruptedException on interruption of the calling thread
+	 */
+	private boolean acquireShared(long timeout, int priority) throws InterruptedException {
+		checkAcquire(timeout, "acquireShared"); //$NON-NLS-1$
+
+		final Thread current = Thread.currentThread();
+		final LockMetrics metrics = this.metrics;
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		Queue.Wait node;
+
+		mutex.lock();
+		try {
+			long[] holds = readers.get(current);
+
+			if (holds != null) {
+				// trivially re-acquire the lock, increasing my hold count
+				holds[0]++;
+				return true;
+			} else if (current == owner) {
+				// the owner cannot share the lock with other threads
+				IllegalStateException exc = new IllegalStateException("Lock is owned by current thread"); //$NON-NLS-1$
+				Tracing.throwing(StandaloneLock.class, "acquireShared", exc); //$NON-NLS-1$
+				throw exc;
+			} else if (mayShare(priority)) {
+				// join the other readers, if any, unless the scheduling
+				//    policy prefers some thread that is waiting to own the
+				//    lock:  it gets its turn, first
+				readers.put(current, newHolds());
+				yielders.remove(current);
+
+				if (metrics != null) {
+					metrics.acquired(false, System.nanoTime() - start);
+				}
+				return true;
+			}
+
+			// add myself to the queue of waiting threads
+			node = waiting.put(false, true, priority);
+		} finally {
+			mutex.unlock();
+		}
+
+		boolean result = await(node, timeout, metrics);
+
+		if (result && (metrics != null)) {
+			metrics.acquired(false, System.nanoTime() - start);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Queries whether a new reader may share me without waiting.  This is
+	 * the case if I am not owned, or owned by an upgradable reader that is
+	 * not upgrading, unless the scheduling policy prefers some thread that
+	 * is waiting:  it gets its turn, first.  Must be called while holding my
+	 * mutex.
+	 *
+	 * @param priority the new reader's priority class
+	 * @return whether the reader may share me now
+	 */
+	private boolean mayShare(int priority) {
+		if (owner == null) {
+			return readers.isEmpty() || waiting.admitsReader(yielders.isEmpty(), priority);
+		}
+
+		return upgradable && (upgradeDepth == 0) && (upgrade == null)
+			&& waiting.admitsReader(yielders.isEmpty(), priority);
+	}
+
+	// Documentation copied from the inherited specification
+	public boolean acquireUpgradable(long timeout) throws InterruptedException {
+		return acquireUpgradable(timeout, LockSchedulingPolicy.PRIORITY_NORMAL);
+	}
+
+	/**
+	 * Attempts to acquire me for upgradable read access, timing out after
+	 * the specified number of millis, waiting in the specified priority class.
+	 * While they wait, upgradable readers count as exclusive because they
+	 * usually upgrade, eventually.
+	 *
+	 * @param timeout the number of milliseconds to wait before giving up on
+	 *     the lock, or <code>0</code> to wait as long as necessary
+	 * @param priority the priority class in which to wait for the lock
+	 *
+	 * @return <code>true</code> if the caller successfully acquired me;
+	 *    <code>false</code> if it did not within the <code>timeout</code>
+	 *
+	 * @throws IllegalArgumentException if <code>timeout</code> is negative
+	 * @throws IllegalStateException if the calling thread shares me
+	 * @throws InterruptedException on interruption of the calling thread
+	 */
+	private boolean acquireUpgradable(long timeout, int priority) throws InterruptedException {
+		checkAcquire(timeout, "acquireUpgradable"); //$NON-NLS-1$
+
+		final Thread current = Thread.currentThread();
+		final LockMetrics metrics = this.metrics;
+		final long start = (metrics == null) ? 0L : System.nanoTime();
+		Queue.Wait node;
+
+		mutex.lock();
+		try {
+			if (current == owner) {
+				// trivially re-acquire the lock, increasing the depth
+				depth++;
+				return true;
+			} else if (readers.containsKey(current)) {
+				// a reader cannot also own the lock
+				IllegalStateException exc = new IllegalStateException("Lock is shared by current thread"); //$NON-NLS-1$
+				Tracing.throwing(StandaloneLock.class, "acquireUpgradable", exc); //$NON-NLS-1$
+				throw exc;
+			} else if ((owner == null) && yielders.isEmpty() && (readers.isEmpty()
+					|| waiting.admitsReader(true, priority))) {
+				// join the readers, if any, as their owner
+				depth = 1;
+				owner = current;
+				upgradable = true;
+				startHold(false, metrics, start);
+				return true;
+			}
+
+			// add myself to the queue of waiting threads
+			node = waiting.put(true, false, priority);
+			node.upgradable = true;
+		} finally {
+			mutex.unlock();
+		}
+
+		boolean result = await(node, timeout, metrics);
+
+		if (result) {
+			startHold(false, metrics, start);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks the preconditions of an attempt to acquire me.
+	 *
+	 * @param timeout the requested time-out
+	 * @param method the name of the acquiring method, for tracing
+	 *
+	 * @throws IllegalArgumentException if the time-out is negative
+	 * @throws InterruptedException if the current thread is already interrupted
+	 */
+	private static void checkAcquire(long timeout, String method) throws InterruptedException {
+		if (timeout < 0L) {
+			IllegalArgumentException exc = new IllegalArgumentException("negative timeout"); //$NON-NLS-1$
+			Tracing.throwing(StandaloneLock.class, method, exc);
+			throw exc;
+		}
+
+		// should always check whether a thread is already interrupted before
+		//     trying to get a lock
+		if (Thread.interrupted()) {
+			InterruptedException exc = new InterruptedException();
+			Tracing.throwing(StandaloneLock.class, method, exc);
+			throw exc;
+		}
+	}
+
+	/**
+	 * Blocks the current thread until the specified node is granted me, its
+	 * time-out elapses, or it is interrupted.  A thread that times out gives
+	 * up its place in the queue, but gets it back if it tries again before it
+	 * would have been dequeued.
+	 *
+	 * @param node the current thread's wait node
+	 * @param timeout the time-out, in millis, or <code>0L</code> to wait
+	 *    indefinitely
+	 * @param metrics my metrics, in which to count a time-out, or
+	 *    <code>null</code> if I am not recording any
+	 *
+	 * @return <code>true</code> if the lock was granted; <code>false</code>
+	 *    on time-out
+	 *
+	 * @throws InterruptedException if the current thread was interrupted
+	 *    before the lock was granted to it
+	 */
+	private boolean await(Queue.Wait node, long timeout, LockMetrics metrics) throws InterruptedException {
+		// must not be holding the mutex when we block on the node
+		waiting.await(node, timeout);
+
+		if (node.wasNotified()) {
+			// synchronize with the thread that handed me the lock
+			mutex.lock();
+			mutex.unlock();
+
+			return true;
+		}
+
+		if (metrics != null) {
+			metrics.timedOut();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this is equivalent to {@link #acquire(boolean)}.
+	 */
+	public void uiSafeAcquire(boolean exclusive) throws InterruptedException {
+		acquire(0L, exclusive);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this simply acquires me in the given priority class.
+	 */
+	public void uiSafeAcquire(boolean exclusive, int priority) throws InterruptedException {
+		acquire(0L, exclusive, priority);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this simply attempts to acquire me in the given priority
+	 * class, timing out as specified.
+	 */
+	public boolean uiSafeAcquire(long timeout, boolean exclusive, int priority) throws InterruptedException {
+		return acquire(timeout, exclusive, priority);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this is equivalent to {@link #acquireShared(long)}.
+	 */
+	public void uiSafeAcquireShared() throws InterruptedException {
+		acquireShared(0L);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this simply acquires me for shared access in the given
+	 * priority class.
+	 */
+	public void uiSafeAcquireShared(int priority) throws InterruptedException {
+		acquireShared(0L, priority);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this simply attempts to acquire me for shared access in the
+	 * given priority class, timing out as specified.
+	 */
+	public boolean uiSafeAcquireShared(long timeout, int priority) throws InterruptedException {
+		return acquireShared(timeout, priority);
+	}
+
+	/**
+	 * Because there is no UI thread to keep alive outside of the Eclipse
+	 * platform, this simply attempts to acquire me for upgradable read access
+	 * in the given priority class, timing out as specified.
+	 */
+	public boolean uiSafeAcquireUpgradable(long timeout, int priority) throws InterruptedException {
+		return acquireUpgradable(timeout, priority);
+	}
+
+	// Documentation copied from the inherited specification
+	public void release() {
+		mutex.lock();
+		try {
+			if (Thread.currentThread() != owner) {
+				IllegalArgumentException exc = new IllegalArgumentException("Lock not owned by current thread"); //$NON-NLS-1$
+				Tracing.throwing(StandaloneLock.class, "release", exc); //$NON-NLS-1$
+				throw exc;
+			}
+
+			if (--depth == 0) {
+				LockMetrics metrics = this.metrics;
+				if ((metrics != null) && (ownerSince != 0L)) {
+					metrics.released(ownerExclusive, System.nanoTime() - ownerSince);
+				}
+				ownerSince = 0L;
+
+				owner = null;
+				upgradable = false;
+				upgradeDepth = 0;
+
+				if (readers.isEmpty()) {
+					// wake up next thread that wants this lock
+					wakeNext();
+				} // else the last of the readers will do that
+			} else if (depth == upgradeDepth) {
+				// downgrade to upgradable read access, admitting the readers
+				//    that queued up meanwhile
+				upgradeDepth = 0;
+				admitReaders();
+			}
+		} finally {
+			mutex.unlock();
+		}
+	}
+
+	// Documentation copied from the inherited specification
+	public void releaseShared() {
+		final Thread current = Thread.currentThread();
+
+		mutex.lock();
+		try {
+			long[] holds = readers.get(current);
+
+			if (holds == null) {
+				IllegalArgumentException exc = new IllegalArgumentException("Lock not shared by current thread"); //$NON-NLS-1$
+				Tracing.throwing(StandaloneLock.class, "releaseShared", exc); //$NON-NLS-1$
+				throw exc;
+			}
+
+			if (--holds[0] == 0) {
+				readers.remove(current);
+
+				LockMetrics metrics = this.metrics;
+				if ((metrics != null) && (holds[1] != 0L)) {
+					metrics.released(false, System.nanoTime() - holds[1]);
+				}
+
+				if (readers.isEmpty()) {
+					if (owner == null) {
+						// the last reader wakes up next thread that wants this lock
+						wakeNext();
+					} else if (upgrade != null) {
+						// the upgradable owner may write, now
+						upgrade.wakeUp();
+					}
+				}
+			}
+		} finally {
+			mutex.unlock();
+		}
+	}
+
+	/**
+	 * Hands me over to the next thread waiting for me, now that I am neither
+	 * owned nor shared.  If that thread wants to share me, or to own me for
+	 * upgradable read access, then the readers queued immediately behind it
+	 * share me, too.  Must be called while holding my mutex.
+	 */
+	private void wakeNext() {
+		final boolean allowExclusive = yielders.isEmpty();
+
+		for (;;) {
+			Queue.Wait node = waiting.take(allowExclusive);
+
+			if (node == null) {
+				// nobody left to wake up
+				break;
+			} else if (node.wakeUp()) {
+				if (node.isShared()) {
+					// this is the first of the new readers
+					grantShared(node);
+
+					// admit the rest of the batch of readers with it
+					admitReaders();
+				} else {
+					// this will be the new owner
+					depth = 1;
+					owner = node.getThread();
+					yielders.remove(owner);
+
+					if (node.upgradable) {
+						upgradable = true;
+						admitReaders();
+					}
+				}
+
+				break;
+			} else {
+				// just loop around again to look for another candidate
+				//    because this one had timed out
+			}
+		}
+	}
+
+	/**
+	 * Admits the readers that are next in line, as long as the scheduling
+	 * policy chooses readers.  Must be called while holding my mutex.
+	 */
+	private void admitReaders() {
+		final boolean allowExclusive = yielders.isEmpty();
+
+		for (Queue.Wait node = waiting.takeShared(allowExclusive); node != null; node = waiting.takeShared(allowExclusive)) {
+			if (node.wakeUp()) {
+				grantShared(node);
+			}
+		}
+	}
+
+	/**
+	 * Counts the thread of the specified, awakened, node among my readers.
+	 * Must be called while holding my mutex.
+	 *
+	 * @param node the wait node of a new reader
+	 */
+	private void grantShared(Queue.Wait node) {
+		readers.put(node.getThread(), newHolds());
+		yielders.remove(node.getThread());
+	}
+
+	/**
+	 * Creates the hold count of a new reader, with the time when it started
+	 * to share me if I am recording metrics.  Must be called while holding
+	 * my mutex.
+	 *
+	 * @return the new reader's hold count
+	 */
+	private long[] newHolds() {
+		return new long[] {1L, (metrics == null) ? 0L : System.nanoTime()};
+	}
+
+	// Documentation copied from the inherited specification
+	public boolean yield() {
+		mutex.lock();
+		try {
+			// do not yield if no other non-exclusive threads are waiting for
+			//    access.  An upgradable owner cannot yield at all:  it
+			//    already shares me with all of the readers that it can
+			boolean result = !upgradable
+				&& (waiting.size() > waiting.exclusiveCount());
+
+			if (result) {
+				yielders.put(Thread.currentThread(), this);
+
+				LockMetrics metrics = this.metrics;
+				if (metrics != null) {
+					metrics.yielded();
+				}
+			}
+
+			return result;
+		} finally {
+			mutex.unlock();
+		}
+	}
+
+	/**
+	 * Transfers ownership of me to the specified <code>thread</code>, if I am
+	 * currently owned.  Otherwise, does nothing.  This is used by privileged
+	 * runnables to lend the lock from its current owner to another thread.
+	 *
+	 * @param thread my new owner (must not be null)
+	 */
+	public void checkedTransfer(Thread thread) {
+		if (thread == null) {
+			throw new IllegalArgumentException("thread is null"); //$NON-NLS-1$
+		}
+
+		mutex.lock();
+		try {
+			if (owner != null) {
+				owner = thread;
+			}
+		} finally {
+			mutex.unlock();
+		}
+	}
+
+	// Documentation copied from the inherited specification
+	public LockMetrics getMetrics() {
+		LockMetrics result = metrics;
+
+		if (result == null) {
+			mutex.lock();
+			try {
+				result = metrics;
+
+				if (result == null) {
+					result = new LockMetrics(waiting);
+					metrics = result;
+				}
+			} finally {
+				mutex.unlock();
+			}
+		}
+
+		return result;
+	}
+
+	// Documentation copied from the inherited specification
+	public LockSchedulingPolicy getSchedulingPolicy() {
+		return waiting.getPolicy();
+	}
+
+	// Documentation copied from the inherited specification
+	public void setSchedulingPolicy(LockSchedulingPolicy policy) {
+		waiting.setPolicy(policy);
+	}
+
+	@Override
+	public String toString() {
+		Thread lastKnownOwner = owner;
+
+		return "StandaloneLock[depth=" + depth //$NON-NLS-1$
+			+ ", owner=" + ((lastKnownOwner == null) ? null : lastKnownOwner.getName()) //$NON-NLS-1$
+			+ ", readers=" + getSharedCount() //$NON-NLS-1$
+			+ ", waiting=" + waiting.size() + ']'; //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026 Eclipse contributors and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Eclipse contributors - Initial API and implementation
+ */
+package org.eclipse.emf.transaction.util;
+
+import org.eclipse.emf.common.EMFPlugin;
+import org.eclipse.emf.transaction.internal.ITransactionLock;
+import org.eclipse.emf.transaction.internal.LockFactoryAccess;
+
+/**
+ * Selects the kind of lock with which an editing domain protects its
+ * resource set from concurrent access.  Clients may choose one of the
+ * predefined factories when creating an editing domain, for example via
+ * {@link org.eclipse.emf.transaction.impl.TransactionalEditingDomainImpl.FactoryImpl#setLockFactory(TransactionLockFactory)}.
+ *
+ * @since 1.10
+ *
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public abstract class TransactionLockFactory {
+	static {
+		// editing domains create their locks by this internal access
+		LockFactoryAccess.setInstance(new LockFactoryAccess() {
+			@Override
+			protected ITransactionLock doCreateLock(TransactionLockFactory factory) {
+				return factory.createLock();
+			}
+		});
+	}
+
+	/**
+	 * Creates {@link Lock}s, which use the Eclipse Jobs API to keep the UI
+	 * thread responsive while it waits for a transaction.  This requires
+	 * the Eclipse platform to be running.
+	 */
+	public static final TransactionLockFactory JOBS = new TransactionLockFactory("jobs") { //$NON-NLS-1$
+		@Override
+		ITransactionLock createLock() {
+			return new Lock();
+		}
+	};
+
+	/**
+	 * Creates {@link StandaloneLock}s, which provide the same mutual exclusion
+	 * as the {@link #JOBS} locks but depend only on the JVM.  These are
+	 * suitable for multi-threaded applications that run outside of the
+	 * Eclipse platform, and for editing domains that are accessed by
+	 * virtual threads.
+	 */
+	public static final TransactionLockFactory STANDALONE = new TransactionLockFactory("standalone") { //$NON-NLS-1$
+		@Override
+		ITransactionLock createLock() {
+			return new StandaloneLock();
+		}
+	};
+
+	/**
+	 * Creates {@link EmptyLock}s, which do not exclude concurrent access at
+	 * all.  These are only suitable for single-threaded applications.
+	 */
+	public static final TransactionLockFactory NONE = new TransactionLockFactory("none") { //$NON-NLS-1$
+		@Override
+		ITransactionLock createLock() {
+			return new EmptyLock();
+		}
+	};
+
+	private final String name;
+
+	/**
+	 * Initializes me with my name.
+	 *
+	 * @param name my name
+	 */
+	private TransactionLockFactory(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Obtains the lock factory that editing domains use when none is
+	 * specified:  the {@link #JOBS} factory when the Eclipse platform is
+	 * running, otherwise the {@link #NONE} factory.
+	 *
+	 * @return the default lock factory
+	 */
+	public static TransactionLockFactory getDefault() {
+		return EMFPlugin.IS_ECLIPSE_RUNNING ? JOBS : NONE;
+	}
+
+	/**
+	 * Obtains a factory that creates the same kind of locks as I do, but
+	 * that hand themselves over to waiting threads according to the
+	 * specified scheduling policy.  For example, to let the UI thread and
+	 * interactive commands overtake background jobs that are waiting for an
+	 * editing domain, create it with the
+	 * <code>JOBS.withSchedulingPolicy(LockSchedulingPolicy.PRIORITY)</code>
+	 * lock factory.
+	 *
+	 * @param policy the scheduling policy of the locks, or <code>null</code>
+	 *     for the default {@linkplain LockSchedulingPolicy#FIFO FIFO} policy
+	 *
+	 * @return the lock factory
+	 *
+	 * @see org.eclipse.emf.transaction.Transaction#OPTION_LOCK_PRIORITY
+	 */
+	public TransactionLockFactory withSchedulingPolicy(final LockSchedulingPolicy policy) {
+		final TransactionLockFactory delegate = this;
+
+		return new TransactionLockFactory(name + ", " + policy) { //$NON-NLS-1$
+			@Override
+			ITransactionLock createLock() {
+				ITransactionLock result = delegate.createLock();
+				result.setSchedulingPolicy(policy);
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Creates a new lock.
+	 *
+	 * @return the new lock
+	 *
+	 * @see LockFactoryAccess#createLock(TransactionLockFactory)
+	 */
+	abstract ITransactionLock createLock();
+
+	@Override
+	public String toString() {
+		return "TransactionLockFactory[" + name + ']'; //$NON-NLS-1$
+	}
+}
@@ -323,6 +323,37 @@ public class TransactionUtil {
     	return (T) domain.runExclusive(runnable);
     }
     
+    /**
+     * Utility method for executing read-only runnables
+     * {@linkplain TransactionalEditingDomain.OptimisticReads optimistically},
+     * without a transaction, in editing domains that support it.  Otherwise,
+     * the runnable is {@linkplain #runExclusive(TransactionalEditingDomain, RunnableWithResult) executed}
+     * in a read-only transaction as usual.
+     * 
+     * @param <T> the result type of the runnable
+     * 
+     * @param domain the editing domain in which to run
+     * @param runnable the runnable to execute
+     * 
+     * @return the result of the runnable
+     * 
+     * @throws InterruptedException if the current thread is interrupted while
+	 *    waiting for access to the resource set
+     * 
+     * @see TransactionalEditingDomain.OptimisticReads#runOptimistic(RunnableWithResult)
+     * 
+     * @since 1.10
+     */
+	public static <T> T runOptimistic(TransactionalEditingDomain domain,
+    		RunnableWithResult<? extends T> runnable) throws InterruptedException {
+    	
+    	TransactionalEditingDomain.OptimisticReads optimistic = getAdapter(
+    		domain, TransactionalEditingDomain.OptimisticReads.class);
+    	
+    	return (optimistic != null) ? optimistic.<T> runOptimistic(runnable)
+    		: TransactionUtil.<T> runExclusive(domain, runnable);
+    }
+    
     /**
      * Utility method for providing privileged access to runnables that
      * {@linkplain RunnableWithResult return values}.  The advantage of this